@@ -1,17 +1,38 @@
 package com.luixtech.rpc.core.client.faulttolerance.impl;
 
 import com.luixtech.rpc.core.client.faulttolerance.AbstractFaultTolerance;
+import com.luixtech.rpc.core.client.merger.ResultMerger;
 import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
 import com.luixtech.rpc.core.client.sender.Sendable;
+import com.luixtech.rpc.core.codec.SharedBody;
 import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.rpc.core.constant.ServiceConstants;
 import com.luixtech.rpc.core.exception.ExceptionUtils;
+import com.luixtech.rpc.core.exception.impl.RpcConfigException;
+import com.luixtech.rpc.core.server.response.FutureResponse;
 import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.server.response.impl.RpcFutureResponse;
+import com.luixtech.rpc.core.server.response.impl.RpcResponse;
+import com.luixtech.rpc.serializer.DeserializableResult;
 import com.luixtech.utilities.serviceloader.annotation.SpiName;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.luixtech.rpc.core.constant.ConsumerConstants.*;
+
+/**
+ * Broadcast fault tolerance strategy sends the request to all the providers concurrently,
+ * and the method arguments are serialized only once for all the connections.
+ * The returned response is completed when the successful responses reach the number required by the completion policy,
+ * or fails as soon as the number can not be reached.
+ * The results of the successful responses are merged if a result merger is configured.
+ */
 @Slf4j
 @SpiName(ConsumerConstants.FAULT_TOLERANCE_VAL_BROADCAST)
 public class BroadcastFaultTolerance extends AbstractFaultTolerance {
@@ -19,22 +40,134 @@ public class BroadcastFaultTolerance extends AbstractFaultTolerance {
     public Responseable invoke(Requestable request) {
         // Select all active senders
         List<Sendable> allActiveSenders = loadBalancer.selectAllActiveSenders(request);
+        if (allActiveSenders.size() == 1 || !(request instanceof RpcRequest)) {
+            return allActiveSenders.get(0).sendRequest(request);
+        }
+
+        int timeout = request.getIntOption(ServiceConstants.REQUEST_TIMEOUT, ServiceConstants.REQUEST_TIMEOUT_VAL_DEFAULT);
+        String mergerName = consumerUrl.getOption(BROADCAST_MERGER);
+        ResultMerger merger = StringUtils.isEmpty(mergerName) ? null : ResultMerger.getInstance(mergerName);
+        BroadcastResponse broadcastResponse = new BroadcastResponse(request, timeout, allActiveSenders.get(0),
+                allActiveSenders.size(), getRequiredCount(allActiveSenders.size()), merger);
+
+        SharedBody sharedBody = new SharedBody();
+        try {
+            for (Sendable sender : allActiveSenders) {
+                // Each connection assigns its own request ID, but the encoded body is shared
+                RpcRequest copy = ((RpcRequest) request).copy();
+                copy.setSharedBody(sharedBody);
+                // Send the copy asynchronously even for the synchronous method, the caller blocks on the broadcast response
+                copy.setAsync(true);
+                try {
+                    // Send RPC request without waiting for the response, so all the providers are called concurrently
+                    broadcastResponse.addAttempt(sender.sendRequest(copy));
+                } catch (RuntimeException e) {
+                    log.warn(MessageFormat.format("Failed to call {0}", sender.getProviderUrl()), e);
+                    broadcastResponse.onAttemptFailure(e);
+                }
+            }
+        } finally {
+            // The request has been encoded for all connections, and each of them holds its own reference of the body
+            sharedBody.release();
+        }
+        return broadcastResponse;
+    }
 
-        Responseable response = null;
-        for (Sendable sender : allActiveSenders) {
+    /**
+     * Get the number of successful responses required by the completion policy
+     *
+     * @param total total number of providers
+     * @return required number
+     */
+    private int getRequiredCount(int total) {
+        String policy = consumerUrl.getOption(BROADCAST_POLICY, BROADCAST_POLICY_VAL_DEFAULT);
+        switch (policy) {
+            case BROADCAST_POLICY_VAL_ALL:
+                return total;
+            case BROADCAST_POLICY_VAL_QUORUM:
+                return total / 2 + 1;
+            case BROADCAST_POLICY_VAL_FIRST:
+                return Math.min(Math.max(consumerUrl.getIntOption(BROADCAST_COUNT, BROADCAST_COUNT_VAL_DEFAULT), 1), total);
+            default:
+                throw new RpcConfigException("Broadcast policy [" + policy + "] does NOT exist!");
+        }
+    }
+
+    /**
+     * Response which is completed by the required number of successful attempts.
+     * The other attempts are not cancelled, because the request has been sent to the providers anyway.
+     */
+    private static class BroadcastResponse extends RpcFutureResponse {
+        private static final long         serialVersionUID = -2787215429624856386L;
+        private final        int          total;
+        private final        int          required;
+        private final        ResultMerger merger;
+        private final        List<Object> results          = new ArrayList<>();
+        private              int          failures;
+        private              boolean      completed;
+
+        BroadcastResponse(Requestable request, int timeout, Sendable first, int total, int required, ResultMerger merger) {
+            super(request, timeout, first.getProviderUrl());
+            this.total = total;
+            this.required = required;
+            this.merger = merger;
+        }
+
+        void addAttempt(Responseable attempt) {
+            if (attempt instanceof FutureResponse) {
+                ((FutureResponse) attempt).addListener(future -> onAttemptComplete(attempt));
+            } else {
+                onAttemptComplete(attempt);
+            }
+        }
+
+        private void onAttemptComplete(Responseable attempt) {
+            if (attempt.getException() != null) {
+                onAttemptFailure(attempt.getException());
+                return;
+            }
+            synchronized (results) {
+                if (completed) {
+                    return;
+                }
+                results.add(attempt.getResult());
+                if (results.size() < required) {
+                    return;
+                }
+                completed = true;
+            }
+            if (merger == null) {
+                onSuccess(attempt);
+                return;
+            }
             try {
-                // Send RPC request
-                response = sender.sendRequest(request);
-            } catch (RuntimeException e) {
-                if (ExceptionUtils.isBizException(e)) {
-                    // Throw the exception if it's a business one
-                    // Throw the exception when it exceeds the max retry times
-                    throw e;
+                onSuccess(RpcResponse.of(merger.merge(deserialize(results))));
+            } catch (Exception e) {
+                onFailure(RpcResponse.error(request, e));
+            }
+        }
+
+        void onAttemptFailure(Exception exception) {
+            synchronized (results) {
+                if (completed) {
+                    return;
+                }
+                failures++;
+                if (!ExceptionUtils.isBizException(exception) && total - failures >= required) {
+                    // The required number can still be reached
+                    return;
                 }
-                log.warn(MessageFormat.format("Failed to call {0}", sender.getProviderUrl()), e);
+                completed = true;
+            }
+            onFailure(RpcResponse.error(request, exception));
+        }
+
+        private static List<Object> deserialize(List<Object> results) throws IOException {
+            List<Object> values = new ArrayList<>(results.size());
+            for (Object result : results) {
+                values.add(result instanceof DeserializableResult ? ((DeserializableResult) result).deserialize() : result);
             }
+            return values;
         }
-        // Return the last response
-        return response;
     }
 }
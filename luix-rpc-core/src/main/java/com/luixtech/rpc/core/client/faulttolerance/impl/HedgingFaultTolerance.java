@@ -0,0 +1,222 @@
+package com.luixtech.rpc.core.client.faulttolerance.impl;
+
+import com.luixtech.rpc.core.client.faulttolerance.AbstractFaultTolerance;
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.client.sender.Sendable;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.rpc.core.constant.ServiceConstants;
+import com.luixtech.rpc.core.exception.ExceptionUtils;
+import com.luixtech.rpc.core.exception.impl.RpcCancelledException;
+import com.luixtech.rpc.core.server.response.FutureResponse;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.server.response.impl.RpcFutureResponse;
+import com.luixtech.rpc.core.server.response.impl.RpcResponse;
+import com.luixtech.rpc.core.thread.ScheduledThreadPool;
+import com.luixtech.rpc.core.utils.MethodParameterUtils;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.luixtech.rpc.core.constant.ConsumerConstants.*;
+
+/**
+ * Hedging fault tolerance strategy sends the request to one provider, and sends a backup request to another provider
+ * if no response has arrived within the hedge delay, then the first successful response wins and the others are cancelled.
+ * The hedge delay is either the configured value or the tracked percentile of the method latency.
+ * The backup requests are limited by a budget which is a percentage of the requests, so it can not amplify an overload.
+ * It must be used for idempotent operations only.
+ */
+@Slf4j
+@SpiName(ConsumerConstants.FAULT_TOLERANCE_VAL_HEDGING)
+public class HedgingFaultTolerance extends AbstractFaultTolerance {
+    /**
+     * Max tokens saved in the budget in hundredths
+     */
+    private static final int                        MAX_BUDGET_BALANCE = 10 * 100;
+    /**
+     * Balance of the hedge budget in hundredths of a backup request
+     */
+    private final        AtomicInteger              budgetBalance      = new AtomicInteger(0);
+    /**
+     * Method signature to latency window map
+     */
+    private final        Map<String, LatencyWindow> latencyWindows     = new ConcurrentHashMap<>();
+
+    @Override
+    public Responseable invoke(Requestable request) {
+        List<Sendable> allActiveSenders = loadBalancer.selectAllActiveSenders(request);
+        Sendable primary = allActiveSenders.get(0);
+        if (allActiveSenders.size() < 2 || !(request instanceof RpcRequest)) {
+            depositBudget();
+            return primary.sendRequest(request);
+        }
+
+        // Send the attempts asynchronously even for the synchronous method, otherwise the primary one blocks
+        // until the response arrives, and the caller blocks on the returned future response instead
+        Responseable response = primary.sendRequest(asyncCopy(request));
+        depositBudget();
+        if (!(response instanceof FutureResponse)) {
+            return response;
+        }
+
+        LatencyWindow latencyWindow = latencyWindows.computeIfAbsent(
+                MethodParameterUtils.getMethodSignature(request.getMethodName(), request.getMethodParameters()),
+                key -> new LatencyWindow());
+        long hedgeDelay = getHedgeDelay(latencyWindow);
+        if (hedgeDelay <= 0) {
+            trackLatency((FutureResponse) response, latencyWindow);
+            return response;
+        }
+
+        int timeout = request.getIntOption(ServiceConstants.REQUEST_TIMEOUT, ServiceConstants.REQUEST_TIMEOUT_VAL_DEFAULT);
+        HedgedResponse hedgedResponse = new HedgedResponse(request, timeout, primary, latencyWindow);
+        hedgedResponse.addAttempt((FutureResponse) response);
+        ScheduledThreadPool.scheduleDelayTask(ScheduledThreadPool.HEDGE_THREAD_POOL, hedgeDelay, () -> {
+            if (hedgedResponse.isDone() || !withdrawBudget()) {
+                return;
+            }
+            Sendable backup = allActiveSenders.get(1);
+            try {
+                Responseable backupResponse = backup.sendRequest(asyncCopy(request));
+                if (backupResponse instanceof FutureResponse) {
+                    hedgedResponse.addAttempt((FutureResponse) backupResponse);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to send hedged request to {}", backup.getProviderUrl(), e);
+            }
+        });
+        return hedgedResponse;
+    }
+
+    private RpcRequest asyncCopy(Requestable request) {
+        RpcRequest copy = ((RpcRequest) request).copy();
+        copy.setAsync(true);
+        return copy;
+    }
+
+    private long getHedgeDelay(LatencyWindow latencyWindow) {
+        int hedgeDelay = consumerUrl.getIntOption(HEDGE_DELAY, HEDGE_DELAY_VAL_DEFAULT);
+        if (hedgeDelay > 0) {
+            return hedgeDelay;
+        }
+        return latencyWindow.getPercentile(consumerUrl.getIntOption(HEDGE_PERCENTILE, HEDGE_PERCENTILE_VAL_DEFAULT));
+    }
+
+    private void trackLatency(FutureResponse response, LatencyWindow latencyWindow) {
+        long start = System.currentTimeMillis();
+        response.addListener(future -> {
+            if (future.isSuccess()) {
+                latencyWindow.add(System.currentTimeMillis() - start);
+            }
+        });
+    }
+
+    private void depositBudget() {
+        int percent = consumerUrl.getIntOption(HEDGE_BUDGET, HEDGE_BUDGET_VAL_DEFAULT);
+        budgetBalance.getAndUpdate(balance -> Math.min(balance + percent, MAX_BUDGET_BALANCE));
+    }
+
+    private boolean withdrawBudget() {
+        while (true) {
+            int balance = budgetBalance.get();
+            if (balance < 100) {
+                return false;
+            }
+            if (budgetBalance.compareAndSet(balance, balance - 100)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Response which is completed by the first successful attempt
+     */
+    private static class HedgedResponse extends RpcFutureResponse {
+        private static final long                 serialVersionUID = 4380264470738412045L;
+        private final        List<FutureResponse> attempts         = new CopyOnWriteArrayList<>();
+        private final        AtomicInteger        pending          = new AtomicInteger();
+        private final        LatencyWindow        latencyWindow;
+
+        HedgedResponse(Requestable request, int timeout, Sendable primary, LatencyWindow latencyWindow) {
+            super(request, timeout, primary.getProviderUrl());
+            this.latencyWindow = latencyWindow;
+        }
+
+        void addAttempt(FutureResponse attempt) {
+            attempts.add(attempt);
+            pending.incrementAndGet();
+            attempt.addListener(future -> onAttemptComplete(attempt));
+        }
+
+        private void onAttemptComplete(FutureResponse attempt) {
+            boolean last = pending.decrementAndGet() == 0;
+            if (isDone()) {
+                // The hedged response has been completed by another attempt
+                return;
+            }
+            Exception exception = attempt.getException();
+            if (exception == null) {
+                latencyWindow.add(System.currentTimeMillis() - createdTime);
+                onSuccess(attempt);
+                cancelOthers(attempt);
+            } else if (ExceptionUtils.isBizException(exception) || last) {
+                onFailure(RpcResponse.error(request, exception));
+                cancelOthers(attempt);
+            }
+        }
+
+        private void cancelOthers(FutureResponse winner) {
+            for (FutureResponse attempt : attempts) {
+                if (attempt != winner && attempt instanceof RpcFutureResponse) {
+                    ((RpcFutureResponse) attempt).cancel(new RpcCancelledException("Cancelled by hedged request"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sliding window of the recent latencies of a method, the percentile is recomputed periodically
+     */
+    private static class LatencyWindow {
+        private static final int    WINDOW_SIZE        = 128;
+        private static final int    RECOMPUTE_INTERVAL = 32;
+        private final        long[] samples            = new long[WINDOW_SIZE];
+        private              int    index;
+        private              int    size;
+        private              int    added;
+        private volatile     long[] sorted             = new long[0];
+
+        synchronized void add(long latency) {
+            samples[index] = latency;
+            index = (index + 1) % WINDOW_SIZE;
+            size = Math.min(size + 1, WINDOW_SIZE);
+            if (++added == RECOMPUTE_INTERVAL) {
+                added = 0;
+                long[] copy = Arrays.copyOf(samples, size);
+                Arrays.sort(copy);
+                sorted = copy;
+            }
+        }
+
+        /**
+         * Get the percentile of latency
+         *
+         * @param percentile percentile
+         * @return latency in milliseconds or 0 if there are not enough samples
+         */
+        long getPercentile(int percentile) {
+            long[] current = sorted;
+            if (current.length == 0) {
+                return 0;
+            }
+            return current[Math.min(current.length * percentile / 100, current.length - 1)];
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.luixtech.rpc.core.client.invocationhandler;
 
+import com.luixtech.rpc.core.client.invoker.ServiceInvoker;
 import com.luixtech.rpc.core.client.ratelimit.RateLimiter;
 import com.luixtech.rpc.core.client.request.Requestable;
 import com.luixtech.rpc.core.client.request.impl.RpcRequest;
@@ -7,23 +8,25 @@ import com.luixtech.rpc.core.client.stub.ConsumerStub;
 import com.luixtech.rpc.core.constant.ConsumerConstants;
 import com.luixtech.rpc.core.constant.ProtocolConstants;
 import com.luixtech.rpc.core.constant.RpcConstants;
-import com.luixtech.rpc.core.constant.ServiceConstants;
 import com.luixtech.rpc.core.exception.ExceptionUtils;
 import com.luixtech.rpc.core.exception.RpcAbstractException;
 import com.luixtech.rpc.core.exception.impl.RpcInvocationException;
+import com.luixtech.rpc.core.server.response.FutureResponse;
 import com.luixtech.rpc.core.server.response.Responseable;
 import com.luixtech.rpc.core.server.response.impl.RpcResponse;
 import com.luixtech.rpc.core.utils.MethodParameterUtils;
 import com.luixtech.rpc.core.utils.RpcConfigValidator;
+import com.luixtech.rpc.core.utils.RpcDeadlineHolder;
 import com.luixtech.rpc.metrics.MetricsUtils;
 import com.luixtech.rpc.serializer.DeserializableResult;
+import com.luixtech.uidgenerator.core.id.IdGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.Validate;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
 
-import static com.luixtech.rpc.core.utils.RpcFrameworkUtils.getMethodKey;
 import static com.luixtech.rpc.metrics.ResponseType.BIZ_EXCEPTION;
 import static com.luixtech.rpc.metrics.ResponseType.NORMAL;
 
@@ -35,31 +38,85 @@ public abstract class AbstractConsumerInvocationHandler<T> {
     protected ConsumerStub<T> consumerStub;
 
     /**
-     * @param request RPC request
-     * @param args    method arguments
+     * @param descriptor method descriptor
+     * @param args       method arguments
      * @return result of method
      */
-    protected Object process(RpcRequest request, Object[] args) {
+    protected Object process(ConsumerMethodDescriptor descriptor, Object[] args) {
         if (limitRate()) {
             log.warn("Rate limiting!");
             return null;
         }
 
+        RpcRequest request = createRequest(descriptor);
         validate(request, args);
+        prepareRequest(request, descriptor, args);
+        Object result = sendRequest(request, descriptor.getMethodKey());
+        result = processResult(result);
+        return result;
+    }
+
+    /**
+     * Process the request asynchronously, the returned future is completed by the callback executor of the invoker
+     * without blocking any thread, or completed exceptionally if the executor rejects it
+     *
+     * @param descriptor method descriptor
+     * @param args       method arguments
+     * @return future of method result
+     */
+    protected CompletableFuture<Object> processAsync(ConsumerMethodDescriptor descriptor, Object[] args) {
+        if (limitRate()) {
+            log.warn("Rate limiting!");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long start = System.currentTimeMillis();
+        RpcRequest request = createRequest(descriptor);
+        try {
+            validate(request, args);
+            prepareRequest(request, descriptor, args);
+            ServiceInvoker invoker = consumerStub.getInvokerInstance();
+            Responseable response = invoker.invoke(request);
+            CompletableFuture<Object> future;
+            if (response instanceof FutureResponse) {
+                future = ((FutureResponse) response).toCompletableFuture();
+            } else {
+                future = CompletableFuture.completedFuture(response == null ? null : response.getResult());
+            }
+            return future
+                    .thenApplyAsync(this::processResult, invoker.getCallbackExecutor())
+                    .whenComplete((result, t) -> {
+                        long elapsed = System.currentTimeMillis() - start;
+                        MetricsUtils.trackCall(descriptor.getMethodKey(), request.getRequestId(), elapsed, elapsed,
+                                RpcConstants.SLOW_EXE_THRESHOLD, t == null ? NORMAL : BIZ_EXCEPTION);
+                    });
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
+    /**
+     * Create a new RpcRequest for each request
+     *
+     * @param descriptor method descriptor
+     * @return RPC request
+     */
+    private RpcRequest createRequest(ConsumerMethodDescriptor descriptor) {
+        return new RpcRequest(IdGenerator.generateTimestampId(),
+                descriptor.getProtocol(),
+                descriptor.getInterfaceName(),
+                descriptor.getMethodName(),
+                descriptor.getMethodParameters(),
+                descriptor.isAsync());
+    }
+
+    private void prepareRequest(RpcRequest request, ConsumerMethodDescriptor descriptor, Object[] args) {
         // Set method arguments
         request.setMethodArguments(args);
-
-        // Set some options
-        request.addOption(ProtocolConstants.SERIALIZER, consumerStub.getSerializer());
-        request.addOption(ServiceConstants.FORM, consumerStub.getForm());
-        request.addOption(ServiceConstants.VERSION, consumerStub.getVersion());
-        request.addOption(ServiceConstants.REQUEST_TIMEOUT, consumerStub.getRequestTimeout());
-        request.addOption(ServiceConstants.RETRY_COUNT, consumerStub.getRetryCount());
-        request.addOption(ServiceConstants.MAX_PAYLOAD, consumerStub.getMaxPayload());
-        Object result = sendRequest(request);
-        result = processResult(result);
-        return result;
+        // Set the options precomputed by the descriptor
+        descriptor.getOptions().forEach(request::addOption);
+        // Inherit the remaining time of the request being processed if it is sent by a provider
+        request.setDeadline(RpcDeadlineHolder.getDeadline());
     }
 
     /**
@@ -77,10 +134,11 @@ public abstract class AbstractConsumerInvocationHandler<T> {
     }
 
     /**
-     * @param request RPC request
+     * @param request   RPC request
+     * @param methodKey method key used to track the metrics
      * @return result of method execution
      */
-    protected Object sendRequest(Requestable request) {
+    protected Object sendRequest(Requestable request, String methodKey) {
         Responseable response = null;
         // todo: add filters
         long start = System.currentTimeMillis();
@@ -90,8 +148,6 @@ public abstract class AbstractConsumerInvocationHandler<T> {
         } catch (Exception e) {
             return handleError(request, e);
         } finally {
-            String methodKey = getMethodKey(request.getProtocol(), request.getInterfaceName(),
-                    request.getMethodName(), request.getOption(ServiceConstants.FORM), request.getOption(ServiceConstants.VERSION));
             long end = System.currentTimeMillis();
             if (response != null) {
                 MetricsUtils.trackCall(methodKey, request.getRequestId(), end - start,
@@ -0,0 +1,92 @@
+package com.luixtech.rpc.core.client.invocationhandler;
+
+import com.luixtech.rpc.core.client.stub.ConsumerStub;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.constant.ServiceConstants;
+import com.luixtech.rpc.core.server.response.FutureResponse;
+import com.luixtech.rpc.core.utils.MethodParameterUtils;
+import com.luixtech.rpc.core.utils.RpcFrameworkUtils;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Immutable descriptor of a consumer method which is computed once per method,
+ * so that the request scaffolding does not need to be rebuilt on every call.
+ */
+@Getter
+@AllArgsConstructor
+public class ConsumerMethodDescriptor {
+    private final String              protocol;
+    private final String              interfaceName;
+    private final String              methodName;
+    /**
+     * Method parameters string. e.g, java.util.List,java.lang.Long
+     */
+    private final String              methodParameters;
+    private final boolean             async;
+    /**
+     * Indicates whether the return type is {@link CompletableFuture} or {@link CompletionStage}
+     */
+    private final boolean             completionStage;
+    /**
+     * Request options, e.g, serializer, form, version, request timeout and retry count
+     */
+    private final Map<String, String> options;
+    /**
+     * Method key used to track the metrics
+     */
+    private final String              methodKey;
+
+    /**
+     * Create the descriptor of the consumer method
+     *
+     * @param stub   consumer stub
+     * @param method consumer method
+     * @return method descriptor
+     */
+    public static ConsumerMethodDescriptor of(ConsumerStub<?> stub, Method method) {
+        Class<?> returnType = method.getReturnType();
+        boolean completionStage = returnType.equals(CompletableFuture.class) || returnType.equals(CompletionStage.class);
+        boolean async = returnType.equals(FutureResponse.class) || completionStage;
+        return of(stub, method.getName(), MethodParameterUtils.getMethodParameters(method), async, completionStage);
+    }
+
+    /**
+     * Create the descriptor of the consumer method
+     *
+     * @param stub             consumer stub
+     * @param methodName       method name
+     * @param methodParameters method parameters string
+     * @param async            async method or not
+     * @param completionStage  the method returns a completion stage or not
+     * @return method descriptor
+     */
+    public static ConsumerMethodDescriptor of(ConsumerStub<?> stub, String methodName, String methodParameters,
+                                              boolean async, boolean completionStage) {
+        Map<String, String> options = new HashMap<>(8);
+        putOption(options, ProtocolConstants.SERIALIZER, stub.getSerializer());
+        putOption(options, ServiceConstants.FORM, stub.getForm());
+        putOption(options, ServiceConstants.VERSION, stub.getVersion());
+        putOption(options, ServiceConstants.REQUEST_TIMEOUT, stub.getRequestTimeout());
+        putOption(options, ServiceConstants.RETRY_COUNT, stub.getRetryCount());
+        putOption(options, ServiceConstants.MAX_PAYLOAD, stub.getMaxPayload());
+        String methodKey = RpcFrameworkUtils.getMethodKey(stub.getProtocol(), stub.getInterfaceName(), methodName,
+                stub.getForm(), stub.getVersion());
+        return new ConsumerMethodDescriptor(stub.getProtocol(), stub.getInterfaceName(), methodName, methodParameters,
+                async, completionStage, Collections.unmodifiableMap(options), methodKey);
+    }
+
+    private static void putOption(Map<String, String> options, String key, Object value) {
+        if (value != null && StringUtils.isNotEmpty(value.toString())) {
+            options.put(key, value.toString());
+        }
+    }
+}
@@ -1,18 +1,18 @@
 package com.luixtech.rpc.core.client.invocationhandler.impl;
 
 import com.luixtech.rpc.core.client.invocationhandler.AbstractConsumerInvocationHandler;
+import com.luixtech.rpc.core.client.invocationhandler.ConsumerMethodDescriptor;
 import com.luixtech.rpc.core.client.invocationhandler.UniversalInvocationHandler;
 import com.luixtech.rpc.core.client.proxy.impl.JdkProxy;
-import com.luixtech.rpc.core.client.request.impl.RpcRequest;
 import com.luixtech.rpc.core.client.stub.ConsumerStub;
-import com.luixtech.rpc.core.server.response.FutureResponse;
 import com.luixtech.rpc.core.utils.MethodParameterUtils;
-import com.luixtech.uidgenerator.core.id.IdGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @param <T>: The interface class of the consumer
@@ -20,6 +20,10 @@ import java.lang.reflect.Method;
 @Slf4j
 public class ConsumerInvocationHandler<T> extends AbstractConsumerInvocationHandler<T>
         implements InvocationHandler, UniversalInvocationHandler {
+    /**
+     * Method descriptors cache used by the JDK proxy
+     */
+    private final Map<Method, ConsumerMethodDescriptor> descriptors = new ConcurrentHashMap<>();
 
     public ConsumerInvocationHandler(ConsumerStub<T> consumerStub) {
         super.consumerStub = consumerStub;
@@ -39,15 +43,21 @@ public class ConsumerInvocationHandler<T> extends AbstractConsumerInvocationHand
             // IDE may call the Object.toString() method if you set some break pointers.
             return JdkProxy.class.getSimpleName();
         }
+        return invoke(descriptors.computeIfAbsent(method, m -> ConsumerMethodDescriptor.of(consumerStub, m)), args);
+    }
 
-        // Create a new RpcRequest for each request
-        RpcRequest request = new RpcRequest(IdGenerator.generateTimestampId(),
-                consumerStub.getProtocol(),
-                consumerStub.getInterfaceName(),
-                method.getName(),
-                MethodParameterUtils.getMethodParameters(method),
-                isAsyncMethod(method));
-        return process(request, args);
+    /**
+     * Invoke the consumer method described by the precomputed descriptor, it is called by the generated proxy directly
+     *
+     * @param descriptor method descriptor
+     * @param args       consumer method arguments
+     * @return RPC invocation result
+     */
+    public Object invoke(ConsumerMethodDescriptor descriptor, Object[] args) {
+        if (descriptor.isCompletionStage()) {
+            return processAsync(descriptor, args);
+        }
+        return process(descriptor, args);
     }
 
     @Override
@@ -57,23 +67,9 @@ public class ConsumerInvocationHandler<T> extends AbstractConsumerInvocationHand
 
     @Override
     public Object invoke(String methodName, String[] methodParamTypes, Object[] args) {
-        // Create a new RpcRequest for each request
-        RpcRequest request = new RpcRequest(IdGenerator.generateTimestampId(),
-                consumerStub.getProtocol(),
-                consumerStub.getInterfaceName(),
-                methodName,
-                ArrayUtils.isEmpty(methodParamTypes) ? MethodParameterUtils.VOID : String.join(MethodParameterUtils.PARAM_TYPE_STR_DELIMITER, methodParamTypes),
-                false);
-        return process(request, args);
-    }
-
-    /**
-     * It is a asynchronous method calling if the return type of method is type of {@link FutureResponse}
-     *
-     * @param method method
-     * @return {@code true} if it was async call and {@code false} otherwise
-     */
-    private boolean isAsyncMethod(Method method) {
-        return method.getReturnType().equals(FutureResponse.class);
+        String methodParameters = ArrayUtils.isEmpty(methodParamTypes)
+                ? MethodParameterUtils.VOID
+                : String.join(MethodParameterUtils.PARAM_TYPE_STR_DELIMITER, methodParamTypes);
+        return process(ConsumerMethodDescriptor.of(consumerStub, methodName, methodParameters, false, false), args);
     }
 }
@@ -8,6 +8,8 @@ import com.luixtech.utilities.serviceloader.ServiceLoader;
 import com.luixtech.utilities.serviceloader.annotation.Spi;
 import com.luixtech.utilities.serviceloader.annotation.SpiScope;
 
+import java.util.concurrent.Executor;
+
 /**
  * A service invoker used to invoke service provider at client side
  * One invoker for one protocol
@@ -63,6 +65,14 @@ public interface ServiceInvoker {
      */
     FaultTolerance getFaultTolerance();
 
+    /**
+     * Get the executor which completes the results of the asynchronous calls,
+     * it rejects the results once its queue is full and is shut down when the invoker is destroyed
+     *
+     * @return callback executor
+     */
+    Executor getCallbackExecutor();
+
     /**
      * Destroy
      */
@@ -14,6 +14,11 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Only one service provider can process one request
@@ -24,17 +29,25 @@ import org.apache.commons.lang3.StringUtils;
 @Setter
 @Getter
 public class DefaultServiceInvoker implements ServiceInvoker {
-    private boolean        active = false;
-    private String         interfaceName;
-    private FaultTolerance faultTolerance;
+    private boolean            active = false;
+    private String             interfaceName;
+    private FaultTolerance     faultTolerance;
+    /**
+     * Bounded thread pool which deserializes the results of the asynchronous calls and runs the continuations of caller,
+     * so that neither of them blocks the network I/O threads
+     */
+    private ThreadPoolExecutor callbackExecutor;
 
     @Override
     public void init(String interfaceName, String faultToleranceName, String loadBalancerName, Url consumerUrl) {
         this.setInterfaceName(interfaceName);
         FaultTolerance faultTolerance = FaultTolerance.getInstance(faultToleranceName);
-        faultTolerance.setLoadBalancer(LoadBalancer.getInstance(loadBalancerName));
+        LoadBalancer loadBalancer = LoadBalancer.getInstance(loadBalancerName);
+        loadBalancer.setConsumerUrl(consumerUrl);
+        faultTolerance.setLoadBalancer(loadBalancer);
         faultTolerance.setConsumerUrl(consumerUrl);
         this.setFaultTolerance(faultTolerance);
+        callbackExecutor = createCallbackExecutor(consumerUrl);
         active = true;
         ShutdownHook.add(this::destroy);
     }
@@ -43,6 +56,18 @@ public class DefaultServiceInvoker implements ServiceInvoker {
     public void destroy() {
         active = false;
         faultTolerance.destroy();
+        callbackExecutor.shutdown();
+    }
+
+    private ThreadPoolExecutor createCallbackExecutor(Url consumerUrl) {
+        int threads = Math.max(consumerUrl.getIntOption(ConsumerConstants.CALLBACK_THREADS, ConsumerConstants.CALLBACK_THREADS_VAL_DEFAULT), 1);
+        int queueSize = Math.max(consumerUrl.getIntOption(ConsumerConstants.CALLBACK_QUEUE_SIZE, ConsumerConstants.CALLBACK_QUEUE_SIZE_VAL_DEFAULT), 1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new BasicThreadFactory.Builder().namingPattern(interfaceName + "-callback-%d").daemon(true).build());
+        // The consumers without asynchronous calls keep no thread
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     /**
@@ -4,6 +4,7 @@ import com.luixtech.rpc.core.client.request.Requestable;
 import com.luixtech.rpc.core.client.sender.Sendable;
 import com.luixtech.rpc.core.exception.impl.RpcInvocationException;
 import com.luixtech.rpc.core.thread.ScheduledThreadPool;
+import com.luixtech.rpc.core.url.Url;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 
@@ -17,8 +18,14 @@ import java.util.List;
  */
 @Slf4j
 public abstract class AbstractLoadBalancer implements LoadBalancer {
+    protected Url            consumerUrl;
     protected List<Sendable> requestSenders;
 
+    @Override
+    public void setConsumerUrl(Url consumerUrl) {
+        this.consumerUrl = consumerUrl;
+    }
+
     /**
      * Update RPC request senders
      *
@@ -29,6 +36,10 @@ public abstract class AbstractLoadBalancer implements LoadBalancer {
         List<Sendable> oldSenders = this.requestSenders;
         // Assign new values
         this.requestSenders = newSenders;
+        if (CollectionUtils.isNotEmpty(newSenders)) {
+            // Limit the ejected providers within the senders of the service
+            newSenders.forEach(sender -> sender.getCircuitBreaker().setCluster(newSenders));
+        }
         if (CollectionUtils.isEmpty(oldSenders)) {
             return;
         }
@@ -4,6 +4,7 @@ import com.luixtech.rpc.core.client.faulttolerance.FaultTolerance;
 import com.luixtech.rpc.core.client.request.Requestable;
 import com.luixtech.rpc.core.client.sender.Sendable;
 import com.luixtech.rpc.core.exception.impl.RpcConfigException;
+import com.luixtech.rpc.core.url.Url;
 import com.luixtech.utilities.serviceloader.ServiceLoader;
 import com.luixtech.utilities.serviceloader.annotation.Spi;
 import com.luixtech.utilities.serviceloader.annotation.SpiScope;
@@ -16,6 +17,13 @@ import java.util.Optional;
  */
 @Spi(scope = SpiScope.PROTOTYPE)
 public interface LoadBalancer {
+    /**
+     * Set the consumer url which holds the options of load balancer
+     *
+     * @param consumerUrl consumer url
+     */
+    void setConsumerUrl(Url consumerUrl);
+
     /**
      * Get RPC request senders
      *
@@ -0,0 +1,190 @@
+package com.luixtech.rpc.core.client.loadbalancer.impl;
+
+import com.luixtech.rpc.core.client.loadbalancer.AbstractLoadBalancer;
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.sender.Sendable;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.url.Url;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static com.luixtech.rpc.core.constant.ConsumerConstants.*;
+
+/**
+ * Ketama consistent hash load balancer with bounded loads.
+ * The hash key is built from the method arguments at the indexes specified by {@link ConsumerConstants#HASH_ARGUMENTS},
+ * so the requests with the same key are routed to the same provider.
+ * A provider whose in-flight requests exceed {@code hashLoadFactor / 100} times of the average is skipped and
+ * the request spills over to the next provider on the ring, so a hot key can not overload one provider.
+ * The virtual nodes of the unchanged providers are reused when the senders are refreshed.
+ */
+@SpiName(ConsumerConstants.LOAD_BALANCER_VAL_CONSISTENT_HASH)
+public class ConsistentHashLoadBalancer extends AbstractLoadBalancer {
+    /**
+     * Provider address to hashes of virtual nodes map
+     */
+    private final    Map<String, long[]>          nodeHashes    = new HashMap<>();
+    private volatile NavigableMap<Long, Sendable> ring          = new TreeMap<>();
+    private          int                          virtualNodes  = VIRTUAL_NODES_VAL_DEFAULT;
+    private volatile int[]                        hashArguments = new int[]{0};
+    private volatile int                          loadFactor    = HASH_LOAD_FACTOR_VAL_DEFAULT;
+
+    @Override
+    public synchronized void setConsumerUrl(Url consumerUrl) {
+        super.setConsumerUrl(consumerUrl);
+        virtualNodes = Math.max(consumerUrl.getIntOption(VIRTUAL_NODES, VIRTUAL_NODES_VAL_DEFAULT), 1);
+        hashArguments = parseHashArguments(consumerUrl.getOption(HASH_ARGUMENTS, HASH_ARGUMENTS_VAL_DEFAULT));
+        loadFactor = Math.max(consumerUrl.getIntOption(HASH_LOAD_FACTOR, HASH_LOAD_FACTOR_VAL_DEFAULT), 100);
+    }
+
+    @Override
+    public synchronized void refresh(List<Sendable> newSenders) {
+        super.refresh(newSenders);
+        if (CollectionUtils.isEmpty(newSenders)) {
+            nodeHashes.clear();
+            ring = new TreeMap<>();
+            return;
+        }
+        Set<String> addresses = new HashSet<>();
+        NavigableMap<Long, Sendable> newRing = new TreeMap<>();
+        for (Sendable sender : newSenders) {
+            String address = sender.getProviderUrl().getAddress();
+            addresses.add(address);
+            long[] hashes = nodeHashes.get(address);
+            if (hashes == null || hashes.length != virtualNodes) {
+                hashes = createNodeHashes(address, virtualNodes);
+                nodeHashes.put(address, hashes);
+            }
+            for (long hash : hashes) {
+                newRing.put(hash, sender);
+            }
+        }
+        nodeHashes.keySet().retainAll(addresses);
+        ring = newRing;
+    }
+
+    @Override
+    protected Sendable doSelectSender(Requestable request) {
+        NavigableMap<Long, Sendable> current = ring;
+        if (current.isEmpty()) {
+            return null;
+        }
+        List<Sendable> senders = requestSenders;
+        int totalCount = 0;
+        for (Sendable sender : senders) {
+            totalCount += sender.getProcessingCount();
+        }
+        // Bounded loads: ceil(loadFactor * (total + 1) / n)
+        long capacity = ((long) loadFactor * (totalCount + 1) + 100L * senders.size() - 1) / (100L * senders.size());
+
+        Sendable firstActive = null;
+        Set<Sendable> visited = new HashSet<>();
+        for (Sendable sender : walk(current, hash(buildKey(request)))) {
+            if (!visited.add(sender) || !sender.isActive()) {
+                continue;
+            }
+            if (sender.getProcessingCount() < capacity) {
+                return sender;
+            }
+            if (firstActive == null) {
+                firstActive = sender;
+            }
+            if (visited.size() == senders.size()) {
+                break;
+            }
+        }
+        return firstActive;
+    }
+
+    @Override
+    protected List<Sendable> doSelectSenders(Requestable request) {
+        NavigableMap<Long, Sendable> current = ring;
+        // Select senders in the order of the ring from the key
+        Set<Sendable> visited = new LinkedHashSet<>();
+        for (Sendable sender : walk(current, hash(buildKey(request)))) {
+            if (visited.add(sender) && visited.size() == requestSenders.size()) {
+                break;
+            }
+        }
+        List<Sendable> selected = new ArrayList<>(visited.size());
+        for (Sendable sender : visited) {
+            if (sender.isActive()) {
+                selected.add(sender);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Walk the ring clockwise lazily from the specified hash
+     *
+     * @param ring hash ring
+     * @param hash start hash
+     * @return senders of the virtual nodes
+     */
+    private static Iterable<Sendable> walk(NavigableMap<Long, Sendable> ring, long hash) {
+        return Stream.concat(ring.tailMap(hash, true).values().stream(), ring.headMap(hash, false).values().stream())::iterator;
+    }
+
+    private String buildKey(Requestable request) {
+        Object[] args = request.getMethodArguments();
+        if (ArrayUtils.isEmpty(args)) {
+            return request.getMethodName();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int index : hashArguments) {
+            if (index >= 0 && index < args.length) {
+                sb.append(args[index]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int[] parseHashArguments(String value) {
+        return Arrays.stream(StringUtils.split(value, ','))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    private static long[] createNodeHashes(String address, int virtualNodes) {
+        long[] hashes = new long[virtualNodes];
+        // Each MD5 digest generates four hashes
+        for (int i = 0; i < virtualNodes / 4 + 1; i++) {
+            byte[] digest = md5(address + "-" + i);
+            for (int h = 0; h < 4 && i * 4 + h < virtualNodes; h++) {
+                hashes[i * 4 + h] = hash(digest, h);
+            }
+        }
+        return hashes;
+    }
+
+    private static long hash(String key) {
+        return hash(md5(key), 0);
+    }
+
+    private static long hash(byte[] digest, int number) {
+        return (((long) (digest[3 + number * 4] & 0xFF) << 24)
+                | ((long) (digest[2 + number * 4] & 0xFF) << 16)
+                | ((long) (digest[1 + number * 4] & 0xFF) << 8)
+                | (digest[number * 4] & 0xFF))
+                & 0xFFFFFFFFL;
+    }
+
+    private static byte[] md5(String value) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RpcFrameworkException("Failed to create MD5 digest", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.luixtech.rpc.core.client.loadbalancer.impl;
+
+import com.luixtech.rpc.core.client.loadbalancer.AbstractLoadBalancer;
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.sender.Sendable;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Select the active sender with the fewest in-flight requests, the ties are broken randomly.
+ */
+@SpiName(ConsumerConstants.LOAD_BALANCER_VAL_LEAST_ACTIVE)
+public class LeastActiveLoadBalancer extends AbstractLoadBalancer {
+
+    @Override
+    protected Sendable doSelectSender(Requestable request) {
+        List<Sendable> senders = requestSenders;
+        Sendable selected = null;
+        int leastCount = Integer.MAX_VALUE;
+        int ties = 0;
+        for (Sendable sender : senders) {
+            if (!sender.isActive()) {
+                continue;
+            }
+            int count = sender.getProcessingCount();
+            if (count < leastCount) {
+                leastCount = count;
+                selected = sender;
+                ties = 1;
+            } else if (count == leastCount && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                // Reservoir sampling among the senders with the same count
+                selected = sender;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    protected List<Sendable> doSelectSenders(Requestable request) {
+        return requestSenders.stream()
+                .filter(Sendable::isActive)
+                .sorted(Comparator.comparingInt(Sendable::getProcessingCount))
+                .collect(Collectors.toList());
+    }
+}
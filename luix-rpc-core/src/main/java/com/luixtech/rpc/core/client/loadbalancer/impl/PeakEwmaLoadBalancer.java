@@ -0,0 +1,90 @@
+package com.luixtech.rpc.core.client.loadbalancer.impl;
+
+import com.luixtech.rpc.core.client.loadbalancer.AbstractLoadBalancer;
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.sender.Sendable;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+import org.apache.commons.collections4.CollectionUtils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Power of two choices load balancer which samples two senders randomly and selects the one with the lower
+ * score of {@code (in-flight requests + 1) * peak EWMA latency}.
+ */
+@SpiName(ConsumerConstants.LOAD_BALANCER_VAL_PEAK_EWMA)
+public class PeakEwmaLoadBalancer extends AbstractLoadBalancer {
+
+    @Override
+    public synchronized void refresh(List<Sendable> newSenders) {
+        List<Sendable> oldSenders = requestSenders;
+        super.refresh(newSenders);
+        if (CollectionUtils.isEmpty(oldSenders) || CollectionUtils.isEmpty(newSenders)) {
+            return;
+        }
+        // Seed the new senders with the mean latency of the existing ones
+        double total = 0;
+        int count = 0;
+        for (Sendable sender : newSenders) {
+            if (oldSenders.contains(sender) && sender.getPeakEwmaLatency() > 0) {
+                total += sender.getPeakEwmaLatency();
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        double mean = total / count;
+        newSenders.stream()
+                .filter(sender -> !oldSenders.contains(sender))
+                .forEach(sender -> sender.seedPeakEwmaLatency(mean));
+    }
+
+    @Override
+    protected Sendable doSelectSender(Requestable request) {
+        List<Sendable> senders = requestSenders;
+        int size = senders.size();
+        if (size < 2) {
+            // The senders may be refreshed after the size was checked by caller
+            return size == 1 && senders.get(0).isActive() ? senders.get(0) : null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        // Make sure the second one is different from the first one
+        int second = (first + 1 + random.nextInt(size - 1)) % size;
+        Sendable a = senders.get(first);
+        Sendable b = senders.get(second);
+        if (a.isActive() && b.isActive()) {
+            return getScore(a) <= getScore(b) ? a : b;
+        }
+        if (a.isActive() || b.isActive()) {
+            return a.isActive() ? a : b;
+        }
+        // Both samples are inactive, select the best one from all the active senders
+        Sendable selected = null;
+        double lowestScore = Double.MAX_VALUE;
+        for (Sendable sender : senders) {
+            if (sender.isActive() && getScore(sender) < lowestScore) {
+                lowestScore = getScore(sender);
+                selected = sender;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    protected List<Sendable> doSelectSenders(Requestable request) {
+        return requestSenders.stream()
+                .filter(Sendable::isActive)
+                .sorted(Comparator.comparingDouble(PeakEwmaLoadBalancer::getScore))
+                .collect(Collectors.toList());
+    }
+
+    private static double getScore(Sendable sender) {
+        return (sender.getProcessingCount() + 1) * sender.getPeakEwmaLatency();
+    }
+}
@@ -0,0 +1,105 @@
+package com.luixtech.rpc.core.client.loadbalancer.impl;
+
+import com.luixtech.rpc.core.client.loadbalancer.AbstractLoadBalancer;
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.sender.Sendable;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.rpc.core.url.Url;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.luixtech.rpc.core.constant.ProviderConstants.*;
+
+/**
+ * Smooth weighted round-robin load balancer in the style of nginx.
+ * The effective weight of a provider ramps up linearly from 1 to its weight in the warmup period
+ * after it is activated, so a cold provider is not hit at full rate.
+ */
+@SpiName(ConsumerConstants.LOAD_BALANCER_VAL_ROUND_ROBIN)
+public class RoundRobinLoadBalancer extends AbstractLoadBalancer {
+    /**
+     * Provider address to current weight map
+     */
+    private final Map<String, Long> currentWeights = new HashMap<>();
+
+    @Override
+    public synchronized void refresh(List<Sendable> newSenders) {
+        super.refresh(newSenders);
+        if (CollectionUtils.isEmpty(newSenders)) {
+            currentWeights.clear();
+            return;
+        }
+        Set<String> addresses = newSenders.stream()
+                .map(sender -> sender.getProviderUrl().getAddress())
+                .collect(Collectors.toSet());
+        currentWeights.keySet().retainAll(addresses);
+    }
+
+    @Override
+    protected synchronized Sendable doSelectSender(Requestable request) {
+        long now = System.currentTimeMillis();
+        long totalWeight = 0;
+        Sendable selected = null;
+        long selectedWeight = Long.MIN_VALUE;
+        for (Sendable sender : requestSenders) {
+            if (!sender.isActive()) {
+                continue;
+            }
+            int weight = getEffectiveWeight(sender.getProviderUrl(), now);
+            String address = sender.getProviderUrl().getAddress();
+            long current = currentWeights.getOrDefault(address, 0L) + weight;
+            currentWeights.put(address, current);
+            totalWeight += weight;
+            if (current > selectedWeight) {
+                selectedWeight = current;
+                selected = sender;
+            }
+        }
+        if (selected != null) {
+            currentWeights.put(selected.getProviderUrl().getAddress(), selectedWeight - totalWeight);
+        }
+        return selected;
+    }
+
+    @Override
+    protected List<Sendable> doSelectSenders(Requestable request) {
+        Sendable first = doSelectSender(request);
+        List<Sendable> selected = new ArrayList<>();
+        if (first == null) {
+            return selected;
+        }
+        selected.add(first);
+        for (Sendable sender : requestSenders) {
+            if (sender != first && sender.isActive()) {
+                selected.add(sender);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Get the weight which is reduced in proportion to the uptime during the warmup period
+     *
+     * @param url provider url
+     * @param now current time in milliseconds
+     * @return effective weight
+     */
+    private static int getEffectiveWeight(Url url, long now) {
+        int weight = Math.max(url.getIntOption(WEIGHT, WEIGHT_VAL_DEFAULT), 0);
+        long activatedTime = NumberUtils.toLong(url.getOption(Url.PARAM_ACTIVATED_TIME), 0L);
+        int warmup = url.getIntOption(WARMUP, WARMUP_VAL_DEFAULT);
+        if (weight == 0 || activatedTime <= 0 || warmup <= 0) {
+            return weight;
+        }
+        // The clock of provider may be ahead of the consumer one
+        long uptime = Math.max(now - activatedTime, 0);
+        if (uptime >= warmup) {
+            return weight;
+        }
+        return (int) Math.max(1, weight * uptime / warmup);
+    }
+}
@@ -0,0 +1,36 @@
+package com.luixtech.rpc.core.client.merger;
+
+import com.luixtech.rpc.core.exception.impl.RpcConfigException;
+import com.luixtech.utilities.serviceloader.ServiceLoader;
+import com.luixtech.utilities.serviceloader.annotation.Spi;
+import com.luixtech.utilities.serviceloader.annotation.SpiScope;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Result merger used to merge the results of the same request returned by multiple providers into one.
+ */
+@Spi(scope = SpiScope.SINGLETON)
+public interface ResultMerger {
+
+    /**
+     * Merge the results
+     *
+     * @param results deserialized results in the order of completion, the element may be null
+     * @return merged result
+     */
+    Object merge(List<Object> results);
+
+    /**
+     * Get instance associated with the specified name
+     *
+     * @param name specified name
+     * @return instance
+     */
+    static ResultMerger getInstance(String name) {
+        return Optional.ofNullable(ServiceLoader.forClass(ResultMerger.class).load(name))
+                .orElseThrow(() -> new RpcConfigException("Result merger [" + name + "] does NOT exist, " +
+                        "please check whether the correct dependency is in your class path!"));
+    }
+}
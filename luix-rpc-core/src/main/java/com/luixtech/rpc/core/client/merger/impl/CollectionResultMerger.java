@@ -0,0 +1,40 @@
+package com.luixtech.rpc.core.client.merger.impl;
+
+import com.luixtech.rpc.core.client.merger.ResultMerger;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+
+import java.util.*;
+
+/**
+ * Merges the collections into a list or set, the maps into a map and the booleans by logical AND.
+ * The first non-null result is returned for the other types.
+ */
+@SpiName(ConsumerConstants.BROADCAST_MERGER_VAL_COLLECTION)
+public class CollectionResultMerger implements ResultMerger {
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object merge(List<Object> results) {
+        Object first = results.stream().filter(Objects::nonNull).findFirst().orElse(null);
+        if (first instanceof Set) {
+            Set merged = new LinkedHashSet<>();
+            results.stream().filter(Objects::nonNull).forEach(result -> merged.addAll((Collection) result));
+            return merged;
+        }
+        if (first instanceof Collection) {
+            List merged = new ArrayList<>();
+            results.stream().filter(Objects::nonNull).forEach(result -> merged.addAll((Collection) result));
+            return merged;
+        }
+        if (first instanceof Map) {
+            Map merged = new LinkedHashMap<>();
+            results.stream().filter(Objects::nonNull).forEach(result -> merged.putAll((Map) result));
+            return merged;
+        }
+        if (first instanceof Boolean) {
+            return results.stream().allMatch(Boolean.TRUE::equals);
+        }
+        return first;
+    }
+}
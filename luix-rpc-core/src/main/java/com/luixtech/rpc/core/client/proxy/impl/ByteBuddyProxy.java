@@ -0,0 +1,93 @@
+package com.luixtech.rpc.core.client.proxy.impl;
+
+import com.luixtech.rpc.core.client.invocationhandler.ConsumerMethodDescriptor;
+import com.luixtech.rpc.core.client.invocationhandler.UniversalInvocationHandler;
+import com.luixtech.rpc.core.client.invocationhandler.impl.ConsumerInvocationHandler;
+import com.luixtech.rpc.core.client.proxy.Proxy;
+import com.luixtech.rpc.core.client.stub.ConsumerStub;
+import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.FixedValue;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static com.luixtech.rpc.core.constant.ConsumerConstants.PROXY_VAL_BYTEBUDDY;
+import static net.bytebuddy.matcher.ElementMatchers.*;
+
+/**
+ * Proxy which generates a concrete class implementing the consumer interface when the consumer stub is initialized.
+ * Each generated method passes its precomputed {@link ConsumerMethodDescriptor} and arguments to
+ * {@link ConsumerInvocationHandler#invoke(ConsumerMethodDescriptor, Object[])} directly,
+ * so there is no reflective dispatch or method signature building on every call.
+ */
+@SpiName(PROXY_VAL_BYTEBUDDY)
+public class ByteBuddyProxy implements Proxy {
+    private static final Method INVOKE_METHOD;
+
+    static {
+        try {
+            INVOKE_METHOD = ConsumerInvocationHandler.class.getMethod("invoke", ConsumerMethodDescriptor.class, Object[].class);
+        } catch (NoSuchMethodException e) {
+            throw new RpcFrameworkException("Failed to find the invoke method of consumer invocation handler", e);
+        }
+    }
+
+    /**
+     * Get implementation proxy of consumer interface class
+     *
+     * @param stub Consumer stub
+     * @param <T>  The interface class of the consumer
+     * @return The consumer proxy instance
+     */
+    @SuppressWarnings({"unchecked"})
+    @Override
+    public <T> T getProxy(ConsumerStub<T> stub) {
+        ConsumerInvocationHandler<T> handler = new ConsumerInvocationHandler<>(stub);
+        DynamicType.Builder<Object> builder = new ByteBuddy()
+                .subclass(Object.class)
+                .implement(stub.getInterfaceClass())
+                // IDE may call the Object.toString() method if you set some break pointers.
+                .method(isToString())
+                .intercept(FixedValue.value(ByteBuddyProxy.class.getSimpleName()));
+
+        for (Method method : stub.getInterfaceClass().getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            builder = builder
+                    .method(named(method.getName()).and(takesArguments(method.getParameterTypes())))
+                    .intercept(MethodCall.invoke(INVOKE_METHOD)
+                            .on(handler)
+                            .with(ConsumerMethodDescriptor.of(stub, method))
+                            .withArgumentArray()
+                            .withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC));
+        }
+
+        try {
+            Class<?> proxyClass = builder
+                    .make()
+                    .load(Thread.currentThread().getContextClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded();
+            return (T) proxyClass.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new RpcFrameworkException("Failed to generate proxy class for [" + stub.getInterfaceName() + "]", e);
+        }
+    }
+
+    /**
+     * Create universal RPC invocation handler
+     *
+     * @param stub Consumer stub
+     * @return Universal RPC invocation handler
+     */
+    @Override
+    public UniversalInvocationHandler createUniversalInvocationHandler(ConsumerStub<?> stub) {
+        return new ConsumerInvocationHandler<>(stub);
+    }
+}
@@ -4,6 +4,13 @@ import com.luixtech.rpc.core.exchange.Exchangable;
 
 public interface Requestable extends Exchangable {
 
+    /**
+     * Set request ID, the transport may replace it with the sequence number of the connection
+     *
+     * @param requestId request ID
+     */
+    void setRequestId(long requestId);
+
     /**
      * Get provider interface name
      *
@@ -62,6 +69,48 @@ public interface Requestable extends Exchangable {
      */
     int getSerializerId();
 
+    /**
+     * Set the compressor ID of message body, 0 means no compressor
+     *
+     * @param compressorId compressor ID
+     */
+    void setCompressorId(int compressorId);
+
+    /**
+     * Get the compressor ID of message body
+     *
+     * @return compressor ID
+     */
+    int getCompressorId();
+
+    /**
+     * Set the method ID negotiated with provider, 0 means no method ID
+     *
+     * @param methodId method ID
+     */
+    void setMethodId(int methodId);
+
+    /**
+     * Get the method ID negotiated with provider
+     *
+     * @return method ID
+     */
+    int getMethodId();
+
+    /**
+     * Set the deadline of the request, the provider drops the request if it can not be executed before the deadline
+     *
+     * @param deadline deadline in milliseconds, 0 means no deadline
+     */
+    void setDeadline(long deadline);
+
+    /**
+     * Get the deadline of the request
+     *
+     * @return deadline in milliseconds, 0 means no deadline
+     */
+    long getDeadline();
+
     /**
      * Decide whether it is a asynchronous calling
      *
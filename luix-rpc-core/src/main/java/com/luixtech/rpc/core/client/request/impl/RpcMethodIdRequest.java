@@ -0,0 +1,39 @@
+package com.luixtech.rpc.core.client.request.impl;
+
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.utils.MethodParameterUtils;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Handshake request used to get the method IDs assigned by provider after the connection has been established
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class RpcMethodIdRequest extends RpcRequest {
+    private static final long   serialVersionUID         = -2853745710264517326L;
+    public static final  String METHOD_ID_INTERFACE_NAME = "com.luixtech.rpc.method.IdTable";
+    public static final  String METHOD_ID_METHOD_NAME    = "getMethodIds";
+    public static final  String METHOD_ID_METHOD_PARAM   = MethodParameterUtils.VOID;
+
+    public RpcMethodIdRequest(long requestId) {
+        this.requestId = requestId;
+        this.interfaceName = METHOD_ID_INTERFACE_NAME;
+        this.methodName = METHOD_ID_METHOD_NAME;
+        this.methodParameters = METHOD_ID_METHOD_PARAM;
+    }
+
+    public static boolean isMethodIdRequest(Object message) {
+        if (!(message instanceof Requestable)) {
+            return false;
+        }
+        if (message instanceof RpcMethodIdRequest) {
+            return true;
+        }
+        Requestable request = (Requestable) message;
+        return METHOD_ID_INTERFACE_NAME.equals(request.getInterfaceName())
+                && METHOD_ID_METHOD_NAME.equals(request.getMethodName());
+    }
+}
@@ -1,6 +1,7 @@
 package com.luixtech.rpc.core.client.request.impl;
 
 import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.codec.SharedBody;
 import com.luixtech.rpc.core.protocol.constants.ProtocolVersion;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -48,6 +49,24 @@ public class RpcRequest implements Requestable, Serializable {
      * Default serialization is Hessian2
      */
     protected            int                 serializerId;
+    /**
+     * Compressor of message body, 0 means no compressor
+     */
+    protected            int                 compressorId;
+    /**
+     * Method ID negotiated with provider, 0 means no method ID
+     */
+    protected            int                 methodId;
+    /**
+     * Deadline in milliseconds of the local clock, 0 means no deadline.
+     * It is inherited from the request being processed if the request is sent by a provider.
+     */
+    protected            long                deadline;
+    /**
+     * Encoded body shared by the copies of the request which are sent to multiple providers
+     */
+    @ToString.Exclude
+    protected transient  SharedBody          sharedBody;
 
     public RpcRequest(long requestId, String protocol, String interfaceName,
                       String methodName, String methodParameters, boolean async) {
@@ -123,4 +142,25 @@ public class RpcRequest implements Requestable, Serializable {
     public String getTrace(String key) {
         return traces.get(key);
     }
+
+    /**
+     * Create a copy which can be sent to another provider concurrently,
+     * because the request ID is reassigned by the connection when it is sent
+     *
+     * @return copy of the request
+     */
+    public RpcRequest copy() {
+        RpcRequest copy = new RpcRequest(requestId, protocol, interfaceName, methodName, methodParameters, async);
+        copy.protocolVersion = protocolVersion;
+        copy.methodArguments = methodArguments;
+        copy.retryNumber = retryNumber;
+        copy.traces = new ConcurrentHashMap<>(traces);
+        copy.options = new ConcurrentHashMap<>(options);
+        copy.serializerId = serializerId;
+        copy.compressorId = compressorId;
+        copy.methodId = methodId;
+        copy.deadline = deadline;
+        copy.sharedBody = sharedBody;
+        return copy;
+    }
 }
@@ -1,6 +1,8 @@
 package com.luixtech.rpc.core.client.sender;
 
 import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.exception.ExceptionUtils;
+import com.luixtech.rpc.core.exception.impl.RpcCancelledException;
 import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
 import com.luixtech.rpc.core.server.response.Responseable;
 import com.luixtech.rpc.core.url.Url;
@@ -11,15 +13,18 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 public abstract class AbstractRequestSender implements Sendable {
-    protected          String        interfaceName;
-    protected          Url           providerUrl;
-    protected          AtomicBoolean initialized     = new AtomicBoolean(false);
-    protected          AtomicInteger processingCount = new AtomicInteger(0);
-    protected volatile boolean       active          = false;
+    protected          String          interfaceName;
+    protected          Url             providerUrl;
+    protected          AtomicBoolean   initialized     = new AtomicBoolean(false);
+    protected          AtomicInteger   processingCount = new AtomicInteger(0);
+    protected          PeakEwmaLatency latency         = new PeakEwmaLatency();
+    protected          CircuitBreaker  circuitBreaker;
+    protected volatile boolean         active          = false;
 
-    public AbstractRequestSender(String interfaceName, Url providerUrl) {
+    public AbstractRequestSender(String interfaceName, Url providerUrl, Url consumerUrl) {
         this.interfaceName = interfaceName;
         this.providerUrl = providerUrl;
+        this.circuitBreaker = new CircuitBreaker(providerUrl, consumerUrl);
     }
 
     protected void init() {
@@ -38,19 +43,46 @@ public abstract class AbstractRequestSender implements Sendable {
         if (!active) {
             throw new RpcFrameworkException("No active RPC request sender found!");
         }
-        Responseable response = null;
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new RpcFrameworkException("Circuit breaker of provider [" + providerUrl.getAddress() + "] is open!");
+        }
+        Responseable response;
+        long start = System.nanoTime();
+        beforeSend();
         try {
-            beforeSend();
             response = doSend(request);
-            return response;
-        } finally {
-            afterSend(request, response);
+        } catch (RuntimeException e) {
+            // The remote exception of synchronous call is thrown here, which may be a business exception
+            onComplete(start, e);
+            throw e;
         }
+        afterSend(request, response, start);
+        return response;
     }
 
     @Override
     public boolean isActive() {
-        return active;
+        return active && circuitBreaker.isCallPermitted();
+    }
+
+    @Override
+    public int getProcessingCount() {
+        return processingCount.get();
+    }
+
+    @Override
+    public double getPeakEwmaLatency() {
+        return latency.get();
+    }
+
+    @Override
+    public void seedPeakEwmaLatency(double latencyNanos) {
+        latency.seed(latencyNanos);
+    }
+
+    @Override
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
     }
 
     @Override
@@ -86,10 +118,30 @@ public abstract class AbstractRequestSender implements Sendable {
     }
 
     /**
-     * After send handler
+     * After send handler which is invoked if the request was sent without exception
      *
      * @param request  request
      * @param response response
+     * @param start    start time of the request in nanoseconds
+     */
+    protected abstract void afterSend(Requestable request, Responseable response, long start);
+
+    /**
+     * Complete handler which is invoked once the response is received or failed
+     *
+     * @param start     start time of the request in nanoseconds
+     * @param exception exception of the response or null if succeeded
      */
-    protected abstract void afterSend(Requestable request, Responseable response);
+    protected void onComplete(long start, Exception exception) {
+        processingCount.decrementAndGet();
+        if (exception instanceof RpcCancelledException) {
+            // The consumer discarded the call, so it tells nothing about the latency or health of the provider
+            circuitBreaker.releasePermission();
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        latency.observe(elapsed);
+        // Business exception means the provider is healthy
+        circuitBreaker.record(elapsed, exception != null && !ExceptionUtils.isBizException(exception));
+    }
 }
@@ -0,0 +1,245 @@
+package com.luixtech.rpc.core.client.sender;
+
+import com.luixtech.rpc.core.url.Url;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import static com.luixtech.rpc.core.constant.ConsumerConstants.*;
+
+/**
+ * Circuit breaker of a provider which ejects the provider if the failure rate or slow call rate of
+ * the recent calls reaches the threshold.
+ * After the open duration, a few probe calls are permitted in half-open state,
+ * the circuit is closed if all of them succeed or opened again otherwise.
+ * The ejected providers can not exceed the max ejection percentage of the cluster, so that an outage of
+ * the consumer side network does not eject all the providers.
+ */
+@Slf4j
+@ThreadSafe
+public class CircuitBreaker {
+    private final    Url                    providerUrl;
+    /**
+     * Clock in milliseconds
+     */
+    private final    LongSupplier           clock;
+    private final    SlidingWindow          window;
+    private final    int                    minCalls;
+    private final    int                    failureRate;
+    private final    int                    slowCallRate;
+    private final    long                   slowCallNanos;
+    private final    long                   openDuration;
+    private final    int                    halfOpenCalls;
+    private final    int                    maxEjectionPercent;
+    private final    AtomicReference<State> state           = new AtomicReference<>(State.CLOSED);
+    private volatile long                   openedTime;
+    /**
+     * Permitted probe calls in half-open state
+     */
+    private final    AtomicInteger          probes          = new AtomicInteger();
+    /**
+     * Successful probe calls in half-open state
+     */
+    private final    AtomicInteger          succeededProbes = new AtomicInteger();
+    /**
+     * Senders of all the providers of the service
+     */
+    private volatile List<Sendable>         cluster         = Collections.emptyList();
+
+    /**
+     * Create the circuit breaker whose options are configured by consumer
+     *
+     * @param providerUrl provider url
+     * @param consumerUrl consumer url
+     */
+    public CircuitBreaker(Url providerUrl, Url consumerUrl) {
+        this(providerUrl, consumerUrl, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(Url providerUrl, Url consumerUrl, LongSupplier clock) {
+        this.providerUrl = providerUrl;
+        this.clock = clock;
+        this.window = new SlidingWindow(Math.max(consumerUrl.getIntOption(CIRCUIT_WINDOW_SIZE, CIRCUIT_WINDOW_SIZE_VAL_DEFAULT), 1));
+        this.minCalls = consumerUrl.getIntOption(CIRCUIT_MIN_CALLS, CIRCUIT_MIN_CALLS_VAL_DEFAULT);
+        this.failureRate = consumerUrl.getIntOption(CIRCUIT_FAILURE_RATE, CIRCUIT_FAILURE_RATE_VAL_DEFAULT);
+        this.slowCallRate = consumerUrl.getIntOption(CIRCUIT_SLOW_CALL_RATE, CIRCUIT_SLOW_CALL_RATE_VAL_DEFAULT);
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(consumerUrl.getIntOption(CIRCUIT_SLOW_CALL_DURATION, CIRCUIT_SLOW_CALL_DURATION_VAL_DEFAULT));
+        this.openDuration = consumerUrl.getIntOption(CIRCUIT_OPEN_DURATION, CIRCUIT_OPEN_DURATION_VAL_DEFAULT);
+        this.halfOpenCalls = Math.max(consumerUrl.getIntOption(CIRCUIT_HALF_OPEN_CALLS, CIRCUIT_HALF_OPEN_CALLS_VAL_DEFAULT), 1);
+        this.maxEjectionPercent = consumerUrl.getIntOption(MAX_EJECTION_PERCENT, MAX_EJECTION_PERCENT_VAL_DEFAULT);
+    }
+
+    /**
+     * Set the senders of all the providers of the service, it is used to limit the ejected providers
+     *
+     * @param cluster senders
+     */
+    public void setCluster(List<Sendable> cluster) {
+        this.cluster = cluster == null ? Collections.emptyList() : cluster;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Check whether the calls are permitted without acquiring the permission, it is used by load balancers
+     *
+     * @return {@code true} if permitted and {@code false} otherwise
+     */
+    public boolean isCallPermitted() {
+        switch (state.get()) {
+            case OPEN:
+                return clock.getAsLong() - openedTime >= openDuration;
+            case HALF_OPEN:
+                return probes.get() < halfOpenCalls;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Acquire the permission to call the provider
+     *
+     * @return {@code true} if permitted and {@code false} otherwise
+     */
+    public boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (clock.getAsLong() - openedTime < openDuration) {
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                probes.set(0);
+                succeededProbes.set(0);
+                log.info("Changed the circuit breaker of provider [{}] to half-open", providerUrl.getAddress());
+            }
+        }
+        return probes.getAndUpdate(count -> count < halfOpenCalls ? count + 1 : count) < halfOpenCalls;
+    }
+
+    /**
+     * Release the permission of a call whose outcome is not recorded, e.g. the call cancelled by the consumer,
+     * so that it does not hold a probe call of half-open state
+     */
+    public void releasePermission() {
+        if (state.get() == State.HALF_OPEN) {
+            probes.getAndUpdate(count -> count > 0 ? count - 1 : count);
+        }
+    }
+
+    /**
+     * Record the outcome of a call
+     *
+     * @param latencyNanos latency in nanoseconds
+     * @param failed       whether the call was failed
+     */
+    public void record(long latencyNanos, boolean failed) {
+        boolean slow = latencyNanos >= slowCallNanos;
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            if (failed || slow) {
+                open(State.HALF_OPEN);
+            } else if (succeededProbes.incrementAndGet() >= halfOpenCalls && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                window.reset();
+                log.info("Closed the circuit breaker of provider [{}]", providerUrl.getAddress());
+            }
+            return;
+        }
+        if (current == State.OPEN) {
+            // The call was sent before the circuit was opened
+            return;
+        }
+        window.record(failed, slow);
+        int calls = window.calls.get();
+        if (calls < minCalls) {
+            return;
+        }
+        if (window.failures.get() * 100L >= (long) calls * failureRate
+                || window.slowCalls.get() * 100L >= (long) calls * slowCallRate) {
+            if (isEjectionAllowed()) {
+                open(State.CLOSED);
+            }
+        }
+    }
+
+    private void open(State from) {
+        // Set the time before the state, so that it is never read as half-open with a stale time
+        openedTime = clock.getAsLong();
+        if (state.compareAndSet(from, State.OPEN)) {
+            log.warn("Opened the circuit breaker of provider [{}] from {} state with {} failures and {} slow calls in the last {} calls",
+                    providerUrl.getAddress(), from, window.failures.get(), window.slowCalls.get(), window.calls.get());
+        }
+    }
+
+    private boolean isEjectionAllowed() {
+        List<Sendable> senders = cluster;
+        if (senders.isEmpty()) {
+            return true;
+        }
+        long ejected = senders.stream().filter(sender -> sender.getCircuitBreaker().getState() != State.CLOSED).count();
+        return ejected < Math.max(1, senders.size() * maxEjectionPercent / 100);
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Lock-free sliding window of the outcomes of the recent calls based on a ring buffer
+     */
+    private static class SlidingWindow {
+        private static final int                RECORDED  = 1;
+        private static final int                FAILED    = 2;
+        private static final int                SLOW      = 4;
+        private final        AtomicIntegerArray outcomes;
+        private final        AtomicLong         index     = new AtomicLong();
+        private final        AtomicInteger      calls     = new AtomicInteger();
+        private final        AtomicInteger      failures  = new AtomicInteger();
+        private final        AtomicInteger      slowCalls = new AtomicInteger();
+
+        private SlidingWindow(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        private void record(boolean failed, boolean slow) {
+            int outcome = RECORDED | (failed ? FAILED : 0) | (slow ? SLOW : 0);
+            int slot = (int) (index.getAndIncrement() % outcomes.length());
+            // The evicted outcome is subtracted from the counters
+            update(outcomes.getAndSet(slot, outcome), -1);
+            update(outcome, 1);
+        }
+
+        private void reset() {
+            for (int i = 0; i < outcomes.length(); i++) {
+                update(outcomes.getAndSet(i, 0), -1);
+            }
+        }
+
+        private void update(int outcome, int delta) {
+            if ((outcome & RECORDED) == 0) {
+                return;
+            }
+            calls.addAndGet(delta);
+            if ((outcome & FAILED) != 0) {
+                failures.addAndGet(delta);
+            }
+            if ((outcome & SLOW) != 0) {
+                slowCalls.addAndGet(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.luixtech.rpc.core.client.sender;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Peak exponentially weighted moving average of response latency.
+ * A latency sample higher than the current average replaces it immediately, while lower samples are
+ * blended in with a weight which decays with the elapsed time since the last sample,
+ * so a degraded provider is penalized at once and recovers gradually.
+ */
+@ThreadSafe
+public class PeakEwmaLatency {
+    private static final long         DEFAULT_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    /**
+     * Time constant of the decay in nanoseconds
+     */
+    private final        double       decayNanos;
+    /**
+     * Clock in nanoseconds
+     */
+    private final        LongSupplier clock;
+    /**
+     * Latency average in nanoseconds
+     */
+    private              double       cost;
+    /**
+     * Time of the last update in nanoseconds
+     */
+    private              long         stamp;
+
+    public PeakEwmaLatency() {
+        this(DEFAULT_DECAY_NANOS);
+    }
+
+    public PeakEwmaLatency(long decayNanos) {
+        this(decayNanos, System::nanoTime);
+    }
+
+    public PeakEwmaLatency(long decayNanos, LongSupplier clock) {
+        this.decayNanos = decayNanos;
+        this.clock = clock;
+        this.stamp = clock.getAsLong();
+    }
+
+    /**
+     * Add a latency sample
+     *
+     * @param latencyNanos latency in nanoseconds
+     */
+    public synchronized void observe(long latencyNanos) {
+        update(latencyNanos);
+    }
+
+    /**
+     * Set the initial latency average if no sample has been observed, so that a new provider
+     * is not flooded for looking faster than all the others
+     *
+     * @param latencyNanos latency in nanoseconds
+     */
+    public synchronized void seed(double latencyNanos) {
+        if (cost == 0) {
+            cost = latencyNanos;
+            stamp = clock.getAsLong();
+        }
+    }
+
+    /**
+     * Get the current latency average, it decays towards zero if no sample is observed
+     * in order to probe the idle providers again
+     *
+     * @return latency in nanoseconds
+     */
+    public synchronized double get() {
+        update(0);
+        return cost;
+    }
+
+    private void update(double latencyNanos) {
+        long now = clock.getAsLong();
+        double elapsed = Math.max(now - stamp, 0);
+        stamp = now;
+        if (latencyNanos > cost) {
+            cost = latencyNanos;
+        } else {
+            double weight = Math.exp(-elapsed / decayNanos);
+            cost = cost * weight + latencyNanos * (1 - weight);
+        }
+    }
+}
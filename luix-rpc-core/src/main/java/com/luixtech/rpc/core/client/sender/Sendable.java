@@ -23,6 +23,34 @@ public interface Sendable {
      */
     boolean isActive();
 
+    /**
+     * Get the number of in-flight requests
+     *
+     * @return in-flight request count
+     */
+    int getProcessingCount();
+
+    /**
+     * Get the peak EWMA of response latency, it is used to route the requests away from the slow providers
+     *
+     * @return latency in nanoseconds
+     */
+    double getPeakEwmaLatency();
+
+    /**
+     * Set the initial peak EWMA of response latency if no response has been received
+     *
+     * @param latencyNanos latency in nanoseconds
+     */
+    void seedPeakEwmaLatency(double latencyNanos);
+
+    /**
+     * Get the circuit breaker of the provider
+     *
+     * @return circuit breaker
+     */
+    CircuitBreaker getCircuitBreaker();
+
     /**
      * Send RPC request
      *
@@ -23,8 +23,8 @@ public class RequestSender extends AbstractRequestSender {
     private final NetworkTransmissionFactory networkTransmissionFactory;
     private final Client                     client;
 
-    public RequestSender(String interfaceName, Url providerUrl) {
-        super(interfaceName, providerUrl);
+    public RequestSender(String interfaceName, Url providerUrl, Url consumerUrl) {
+        super(interfaceName, providerUrl, consumerUrl);
         long start = System.currentTimeMillis();
         String name = providerUrl.getOption(ProtocolConstants.NETWORK_TRANSMISSION, ProtocolConstants.NETWORK_TRANSMISSION_VAL_NETTY);
         networkTransmissionFactory = NetworkTransmissionFactory.getInstance(name);
@@ -49,19 +49,19 @@ public class RequestSender extends AbstractRequestSender {
     }
 
     @Override
-    protected void afterSend(Requestable request, Responseable response) {
+    protected void afterSend(Requestable request, Responseable response, long start) {
         if (!(response instanceof Future)) {
-            // Sync response
-            processingCount.decrementAndGet();
+            // Sync response, null means no response was returned
+            onComplete(start, response == null ? new RpcFrameworkException("No response returned") : response.getException());
             return;
         }
         Future future = (Future) response;
-        future.addListener(f -> processingCount.decrementAndGet());
+        future.addListener(f -> onComplete(start, f.getException()));
     }
 
     @Override
     public boolean isActive() {
-        return client.isActive();
+        return client.isActive() && circuitBreaker.isCallPermitted();
     }
 
     @Override
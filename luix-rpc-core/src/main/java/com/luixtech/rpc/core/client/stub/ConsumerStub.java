@@ -142,6 +142,103 @@ public class ConsumerStub<T> {
      */
     @Min(value = 0, message = "The [maxPayload] property of @Consumer must NOT be a positive number!")
     private           Integer        maxPayload;
+    /**
+     * Delay in milliseconds before sending the hedged request
+     */
+    @Min(value = 0, message = "The [hedgeDelay] property of @Consumer must NOT be a negative number!")
+    private           Integer        hedgeDelay;
+    /**
+     * Percentile of the method latency used as the hedge delay if no delay is configured
+     */
+    @Min(value = 1, message = "The [hedgePercentile] property of @Consumer must be a positive number!")
+    @Max(value = 100, message = "The [hedgePercentile] property of @Consumer must NOT be bigger than 100!")
+    private           Integer        hedgePercentile;
+    /**
+     * Max percentage of the hedged requests to all the requests
+     */
+    @Min(value = 0, message = "The [hedgeBudget] property of @Consumer must NOT be a negative number!")
+    @Max(value = 100, message = "The [hedgeBudget] property of @Consumer must NOT be bigger than 100!")
+    private           Integer        hedgeBudget;
+    /**
+     * Completion policy of broadcast
+     */
+    private           String         broadcastPolicy;
+    /**
+     * Successful responses required by the first N policy of broadcast
+     */
+    @Min(value = 1, message = "The [broadcastCount] property of @Consumer must be a positive number!")
+    private           Integer        broadcastCount;
+    /**
+     * Merger of the broadcast results
+     */
+    private           String         broadcastMerger;
+    /**
+     * Comma separated indexes of the method arguments used to build the consistent hash key
+     */
+    private           String         hashArguments;
+    /**
+     * Virtual nodes count of each provider on the consistent hash ring
+     */
+    @Min(value = 1, message = "The [virtualNodes] property of @Consumer must be a positive number!")
+    private           Integer        virtualNodes;
+    /**
+     * Percentage of the average in-flight requests that a provider can take on the consistent hash ring
+     */
+    @Min(value = 100, message = "The [hashLoadFactor] property of @Consumer must NOT be less than 100!")
+    private           Integer        hashLoadFactor;
+    /**
+     * Number of the recent calls in the sliding window of circuit breaker
+     */
+    @Min(value = 1, message = "The [circuitWindowSize] property of @Consumer must be a positive number!")
+    private           Integer        circuitWindowSize;
+    /**
+     * Min calls in the sliding window before the circuit breaker can be opened
+     */
+    @Min(value = 0, message = "The [circuitMinCalls] property of @Consumer must NOT be a negative number!")
+    private           Integer        circuitMinCalls;
+    /**
+     * Percentage of the failed calls to open the circuit breaker
+     */
+    @Min(value = 1, message = "The [circuitFailureRate] property of @Consumer must be a positive number!")
+    @Max(value = 100, message = "The [circuitFailureRate] property of @Consumer must NOT be bigger than 100!")
+    private           Integer        circuitFailureRate;
+    /**
+     * Percentage of the slow calls to open the circuit breaker
+     */
+    @Min(value = 1, message = "The [circuitSlowCallRate] property of @Consumer must be a positive number!")
+    @Max(value = 100, message = "The [circuitSlowCallRate] property of @Consumer must NOT be bigger than 100!")
+    private           Integer        circuitSlowCallRate;
+    /**
+     * Duration in milliseconds above which a call is regarded as slow
+     */
+    @Min(value = 1, message = "The [circuitSlowCallDuration] property of @Consumer must be a positive number!")
+    private           Integer        circuitSlowCallDuration;
+    /**
+     * Duration in milliseconds of the open state before probing the provider
+     */
+    @Min(value = 0, message = "The [circuitOpenDuration] property of @Consumer must NOT be a negative number!")
+    private           Integer        circuitOpenDuration;
+    /**
+     * Number of the probe calls in half-open state
+     */
+    @Min(value = 1, message = "The [circuitHalfOpenCalls] property of @Consumer must be a positive number!")
+    private           Integer        circuitHalfOpenCalls;
+    /**
+     * Max percentage of the ejected providers of a service
+     */
+    @Min(value = 0, message = "The [maxEjectionPercent] property of @Consumer must NOT be a negative number!")
+    @Max(value = 100, message = "The [maxEjectionPercent] property of @Consumer must NOT be bigger than 100!")
+    private           Integer        maxEjectionPercent;
+    /**
+     * Threads which complete the results of the asynchronous calls
+     */
+    @Min(value = 1, message = "The [callbackThreads] property of @Consumer must be a positive number!")
+    private           Integer        callbackThreads;
+    /**
+     * Max results of the asynchronous calls waiting for the callback threads
+     */
+    @Min(value = 1, message = "The [callbackQueueSize] property of @Consumer must be a positive number!")
+    private           Integer        callbackQueueSize;
     /**
      * Indicates whether rate limit enabled or not
      */
@@ -282,6 +379,25 @@ public class ConsumerStub<T> {
         url.addOption(ServiceConstants.REQUEST_TIMEOUT, requestTimeout);
         url.addOption(ServiceConstants.RETRY_COUNT, retryCount);
         url.addOption(ServiceConstants.MAX_PAYLOAD, maxPayload);
+        url.addOption(ConsumerConstants.HEDGE_DELAY, hedgeDelay);
+        url.addOption(ConsumerConstants.HEDGE_PERCENTILE, hedgePercentile);
+        url.addOption(ConsumerConstants.HEDGE_BUDGET, hedgeBudget);
+        url.addOption(ConsumerConstants.BROADCAST_POLICY, broadcastPolicy);
+        url.addOption(ConsumerConstants.BROADCAST_COUNT, broadcastCount);
+        url.addOption(ConsumerConstants.BROADCAST_MERGER, broadcastMerger);
+        url.addOption(ConsumerConstants.HASH_ARGUMENTS, hashArguments);
+        url.addOption(ConsumerConstants.VIRTUAL_NODES, virtualNodes);
+        url.addOption(ConsumerConstants.HASH_LOAD_FACTOR, hashLoadFactor);
+        url.addOption(ConsumerConstants.CIRCUIT_WINDOW_SIZE, circuitWindowSize);
+        url.addOption(ConsumerConstants.CIRCUIT_MIN_CALLS, circuitMinCalls);
+        url.addOption(ConsumerConstants.CIRCUIT_FAILURE_RATE, circuitFailureRate);
+        url.addOption(ConsumerConstants.CIRCUIT_SLOW_CALL_RATE, circuitSlowCallRate);
+        url.addOption(ConsumerConstants.CIRCUIT_SLOW_CALL_DURATION, circuitSlowCallDuration);
+        url.addOption(ConsumerConstants.CIRCUIT_OPEN_DURATION, circuitOpenDuration);
+        url.addOption(ConsumerConstants.CIRCUIT_HALF_OPEN_CALLS, circuitHalfOpenCalls);
+        url.addOption(ConsumerConstants.MAX_EJECTION_PERCENT, maxEjectionPercent);
+        url.addOption(ConsumerConstants.CALLBACK_THREADS, callbackThreads);
+        url.addOption(ConsumerConstants.CALLBACK_QUEUE_SIZE, callbackQueueSize);
 
         String throwException = protocolConfig.getThrowException() == null ? null : protocolConfig.getThrowException().toString();
         url.addOption(ProtocolConstants.THROW_EXCEPTION, throwException);
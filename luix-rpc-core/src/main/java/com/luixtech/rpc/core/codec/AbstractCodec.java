@@ -1,11 +1,23 @@
 package com.luixtech.rpc.core.codec;
 
 
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.codec.compressor.Compressor;
+import com.luixtech.rpc.core.codec.impl.CodecHeader;
+import com.luixtech.rpc.core.exception.impl.RpcConfigException;
 import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.exchange.Channel;
+import com.luixtech.rpc.core.url.Url;
+import com.luixtech.rpc.core.utils.CompressorHolder;
 import com.luixtech.rpc.serializer.Serializer;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.*;
 
+import static com.luixtech.rpc.core.constant.ProtocolConstants.MAX_CONTENT_LENGTH;
+import static com.luixtech.rpc.core.constant.ProtocolConstants.MAX_CONTENT_LENGTH_VAL_DEFAULT;
+import static com.luixtech.rpc.core.constant.ServiceConstants.*;
+
 
 public abstract class AbstractCodec implements Codec {
 
@@ -48,6 +60,75 @@ public abstract class AbstractCodec implements Codec {
         return serializer.deserialize(bytes, outputObjectType);
     }
 
+    /**
+     * Get the compressor ID configured by the provider for the method of request
+     *
+     * @param providerUrl provider url
+     * @param request     RPC request
+     * @return compressor ID or 0 if no compressor configured
+     */
+    protected int getCompressorId(Url providerUrl, Requestable request) {
+        String name = providerUrl.getMethodLevelOption(request.getMethodName(), request.getMethodParameters(), COMPRESSOR);
+        if (StringUtils.isEmpty(name) || COMPRESSOR_VAL_NONE.equals(name)) {
+            return 0;
+        }
+        Compressor compressor = Compressor.getInstance(name);
+        if (compressor == null) {
+            throw new RpcConfigException("Compressor [" + name + "] does NOT exist, " +
+                    "please check whether the correct dependency is in your class path!");
+        }
+        return compressor.getCompressorId();
+    }
+
+    /**
+     * Compress the body if its size reaches the threshold, and set the compression fields of header
+     *
+     * @param body         message body
+     * @param header       codec header
+     * @param compressorId compressor ID, 0 means no compressor
+     * @param threshold    compress threshold in bytes
+     * @return compressed body or the original one
+     * @throws IOException if any exception thrown
+     */
+    protected byte[] compress(byte[] body, CodecHeader header, int compressorId, int threshold) throws IOException {
+        if (compressorId == 0) {
+            return body;
+        }
+        header.setCompressorId(compressorId);
+        if (body == null || body.length < threshold) {
+            return body;
+        }
+        Compressor compressor = CompressorHolder.getCompressorById(compressorId);
+        if (compressor == null) {
+            return body;
+        }
+        header.setCompressed(true);
+        return compressor.compress(body);
+    }
+
+    /**
+     * Decompress the body if it was compressed
+     *
+     * @param body    message body
+     * @param header  codec header
+     * @param channel channel which received the message
+     * @return decompressed body or the original one
+     * @throws IOException if any exception thrown or the decompressed body exceeds the max content length
+     */
+    protected byte[] decompress(byte[] body, CodecHeader header, Channel channel) throws IOException {
+        if (!header.isCompressed()) {
+            return body;
+        }
+        Compressor compressor = CompressorHolder.getCompressorById(header.getCompressorId());
+        if (compressor == null) {
+            throw new RpcFrameworkException("Compressor with ID [" + header.getCompressorId() + "] does NOT exist!");
+        }
+        int maxContentLength = channel == null || channel.getProviderUrl() == null
+                ? MAX_CONTENT_LENGTH_VAL_DEFAULT
+                : channel.getProviderUrl().getIntOption(MAX_CONTENT_LENGTH, MAX_CONTENT_LENGTH_VAL_DEFAULT);
+        return compressor.decompress(body, maxContentLength > 0 ? maxContentLength : Integer.MAX_VALUE);
+    }
+
     public ObjectOutput createOutputStream(OutputStream outputStream) {
         try {
             return new ObjectOutputStream(outputStream);
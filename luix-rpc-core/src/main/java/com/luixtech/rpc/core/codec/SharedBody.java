@@ -0,0 +1,73 @@
+package com.luixtech.rpc.core.codec;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.function.Supplier;
+
+/**
+ * Encoded message body which is shared by the copies of a request sent to multiple providers,
+ * so the method arguments are serialized and compressed only once.
+ * The body is created by the codec of the first connection, and reused by the other connections
+ * whose serializer and compression options are the same.
+ * The owner must release it after the request has been sent to all connections.
+ */
+@ThreadSafe
+public class SharedBody {
+    /**
+     * Key of the encoding options of the body
+     */
+    private String     key;
+    private Releasable body;
+    private boolean    released;
+
+    /**
+     * Acquire a reference of the body, the caller must release the reference when it is no longer used
+     *
+     * @param key     key of the encoding options
+     * @param factory factory used to create the body if absent
+     * @param <T>     body type
+     * @return body or null if the body has been released or was encoded with different options
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T extends Releasable> T acquire(String key, Supplier<T> factory) {
+        if (released) {
+            return null;
+        }
+        if (body == null) {
+            this.body = factory.get();
+            this.key = key;
+        } else if (!this.key.equals(key)) {
+            return null;
+        }
+        body.retain();
+        return (T) body;
+    }
+
+    /**
+     * Release the reference held by the owner
+     */
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        if (body != null) {
+            body.release();
+            body = null;
+        }
+    }
+
+    /**
+     * Reference counted body
+     */
+    public interface Releasable {
+        /**
+         * Increase the reference count
+         */
+        void retain();
+
+        /**
+         * Decrease the reference count and deallocate the body if it reaches zero
+         */
+        void release();
+    }
+}
@@ -0,0 +1,57 @@
+package com.luixtech.rpc.core.codec.compressor;
+
+import com.luixtech.utilities.serviceloader.ServiceLoader;
+import com.luixtech.utilities.serviceloader.annotation.Spi;
+import com.luixtech.utilities.serviceloader.annotation.SpiScope;
+
+import java.io.IOException;
+
+@Spi(scope = SpiScope.SINGLETON)
+public interface Compressor {
+    int    COMPRESSOR_ID_GZIP      = 1;
+    int    COMPRESSOR_ID_DEFLATE   = 2;
+    int    COMPRESSOR_ID_LZ4       = 3;
+    int    COMPRESSOR_ID_SNAPPY    = 4;
+    int    COMPRESSOR_ID_ZSTD      = 5;
+    String COMPRESSOR_NAME_GZIP    = "gzip";
+    String COMPRESSOR_NAME_DEFLATE = "deflate";
+    String COMPRESSOR_NAME_LZ4     = "lz4";
+    String COMPRESSOR_NAME_SNAPPY  = "snappy";
+    String COMPRESSOR_NAME_ZSTD    = "zstd";
+
+    /**
+     * Compress byte array
+     *
+     * @param data uncompressed data
+     * @return compressed data
+     * @throws IOException if any IOException thrown
+     */
+    byte[] compress(byte[] data) throws IOException;
+
+    /**
+     * Decompress byte array
+     *
+     * @param data      compressed data
+     * @param maxLength max length of uncompressed data
+     * @return uncompressed data
+     * @throws IOException if any IOException thrown or the uncompressed data exceeds the max length
+     */
+    byte[] decompress(byte[] data, int maxLength) throws IOException;
+
+    /**
+     * Get compressor unique ID，it used to specify compressor in transport protocol
+     *
+     * @return a value in the range of 1-7
+     */
+    int getCompressorId();
+
+    /**
+     * Get instance associated with the specified name
+     *
+     * @param name specified name
+     * @return instance
+     */
+    static Compressor getInstance(String name) {
+        return ServiceLoader.forClass(Compressor.class).load(name);
+    }
+}
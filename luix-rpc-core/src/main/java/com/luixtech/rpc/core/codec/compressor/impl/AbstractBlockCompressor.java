@@ -0,0 +1,63 @@
+package com.luixtech.rpc.core.codec.compressor.impl;
+
+import com.luixtech.rpc.core.codec.compressor.Compressor;
+import io.airlift.compress.Decompressor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Base class of the pure Java block compressors provided by aircompressor.
+ * The compressed data is prefixed with 4 bytes of uncompressed length.
+ * The compressors and decompressors are not thread-safe, so they are cached per thread.
+ */
+public abstract class AbstractBlockCompressor implements Compressor {
+    private static final int                                         LENGTH_SIZE  = 4;
+    private final        ThreadLocal<io.airlift.compress.Compressor> compressor   = ThreadLocal.withInitial(this::createCompressor);
+    private final        ThreadLocal<Decompressor>                   decompressor = ThreadLocal.withInitial(this::createDecompressor);
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+        io.airlift.compress.Compressor c = compressor.get();
+        byte[] out = new byte[LENGTH_SIZE + c.maxCompressedLength(data.length)];
+        ByteBuffer.wrap(out).putInt(data.length);
+        int size = c.compress(data, 0, data.length, out, LENGTH_SIZE, out.length - LENGTH_SIZE);
+        return Arrays.copyOf(out, LENGTH_SIZE + size);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int maxLength) throws IOException {
+        if (data.length < LENGTH_SIZE) {
+            throw new IOException("Found invalid compressed data with length [" + data.length + "]");
+        }
+        int length = ByteBuffer.wrap(data).getInt();
+        if (length < 0) {
+            throw new IOException("Found invalid uncompressed length [" + length + "]");
+        }
+        if (length > maxLength) {
+            // The length is sent by peer, so it must be checked before allocating memory
+            throw new IOException("Uncompressed length [" + length + "] exceeds the max length [" + maxLength + "]");
+        }
+        byte[] out = new byte[length];
+        int size = decompressor.get().decompress(data, LENGTH_SIZE, data.length - LENGTH_SIZE, out, 0, length);
+        if (size != length) {
+            throw new IOException("Uncompressed length [" + size + "] does NOT match the expected one [" + length + "]");
+        }
+        return out;
+    }
+
+    /**
+     * Create a compressor for current thread
+     *
+     * @return compressor
+     */
+    protected abstract io.airlift.compress.Compressor createCompressor();
+
+    /**
+     * Create a decompressor for current thread
+     *
+     * @return decompressor
+     */
+    protected abstract Decompressor createDecompressor();
+}
@@ -0,0 +1,57 @@
+package com.luixtech.rpc.core.codec.compressor.impl;
+
+import com.luixtech.rpc.core.codec.compressor.Compressor;
+
+import java.io.*;
+
+/**
+ * Base class of the compressors provided by the JDK streams.
+ * The uncompressed length is unknown until the stream is drained, so it is read in chunks and checked on the fly,
+ * then a small compressed body can not inflate to an unbounded size.
+ */
+public abstract class AbstractStreamCompressor implements Compressor {
+    private static final int BUFFER_SIZE = 8192;
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+        try (OutputStream compressor = createOutputStream(out)) {
+            compressor.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int maxLength) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(data.length * 2, maxLength));
+        try (InputStream decompressor = createInputStream(new ByteArrayInputStream(data))) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int size;
+            while ((size = decompressor.read(buffer)) != -1) {
+                if (out.size() + size > maxLength) {
+                    throw new IOException("Uncompressed length exceeds the max length [" + maxLength + "]");
+                }
+                out.write(buffer, 0, size);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Create a compressing output stream
+     *
+     * @param out output stream of compressed data
+     * @return compressing output stream
+     * @throws IOException if any IOException thrown
+     */
+    protected abstract OutputStream createOutputStream(OutputStream out) throws IOException;
+
+    /**
+     * Create a decompressing input stream
+     *
+     * @param in input stream of compressed data
+     * @return decompressing input stream
+     * @throws IOException if any IOException thrown
+     */
+    protected abstract InputStream createInputStream(InputStream in) throws IOException;
+}
@@ -0,0 +1,27 @@
+package com.luixtech.rpc.core.codec.compressor.impl;
+
+import com.luixtech.rpc.core.codec.compressor.Compressor;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+@SpiName(Compressor.COMPRESSOR_NAME_DEFLATE)
+public class DeflateCompressor extends AbstractStreamCompressor {
+    @Override
+    protected OutputStream createOutputStream(OutputStream out) {
+        return new DeflaterOutputStream(out);
+    }
+
+    @Override
+    protected InputStream createInputStream(InputStream in) {
+        return new InflaterInputStream(in);
+    }
+
+    @Override
+    public int getCompressorId() {
+        return COMPRESSOR_ID_DEFLATE;
+    }
+}
@@ -0,0 +1,28 @@
+package com.luixtech.rpc.core.codec.compressor.impl;
+
+import com.luixtech.rpc.core.codec.compressor.Compressor;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@SpiName(Compressor.COMPRESSOR_NAME_GZIP)
+public class GzipCompressor extends AbstractStreamCompressor {
+    @Override
+    protected OutputStream createOutputStream(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out);
+    }
+
+    @Override
+    protected InputStream createInputStream(InputStream in) throws IOException {
+        return new GZIPInputStream(in);
+    }
+
+    @Override
+    public int getCompressorId() {
+        return COMPRESSOR_ID_GZIP;
+    }
+}
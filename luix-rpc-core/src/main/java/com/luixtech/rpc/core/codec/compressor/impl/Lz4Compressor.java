@@ -0,0 +1,24 @@
+package com.luixtech.rpc.core.codec.compressor.impl;
+
+import com.luixtech.rpc.core.codec.compressor.Compressor;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+
+@SpiName(Compressor.COMPRESSOR_NAME_LZ4)
+public class Lz4Compressor extends AbstractBlockCompressor {
+    @Override
+    protected io.airlift.compress.Compressor createCompressor() {
+        return new io.airlift.compress.lz4.Lz4Compressor();
+    }
+
+    @Override
+    protected Decompressor createDecompressor() {
+        return new Lz4Decompressor();
+    }
+
+    @Override
+    public int getCompressorId() {
+        return COMPRESSOR_ID_LZ4;
+    }
+}
@@ -0,0 +1,24 @@
+package com.luixtech.rpc.core.codec.compressor.impl;
+
+import com.luixtech.rpc.core.codec.compressor.Compressor;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.snappy.SnappyDecompressor;
+
+@SpiName(Compressor.COMPRESSOR_NAME_SNAPPY)
+public class SnappyCompressor extends AbstractBlockCompressor {
+    @Override
+    protected io.airlift.compress.Compressor createCompressor() {
+        return new io.airlift.compress.snappy.SnappyCompressor();
+    }
+
+    @Override
+    protected Decompressor createDecompressor() {
+        return new SnappyDecompressor();
+    }
+
+    @Override
+    public int getCompressorId() {
+        return COMPRESSOR_ID_SNAPPY;
+    }
+}
@@ -0,0 +1,24 @@
+package com.luixtech.rpc.core.codec.compressor.impl;
+
+import com.luixtech.rpc.core.codec.compressor.Compressor;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+@SpiName(Compressor.COMPRESSOR_NAME_ZSTD)
+public class ZstdCompressor extends AbstractBlockCompressor {
+    @Override
+    protected io.airlift.compress.Compressor createCompressor() {
+        return new io.airlift.compress.zstd.ZstdCompressor();
+    }
+
+    @Override
+    protected Decompressor createDecompressor() {
+        return new ZstdDecompressor();
+    }
+
+    @Override
+    public int getCompressorId() {
+        return COMPRESSOR_ID_ZSTD;
+    }
+}
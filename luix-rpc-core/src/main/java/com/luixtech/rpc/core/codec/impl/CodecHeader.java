@@ -14,17 +14,21 @@ public class CodecHeader {
      */
     public static final int     HEADER_SIZE  = 13;
     /**
-     * Protocol version
+     * Protocol version, value range is 0 to 31.
      */
-//    private             int     version      = 1;
+    private             int     version      = 1;
     /**
      * Check health indicator
      */
     private             boolean checkHealth  = false;
     /**
-     * gzip indicator
+     * Indicate whether it is a frame which cancels the request with the same ID, the frame has neither meta nor body
      */
-    private             boolean gzip         = false;
+    private             boolean cancel       = false;
+    /**
+     * Indicate whether the body is compressed, the compression algorithm is specified by {@link #compressorId}
+     */
+    private             boolean compressed   = false;
     /**
      * One way trip refers to only request but no response, round trip refers to both request and response
      */
@@ -38,7 +42,8 @@ public class CodecHeader {
      */
     private             boolean request      = true;
     /**
-     * 消息状态。最大能表示8种状态，value range is 0 to 7. 0:normal, 1:exception
+     * 消息状态。最大能表示8种状态，value range is 0 to 7. 0:normal, 1:exception, 2:deadline exceeded,
+     * 3:overloaded, 4:unknown method ID
      * <p>
      * refer to {@link MessageStatus}
      */
@@ -47,19 +52,41 @@ public class CodecHeader {
      * Message body serializer，value range is 0 to 31.
      */
     private             int     serializerId = ProtocolConstants.SERIALIZER_ID_DEFAULT;
+    /**
+     * Message body compressor, value range is 0 to 7, 0 means no compressor.
+     * It is sent with request even if the body is not compressed, so that the response can be compressed with the same one.
+     */
+    private             int     compressorId = 0;
     /**
      * Request ID
      */
     private             long    requestId;
 
     public byte[] toBytes() {
-        ByteBuffer buf = ByteBuffer.allocate(13);
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE);
         buf.putShort(MAGIC);
+        buf.put(getMessageTypeByte());
+        buf.put(getVersionStatusByte());
+        buf.put(getSerializerByte());
+        buf.putLong(requestId);
+        buf.flip();
+        return buf.array();
+    }
+
+    /**
+     * Get the encoded byte of message type flags
+     *
+     * @return message type byte
+     */
+    public byte getMessageTypeByte() {
         byte msgType = (byte) 0x00;
+        if (cancel) {
+            msgType = (byte) (msgType | 0x20);
+        }
         if (checkHealth) {
             msgType = (byte) (msgType | 0x10);
         }
-        if (gzip) {
+        if (compressed) {
             msgType = (byte) (msgType | 0x08);
         }
         if (oneWayTrip) {
@@ -71,39 +98,66 @@ public class CodecHeader {
         if (!request) {
             msgType = (byte) (msgType | 0x01);
         }
+        return msgType;
+    }
 
-        buf.put(msgType);
+    /**
+     * Get the encoded byte of protocol version and message status
+     *
+     * @return version and status byte
+     */
+    public byte getVersionStatusByte() {
         byte vs = 0x08;
-//        if (version != 1) {
-//            vs = (byte) ((version << 3) & 0xf8);
-//        }
+        if (version != 1) {
+            vs = (byte) ((version << 3) & 0xf8);
+        }
         if (status != 0) {
             vs = (byte) (vs | (status & 0x07));
         }
-        buf.put(vs);
+        return vs;
+    }
+
+    /**
+     * Get the encoded byte of serializer ID and compressor ID
+     *
+     * @return serializer and compressor byte
+     */
+    public byte getSerializerByte() {
         byte se = 0x08;
         if (serializerId != 1) {
             se = (byte) ((serializerId << 3) & 0xf8);
         }
-        buf.put(se);
-        buf.putLong(requestId);
-        buf.flip();
-        return buf.array();
+        if (compressorId != 0) {
+            se = (byte) (se | (compressorId & 0x07));
+        }
+        return se;
     }
 
     public static CodecHeader buildHeader(byte[] headerBytes) {
-        ByteBuffer buf = ByteBuffer.wrap(headerBytes);
+        return buildHeader(ByteBuffer.wrap(headerBytes));
+    }
+
+    /**
+     * Build header from the current position of the buffer, the position will be moved forward by header size
+     *
+     * @param buf buffer
+     * @return header
+     */
+    public static CodecHeader buildHeader(ByteBuffer buf) {
         short mg = buf.getShort();
         if (mg != MAGIC) {
             throw new RpcInvocationException("Found invalid magic: " + mg);
         }
         CodecHeader header = new CodecHeader();
         byte b = buf.get();
+        if ((b & 0x20) == 0x20) {
+            header.setCancel(true);
+        }
         if ((b & 0x10) == 0x10) {
             header.setCheckHealth(true);
         }
         if ((b & 0x08) == 0x08) {
-            header.setGzip(true);
+            header.setCompressed(true);
         }
         if ((b & 0x04) == 0x04) {
             header.setOneWayTrip(true);
@@ -116,11 +170,12 @@ public class CodecHeader {
         }
 
         b = buf.get();
-//        header.setVersion((b >>> 3) & 0x1f);
+        header.setVersion((b >>> 3) & 0x1f);
         header.setStatus(b & 0x07);
 
         b = buf.get();
         header.setSerializerId((b >>> 3) & 0x1f);
+        header.setCompressorId(b & 0x07);
         header.setRequestId(buf.getLong());
 
         return header;
@@ -137,7 +192,19 @@ public class CodecHeader {
         /**
          * Exception
          */
-        EXCEPTION(1);
+        EXCEPTION(1),
+        /**
+         * Request was dropped by provider for exceeding deadline
+         */
+        DEADLINE_EXCEEDED(2),
+        /**
+         * Request was rejected by provider for being overloaded
+         */
+        OVERLOADED(3),
+        /**
+         * Request was rejected by provider for the method ID not being assigned
+         */
+        UNKNOWN_METHOD_ID(4);
 
         private final int status;
 
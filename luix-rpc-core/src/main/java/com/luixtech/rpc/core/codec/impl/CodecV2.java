@@ -28,6 +28,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.luixtech.rpc.core.constant.ServiceConstants.COMPRESS_THRESHOLD;
+import static com.luixtech.rpc.core.constant.ServiceConstants.COMPRESS_THRESHOLD_VAL_DEFAULT;
 import static org.apache.commons.lang3.StringUtils.defaultIfEmpty;
 
 @Slf4j
@@ -52,6 +54,8 @@ public class CodecV2 extends AbstractCodec {
 
             // Body represents arguments bytes for request or results bytes for response
             byte[] body;
+            int compressorId;
+            int threshold;
             if (input instanceof RpcRequest) {
                 // Encode request
                 RpcRequest request = (RpcRequest) input;
@@ -59,9 +63,14 @@ public class CodecV2 extends AbstractCodec {
                 // Consumer configuration over provider side
                 String serializer = defaultIfEmpty(request.getOption(ProtocolConstants.SERIALIZER), providerSerializer);
                 body = encodeRequest(request, header, buf, serializer);
+                compressorId = getCompressorId(channel.getProviderUrl(), request);
+                threshold = channel.getProviderUrl().getMethodLevelOption(request.getMethodName(),
+                        request.getMethodParameters(), COMPRESS_THRESHOLD, COMPRESS_THRESHOLD_VAL_DEFAULT);
             } else {
                 // Encode response
                 body = encodeResponse((RpcResponse) input, header, buf);
+                compressorId = ((RpcResponse) input).getCompressorId();
+                threshold = channel.getProviderUrl().getIntOption(COMPRESS_THRESHOLD, COMPRESS_THRESHOLD_VAL_DEFAULT);
             }
 
             buf.position(buf.position() - 1);
@@ -69,8 +78,8 @@ public class CodecV2 extends AbstractCodec {
             buf.putInt(index, metaLength);
 
             // Body
+            body = compress(body, header, compressorId, threshold);
             if (body != null && body.length > 0) {
-                // todo: gzip body
                 buf.putInt(body.length);
                 buf.put(body);
             } else {
@@ -184,7 +193,7 @@ public class CodecV2 extends AbstractCodec {
             byte[] body = new byte[bodySize];
             buf.position(index);
             buf.get(body);
-            // todo: ungzip
+            body = decompress(body, header, channel);
             // 默认自适应序列化
             Serializer serializer = SerializerHolder.getSerializerById(header.getSerializerId());
             if (header.isRequest()) {
@@ -216,6 +225,7 @@ public class CodecV2 extends AbstractCodec {
         // todo: check usage
         request.setProtocolVersion(ProtocolVersion.VERSION_2.getVersion());
         request.setSerializerId(header.getSerializerId());
+        request.setCompressorId(header.getCompressorId());
         if (obj != null) {
             request.setMethodArguments(new Object[]{obj});
         }
@@ -2,6 +2,8 @@ package com.luixtech.rpc.core.config.impl;
 
 import com.luixtech.rpc.core.client.ratelimit.RateLimiter;
 import com.luixtech.rpc.core.constant.ConsumerConstants;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -41,6 +43,103 @@ public class ConsumerConfig extends ServiceConfig {
      * Permits per second of rate limit
      */
     private             long    permitsPerSecond = 100L;
+    /**
+     * Delay in milliseconds before sending the hedged request, 0 means using the tracked percentile of latency
+     */
+    @Min(value = 0, message = "The [hedgeDelay] property must NOT be a negative number!")
+    private             Integer hedgeDelay;
+    /**
+     * Percentile of the method latency used as the hedge delay if no delay is configured
+     */
+    @Min(value = 1, message = "The [hedgePercentile] property must be a positive number!")
+    @Max(value = 100, message = "The [hedgePercentile] property must NOT be bigger than 100!")
+    private             Integer hedgePercentile;
+    /**
+     * Max percentage of the hedged requests to all the requests
+     */
+    @Min(value = 0, message = "The [hedgeBudget] property must NOT be a negative number!")
+    @Max(value = 100, message = "The [hedgeBudget] property must NOT be bigger than 100!")
+    private             Integer hedgeBudget;
+    /**
+     * Completion policy of broadcast, all, quorum or first N of the providers
+     */
+    private             String  broadcastPolicy  = ConsumerConstants.BROADCAST_POLICY_VAL_DEFAULT;
+    /**
+     * Successful responses required by the first N policy of broadcast
+     */
+    @Min(value = 1, message = "The [broadcastCount] property must be a positive number!")
+    private             Integer broadcastCount;
+    /**
+     * Merger of the broadcast results
+     */
+    private             String  broadcastMerger;
+    /**
+     * Comma separated indexes of the method arguments used to build the consistent hash key
+     */
+    private             String  hashArguments;
+    /**
+     * Virtual nodes count of each provider on the consistent hash ring
+     */
+    @Min(value = 1, message = "The [virtualNodes] property must be a positive number!")
+    private             Integer virtualNodes;
+    /**
+     * Percentage of the average in-flight requests that a provider can take on the consistent hash ring
+     */
+    @Min(value = 100, message = "The [hashLoadFactor] property must NOT be less than 100!")
+    private             Integer hashLoadFactor;
+    /**
+     * Number of the recent calls in the sliding window of circuit breaker
+     */
+    @Min(value = 1, message = "The [circuitWindowSize] property must be a positive number!")
+    private             Integer circuitWindowSize;
+    /**
+     * Min calls in the sliding window before the circuit breaker can be opened
+     */
+    @Min(value = 0, message = "The [circuitMinCalls] property must NOT be a negative number!")
+    private             Integer circuitMinCalls;
+    /**
+     * Percentage of the failed calls to open the circuit breaker
+     */
+    @Min(value = 1, message = "The [circuitFailureRate] property must be a positive number!")
+    @Max(value = 100, message = "The [circuitFailureRate] property must NOT be bigger than 100!")
+    private             Integer circuitFailureRate;
+    /**
+     * Percentage of the slow calls to open the circuit breaker
+     */
+    @Min(value = 1, message = "The [circuitSlowCallRate] property must be a positive number!")
+    @Max(value = 100, message = "The [circuitSlowCallRate] property must NOT be bigger than 100!")
+    private             Integer circuitSlowCallRate;
+    /**
+     * Duration in milliseconds above which a call is regarded as slow
+     */
+    @Min(value = 1, message = "The [circuitSlowCallDuration] property must be a positive number!")
+    private             Integer circuitSlowCallDuration;
+    /**
+     * Duration in milliseconds of the open state before probing the provider
+     */
+    @Min(value = 0, message = "The [circuitOpenDuration] property must NOT be a negative number!")
+    private             Integer circuitOpenDuration;
+    /**
+     * Number of the probe calls in half-open state
+     */
+    @Min(value = 1, message = "The [circuitHalfOpenCalls] property must be a positive number!")
+    private             Integer circuitHalfOpenCalls;
+    /**
+     * Max percentage of the ejected providers of a service
+     */
+    @Min(value = 0, message = "The [maxEjectionPercent] property must NOT be a negative number!")
+    @Max(value = 100, message = "The [maxEjectionPercent] property must NOT be bigger than 100!")
+    private             Integer maxEjectionPercent;
+    /**
+     * Threads which complete the results of the asynchronous calls
+     */
+    @Min(value = 1, message = "The [callbackThreads] property must be a positive number!")
+    private             Integer callbackThreads;
+    /**
+     * Max results of the asynchronous calls waiting for the callback threads
+     */
+    @Min(value = 1, message = "The [callbackQueueSize] property must be a positive number!")
+    private             Integer callbackQueueSize;
 
     public void init() {
         checkIntegrity();
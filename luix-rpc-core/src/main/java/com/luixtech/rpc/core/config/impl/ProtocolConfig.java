@@ -6,6 +6,7 @@ import com.luixtech.rpc.core.constant.ProtocolConstants;
 import com.luixtech.rpc.core.exception.impl.RpcConfigException;
 import com.luixtech.rpc.core.exchange.endpoint.NetworkTransmissionFactory;
 import com.luixtech.rpc.core.protocol.Protocol;
+import com.luixtech.rpc.core.utils.CompressorHolder;
 import com.luixtech.rpc.core.utils.RpcConfigValidator;
 import com.luixtech.rpc.core.utils.SerializerHolder;
 import com.luixtech.rpc.serializer.Serializer;
@@ -59,6 +60,26 @@ public class ProtocolConfig implements Configurable {
      */
 //    @Positive
     private             Integer minClientConn;
+    /**
+     * Maximum client channel count, the channels grow from the minimum count under load
+     */
+    private             Integer maxClientConn;
+    /**
+     * Pending requests of the least loaded client channel which triggers a new channel
+     */
+    private             Integer connPendingThreshold;
+    /**
+     * Idle time in milliseconds after which a client channel above the minimum count is closed
+     */
+    private             Integer connIdleTime;
+    /**
+     * Client channel count dedicated to bulk requests, 0 means the bulk requests share the regular channels
+     */
+    private             Integer bulkClientConn;
+    /**
+     * Encoded request or response size in bytes which marks the method as bulk
+     */
+    private             Integer bulkThreshold;
     /**
      * Allowed maximum client connecting failure count
      */
@@ -87,6 +108,11 @@ public class ProtocolConfig implements Configurable {
      * Indicator used to decide whether multiple servers share the same channel
      */
     private             Boolean sharedChannel;
+    /**
+     * Indicator used to decide whether the interfaces of the same provider address share the same client connections,
+     * the interfaces with different connection options never share a client. Default value is false.
+     */
+    private             Boolean sharedClient;
     /**
      * Indicator used to decide whether initialize client connection asynchronously
      */
@@ -95,12 +121,59 @@ public class ProtocolConfig implements Configurable {
      * Indicator used to decide whether throw exception after request failure
      */
     private             Boolean throwException;
+    /**
+     * Indicator used to decide whether use native epoll transport if it is available on Linux
+     */
+    private             Boolean nativeTransport;
+    /**
+     * Number of server channels which are bound to the same port with SO_REUSEPORT, only for native transport
+     */
+    @Positive
+    private             Integer acceptorCount;
+    /**
+     * Indicator used to decide whether enable TCP_QUICKACK, only for native transport
+     */
+    private             Boolean tcpQuickAck;
+    /**
+     * Indicator used to decide whether use edge-triggered or level-triggered epoll mode, only for native transport
+     */
+    private             Boolean edgeTriggered;
+    /**
+     * Busy poll timeout in microseconds of SO_BUSY_POLL, 0 means disabled, only for native transport
+     */
+    private             Integer busyPollMicros;
+    /**
+     * Indicator used to decide whether interrupt the server thread which is processing the request cancelled by consumer,
+     * the provider is always able to check the cancellation by {@link com.luixtech.rpc.core.utils.RpcCancellationHolder}
+     */
+    private             Boolean interruptOnCancel;
+    /**
+     * Outbound buffer size in bytes of a connection above which the connection becomes unwritable
+     */
+    private             Integer writeHighWaterMark;
+    /**
+     * Outbound buffer size in bytes of an unwritable connection below which the connection becomes writable again
+     */
+    private             Integer writeLowWaterMark;
+    /**
+     * Max time in milliseconds for which a synchronous request waits for the unwritable client connection
+     */
+    private             Integer writableWaitTime;
+    /**
+     * Max pending requests of each client connection
+     */
+    private             Integer connMaxPending;
+    /**
+     * Percentage of max heap which can be held by the inflight requests and responses of a server, 0 means unlimited
+     */
+    private             Integer inflightMemoryPercent;
 
     public void init() {
         checkIntegrity();
         checkValidity();
         initHost();
         SerializerHolder.init();
+        CompressorHolder.init();
         log.info("Luix protocol configuration: {}", this);
     }
 
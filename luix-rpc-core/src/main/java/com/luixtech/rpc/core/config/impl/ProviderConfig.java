@@ -1,5 +1,6 @@
 package com.luixtech.rpc.core.config.impl;
 
+import jakarta.validation.constraints.Min;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +18,16 @@ public class ProviderConfig extends ServiceConfig {
      * Indicates whether all the providers were exposed to registry automatically
      */
     private             boolean autoExpose = true;
+    /**
+     * Load balancing weight of the providers
+     */
+    @Min(value = 0, message = "The [weight] property must NOT be a negative number!")
+    private             Integer weight;
+    /**
+     * Warmup period in milliseconds after the providers are activated
+     */
+    @Min(value = 0, message = "The [warmup] property must NOT be a negative number!")
+    private             Integer warmup;
 
     public void init() {
         log.info("Luix provider configuration: {}", this);
@@ -23,4 +23,109 @@ public interface ConsumerConstants extends ServiceConstants {
     String PROXY_VAL_JDK                 = "jdk";
     String PROXY_VAL_JAVASSIST           = "javassist";
     String PROXY_VAL_DEFAULT             = PROXY_VAL_JDK;
+
+    String FAULT_TOLERANCE_VAL_HEDGING            = "hedging";
+    String LOAD_BALANCER_VAL_LEAST_ACTIVE         = "leastActive";
+    String LOAD_BALANCER_VAL_PEAK_EWMA            = "peakEwma";
+    String LOAD_BALANCER_VAL_CONSISTENT_HASH      = "consistentHash";
+    String LOAD_BALANCER_VAL_ROUND_ROBIN          = "roundRobin";
+    /**
+     * Comma separated indexes of the method arguments used to build the consistent hash key
+     */
+    String HASH_ARGUMENTS                         = "hashArguments";
+    String HASH_ARGUMENTS_VAL_DEFAULT             = "0";
+    /**
+     * Virtual nodes count of each provider on the consistent hash ring
+     */
+    String VIRTUAL_NODES                          = "virtualNodes";
+    int    VIRTUAL_NODES_VAL_DEFAULT              = 160;
+    /**
+     * Percentage of the average in-flight requests that a provider can take on the consistent hash ring
+     */
+    String HASH_LOAD_FACTOR                       = "hashLoadFactor";
+    int    HASH_LOAD_FACTOR_VAL_DEFAULT           = 125;
+    /**
+     * Delay in milliseconds before sending the hedged request, 0 means using the tracked percentile of latency
+     */
+    String HEDGE_DELAY                            = "hedgeDelay";
+    int    HEDGE_DELAY_VAL_DEFAULT                = 0;
+    /**
+     * Percentile of the method latency used as the hedge delay if no delay is configured
+     */
+    String HEDGE_PERCENTILE                       = "hedgePercentile";
+    int    HEDGE_PERCENTILE_VAL_DEFAULT           = 95;
+    /**
+     * Max percentage of the hedged requests to all the requests
+     */
+    String HEDGE_BUDGET                           = "hedgeBudget";
+    int    HEDGE_BUDGET_VAL_DEFAULT               = 10;
+    /**
+     * Completion policy of broadcast, all, quorum or first N of the providers
+     */
+    String BROADCAST_POLICY                       = "broadcastPolicy";
+    String BROADCAST_POLICY_VAL_ALL               = "all";
+    String BROADCAST_POLICY_VAL_QUORUM            = "quorum";
+    String BROADCAST_POLICY_VAL_FIRST             = "first";
+    String BROADCAST_POLICY_VAL_DEFAULT           = BROADCAST_POLICY_VAL_ALL;
+    /**
+     * Successful responses required by the first N policy of broadcast
+     */
+    String BROADCAST_COUNT                        = "broadcastCount";
+    int    BROADCAST_COUNT_VAL_DEFAULT            = 1;
+    /**
+     * Merger of the broadcast results, the result of the last required response is returned if absent
+     */
+    String BROADCAST_MERGER                       = "broadcastMerger";
+    String BROADCAST_MERGER_VAL_COLLECTION        = "collection";
+    String PROXY_VAL_BYTEBUDDY                    = "bytebuddy";
+    /**
+     * Number of the recent calls in the sliding window of circuit breaker
+     */
+    String CIRCUIT_WINDOW_SIZE                    = "circuitWindowSize";
+    int    CIRCUIT_WINDOW_SIZE_VAL_DEFAULT        = 100;
+    /**
+     * Min calls in the sliding window before the circuit breaker can be opened
+     */
+    String CIRCUIT_MIN_CALLS                      = "circuitMinCalls";
+    int    CIRCUIT_MIN_CALLS_VAL_DEFAULT          = 20;
+    /**
+     * Percentage of the failed calls to open the circuit breaker
+     */
+    String CIRCUIT_FAILURE_RATE                   = "circuitFailureRate";
+    int    CIRCUIT_FAILURE_RATE_VAL_DEFAULT       = 50;
+    /**
+     * Percentage of the slow calls to open the circuit breaker
+     */
+    String CIRCUIT_SLOW_CALL_RATE                 = "circuitSlowCallRate";
+    int    CIRCUIT_SLOW_CALL_RATE_VAL_DEFAULT     = 80;
+    /**
+     * Duration in milliseconds above which a call is regarded as slow
+     */
+    String CIRCUIT_SLOW_CALL_DURATION             = "circuitSlowCallDuration";
+    int    CIRCUIT_SLOW_CALL_DURATION_VAL_DEFAULT = 1000;
+    /**
+     * Duration in milliseconds of the open state before probing the provider
+     */
+    String CIRCUIT_OPEN_DURATION                  = "circuitOpenDuration";
+    int    CIRCUIT_OPEN_DURATION_VAL_DEFAULT      = 10000;
+    /**
+     * Number of the probe calls in half-open state
+     */
+    String CIRCUIT_HALF_OPEN_CALLS                = "circuitHalfOpenCalls";
+    int    CIRCUIT_HALF_OPEN_CALLS_VAL_DEFAULT    = 5;
+    /**
+     * Max percentage of the ejected providers of a service
+     */
+    String MAX_EJECTION_PERCENT                   = "maxEjectionPercent";
+    int    MAX_EJECTION_PERCENT_VAL_DEFAULT       = 50;
+    /**
+     * Threads which deserialize the results of the asynchronous calls and run the continuations of caller
+     */
+    String CALLBACK_THREADS                       = "callbackThreads";
+    int    CALLBACK_THREADS_VAL_DEFAULT           = Runtime.getRuntime().availableProcessors() * 2;
+    /**
+     * Max results of the asynchronous calls waiting for the callback threads, the calls fail once it is full
+     */
+    String CALLBACK_QUEUE_SIZE                    = "callbackQueueSize";
+    int    CALLBACK_QUEUE_SIZE_VAL_DEFAULT        = 1024;
 }
@@ -14,6 +14,7 @@ public interface ProtocolConstants {
     String       CODEC                                 = "codec";
     String       CODEC_VAL_V1                          = "v1";
     String       CODEC_VAL_V2                          = "v2";
+    String       CODEC_VAL_V3                          = "v3";
     String       CODEC_VAL_DEFAULT                     = CODEC_VAL_V2;
     String       SERIALIZER                            = "serializer";
     String       SERIALIZER_VAL_DEFAULT                = SERIALIZER_NAME_HESSIAN2;
@@ -23,8 +24,20 @@ public interface ProtocolConstants {
     String       NETWORK_TRANSMISSION_VAL_NETTY        = "netty";
     String       SHARED_SERVER                         = "sharedServer";
     boolean      SHARED_SERVER_VAL_DEFAULT             = true;
+    String       SHARED_CLIENT                         = "sharedClient";
+    boolean      SHARED_CLIENT_VAL_DEFAULT             = false;
     String       MIN_CLIENT_CONN                       = "minClientConn";
     int          MIN_CLIENT_CONN_VAL_DEFAULT           = 2;
+    String       MAX_CLIENT_CONN                       = "maxClientConn";
+    int          MAX_CLIENT_CONN_VAL_DEFAULT           = 8;
+    String       CONN_PENDING_THRESHOLD                = "connPendingThreshold";
+    int          CONN_PENDING_THRESHOLD_VAL_DEFAULT    = 32;
+    String       CONN_IDLE_TIME                        = "connIdleTime";
+    int          CONN_IDLE_TIME_VAL_DEFAULT            = 60_000;
+    String       BULK_CLIENT_CONN                      = "bulkClientConn";
+    int          BULK_CLIENT_CONN_VAL_DEFAULT          = 1;
+    String       BULK_THRESHOLD                        = "bulkThreshold";
+    int          BULK_THRESHOLD_VAL_DEFAULT            = 256 * 1024; // 256K
     String       MAX_CLIENT_FAILED_CONN                = "maxClientFailedConn";
     int          MAX_CLIENT_FAILED_CONN_VAL_DEFAULT    = 10;
     String       MAX_SERVER_CONN                       = "maxServerConn";
@@ -45,4 +58,26 @@ public interface ProtocolConstants {
     boolean      THROW_EXCEPTION_VAL_DEFAULT           = true;
     String       TRANS_EXCEPTION_STACK                 = "transExceptionStack";
     boolean      TRANS_EXCEPTION_STACK_VAL_DEFAULT     = true;
+    String       NATIVE_TRANSPORT                      = "nativeTransport";
+    boolean      NATIVE_TRANSPORT_VAL_DEFAULT          = true;
+    String       ACCEPTOR_COUNT                        = "acceptorCount";
+    int          ACCEPTOR_COUNT_VAL_DEFAULT            = 1;
+    String       TCP_QUICK_ACK                         = "tcpQuickAck";
+    boolean      TCP_QUICK_ACK_VAL_DEFAULT             = false;
+    String       EDGE_TRIGGERED                        = "edgeTriggered";
+    boolean      EDGE_TRIGGERED_VAL_DEFAULT            = true;
+    String       BUSY_POLL_MICROS                      = "busyPollMicros";
+    int          BUSY_POLL_MICROS_VAL_DEFAULT          = 0;
+    String       INTERRUPT_ON_CANCEL                   = "interruptOnCancel";
+    boolean      INTERRUPT_ON_CANCEL_VAL_DEFAULT       = false;
+    String       WRITE_HIGH_WATER_MARK                 = "writeHighWaterMark";
+    int          WRITE_HIGH_WATER_MARK_VAL_DEFAULT     = 1024 * 1024; // 1M
+    String       WRITE_LOW_WATER_MARK                  = "writeLowWaterMark";
+    int          WRITE_LOW_WATER_MARK_VAL_DEFAULT      = 512 * 1024; // 512K
+    String       WRITABLE_WAIT_TIME                    = "writableWaitTime";
+    int          WRITABLE_WAIT_TIME_VAL_DEFAULT        = 20;
+    String       CONN_MAX_PENDING                      = "connMaxPending";
+    int          CONN_MAX_PENDING_VAL_DEFAULT          = 4096;
+    String       INFLIGHT_MEMORY_PERCENT               = "inflightMemoryPercent";
+    int          INFLIGHT_MEMORY_PERCENT_VAL_DEFAULT   = 25;
 }
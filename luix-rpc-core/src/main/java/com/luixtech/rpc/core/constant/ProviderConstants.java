@@ -8,4 +8,12 @@ import com.luixtech.rpc.core.server.annotation.RpcProvider;
 public interface ProviderConstants extends ServiceConstants {
     String HEALTH_CHECKER        = "healthChecker";
     String HEALTH_CHECKER_VAL_V1 = "v1";
+    String WEIGHT                = "weight";
+    int    WEIGHT_VAL_DEFAULT    = 100;
+    /**
+     * Warmup period in milliseconds after the provider is activated,
+     * the traffic to the provider ramps up linearly in the period
+     */
+    String WARMUP                = "warmup";
+    int    WARMUP_VAL_DEFAULT    = 10 * 60 * 1000;
 }
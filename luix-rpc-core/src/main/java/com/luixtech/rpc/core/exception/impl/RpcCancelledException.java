@@ -0,0 +1,18 @@
+package com.luixtech.rpc.core.exception.impl;
+
+/**
+ * Exception of a request which was cancelled by the consumer itself, e.g. the losing attempt of hedged requests,
+ * it is neither a success nor a failure of the provider.
+ */
+public class RpcCancelledException extends RpcFrameworkException {
+
+    private static final long serialVersionUID = 7412583329125964380L;
+
+    public RpcCancelledException() {
+        super();
+    }
+
+    public RpcCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.luixtech.rpc.core.exception.impl;
+
+/**
+ * Exception thrown when the deadline of a request has been exceeded before it was executed,
+ * the request is dropped because the consumer has given up waiting for the response.
+ */
+public class RpcDeadlineExceededException extends RpcFrameworkException {
+
+    private static final long serialVersionUID = 4216373406297517531L;
+
+    public RpcDeadlineExceededException() {
+        super();
+    }
+
+    public RpcDeadlineExceededException(String message) {
+        super(message);
+    }
+}
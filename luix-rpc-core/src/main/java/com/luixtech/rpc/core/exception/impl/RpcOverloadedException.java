@@ -0,0 +1,18 @@
+package com.luixtech.rpc.core.exception.impl;
+
+/**
+ * Exception thrown when a request is rejected before it was executed for the provider being overloaded,
+ * the consumer can safely send the request to another provider.
+ */
+public class RpcOverloadedException extends RpcFrameworkException {
+
+    private static final long serialVersionUID = -6051924468632193752L;
+
+    public RpcOverloadedException() {
+        super();
+    }
+
+    public RpcOverloadedException(String message) {
+        super(message);
+    }
+}
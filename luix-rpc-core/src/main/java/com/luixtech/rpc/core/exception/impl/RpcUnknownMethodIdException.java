@@ -0,0 +1,18 @@
+package com.luixtech.rpc.core.exception.impl;
+
+/**
+ * Exception thrown when the method ID of a request is not assigned by provider any more,
+ * the request was not executed, and the consumer negotiates the method IDs again.
+ */
+public class RpcUnknownMethodIdException extends RpcFrameworkException {
+
+    private static final long serialVersionUID = -3189427163905817742L;
+
+    public RpcUnknownMethodIdException() {
+        super();
+    }
+
+    public RpcUnknownMethodIdException(String message) {
+        super(message);
+    }
+}
@@ -73,6 +73,20 @@ public interface Channel {
      */
     boolean isActive();
 
+    /**
+     * Check whether the outbound buffer of the channel is below the high water mark
+     *
+     * @return {@code true} if it was writable and {@code false} otherwise
+     */
+    boolean isWritable();
+
+    /**
+     * Get the count of the requests waiting for responses
+     *
+     * @return pending request count
+     */
+    int getPendingCount();
+
     /**
      * Get the provider url
      *
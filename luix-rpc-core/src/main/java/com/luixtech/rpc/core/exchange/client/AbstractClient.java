@@ -1,13 +1,20 @@
 package com.luixtech.rpc.core.exchange.client;
 
+import com.luixtech.rpc.core.client.request.Requestable;
 import com.luixtech.rpc.core.codec.Codec;
 import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.constant.ServiceConstants;
 import com.luixtech.rpc.core.exchange.constants.ChannelState;
 import com.luixtech.rpc.core.url.Url;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 
 import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Data
@@ -20,6 +27,12 @@ public abstract class AbstractClient implements Client {
     protected          Codec             codec;
     protected          InetSocketAddress localAddress;
     protected          InetSocketAddress remoteAddress;
+    /**
+     * Interface key to the provider url of the interfaces which share the client
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    protected final    Map<String, Url>  interfaceUrls = new ConcurrentHashMap<>();
 
     public AbstractClient(Url providerUrl) {
         this.providerUrl = providerUrl;
@@ -27,4 +40,29 @@ public abstract class AbstractClient implements Client {
         this.codec = Codec.getInstance(codecName);
         log.info("Initializing network client of [{}] by {}", providerUrl, codec.getClass().getSimpleName());
     }
+
+    @Override
+    public void addInterfaceUrl(Url providerUrl) {
+        interfaceUrls.put(getInterfaceKey(providerUrl.getPath(), providerUrl.getForm(), providerUrl.getVersion()), providerUrl);
+    }
+
+    @Override
+    public void removeInterfaceUrl(Url providerUrl) {
+        interfaceUrls.remove(getInterfaceKey(providerUrl.getPath(), providerUrl.getForm(), providerUrl.getVersion()), providerUrl);
+    }
+
+    @Override
+    public Url getProviderUrl(Requestable request) {
+        if (interfaceUrls.isEmpty()) {
+            // Exclusive client
+            return providerUrl;
+        }
+        Url url = interfaceUrls.get(getInterfaceKey(request.getInterfaceName(),
+                request.getOption(ServiceConstants.FORM), request.getOption(ServiceConstants.VERSION)));
+        return url != null ? url : providerUrl;
+    }
+
+    private static String getInterfaceKey(String interfaceName, String form, String version) {
+        return interfaceName + ":" + StringUtils.defaultString(form) + ":" + StringUtils.defaultString(version);
+    }
 }
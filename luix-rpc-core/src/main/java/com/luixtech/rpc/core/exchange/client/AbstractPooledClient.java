@@ -1,21 +1,44 @@
 package com.luixtech.rpc.core.exchange.client;
 
+import com.luixtech.rpc.core.client.request.Requestable;
 import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.constant.ServiceConstants;
 import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
 import com.luixtech.rpc.core.exchange.Channel;
+import com.luixtech.rpc.core.thread.ScheduledThreadPool;
 import com.luixtech.rpc.core.url.Url;
+import com.luixtech.rpc.core.utils.MethodParameterUtils;
 import com.luixtech.utilities.lang.MathUtils;
 import com.luixtech.utilities.thread.pool.NetworkThreadPoolExecutor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
+/**
+ * Client which sends the requests through an elastic pool of channels.
+ * Each request is sent by the active channel with the fewest pending requests, so a channel
+ * blocked by a large response does not delay the requests queued behind it.
+ * The pool grows from the min channel count to the max count once the least loaded channel reaches
+ * the pending threshold, and the extra channels are closed after the pool has been idle for a while.
+ * The inactive channels are reconnected in background instead of the request thread.
+ * <p>
+ * The requests of bulk methods are sent by dedicated channels, so the small requests do not wait behind
+ * the bulk transfers, and the provider writes the responses on the channels where the requests came from.
+ * A method is bulk if it is configured by method level option, or its encoded request or response once reached
+ * the bulk threshold.
+ */
 @Slf4j
 public abstract class AbstractPooledClient extends AbstractClient {
 
@@ -24,32 +47,87 @@ public abstract class AbstractPooledClient extends AbstractClient {
      */
     private static final ThreadPoolExecutor           NETWORK_THREAD_POOL = new NetworkThreadPoolExecutor(1, 300,
             20000, new BasicThreadFactory.Builder().namingPattern(AbstractPooledClient.class.getSimpleName() + "-%d").daemon(true).build());
+    /**
+     * Max count of the methods detected as bulk by payload size
+     */
+    private static final int                          MAX_BULK_METHODS    = 1024;
     /**
      * Object factory used to build channel
      */
     private              SharedObjectFactory<Channel> factory;
     /**
-     * Channel size
+     * Min channel size
+     */
+    private final        int                          minChannelSize;
+    /**
+     * Max channel size
+     */
+    private final        int                          maxChannelSize;
+    /**
+     * Pending requests of the least loaded channel which triggers a new channel
+     */
+    private final        int                          pendingThreshold;
+    /**
+     * Idle time in milliseconds after which an extra channel is closed
+     */
+    private final        int                          idleTime;
+    /**
+     * Bulk channel size
+     */
+    private final        int                          bulkChannelSize;
+    /**
+     * Channels, the array is replaced instead of modified, so the request threads can read it without locking
+     */
+    private volatile     Channel[]                    channels            = new Channel[0];
+    /**
+     * Channels dedicated to bulk requests, they are created and connected on the first bulk request
      */
-    private final        int                          channelSize;
+    private volatile     Channel[]                    bulkChannels        = new Channel[0];
     /**
-     * Channels
+     * Signatures of the methods whose encoded request or response reached the bulk threshold
      */
-    private              List<Channel>                channels;
+    private final        Set<String>                  bulkMethods         = ConcurrentHashMap.newKeySet();
     /**
-     * Channel index
+     * Channels removed from the pool, they are closed once their pending requests have completed
+     */
+    private final        List<Channel>                retiredChannels     = new ArrayList<>();
+    /**
+     * Channel index where the selection starts, it spreads the requests over the channels with the same load
      */
     private final        AtomicInteger                idx                 = new AtomicInteger();
+    /**
+     * Whether a new channel is being created
+     */
+    private final        AtomicBoolean                growing             = new AtomicBoolean();
+    /**
+     * Last time when the least loaded channel reached the pending threshold
+     */
+    private volatile     long                         lastBusyTime;
+    private              ScheduledFuture<?>           shrinkFuture;
+    private              boolean                      poolClosed;
 
     public AbstractPooledClient(Url providerUrl) {
         super(providerUrl);
-        channelSize = providerUrl.getIntOption(ProtocolConstants.MIN_CLIENT_CONN, ProtocolConstants.MIN_CLIENT_CONN_VAL_DEFAULT);
+        minChannelSize = Math.max(providerUrl.getIntOption(ProtocolConstants.MIN_CLIENT_CONN, ProtocolConstants.MIN_CLIENT_CONN_VAL_DEFAULT), 1);
+        maxChannelSize = Math.max(providerUrl.getIntOption(ProtocolConstants.MAX_CLIENT_CONN, ProtocolConstants.MAX_CLIENT_CONN_VAL_DEFAULT), minChannelSize);
+        pendingThreshold = Math.max(providerUrl.getIntOption(ProtocolConstants.CONN_PENDING_THRESHOLD, ProtocolConstants.CONN_PENDING_THRESHOLD_VAL_DEFAULT), 1);
+        idleTime = Math.max(providerUrl.getIntOption(ProtocolConstants.CONN_IDLE_TIME, ProtocolConstants.CONN_IDLE_TIME_VAL_DEFAULT), 0);
+        bulkChannelSize = Math.max(providerUrl.getIntOption(ProtocolConstants.BULK_CLIENT_CONN, ProtocolConstants.BULK_CLIENT_CONN_VAL_DEFAULT), 0);
     }
 
     protected void createConnectionPool() {
         factory = createChannelFactory();
-        channels = new ArrayList<>(channelSize);
-        IntStream.range(0, channelSize).forEach(x -> channels.add(factory.buildObject()));
+        List<Channel> initialChannels = new ArrayList<>(minChannelSize);
+        IntStream.range(0, minChannelSize).forEach(x -> initialChannels.add(factory.buildObject()));
+        synchronized (this) {
+            channels = initialChannels.toArray(new Channel[0]);
+            bulkChannels = new Channel[0];
+            poolClosed = false;
+            if (maxChannelSize > minChannelSize) {
+                shrinkFuture = ScheduledThreadPool.schedulePeriodicalTask(ScheduledThreadPool.SHRINK_CONN_THREAD_POOL,
+                        ScheduledThreadPool.SHRINK_CONN_INTERVAL, this::shrinkConnectionPool);
+            }
+        }
         boolean asyncCreate = providerUrl.getBooleanOption(ProtocolConstants.ASYNC_CREATE_CONN, ProtocolConstants.ASYNC_CREATE_CONN_VAL_DEFAULT);
         createConnections(asyncCreate);
     }
@@ -63,7 +141,11 @@ public abstract class AbstractPooledClient extends AbstractClient {
     }
 
     private void createConnections() {
-        for (Channel channel : channels) {
+        openChannels(channels);
+    }
+
+    private void openChannels(Channel[] candidates) {
+        for (Channel channel : candidates) {
             try {
                 channel.open();
             } catch (Exception e) {
@@ -72,28 +154,225 @@ public abstract class AbstractPooledClient extends AbstractClient {
         }
     }
 
+    /**
+     * Get the channel used to send the request
+     *
+     * @param request RPC request
+     * @return channel
+     */
+    protected Channel getChannel(Requestable request) {
+        if (bulkChannelSize > 0 && isBulk(request)) {
+            Channel[] current = bulkChannels;
+            if (current.length == 0) {
+                createBulkChannels();
+            } else {
+                Channel channel = selectChannel(current);
+                if (channel != null) {
+                    return channel;
+                }
+            }
+            // Fall back to the regular channels until a bulk channel is connected
+        }
+        return getChannel();
+    }
+
+    /**
+     * Create the bulk channels and connect them in background on the first bulk request
+     */
+    private void createBulkChannels() {
+        Channel[] created;
+        synchronized (this) {
+            if (poolClosed || bulkChannels.length > 0) {
+                return;
+            }
+            created = new Channel[bulkChannelSize];
+            for (int i = 0; i < bulkChannelSize; i++) {
+                created[i] = factory.buildObject();
+            }
+            bulkChannels = created;
+        }
+        log.info("Created [{}] bulk channels for url [{}]", created.length, providerUrl.getUri());
+        try {
+            NETWORK_THREAD_POOL.execute(() -> openChannels(created));
+        } catch (RejectedExecutionException e) {
+            // The inactive bulk channels are reconnected by the subsequent bulk requests
+            log.warn("Failed to connect the bulk channels for url [" + providerUrl.getUri() + "]", e);
+        }
+    }
+
     protected Channel getChannel() {
+        Channel[] current = channels;
+        Channel selected = selectChannel(current);
+        if (selected == null) {
+            String errorMsg = "Failed to get channel for url [" + providerUrl.getUri() + "]";
+            throw new RpcFrameworkException(errorMsg);
+        }
+        if (selected.getPendingCount() >= pendingThreshold) {
+            lastBusyTime = System.currentTimeMillis();
+            if (current.length < maxChannelSize) {
+                growConnectionPool();
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Select the active channel with the fewest pending requests, the unwritable channels are selected
+     * only if all the active channels are unwritable
+     *
+     * @param candidates candidate channels
+     * @return channel or null if none of them is active
+     */
+    private Channel selectChannel(Channel[] candidates) {
+        int size = candidates.length;
         int index = MathUtils.getRangedNonNegativeVal(idx.getAndIncrement());
-        Channel channel;
+        Channel selected = null;
+        Channel unwritable = null;
+        int minPending = Integer.MAX_VALUE;
 
-        for (int i = index; i < channelSize + 1 + index; i++) {
-            channel = channels.get(i % channelSize);
+        for (int i = 0; i < size; i++) {
+            Channel channel = candidates[(index + i) % size];
             if (!channel.isActive()) {
-                factory.rebuildObject(channel, i != channelSize + 1);
+                // Reconnect in background, the request is sent by the other channels
+                factory.rebuildObject(channel, true);
+                continue;
+            }
+            if (!channel.isWritable()) {
+                // The outbound buffer is not draining, the peer or network is slow
+                unwritable = unwritable == null ? channel : unwritable;
+                continue;
             }
-            if (channel.isActive()) {
-                return channel;
+            int pending = channel.getPendingCount();
+            if (pending < minPending) {
+                selected = channel;
+                minPending = pending;
+                if (pending == 0) {
+                    break;
+                }
             }
         }
-        String errorMsg = "Failed to get channel for url [" + providerUrl.getUri() + "]";
-        throw new RpcFrameworkException(errorMsg);
+        return selected != null ? selected : unwritable;
     }
 
-    protected void closeAllChannels() {
-        if (CollectionUtils.isEmpty(channels)) {
+    private boolean isBulk(Requestable request) {
+        String bulk = getProviderUrl(request).getMethodLevelOption(request.getMethodName(),
+                request.getMethodParameters(), ServiceConstants.BULK);
+        if (bulk != null) {
+            return Boolean.parseBoolean(bulk);
+        }
+        return !bulkMethods.isEmpty() && bulkMethods.contains(MethodParameterUtils.getFullMethodSignature(request));
+    }
+
+    /**
+     * Mark the method of the request as bulk, so that its subsequent requests are sent by the bulk channels
+     *
+     * @param request RPC request whose encoded request or response reached the bulk threshold
+     */
+    public void markBulkMethod(Requestable request) {
+        if (bulkChannelSize == 0 || bulkMethods.size() >= MAX_BULK_METHODS) {
+            return;
+        }
+        if (bulkMethods.add(MethodParameterUtils.getFullMethodSignature(request))) {
+            log.info("Marked method [{}] as bulk for url [{}]", MethodParameterUtils.getFullMethodSignature(request), providerUrl.getUri());
+        }
+    }
+
+    /**
+     * Add a channel to the pool in background
+     */
+    private void growConnectionPool() {
+        if (!growing.compareAndSet(false, true)) {
             return;
         }
-        channels.forEach(Channel::close);
+        try {
+            NETWORK_THREAD_POOL.execute(() -> {
+                try {
+                    Channel channel = factory.buildObject();
+                    channel.open();
+                    synchronized (this) {
+                        if (poolClosed || channels.length >= maxChannelSize) {
+                            channel.close();
+                            return;
+                        }
+                        channels = ArrayUtils.add(channels, channel);
+                    }
+                    log.info("Increased the channels to [{}] for url [{}]", channels.length, providerUrl.getUri());
+                } catch (Exception e) {
+                    log.warn("Failed to increase the channels for url [" + providerUrl.getUri() + "]", e);
+                } finally {
+                    growing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            growing.set(false);
+        }
+    }
+
+    /**
+     * Remove an extra channel from the pool if it has been idle, and close the drained channels
+     */
+    void shrinkConnectionPool() {
+        try {
+            synchronized (this) {
+                if (poolClosed) {
+                    return;
+                }
+                if (channels.length > minChannelSize && System.currentTimeMillis() - lastBusyTime >= idleTime) {
+                    // The channel may have been selected before the removal,
+                    // so it is closed on the next check when all its requests have completed
+                    retiredChannels.add(channels[channels.length - 1]);
+                    channels = Arrays.copyOf(channels, channels.length - 1);
+                    log.info("Decreased the channels to [{}] for url [{}]", channels.length, providerUrl.getUri());
+                    return;
+                }
+                retiredChannels.removeIf(channel -> {
+                    if (channel.getPendingCount() > 0) {
+                        // Wait for the responses or timeouts of the pending requests
+                        return false;
+                    }
+                    channel.close();
+                    return true;
+                });
+            }
+        } catch (Exception e) {
+            log.error("Failed to shrink the channels for url [" + providerUrl.getUri() + "]", e);
+        }
+    }
+
+    @Override
+    public boolean isWritable() {
+        for (Channel channel : channels) {
+            if (channel.isActive() && channel.isWritable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getPendingCount() {
+        int pending = 0;
+        for (Channel channel : channels) {
+            pending += channel.getPendingCount();
+        }
+        for (Channel channel : bulkChannels) {
+            pending += channel.getPendingCount();
+        }
+        return pending;
+    }
+
+    protected void closeAllChannels() {
+        Channel[] closingChannels;
+        synchronized (this) {
+            poolClosed = true;
+            if (shrinkFuture != null) {
+                shrinkFuture.cancel(false);
+                shrinkFuture = null;
+            }
+            closingChannels = ArrayUtils.addAll(ArrayUtils.addAll(channels, bulkChannels), retiredChannels.toArray(new Channel[0]));
+            retiredChannels.clear();
+        }
+        Arrays.stream(closingChannels).forEach(Channel::close);
     }
 
     /**
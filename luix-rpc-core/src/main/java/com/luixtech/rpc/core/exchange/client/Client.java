@@ -2,6 +2,7 @@ package com.luixtech.rpc.core.exchange.client;
 
 import com.luixtech.rpc.core.client.request.Requestable;
 import com.luixtech.rpc.core.exchange.endpoint.Endpoint;
+import com.luixtech.rpc.core.url.Url;
 
 public interface Client extends Endpoint {
     /**
@@ -10,4 +11,27 @@ public interface Client extends Endpoint {
      * @param request request object
      */
     void checkHealth(Requestable request);
+
+    /**
+     * Add the provider url of an interface which shares the client
+     *
+     * @param providerUrl provider url of the interface
+     */
+    void addInterfaceUrl(Url providerUrl);
+
+    /**
+     * Remove the provider url of an interface which no longer uses the client
+     *
+     * @param providerUrl provider url of the interface
+     */
+    void removeInterfaceUrl(Url providerUrl);
+
+    /**
+     * Get the provider url of the interface which sends the request,
+     * so that the interface level options are still applied when the client is shared by multiple interfaces
+     *
+     * @param request request object
+     * @return provider url of the interface, or the provider url of the client if not found
+     */
+    Url getProviderUrl(Requestable request);
 }
@@ -23,6 +23,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * non-shared channel: 某个service暴露服务的时候，不期望和别的service共享服务，明哲自保，比如你说：我很重要，我很重要。
  * shared channel: 某个service暴露服务的时候，如果有某个模块，但是拆成10个接口，可以使用这种方式，不过有一些约束条件：接口的几个serviceConfig配置需要保持一致。
  * 不允许差异化的配置如下：protocol, codec, serializer, maxContentLength, maxServerConnection, maxWorkerThread, workerQueueSize, healthChecker
+ * shared client: the interfaces of the same provider address share one pooled client if the options of their connections are the same,
+ * see {@link RpcFrameworkUtils#getSharedClientKey(Url)}, and the client is destroyed after the last interface has released it.
  */
 @Slf4j
 public abstract class AbstractNetworkTransmissionFactory implements NetworkTransmissionFactory {
@@ -30,6 +32,14 @@ public abstract class AbstractNetworkTransmissionFactory implements NetworkTrans
     private final          EndpointManager          endpointManager;
     protected static final Map<String, Server>      ADDRESS_2_SHARED_SERVER          = new ConcurrentHashMap<>();
     protected static final Map<Server, Set<String>> SHARED_SERVER_2_PROVIDER_KEY_SET = new ConcurrentHashMap<>();
+    /**
+     * Shared client key to the client shared by the interfaces of the same provider address
+     */
+    protected static final Map<String, Client>      KEY_2_SHARED_CLIENT              = new ConcurrentHashMap<>();
+    /**
+     * Shared client key to the number of interfaces using the client
+     */
+    protected static final Map<String, Integer>     SHARED_CLIENT_KEY_2_REF_COUNT    = new ConcurrentHashMap<>();
 
     public AbstractNetworkTransmissionFactory() {
         endpointManager = new CheckHealthClientEndpointManager();
@@ -38,17 +48,62 @@ public abstract class AbstractNetworkTransmissionFactory implements NetworkTrans
 
     @Override
     public Client createClient(Url providerUrl) {
-        log.info("Created a client for url [{}] by [{}]", providerUrl, this.getClass().getSimpleName());
-        Client client = doCreateClient(providerUrl);
-        endpointManager.addEndpoint(client);
-        return client;
+        boolean sharedClient = providerUrl.getBooleanOption(ProtocolConstants.SHARED_CLIENT, ProtocolConstants.SHARED_CLIENT_VAL_DEFAULT);
+        if (!sharedClient) {
+            log.info("Created a client for url [{}] by [{}]", providerUrl, this.getClass().getSimpleName());
+            Client client = doCreateClient(providerUrl);
+            endpointManager.addEndpoint(client);
+            return client;
+        }
+
+        synchronized (KEY_2_SHARED_CLIENT) {
+            String key = RpcFrameworkUtils.getSharedClientKey(providerUrl);
+            Client client = KEY_2_SHARED_CLIENT.get(key);
+            if (client == null) {
+                Url urlCopy = providerUrl.copy();
+                // The client is shared by multiple interfaces, so set the path to empty
+                urlCopy.setPath(StringUtils.EMPTY);
+                client = doCreateClient(urlCopy);
+                endpointManager.addEndpoint(client);
+                KEY_2_SHARED_CLIENT.put(key, client);
+                log.info("Created a shared client for key [{}] by [{}]", key, this.getClass().getSimpleName());
+            }
+            client.addInterfaceUrl(providerUrl);
+            SHARED_CLIENT_KEY_2_REF_COUNT.merge(key, 1, Integer::sum);
+            return client;
+        }
     }
 
     @Override
     public void destroyClient(Client client, Url providerUrl) {
-        client.close();
-        endpointManager.removeEndpoint(client);
-        log.info("Destroyed the client for [{}] by [{}]", providerUrl, this.getClass().getSimpleName());
+        boolean sharedClient = providerUrl.getBooleanOption(ProtocolConstants.SHARED_CLIENT, ProtocolConstants.SHARED_CLIENT_VAL_DEFAULT);
+        if (!sharedClient) {
+            client.close();
+            endpointManager.removeEndpoint(client);
+            log.info("Destroyed the client for [{}] by [{}]", providerUrl, this.getClass().getSimpleName());
+            return;
+        }
+
+        synchronized (KEY_2_SHARED_CLIENT) {
+            String key = RpcFrameworkUtils.getSharedClientKey(providerUrl);
+            client.removeInterfaceUrl(providerUrl);
+            if (client != KEY_2_SHARED_CLIENT.get(key)) {
+                client.close();
+                endpointManager.removeEndpoint(client);
+                return;
+            }
+            int refCount = SHARED_CLIENT_KEY_2_REF_COUNT.getOrDefault(key, 1) - 1;
+            if (refCount > 0) {
+                SHARED_CLIENT_KEY_2_REF_COUNT.put(key, refCount);
+                return;
+            }
+            // The last interface has released the client
+            endpointManager.removeEndpoint(client);
+            client.close();
+            KEY_2_SHARED_CLIENT.remove(key);
+            SHARED_CLIENT_KEY_2_REF_COUNT.remove(key);
+            log.info("Destroyed the shared client for key [{}] by [{}]", key, this.getClass().getSimpleName());
+        }
     }
 
     @Override
@@ -70,7 +70,7 @@ public class ProviderChangeDiscoveryListener implements ProviderDiscoveryListene
             // Find provider invoker associated with the provider url
             Sendable sender = findInvokerByProviderUrl(registryUrl, providerUrl);
             if (sender == null) {
-                sender = protocol.createRequestSender(consumerUrl.getPath(), providerUrl.copy());
+                sender = protocol.createRequestSender(consumerUrl.getPath(), providerUrl.copy(), consumerUrl);
             }
             newSenders.add(sender);
         }
@@ -16,8 +16,8 @@ public abstract class AbstractProtocol implements Protocol {
     protected static final Map<String, ProviderExposable> EXPOSED_PROVIDERS = new ConcurrentHashMap<>();
 
     @Override
-    public Sendable createRequestSender(String interfaceName, Url providerUrl) {
-        return new RequestSender(interfaceName, providerUrl);
+    public Sendable createRequestSender(String interfaceName, Url providerUrl, Url consumerUrl) {
+        return new RequestSender(interfaceName, providerUrl, consumerUrl);
     }
 
     @Override
@@ -15,9 +15,10 @@ public interface Protocol {
      *
      * @param interfaceName provider interface name
      * @param providerUrl   provider url
+     * @param consumerUrl   consumer url
      * @return RPC request sender
      */
-    Sendable createRequestSender(String interfaceName, Url providerUrl);
+    Sendable createRequestSender(String interfaceName, Url providerUrl, Url consumerUrl);
 
     /**
      * Expose provider
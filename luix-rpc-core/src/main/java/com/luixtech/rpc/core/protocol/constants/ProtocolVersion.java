@@ -3,7 +3,8 @@ package com.luixtech.rpc.core.protocol.constants;
 public enum ProtocolVersion {
     VERSION_1((byte) 1, 16),
     VERSION_1_Compress((byte) 2, 16),
-    VERSION_2((byte) 3, 13);
+    VERSION_2((byte) 3, 13),
+    VERSION_3((byte) 4, 13);
 
     private byte version;
     private int  headerLength;
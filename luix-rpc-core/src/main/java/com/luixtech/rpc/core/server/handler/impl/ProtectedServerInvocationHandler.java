@@ -2,124 +2,93 @@ package com.luixtech.rpc.core.server.handler.impl;
 
 import com.luixtech.rpc.core.client.request.Requestable;
 import com.luixtech.rpc.core.constant.ProtocolConstants;
-import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.constant.ServiceConstants;
+import com.luixtech.rpc.core.exception.ExceptionUtils;
+import com.luixtech.rpc.core.exception.impl.RpcOverloadedException;
+import com.luixtech.rpc.core.server.limiter.VegasConcurrencyLimiter;
 import com.luixtech.rpc.core.server.response.Responseable;
 import com.luixtech.rpc.core.server.response.impl.RpcResponse;
 import com.luixtech.rpc.core.server.stub.ProviderStub;
-import com.luixtech.rpc.core.utils.MethodParameterUtils;
 import com.luixtech.rpc.core.utils.RpcFrameworkUtils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * <p>
- * provider消息处理分发：支持一定程度的自我防护
- * <p>
- * <pre>
- * 	1) 如果接口只有一个方法，那么直接return true
- * 	2) 如果接口有多个方法，那么如果单个method超过 maxThread / 2 && totalCount >  (maxThread * 3 / 4)，那么return false;
- * 	3) 如果接口有多个方法(4个)，同时总的请求数超过 maxThread * 3 / 4，同时该method的请求数超过 maxThead * 1 / 4， 那么return false
- * 	4) 其他场景return true
- * </pre>
+ * Server invocation handler which protects each provider by an adaptive concurrency limit.
+ * The limit tracks the in-flight requests which saturate the provider without queueing,
+ * the excess requests are rejected immediately, so the consumers can fail over to other providers
+ * instead of waiting in queue until timeout.
  */
 @Slf4j
 public class ProtectedServerInvocationHandler extends ServerInvocationHandler {
-    protected ConcurrentMap<String, AtomicInteger> requestCounters = new ConcurrentHashMap<>();
-    protected AtomicInteger                        totalCounter    = new AtomicInteger(0);
-    protected AtomicInteger                        rejectCounter   = new AtomicInteger(0);
+    private static final int                                                     INITIAL_LIMIT = 20;
+    protected final      ConcurrentMap<ProviderStub<?>, VegasConcurrencyLimiter> limiters      = new ConcurrentHashMap<>();
+    protected final      AtomicInteger                                           rejectCounter = new AtomicInteger(0);
 
     @Override
     protected Responseable invoke(Requestable request, ProviderStub<?> providerStub) {
-        // 支持的最大worker thread数
-        int maxThread = providerStub.getUrl().getIntOption(ProtocolConstants.MAX_THREAD, ProtocolConstants.MAX_THREAD_VAL_DEFAULT);
-        String requestKey = MethodParameterUtils.getFullMethodSignature(request);
-
+        if (ProviderStub.BUILD_IN_METHODS.contains(request.getMethodName())) {
+            // Never reject health check and management requests
+            return super.invoke(request, providerStub);
+        }
+        VegasConcurrencyLimiter limiter = limiters.computeIfAbsent(providerStub, this::createLimiter);
+        if (!limiter.tryAcquire()) {
+            return reject(request, limiter);
+        }
+        long start = System.nanoTime();
+        Responseable response = null;
         try {
-            int requestCounter = incrRequestCounter(requestKey);
-            int totalCounter = incrTotalCounter();
-            if (isAllowRequest(requestCounter, totalCounter, maxThread, request)) {
-                return super.invoke(request, providerStub);
-            } else {
-                // reject request
-                return reject(request.getInterfaceName() + "." + request.getMethodName(), requestCounter, totalCounter, maxThread, request);
-            }
+            response = super.invoke(request, providerStub);
+            return response;
         } finally {
-            decrTotalCounter();
-            decrRequestCounter(requestKey);
+            long elapsed = System.nanoTime() - start;
+            limiter.release(elapsed, isDropped(request, response, elapsed));
         }
     }
 
-    private Responseable reject(String method, int requestCounter, int totalCounter, int maxThread, Requestable request) {
-        RpcFrameworkException exception = new RpcFrameworkException("ThreadProtectedRequestRouter reject request: request_counter=" + requestCounter
-                + " total_counter=" + totalCounter + " max_thread=" + maxThread);
-        exception.setStackTrace(new StackTraceElement[0]);
-        RpcResponse response = RpcFrameworkUtils.buildErrorResponse(request, exception);
-        log.error("ThreadProtectedRequestRouter reject request: request_method=" + method + " request_counter=" + requestCounter
-                + " =" + totalCounter + " max_thread=" + maxThread);
-        rejectCounter.incrementAndGet();
-        return response;
-    }
-
-    private int incrRequestCounter(String requestKey) {
-        AtomicInteger counter = requestCounters.get(requestKey);
-
-        if (counter == null) {
-            counter = new AtomicInteger(0);
-            requestCounters.putIfAbsent(requestKey, counter);
-            counter = requestCounters.get(requestKey);
+    /**
+     * The request is regarded as dropped if it failed for a reason other than business exception,
+     * or its response is useless for the consumer
+     */
+    private boolean isDropped(Requestable request, Responseable response, long elapsedNanos) {
+        if (response == null) {
+            // Exception thrown
+            return true;
         }
-
-        return counter.incrementAndGet();
+        Exception exception = response.getException();
+        return exception != null && !ExceptionUtils.isBizException(exception) || isExpired(request, elapsedNanos);
     }
 
-    private int decrRequestCounter(String requestKey) {
-        AtomicInteger counter = requestCounters.get(requestKey);
-
-        if (counter == null) {
-            return 0;
+    /**
+     * The response is useless for the consumer if it exceeds the deadline or timeout
+     */
+    private boolean isExpired(Requestable request, long elapsedNanos) {
+        if (request.getDeadline() > 0) {
+            return RpcFrameworkUtils.isDeadlineExceeded(request);
         }
-        return counter.decrementAndGet();
+        int timeout = request.getIntOption(ServiceConstants.REQUEST_TIMEOUT, ServiceConstants.REQUEST_TIMEOUT_VAL_DEFAULT);
+        return timeout > 0 && elapsedNanos > TimeUnit.MILLISECONDS.toNanos(timeout);
     }
 
-    private int incrTotalCounter() {
-        return totalCounter.incrementAndGet();
-    }
-
-    private int decrTotalCounter() {
-        return totalCounter.decrementAndGet();
+    private VegasConcurrencyLimiter createLimiter(ProviderStub<?> providerStub) {
+        int maxThread = providerStub.getUrl().getIntOption(ProtocolConstants.MAX_THREAD, ProtocolConstants.MAX_THREAD_VAL_DEFAULT);
+        return new VegasConcurrencyLimiter(Math.min(INITIAL_LIMIT, maxThread), maxThread);
     }
 
-    protected boolean isAllowRequest(int requestCounter, int totalCounter, int maxThread, Requestable request) {
-        if (EXPOSED_METHOD_COUNT.get() == 1) {
-            return true;
-        }
-
-        // 该方法第一次请求，直接return true
-        if (requestCounter == 1) {
-            return true;
-        }
-
-        // 不简单判断 requestCount > (maxThread / 2) ，因为假如有2或者3个method对外提供，
-        // 但是只有一个接口很大调用量，而其他接口很空闲，那么这个时候允许单个method的极限到 maxThread * 3 / 4
-        if (requestCounter > (maxThread / 2) && totalCounter > (maxThread * 3 / 4)) {
-            return false;
+    private Responseable reject(Requestable request, VegasConcurrencyLimiter limiter) {
+        RpcOverloadedException exception = new RpcOverloadedException("Rejected request for exceeding concurrency limit: inflight="
+                + limiter.getInflight() + " limit=" + limiter.getLimit());
+        exception.setStackTrace(new StackTraceElement[0]);
+        RpcResponse response = RpcFrameworkUtils.buildErrorResponse(request, exception);
+        if (rejectCounter.incrementAndGet() % 1000 == 1) {
+            // Rejection is expected under overload, so do not flood the log
+            log.warn("Rejected request of [{}.{}] for exceeding concurrency limit [{}], total rejected: {}",
+                    request.getInterfaceName(), request.getMethodName(), limiter.getLimit(), rejectCounter.get());
         }
-
-        // 如果总体线程数超过 maxThread * 3 / 4个，并且对外的method比较多，那么意味着这个时候整体压力比较大，
-        // 那么这个时候如果单method超过 maxThread * 1 / 4，那么reject
-        return !(EXPOSED_METHOD_COUNT.get() >= 4 && totalCounter > (maxThread * 3 / 4) && requestCounter > (maxThread / 4));
+        return response;
     }
-
-//    @Override
-//    public String statisticCallback() {
-//        int count = rejectCounter.getAndSet(0);
-//        if (count > 0) {
-//            return String.format("type: luix name: reject_request total_count: %s reject_count: %s", totalCounter.get(), count);
-//        } else {
-//            return null;
-//        }
-//    }
 }
@@ -17,6 +17,7 @@
 package com.luixtech.rpc.core.server.handler.impl;
 
 import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcMethodIdRequest;
 import com.luixtech.rpc.core.client.request.impl.RpcRequest;
 import com.luixtech.rpc.core.constant.RpcConstants;
 import com.luixtech.rpc.core.constant.ServiceConstants;
@@ -25,6 +26,8 @@ import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
 import com.luixtech.rpc.core.exchange.Channel;
 import com.luixtech.rpc.core.server.handler.InvocationHandleable;
 import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.server.response.impl.RpcResponse;
+import com.luixtech.rpc.core.server.stub.ProviderMethodTable;
 import com.luixtech.rpc.core.server.stub.ProviderStub;
 import com.luixtech.rpc.core.server.stub.ProviderStubHolder;
 import com.luixtech.rpc.core.url.Url;
@@ -66,23 +69,52 @@ public class ServerInvocationHandler implements InvocationHandleable {
         }
 
         Requestable request = (Requestable) message;
-        String stubName = ProviderStub.buildProviderStubBeanName(request.getInterfaceName(),
-                request.getOption(ServiceConstants.FORM), request.getOption(ServiceConstants.VERSION));
-        ProviderStub<?> providerStub = ProviderStubHolder.getInstance().getMap().get(stubName);
+        if (RpcMethodIdRequest.isMethodIdRequest(request)) {
+            return handleMethodIdRequest(request);
+        }
 
-        if (providerStub == null) {
-            log.error("No provider found with key [{}] for {}", stubName, request);
-            RpcFrameworkException exception = new RpcFrameworkException("No provider found with key [" + stubName + "] for " + request);
-            return RpcFrameworkUtils.buildErrorResponse(request, exception);
+        ProviderStub<?> providerStub;
+        Method method;
+        ProviderMethodTable.Entry entry = ProviderMethodTable.getInstance().get(request.getMethodId());
+        if (entry != null) {
+            // Dispatch by the negotiated method ID directly
+            providerStub = entry.getProviderStub();
+            method = entry.getMethod();
+        } else {
+            String stubName = ProviderStub.buildProviderStubBeanName(request.getInterfaceName(),
+                    request.getOption(ServiceConstants.FORM), request.getOption(ServiceConstants.VERSION));
+            providerStub = ProviderStubHolder.getInstance().getMap().get(stubName);
+
+            if (providerStub == null) {
+                log.error("No provider found with key [{}] for {}", stubName, request);
+                RpcFrameworkException exception = new RpcFrameworkException("No provider found with key [" + stubName + "] for " + request);
+                return RpcFrameworkUtils.buildErrorResponse(request, exception);
+            }
+            method = providerStub.findMethod(request.getMethodName(), request.getMethodParameters());
         }
 
-        Method method = providerStub.findMethod(request.getMethodName(), request.getMethodParameters());
         fillMethodParameters(request, method);
         // Process lazy arguments
         deserializeLazyArgs(request, method);
-        Responseable response = invoke(request, providerStub);
+        Responseable response;
+        if (RpcFrameworkUtils.isDeadlineExceeded(request)) {
+            // Check again before invoking provider, because it may take long to deserialize the arguments
+            response = RpcFrameworkUtils.buildDeadlineExceededResponse(request);
+        } else {
+            response = invoke(request, providerStub);
+        }
         // Set serializer ID of response with request's one
         response.setSerializerId(request.getSerializerId());
+        // Compress response body with the same compressor of request
+        response.setCompressorId(request.getCompressorId());
+        response.setProtocolVersion(request.getProtocolVersion());
+        return response;
+    }
+
+    private Responseable handleMethodIdRequest(Requestable request) {
+        RpcResponse response = RpcResponse.of(ProviderMethodTable.getInstance().getMethodIds());
+        response.setRequestId(request.getRequestId());
+        response.setSerializerId(request.getSerializerId());
         response.setProtocolVersion(request.getProtocolVersion());
         return response;
     }
@@ -141,6 +173,7 @@ public class ServerInvocationHandler implements InvocationHandleable {
         ProviderStub<?> providerStub = ProviderStubHolder.getInstance().getMap().get(stubName);
 
         NAME_2_URL.remove(stubName);
+        ProviderMethodTable.getInstance().remove(providerUrl.getPath(), providerUrl.getForm(), providerUrl.getVersion());
 
         List<Method> methods = MethodParameterUtils.getPublicMethod(providerStub.getInterfaceClass());
         EXPOSED_METHOD_COUNT.getAndSet(EXPOSED_METHOD_COUNT.get() - methods.size());
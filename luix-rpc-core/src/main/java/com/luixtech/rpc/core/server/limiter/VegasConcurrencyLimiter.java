@@ -0,0 +1,116 @@
+package com.luixtech.rpc.core.server.limiter;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limiter based on TCP Vegas congestion control.
+ * It keeps the min latency as the no-load latency, and estimates the queue size by
+ * {@code limit * (1 - noLoadLatency / latency)} on every sample.
+ * The limit grows while the estimated queue is small, and shrinks once the queue grows or a request is dropped,
+ * so the in-flight requests converge to the count which saturates the provider without queueing.
+ * The no-load latency is reset periodically to probe the changes of the provider capacity.
+ */
+@ThreadSafe
+public class VegasConcurrencyLimiter {
+    private static final int           PROBE_MULTIPLIER = 30;
+    private final        int           maxLimit;
+    private final        AtomicInteger inflight         = new AtomicInteger();
+    private volatile     int           limit;
+    /**
+     * Estimated limit which is rounded to {@link #limit}
+     */
+    private              double        estimatedLimit;
+    /**
+     * Min latency in nanoseconds
+     */
+    private              long          noLoadLatency;
+    private              long          probeCountdown;
+
+    public VegasConcurrencyLimiter(int initialLimit, int maxLimit) {
+        this.maxLimit = Math.max(maxLimit, 1);
+        this.estimatedLimit = Math.max(Math.min(initialLimit, this.maxLimit), 1);
+        this.limit = (int) estimatedLimit;
+        this.probeCountdown = nextProbeCountdown();
+    }
+
+    /**
+     * Acquire a permit if the in-flight requests do not reach the limit
+     *
+     * @return {@code true} if acquired and {@code false} otherwise
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release the permit and update the limit with the latency of the request
+     *
+     * @param latencyNanos latency in nanoseconds
+     * @param dropped      whether the request was dropped by timeout or overload
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        int current = inflight.getAndDecrement();
+        update(latencyNanos, current, dropped);
+    }
+
+    private synchronized void update(long latencyNanos, int currentInflight, boolean dropped) {
+        if (latencyNanos <= 0) {
+            return;
+        }
+        if (--probeCountdown <= 0) {
+            // Forget the min latency to probe the current no-load latency
+            probeCountdown = nextProbeCountdown();
+            noLoadLatency = latencyNanos;
+            return;
+        }
+        if (noLoadLatency == 0 || latencyNanos < noLoadLatency) {
+            noLoadLatency = latencyNanos;
+            return;
+        }
+
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        double newLimit;
+        if (dropped) {
+            newLimit = estimatedLimit - log;
+        } else if (currentInflight * 2 < estimatedLimit) {
+            // The limit is not the bottleneck
+            return;
+        } else {
+            int queueSize = (int) Math.ceil(estimatedLimit * (1 - (double) noLoadLatency / latencyNanos));
+            if (queueSize <= log) {
+                newLimit = estimatedLimit + 6 * log;
+            } else if (queueSize < 3 * log) {
+                newLimit = estimatedLimit + log;
+            } else if (queueSize > 6 * log) {
+                newLimit = estimatedLimit - log;
+            } else {
+                return;
+            }
+        }
+        estimatedLimit = Math.max(1, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    private long nextProbeCountdown() {
+        // Jitter the probes of the limiters
+        return (long) (PROBE_MULTIPLIER * estimatedLimit * (0.5 + ThreadLocalRandom.current().nextDouble() * 0.5));
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
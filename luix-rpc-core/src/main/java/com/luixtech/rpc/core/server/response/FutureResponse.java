@@ -1,5 +1,7 @@
 package com.luixtech.rpc.core.server.response;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface FutureResponse extends Responseable, Future {
     void onSuccess(Responseable response);
 
@@ -8,4 +10,11 @@ public interface FutureResponse extends Responseable, Future {
     long getCreatedTime();
 
     void setReturnType(Class<?> clazz);
+
+    /**
+     * Bridge to {@link CompletableFuture} which is completed by the response callback without blocking any thread
+     *
+     * @return completable future of the result
+     */
+    CompletableFuture<Object> toCompletableFuture();
 }
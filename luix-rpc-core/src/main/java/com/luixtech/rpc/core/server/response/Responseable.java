@@ -45,4 +45,18 @@ public interface Responseable extends Exchangable {
      * @return serialization number
      */
     int getSerializerId();
+
+    /**
+     * Set the compressor ID of message body, 0 means no compressor
+     *
+     * @param compressorId compressor ID
+     */
+    void setCompressorId(int compressorId);
+
+    /**
+     * Get the compressor ID of message body
+     *
+     * @return compressor ID
+     */
+    int getCompressorId();
 }
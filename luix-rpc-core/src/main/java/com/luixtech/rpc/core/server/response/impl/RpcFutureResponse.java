@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
@@ -60,6 +61,10 @@ public class RpcFutureResponse implements FutureResponse, Serializable {
      * default serialization is hession2
      */
     protected            int                  serializerId     = 0;
+    /**
+     * Compressor of message body, 0 means no compressor
+     */
+    protected            int                  compressorId     = 0;
 
     public RpcFutureResponse(Requestable requestObj, int timeout, Url serverUrl) {
         this.request = requestObj;
@@ -92,7 +97,7 @@ public class RpcFutureResponse implements FutureResponse, Serializable {
         return cancel(exception);
     }
 
-    protected boolean cancel(Exception e) {
+    public boolean cancel(Exception e) {
         synchronized (lock) {
             if (!isDoing()) {
                 return false;
@@ -146,6 +151,20 @@ public class RpcFutureResponse implements FutureResponse, Serializable {
         }
     }
 
+    @Override
+    public CompletableFuture<Object> toCompletableFuture() {
+        CompletableFuture<Object> completableFuture = new CompletableFuture<>();
+        addListener(future -> {
+            try {
+                // It never blocks here since the future has been done
+                completableFuture.complete(getResult());
+            } catch (Exception e) {
+                completableFuture.completeExceptionally(e);
+            }
+        });
+        return completableFuture;
+    }
+
     @Override
     public void setReturnType(Class<?> clazz) {
         this.returnType = clazz;
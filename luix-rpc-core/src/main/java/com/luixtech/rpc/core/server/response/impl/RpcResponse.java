@@ -43,6 +43,10 @@ public class RpcResponse implements Responseable, Callbackable, Serializable {
      *
      */
     protected            int                 serializerId     = ProtocolConstants.SERIALIZER_ID_DEFAULT;
+    /**
+     * Compressor of message body, 0 means no compressor
+     */
+    protected            int                 compressorId;
 
     public static RpcResponse of(Responseable resp) {
         RpcResponse response = new RpcResponse();
@@ -54,6 +58,7 @@ public class RpcResponse implements Responseable, Callbackable, Serializable {
         response.setTimeout(resp.getTimeout());
         response.setProtocolVersion(resp.getProtocolVersion());
         response.setSerializerId(resp.getSerializerId());
+        response.setCompressorId(resp.getCompressorId());
         response.setOptions(resp.getOptions());
         resp.getTraces().forEach((key, value) -> response.addTrace(key, key));
         return response;
@@ -22,4 +22,10 @@ public class MethodConfig implements Serializable {
      * Format: integer
      */
     private String retryCount;
+
+    /**
+     * Whether the method transfers bulk payloads which are sent by the dedicated bulk channels
+     * Format: boolean
+     */
+    private String bulk;
 }
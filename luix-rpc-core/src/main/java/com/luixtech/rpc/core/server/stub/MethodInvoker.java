@@ -0,0 +1,67 @@
+package com.luixtech.rpc.core.server.stub;
+
+import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Typed invoker of a provider method which is compiled to a {@link MethodHandle} once when the provider stub
+ * is initialized, it avoids the access checks and argument checks of {@link Method#invoke(Object, Object...)}
+ * on every call.
+ */
+@Getter
+public class MethodInvoker {
+    private static final MethodType   INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    /**
+     * Index of the invoker in the invoker array of provider stub
+     */
+    private final        int          index;
+    private final        Method       method;
+    /**
+     * Indicates whether it is a build-in method of {@link ProviderStub}
+     */
+    private final        boolean      buildIn;
+    /**
+     * Method handle of type (Object, Object[])Object
+     */
+    private final        MethodHandle handle;
+
+    public MethodInvoker(int index, Method method, boolean buildIn) {
+        this.index = index;
+        this.method = method;
+        this.buildIn = buildIn;
+        this.handle = createHandle(method);
+    }
+
+    private static MethodHandle createHandle(Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // The method is declared in a non-public interface
+            try {
+                method.setAccessible(true);
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (Exception ex) {
+                throw new RpcFrameworkException("Failed to create invoker for method [" + method + "]", ex);
+            }
+        }
+        return handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+    }
+
+    /**
+     * Invoke the method, the exception thrown by the method is NOT wrapped
+     *
+     * @param target target instance
+     * @param args   method arguments
+     * @return result of method, null if the return type is void
+     * @throws Throwable any exception thrown by the method
+     */
+    public Object invoke(Object target, Object[] args) throws Throwable {
+        return handle.invokeExact(target, args);
+    }
+}
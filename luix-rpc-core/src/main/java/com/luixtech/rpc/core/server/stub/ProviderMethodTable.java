@@ -0,0 +1,153 @@
+package com.luixtech.rpc.core.server.stub;
+
+import com.luixtech.rpc.core.utils.MethodParameterUtils;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table of the compact integer IDs assigned to the exported provider methods.
+ * The IDs are sent to consumer by handshake after the connection has been established,
+ * then the consumer can send method ID instead of interface name, method name and method parameters,
+ * and the provider can find the method by array index directly.
+ * The ID of a method key is never reassigned, so the method gets the same ID after the provider is removed and exported again,
+ * and the consumers which still hold the IDs can keep sending them.
+ */
+@ThreadSafe
+public class ProviderMethodTable {
+
+    private static final ProviderMethodTable  INSTANCE  = new ProviderMethodTable();
+    /**
+     * Method key to method ID map, it includes the IDs of the removed methods
+     */
+    private final        Map<String, Integer> methodIds = new ConcurrentHashMap<>();
+    /**
+     * Method ID is the index of the array, zero is reserved to indicate no method ID
+     */
+    private volatile     Entry[]              entries   = new Entry[1];
+
+    /**
+     * Prevent instantiation of it outside the class
+     */
+    private ProviderMethodTable() {
+    }
+
+    /**
+     * Get the singleton instance
+     *
+     * @return singleton instance {@link ProviderMethodTable}
+     */
+    public static ProviderMethodTable getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Assign an ID to the method of provider
+     *
+     * @param providerStub provider stub
+     * @param invoker      method invoker
+     * @return method ID
+     */
+    public synchronized int register(ProviderStub<?> providerStub, MethodInvoker invoker) {
+        Method method = invoker.getMethod();
+        String methodParameters = MethodParameterUtils.getMethodParameters(method);
+        String key = buildMethodKey(providerStub.getInterfaceName(), providerStub.getForm(), providerStub.getVersion(),
+                method.getName(), methodParameters);
+        Integer id = methodIds.get(key);
+        if (id != null && entries[id] != null) {
+            return id;
+        }
+        Entry[] newEntries;
+        if (id != null) {
+            // Export the removed method again with the same ID
+            newEntries = entries.clone();
+        } else {
+            id = entries.length;
+            newEntries = Arrays.copyOf(entries, id + 1);
+        }
+        newEntries[id] = new Entry(providerStub, invoker, methodParameters);
+        entries = newEntries;
+        methodIds.put(key, id);
+        return id;
+    }
+
+    /**
+     * Remove the methods of provider, the IDs are kept for the same methods in case they are exported again,
+     * so a consumer which still holds a removed ID can never invoke another method by it
+     *
+     * @param interfaceName interface name
+     * @param form          form
+     * @param version       version
+     */
+    public synchronized void remove(String interfaceName, String form, String version) {
+        String prefix = ProviderStub.buildProviderStubBeanName(interfaceName, form, version) + "#";
+        Entry[] newEntries = entries.clone();
+        methodIds.forEach((key, id) -> {
+            if (key.startsWith(prefix)) {
+                newEntries[id] = null;
+            }
+        });
+        entries = newEntries;
+    }
+
+    /**
+     * Get the method entry associated with the ID
+     *
+     * @param id method ID
+     * @return method entry or null if not found
+     */
+    public Entry get(int id) {
+        Entry[] current = entries;
+        return id > 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Get the IDs of all the exported methods
+     *
+     * @return method key to method ID map
+     */
+    public Map<String, Integer> getMethodIds() {
+        Entry[] current = entries;
+        Map<String, Integer> exported = new HashMap<>(methodIds.size());
+        methodIds.forEach((key, id) -> {
+            if (current[id] != null) {
+                exported.put(key, id);
+            }
+        });
+        return exported;
+    }
+
+    /**
+     * Build the key of method which is identical on both consumer and provider side
+     *
+     * @param interfaceName    interface name
+     * @param form             form
+     * @param version          version
+     * @param methodName       method name
+     * @param methodParameters method parameters string. e.g, java.util.List,java.lang.Long
+     * @return method key
+     */
+    public static String buildMethodKey(String interfaceName, String form, String version,
+                                        String methodName, String methodParameters) {
+        return ProviderStub.buildProviderStubBeanName(interfaceName, form, version) + "#"
+                + MethodParameterUtils.getMethodSignature(methodName, methodParameters);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final ProviderStub<?> providerStub;
+        private final MethodInvoker   invoker;
+        private final String          methodParameters;
+
+        public Method getMethod() {
+            return invoker.getMethod();
+        }
+    }
+}
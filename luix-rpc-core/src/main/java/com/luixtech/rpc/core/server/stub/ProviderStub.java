@@ -76,10 +76,13 @@ public class ProviderStub<T> {
         OPTIONS.add(new OptionMeta(ServiceConstants.REQUEST_TIMEOUT, null, Integer.class.getSimpleName(), String.valueOf(ServiceConstants.REQUEST_TIMEOUT_VAL_DEFAULT), true));
         OPTIONS.add(new OptionMeta(ServiceConstants.RETRY_COUNT, null, Integer.class.getSimpleName(), String.valueOf(ServiceConstants.RETRY_COUNT_VAL_DEFAULT), true));
         OPTIONS.add(new OptionMeta(ServiceConstants.MAX_PAYLOAD, null, Integer.class.getSimpleName(), String.valueOf(ServiceConstants.MAX_PAYLOAD_VAL_DEFAULT), true));
+        OPTIONS.add(new OptionMeta(ProviderConstants.WEIGHT, null, Integer.class.getSimpleName(), String.valueOf(ProviderConstants.WEIGHT_VAL_DEFAULT), true));
+        OPTIONS.add(new OptionMeta(ProviderConstants.WARMUP, null, Integer.class.getSimpleName(), String.valueOf(ProviderConstants.WARMUP_VAL_DEFAULT), true));
 //        OPTIONS.add(new OptionMeta(ProtocolConstants.CODEC, null, String.class.getSimpleName(), ProtocolConstants.CODEC_VAL_DEFAULT, true));
 //        OPTIONS.add(new OptionMeta(ProtocolConstants.NETWORK_TRANSMISSION, null, String.class.getSimpleName(), ProtocolConstants.NETWORK_TRANSMISSION_VAL_NETTY, true));
 //        OPTIONS.add(new OptionMeta(ProtocolConstants.SHARED_SERVER, null, Boolean.class.getSimpleName(), String.valueOf(ProtocolConstants.SHARED_SERVER_VAL_DEFAULT), false));
         OPTIONS.add(new OptionMeta(ProtocolConstants.MIN_CLIENT_CONN, null, Integer.class.getSimpleName(), String.valueOf(ProtocolConstants.MIN_CLIENT_CONN_VAL_DEFAULT), true));
+        OPTIONS.add(new OptionMeta(ProtocolConstants.MAX_CLIENT_CONN, null, Integer.class.getSimpleName(), String.valueOf(ProtocolConstants.MAX_CLIENT_CONN_VAL_DEFAULT), true));
         OPTIONS.add(new OptionMeta(ProtocolConstants.MAX_CLIENT_FAILED_CONN, null, Integer.class.getSimpleName(), String.valueOf(ProtocolConstants.MAX_CLIENT_FAILED_CONN_VAL_DEFAULT), true));
         OPTIONS.add(new OptionMeta(ProtocolConstants.MAX_SERVER_CONN, null, Integer.class.getSimpleName(), String.valueOf(ProtocolConstants.MAX_SERVER_CONN_VAL_DEFAULT), true));
         OPTIONS.add(new OptionMeta(ProtocolConstants.MAX_CONTENT_LENGTH, null, Integer.class.getSimpleName(), String.valueOf(ProtocolConstants.MAX_CONTENT_LENGTH_VAL_DEFAULT), true));
@@ -169,6 +172,16 @@ public class ProviderStub<T> {
      */
     @Min(value = 0, message = "The [maxPayload] property of @Provider must NOT be a positive number!")
     private           Integer                   maxPayload;
+    /**
+     * Load balancing weight of the provider
+     */
+    @Min(value = 0, message = "The [weight] property of @Provider must NOT be a negative number!")
+    private           Integer                   weight;
+    /**
+     * Warmup period in milliseconds after the provider is activated
+     */
+    @Min(value = 0, message = "The [warmup] property of @Provider must NOT be a negative number!")
+    private           Integer                   warmup;
     /**
      * The provider instance
      * Disable deserialization
@@ -179,6 +192,15 @@ public class ProviderStub<T> {
      * Method signature to method cache map for the provider class
      */
     private transient Map<String, Method>       methodsCache = new HashMap<>();
+    /**
+     * Invokers of the provider methods and build-in methods which are compiled on initialization,
+     * the array is indexed by {@link MethodInvoker#getIndex()}
+     */
+    private transient MethodInvoker[]           methodInvokers;
+    /**
+     * Method signature to index of {@link #methodInvokers} map
+     */
+    private transient Map<String, Integer>      methodIndexes;
     /**
      * Method signature to method level configuration map for the provider class
      */
@@ -215,9 +237,14 @@ public class ProviderStub<T> {
     public void init() {
         // Put methods to cache in order to accelerate the speed of executing.
         discoverMethods(interfaceClass);
+        createMethodInvokers();
         String name = defaultIfEmpty(beanName, buildProviderStubBeanName(interfaceName, form, version));
         // Automatically add {@link ProviderStub} instance to {@link ProviderStubHolder}
         ProviderStubHolder.getInstance().add(name, this);
+        // Assign IDs to methods which can be negotiated with consumers
+        Arrays.stream(methodInvokers)
+                .filter(invoker -> !invoker.isBuildIn())
+                .forEach(invoker -> ProviderMethodTable.getInstance().register(this, invoker));
     }
 
     /**
@@ -237,6 +264,26 @@ public class ProviderStub<T> {
         });
     }
 
+    /**
+     * Compile the provider methods and build-in methods to invokers
+     */
+    private void createMethodInvokers() {
+        List<MethodInvoker> invokers = new ArrayList<>(methodsCache.size() + BUILD_IN_METHODS_CACHE.size());
+        Map<String, Integer> indexes = new HashMap<>(methodsCache.size() + BUILD_IN_METHODS_CACHE.size());
+        methodsCache.forEach((methodSignature, method) -> {
+            indexes.put(methodSignature, invokers.size());
+            invokers.add(new MethodInvoker(invokers.size(), method, false));
+        });
+        BUILD_IN_METHODS_CACHE.forEach((methodSignature, method) -> {
+            if (!indexes.containsKey(methodSignature)) {
+                indexes.put(methodSignature, invokers.size());
+                invokers.add(new MethodInvoker(invokers.size(), method, true));
+            }
+        });
+        methodInvokers = invokers.toArray(new MethodInvoker[0]);
+        methodIndexes = Collections.unmodifiableMap(indexes);
+    }
+
     /**
      * Find method associated with name and parameters
      *
@@ -245,12 +292,27 @@ public class ProviderStub<T> {
      * @return method
      */
     public Method findMethod(String methodName, String methodParameters) {
-        String methodSignature = MethodParameterUtils.getMethodSignature(methodName, methodParameters);
-        Method method = methodsCache.get(methodSignature);
-        if (method == null) {
-            method = BUILD_IN_METHODS_CACHE.get(methodSignature);
+        MethodInvoker invoker = findInvoker(methodName, methodParameters);
+        return invoker != null ? invoker.getMethod() : null;
+    }
+
+    private MethodInvoker findInvoker(String methodName, String methodParameters) {
+        Integer index = methodIndexes.get(MethodParameterUtils.getMethodSignature(methodName, methodParameters));
+        return index != null ? methodInvokers[index] : null;
+    }
+
+    /**
+     * Find method invoker by the negotiated method ID first, then by name and parameters
+     *
+     * @param request RPC request
+     * @return method invoker
+     */
+    private MethodInvoker findInvoker(Requestable request) {
+        ProviderMethodTable.Entry entry = ProviderMethodTable.getInstance().get(request.getMethodId());
+        if (entry != null && entry.getProviderStub() == this) {
+            return entry.getInvoker();
         }
-        return method;
+        return findInvoker(request.getMethodName(), request.getMethodParameters());
     }
 
     /**
@@ -282,9 +344,11 @@ public class ProviderStub<T> {
     public void reregister(Map<String, String> options) {
         deactivate();
 
-        // Override the old options
+        // Override the old options but keep the activated time for warmup
+        String activatedTime = url.getOption(Url.PARAM_ACTIVATED_TIME);
         url.getOptions().clear();
         options.forEach((key, value) -> url.addOption(key, value));
+        url.addOption(Url.PARAM_ACTIVATED_TIME, activatedTime);
 
         // Register provider URL to all the registries
         this.registryConfig.getRegistryImpl().register(url);
@@ -342,6 +406,9 @@ public class ProviderStub<T> {
         url.addOption(ServiceConstants.REQUEST_TIMEOUT, requestTimeout);
         url.addOption(ServiceConstants.RETRY_COUNT, retryCount);
         url.addOption(ServiceConstants.MAX_PAYLOAD, maxPayload);
+        url.addOption(ProviderConstants.WEIGHT, weight);
+        url.addOption(ProviderConstants.WARMUP, warmup);
+        url.addOption(Url.PARAM_ACTIVATED_TIME, String.valueOf(System.currentTimeMillis()));
 
         url.addOption(ProtocolConstants.CODEC, protocolConfig.getCodec());
         url.addOption(ProtocolConstants.NETWORK_TRANSMISSION, protocolConfig.getEndpointFactory());
@@ -349,6 +416,21 @@ public class ProviderStub<T> {
         String minClientConn = protocolConfig.getMinClientConn() == null ? null : protocolConfig.getMinClientConn().toString();
         url.addOption(ProtocolConstants.MIN_CLIENT_CONN, minClientConn);
 
+        String maxClientConn = protocolConfig.getMaxClientConn() == null ? null : protocolConfig.getMaxClientConn().toString();
+        url.addOption(ProtocolConstants.MAX_CLIENT_CONN, maxClientConn);
+
+        String connPendingThreshold = protocolConfig.getConnPendingThreshold() == null ? null : protocolConfig.getConnPendingThreshold().toString();
+        url.addOption(ProtocolConstants.CONN_PENDING_THRESHOLD, connPendingThreshold);
+
+        String connIdleTime = protocolConfig.getConnIdleTime() == null ? null : protocolConfig.getConnIdleTime().toString();
+        url.addOption(ProtocolConstants.CONN_IDLE_TIME, connIdleTime);
+
+        String bulkClientConn = protocolConfig.getBulkClientConn() == null ? null : protocolConfig.getBulkClientConn().toString();
+        url.addOption(ProtocolConstants.BULK_CLIENT_CONN, bulkClientConn);
+
+        String bulkThreshold = protocolConfig.getBulkThreshold() == null ? null : protocolConfig.getBulkThreshold().toString();
+        url.addOption(ProtocolConstants.BULK_THRESHOLD, bulkThreshold);
+
         String maxClientFailedConn = protocolConfig.getMaxClientFailedConn() == null ? null : protocolConfig.getMaxClientFailedConn().toString();
         url.addOption(ProtocolConstants.MAX_CLIENT_FAILED_CONN, maxClientFailedConn);
 
@@ -370,9 +452,45 @@ public class ProviderStub<T> {
         String sharedChannel = protocolConfig.getSharedChannel() == null ? null : protocolConfig.getSharedChannel().toString();
         url.addOption(ProtocolConstants.SHARED_SERVER, sharedChannel);
 
+        String sharedClient = protocolConfig.getSharedClient() == null ? null : protocolConfig.getSharedClient().toString();
+        url.addOption(ProtocolConstants.SHARED_CLIENT, sharedClient);
+
         String asyncInitConn = protocolConfig.getAsyncInitConn() == null ? null : protocolConfig.getAsyncInitConn().toString();
         url.addOption(ProtocolConstants.ASYNC_CREATE_CONN, asyncInitConn);
 
+        String nativeTransport = protocolConfig.getNativeTransport() == null ? null : protocolConfig.getNativeTransport().toString();
+        url.addOption(ProtocolConstants.NATIVE_TRANSPORT, nativeTransport);
+
+        String acceptorCount = protocolConfig.getAcceptorCount() == null ? null : protocolConfig.getAcceptorCount().toString();
+        url.addOption(ProtocolConstants.ACCEPTOR_COUNT, acceptorCount);
+
+        String tcpQuickAck = protocolConfig.getTcpQuickAck() == null ? null : protocolConfig.getTcpQuickAck().toString();
+        url.addOption(ProtocolConstants.TCP_QUICK_ACK, tcpQuickAck);
+
+        String edgeTriggered = protocolConfig.getEdgeTriggered() == null ? null : protocolConfig.getEdgeTriggered().toString();
+        url.addOption(ProtocolConstants.EDGE_TRIGGERED, edgeTriggered);
+
+        String busyPollMicros = protocolConfig.getBusyPollMicros() == null ? null : protocolConfig.getBusyPollMicros().toString();
+        url.addOption(ProtocolConstants.BUSY_POLL_MICROS, busyPollMicros);
+
+        String interruptOnCancel = protocolConfig.getInterruptOnCancel() == null ? null : protocolConfig.getInterruptOnCancel().toString();
+        url.addOption(ProtocolConstants.INTERRUPT_ON_CANCEL, interruptOnCancel);
+
+        String writeHighWaterMark = protocolConfig.getWriteHighWaterMark() == null ? null : protocolConfig.getWriteHighWaterMark().toString();
+        url.addOption(ProtocolConstants.WRITE_HIGH_WATER_MARK, writeHighWaterMark);
+
+        String writeLowWaterMark = protocolConfig.getWriteLowWaterMark() == null ? null : protocolConfig.getWriteLowWaterMark().toString();
+        url.addOption(ProtocolConstants.WRITE_LOW_WATER_MARK, writeLowWaterMark);
+
+        String writableWaitTime = protocolConfig.getWritableWaitTime() == null ? null : protocolConfig.getWritableWaitTime().toString();
+        url.addOption(ProtocolConstants.WRITABLE_WAIT_TIME, writableWaitTime);
+
+        String connMaxPending = protocolConfig.getConnMaxPending() == null ? null : protocolConfig.getConnMaxPending().toString();
+        url.addOption(ProtocolConstants.CONN_MAX_PENDING, connMaxPending);
+
+        String inflightMemoryPercent = protocolConfig.getInflightMemoryPercent() == null ? null : protocolConfig.getInflightMemoryPercent().toString();
+        url.addOption(ProtocolConstants.INFLIGHT_MEMORY_PERCENT, inflightMemoryPercent);
+
         if (MapUtils.isNotEmpty(methodConfig)) {
             for (Map.Entry<String, MethodConfig> entry : methodConfig.entrySet()) {
                 for (Field field : MethodConfig.class.getDeclaredFields()) {
@@ -399,37 +517,36 @@ public class ProviderStub<T> {
      */
     public Responseable invokeMethod(Requestable request) {
         RpcResponse response = new RpcResponse();
-        Method method = findMethod(request.getMethodName(), request.getMethodParameters());
-        String methodSignature = MethodParameterUtils.getFullMethodSignature(request);
-        if (method == null) {
+        MethodInvoker invoker = findInvoker(request);
+        if (invoker == null) {
             RpcFrameworkException exception =
-                    new RpcFrameworkException(methodSignature + " does NOT exist!");
+                    new RpcFrameworkException(MethodParameterUtils.getFullMethodSignature(request) + " does NOT exist!");
             response.setException(exception);
             return response;
         }
+        Method method = invoker.getMethod();
         boolean defaultThrowExceptionStack = ProtocolConstants.TRANS_EXCEPTION_STACK_VAL_DEFAULT;
         try {
             // Invoke real method of provider
             Object result = null;
-            if (BUILD_IN_METHODS.contains(request.getMethodName())) {
-                result = method.invoke(this, request.getMethodArguments());
+            if (invoker.isBuildIn()) {
+                result = invoker.invoke(this, request.getMethodArguments());
             } else if (activated.get()) {
-                result = method.invoke(instance, request.getMethodArguments());
+                result = invoker.invoke(instance, request.getMethodArguments());
             }
-            log.info("Executed method {}", methodSignature);
-            response.setResult(result);
-        } catch (Exception e) {
-            // If exception occurs
-            if (e.getCause() != null) {
-                response.setException(new RpcBizException("Failed to invoke method [" + MethodParameterUtils.getMethodSignature(method) + "]", e.getCause()));
-            } else {
-                response.setException(new RpcBizException("Failed to invoke method [" + MethodParameterUtils.getMethodSignature(method) + "]", e));
+            if (log.isDebugEnabled()) {
+                log.debug("Executed method {}", MethodParameterUtils.getFullMethodSignature(request));
             }
+            response.setResult(result);
+        } catch (Throwable e) {
+            // The invoker does NOT wrap the throwable of method, so an error thrown by the method is a biz exception
+            // just like the cause of InvocationTargetException thrown by reflection
+            response.setException(new RpcBizException("Failed to invoke method [" + MethodParameterUtils.getMethodSignature(method) + "]", e));
 
             // Do NOT print exception in error level log when exception declared in method
             boolean logException = true;
             for (Class<?> clazz : method.getExceptionTypes()) {
-                if (clazz.isInstance(response.getException().getCause())) {
+                if (clazz.isInstance(e)) {
                     logException = false;
                     defaultThrowExceptionStack = false;
                     break;
@@ -439,16 +556,8 @@ public class ProviderStub<T> {
                 log.error("Failed to invoke method [" + MethodParameterUtils.getMethodSignature(method) + "] with request [" + request + "]", e);
             } else {
                 log.info("Failed to invoke method [{}] with request [{}] and exception [{}]",
-                        MethodParameterUtils.getMethodSignature(method), request, response.getException().getCause().toString());
-            }
-        } catch (Throwable error) {
-            // Convert error to exception if error occurs
-            if (error.getCause() != null) {
-                response.setException(new RpcFrameworkException("Failed to invoke method [" + MethodParameterUtils.getMethodSignature(method) + "]", error.getCause()));
-            } else {
-                response.setException(new RpcFrameworkException("Failed to invoke method [" + MethodParameterUtils.getMethodSignature(method) + "]", error));
+                        MethodParameterUtils.getMethodSignature(method), request, e.toString());
             }
-            log.error("Failed to invoke method [" + MethodParameterUtils.getMethodSignature(method) + "] with request [" + request + "]", error);
         }
         if (response.getException() != null) {
             if (!this.url.getBooleanOption(ProtocolConstants.TRANS_EXCEPTION_STACK, defaultThrowExceptionStack)) {
@@ -11,15 +11,16 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 public abstract class ScheduledThreadPool {
-    public static final String RETRY_THREAD_POOL                      = "RETRY_THREAD_POOL";
-    public static final String CALCULATE_MEMORY_THREAD_POOL           = "CALCULATE_MEMORY_THREAD_POOL";
-    public static final int    CALCULATE_MEMORY_INTERVAL              = 60000;
-    public static final String CHECK_HEALTH_THREAD_POOL               = "CHECK_HEALTH_THREAD_POOL";
-    public static final int    CHECK_HEALTH_INTERVAL                  = 500;
-    public static final String DESTROY_SENDER_THREAD_POOL             = "DESTROY_SENDER_THREAD_POOL";
-    public static final int    DESTROY_SENDER_DELAY                   = 1000;
-    public static final String DESTROY_NETTY_TIMEOUT_TASK_THREAD_POOL = "DESTROY_NETTY_TIMEOUT_THREAD_POOL";
-    public static final int    DESTROY_NETTY_TIMEOUT_INTERVAL         = 100;
+    public static final String RETRY_THREAD_POOL            = "RETRY_THREAD_POOL";
+    public static final String CALCULATE_MEMORY_THREAD_POOL = "CALCULATE_MEMORY_THREAD_POOL";
+    public static final int    CALCULATE_MEMORY_INTERVAL    = 60000;
+    public static final String CHECK_HEALTH_THREAD_POOL     = "CHECK_HEALTH_THREAD_POOL";
+    public static final int    CHECK_HEALTH_INTERVAL        = 500;
+    public static final String DESTROY_SENDER_THREAD_POOL   = "DESTROY_SENDER_THREAD_POOL";
+    public static final int    DESTROY_SENDER_DELAY         = 1000;
+    public static final String HEDGE_THREAD_POOL            = "HEDGE_THREAD_POOL";
+    public static final String SHRINK_CONN_THREAD_POOL      = "SHRINK_CONN_THREAD_POOL";
+    public static final int    SHRINK_CONN_INTERVAL         = 10000;
 
     private static final Map<String, ScheduledExecutorService> THREAD_POOL_MAP = new HashMap<>();
 
@@ -28,7 +29,8 @@ public abstract class ScheduledThreadPool {
         THREAD_POOL_MAP.put(CALCULATE_MEMORY_THREAD_POOL, Executors.newScheduledThreadPool(1));
         THREAD_POOL_MAP.put(CHECK_HEALTH_THREAD_POOL, Executors.newScheduledThreadPool(1));
         THREAD_POOL_MAP.put(DESTROY_SENDER_THREAD_POOL, Executors.newScheduledThreadPool(1));
-        THREAD_POOL_MAP.put(DESTROY_NETTY_TIMEOUT_TASK_THREAD_POOL, Executors.newScheduledThreadPool(1));
+        THREAD_POOL_MAP.put(HEDGE_THREAD_POOL, Executors.newScheduledThreadPool(1));
+        THREAD_POOL_MAP.put(SHRINK_CONN_THREAD_POOL, Executors.newScheduledThreadPool(1));
 
         // Destroy the thread pools when the system exits
         ShutdownHook.add(() -> {
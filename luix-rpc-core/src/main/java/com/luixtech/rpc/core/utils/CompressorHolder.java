@@ -0,0 +1,27 @@
+package com.luixtech.rpc.core.utils;
+
+import com.luixtech.rpc.core.codec.compressor.Compressor;
+import com.luixtech.utilities.serviceloader.ServiceLoader;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@ThreadSafe
+public abstract class CompressorHolder {
+    private static final Map<Integer, Compressor> COMPRESSOR_CACHE = new ConcurrentHashMap<>();
+
+    public static synchronized void init() {
+        try {
+            ServiceLoader.forClass(Compressor.class).loadAll().forEach(c -> COMPRESSOR_CACHE.put(c.getCompressorId(), c));
+        } catch (Exception e) {
+            log.error("Failed to load compressor", e);
+        }
+    }
+
+    public static Compressor getCompressorById(int id) {
+        return COMPRESSOR_CACHE.get(id);
+    }
+}
@@ -0,0 +1,33 @@
+package com.luixtech.rpc.core.utils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the cancellation flag of the request being processed on server side,
+ * so that the provider can stop the expensive work which is no longer waited for by the consumer.
+ */
+public abstract class RpcCancellationHolder {
+    private static final ThreadLocal<AtomicBoolean> HOLDER = new ThreadLocal<>();
+
+    /**
+     * Check whether the request being processed has been cancelled by the consumer or exceeded its deadline
+     *
+     * @return {@code true} if cancelled and {@code false} otherwise
+     */
+    public static boolean isCancelled() {
+        AtomicBoolean cancelled = HOLDER.get();
+        if (cancelled != null && cancelled.get()) {
+            return true;
+        }
+        long deadline = RpcDeadlineHolder.getDeadline();
+        return deadline > 0 && System.currentTimeMillis() >= deadline;
+    }
+
+    public static void setCancelled(AtomicBoolean cancelled) {
+        HOLDER.set(cancelled);
+    }
+
+    public static void destroy() {
+        HOLDER.remove();
+    }
+}
@@ -0,0 +1,26 @@
+package com.luixtech.rpc.core.utils;
+
+/**
+ * Holds the deadline of the request being processed on server side,
+ * so that the nested requests sent by the provider inherit the remaining time.
+ */
+public abstract class RpcDeadlineHolder {
+    private static final ThreadLocal<Long> HOLDER = ThreadLocal.withInitial(() -> 0L);
+
+    /**
+     * Get the deadline
+     *
+     * @return deadline in milliseconds or 0 if no deadline
+     */
+    public static long getDeadline() {
+        return HOLDER.get();
+    }
+
+    public static void setDeadline(long deadline) {
+        HOLDER.set(deadline);
+    }
+
+    public static void destroy() {
+        HOLDER.remove();
+    }
+}
@@ -5,6 +5,7 @@ import com.luixtech.rpc.core.constant.ProtocolConstants;
 import com.luixtech.rpc.core.constant.ProviderConstants;
 import com.luixtech.rpc.core.constant.RpcConstants;
 import com.luixtech.rpc.core.constant.ServiceConstants;
+import com.luixtech.rpc.core.exception.impl.RpcDeadlineExceededException;
 import com.luixtech.rpc.core.server.response.Responseable;
 import com.luixtech.rpc.core.server.response.impl.RpcResponse;
 import com.luixtech.rpc.core.switcher.impl.SwitcherHolder;
@@ -15,6 +16,27 @@ import org.apache.commons.lang3.StringUtils;
 import static org.apache.commons.io.IOUtils.DIR_SEPARATOR_UNIX;
 
 public class RpcFrameworkUtils {
+    /**
+     * Options which must be the same for the interfaces sharing a client
+     */
+    private static final String[] SHARED_CLIENT_OPTIONS = new String[]{
+            ProtocolConstants.CODEC,
+            ProtocolConstants.SERIALIZER,
+            ProtocolConstants.MAX_CONTENT_LENGTH,
+            ProtocolConstants.MIN_CLIENT_CONN,
+            ProtocolConstants.MAX_CLIENT_CONN,
+            ProtocolConstants.CONN_PENDING_THRESHOLD,
+            ProtocolConstants.CONN_IDLE_TIME,
+            ProtocolConstants.BULK_CLIENT_CONN,
+            ProtocolConstants.BULK_THRESHOLD,
+            ProtocolConstants.WRITE_HIGH_WATER_MARK,
+            ProtocolConstants.WRITE_LOW_WATER_MARK,
+            ProtocolConstants.WRITABLE_WAIT_TIME,
+            ProtocolConstants.CONN_MAX_PENDING,
+            ProtocolConstants.MAX_CLIENT_FAILED_CONN,
+            ProviderConstants.HEALTH_CHECKER
+    };
+
     /**
      * Get provider key
      *
@@ -130,6 +152,23 @@ public class RpcFrameworkUtils {
 
     }
 
+    /**
+     * Get the key of the client shared by the interfaces of the same provider address,
+     * the interfaces share the client only if the options of the connections are the same
+     *
+     * @param providerUrl provider url
+     * @return shared client key
+     */
+    public static String getSharedClientKey(Url providerUrl) {
+        StringBuilder sb = new StringBuilder(providerUrl.getProtocol())
+                .append(Url.PROTOCOL_SEPARATOR)
+                .append(providerUrl.getAddress());
+        for (String option : SHARED_CLIENT_OPTIONS) {
+            sb.append(DIR_SEPARATOR_UNIX).append(StringUtils.defaultString(providerUrl.getOption(option)));
+        }
+        return sb.toString();
+    }
+
     public static String getFormFromRequest(Requestable request) {
         return getValueFromRequest(request, ServiceConstants.FORM);
     }
@@ -176,6 +215,28 @@ public class RpcFrameworkUtils {
         return response;
     }
 
+    /**
+     * Check whether the deadline of the request has been exceeded
+     *
+     * @param request RPC request
+     * @return {@code true} if exceeded and {@code false} otherwise
+     */
+    public static boolean isDeadlineExceeded(Requestable request) {
+        return request.getDeadline() > 0 && System.currentTimeMillis() >= request.getDeadline();
+    }
+
+    public static RpcResponse buildDeadlineExceededResponse(Requestable request) {
+        RpcDeadlineExceededException exception = new RpcDeadlineExceededException("Dropped request of ["
+                + request.getInterfaceName() + "." + request.getMethodName() + "] for exceeding deadline by "
+                + (System.currentTimeMillis() - request.getDeadline()) + "ms");
+        // Dropping is expected under overload, so do not pay for the stack trace
+        exception.setStackTrace(new StackTraceElement[0]);
+        RpcResponse response = buildErrorResponse(request, exception);
+        // The response may be returned before it is handled, so the serializer must be set here
+        response.setSerializerId(request.getSerializerId());
+        return response;
+    }
+
     public static void logEvent(Requestable request, String event) {
         if (SwitcherHolder.getInstance().isOn(RpcConstants.MOTAN_TRACE_INFO_SWITCHER, false)) {
             logEvent(request, event, System.currentTimeMillis());
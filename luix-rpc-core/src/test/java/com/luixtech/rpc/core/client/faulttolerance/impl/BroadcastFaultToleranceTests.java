@@ -0,0 +1,213 @@
+package com.luixtech.rpc.core.client.faulttolerance.impl;
+
+import com.luixtech.rpc.core.client.loadbalancer.impl.RandomLoadBalancer;
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.client.sender.CircuitBreaker;
+import com.luixtech.rpc.core.client.sender.Sendable;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.exception.impl.RpcBizException;
+import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.server.response.impl.RpcFutureResponse;
+import com.luixtech.rpc.core.server.response.impl.RpcResponse;
+import com.luixtech.rpc.core.url.Url;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BroadcastFaultToleranceTests {
+    private final RpcRequest request = new RpcRequest(1L, ProtocolConstants.PROTOCOL_VAL_LUIX, "TestService", "test", null, false);
+
+    @Test
+    public void completeOnQuorum() {
+        List<TestSender> senders = createSenders(5);
+        Responseable response = invoke(createConsumerUrl(ConsumerConstants.BROADCAST_POLICY_VAL_QUORUM), senders);
+        assertTrue(response instanceof RpcFutureResponse);
+        RpcFutureResponse future = (RpcFutureResponse) response;
+
+        senders.get(0).succeed("a");
+        senders.get(1).fail(new RpcFrameworkException("Connection reset"));
+        senders.get(2).succeed("b");
+        assertFalse(future.isDone());
+        senders.get(3).succeed("c");
+        assertTrue(future.isSuccess());
+        assertEquals("c", future.getResult());
+
+        // The late responses are ignored
+        senders.get(4).fail(new RpcFrameworkException("Connection reset"));
+        assertTrue(future.isSuccess());
+    }
+
+    @Test
+    public void failOnceQuorumIsUnreachable() {
+        List<TestSender> senders = createSenders(3);
+        RpcFutureResponse future = (RpcFutureResponse) invoke(createConsumerUrl(ConsumerConstants.BROADCAST_POLICY_VAL_QUORUM), senders);
+
+        senders.get(0).fail(new RpcFrameworkException("Connection reset"));
+        assertFalse(future.isDone());
+        senders.get(1).fail(new RpcFrameworkException("Timeout"));
+        assertTrue(future.isDone());
+        assertFalse(future.isSuccess());
+        assertEquals("Timeout", future.getException().getMessage());
+
+        senders.get(2).succeed("a");
+        assertFalse(future.isSuccess());
+    }
+
+    @Test
+    public void mergeResultsOfFirstN() {
+        Url consumerUrl = createConsumerUrl(ConsumerConstants.BROADCAST_POLICY_VAL_FIRST);
+        consumerUrl.addOption(ConsumerConstants.BROADCAST_COUNT, 2);
+        consumerUrl.addOption(ConsumerConstants.BROADCAST_MERGER, ConsumerConstants.BROADCAST_MERGER_VAL_COLLECTION);
+        List<TestSender> senders = createSenders(4);
+        RpcFutureResponse future = (RpcFutureResponse) invoke(consumerUrl, senders);
+
+        senders.get(2).succeed(Collections.singletonList("c"));
+        assertFalse(future.isDone());
+        senders.get(0).succeed(Collections.singletonList("a"));
+        assertTrue(future.isSuccess());
+        assertEquals(List.of("c", "a"), future.getResult());
+    }
+
+    @Test
+    public void limitFirstNToProviderCount() {
+        Url consumerUrl = createConsumerUrl(ConsumerConstants.BROADCAST_POLICY_VAL_FIRST);
+        consumerUrl.addOption(ConsumerConstants.BROADCAST_COUNT, 5);
+        List<TestSender> senders = createSenders(2);
+        RpcFutureResponse future = (RpcFutureResponse) invoke(consumerUrl, senders);
+
+        senders.get(0).succeed("a");
+        assertFalse(future.isDone());
+        senders.get(1).succeed("b");
+        assertTrue(future.isSuccess());
+    }
+
+    @Test
+    public void failFastOnBizException() {
+        List<TestSender> senders = createSenders(5);
+        RpcFutureResponse future = (RpcFutureResponse) invoke(createConsumerUrl(ConsumerConstants.BROADCAST_POLICY_VAL_QUORUM), senders);
+
+        senders.get(0).fail(new RpcBizException("Invalid argument"));
+        assertTrue(future.isDone());
+        assertTrue(future.getException() instanceof RpcBizException);
+    }
+
+    @Test
+    public void countSendingFailure() {
+        List<TestSender> senders = createSenders(2);
+        senders.get(1).sendFailure = new RpcFrameworkException("Channel closed");
+        RpcFutureResponse future = (RpcFutureResponse) invoke(createConsumerUrl(ConsumerConstants.BROADCAST_POLICY_VAL_ALL), senders);
+
+        assertTrue(future.isDone());
+        assertEquals("Channel closed", future.getException().getMessage());
+    }
+
+    @Test
+    public void sendAsynchronousCopies() {
+        List<TestSender> senders = createSenders(3);
+        invoke(createConsumerUrl(ConsumerConstants.BROADCAST_POLICY_VAL_ALL), senders);
+
+        for (TestSender sender : senders) {
+            RpcRequest copy = (RpcRequest) sender.response.getRequest();
+            assertNotSame(request, copy);
+            assertTrue(copy.isAsync());
+            assertEquals(request.getMethodName(), copy.getMethodName());
+        }
+        assertFalse(request.isAsync());
+    }
+
+    private Responseable invoke(Url consumerUrl, List<TestSender> senders) {
+        RandomLoadBalancer loadBalancer = new RandomLoadBalancer();
+        loadBalancer.setConsumerUrl(consumerUrl);
+        loadBalancer.refresh(new ArrayList<>(senders));
+        BroadcastFaultTolerance faultTolerance = new BroadcastFaultTolerance();
+        faultTolerance.setConsumerUrl(consumerUrl);
+        faultTolerance.setLoadBalancer(loadBalancer);
+        return faultTolerance.invoke(request);
+    }
+
+    private static Url createConsumerUrl(String policy) {
+        Url url = Url.consumerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 0, "TestService");
+        url.addOption(ConsumerConstants.BROADCAST_POLICY, policy);
+        return url;
+    }
+
+    private static List<TestSender> createSenders(int count) {
+        List<TestSender> senders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            senders.add(new TestSender(Url.providerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 26030 + i, "TestService")));
+        }
+        return senders;
+    }
+
+    /**
+     * Sender whose response is completed by the test
+     */
+    private static class TestSender implements Sendable {
+        private final Url               providerUrl;
+        private final CircuitBreaker    circuitBreaker;
+        private       RpcFutureResponse response;
+        private       RuntimeException  sendFailure;
+
+        private TestSender(Url providerUrl) {
+            this.providerUrl = providerUrl;
+            this.circuitBreaker = new CircuitBreaker(providerUrl, createConsumerUrl(ConsumerConstants.BROADCAST_POLICY_VAL_ALL));
+        }
+
+        private void succeed(Object result) {
+            response.onSuccess(RpcResponse.of(result));
+        }
+
+        private void fail(Exception e) {
+            response.onFailure(RpcResponse.error(response.getRequest(), e));
+        }
+
+        @Override
+        public Url getProviderUrl() {
+            return providerUrl;
+        }
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+
+        @Override
+        public int getProcessingCount() {
+            return 0;
+        }
+
+        @Override
+        public double getPeakEwmaLatency() {
+            return 0;
+        }
+
+        @Override
+        public void seedPeakEwmaLatency(double latencyNanos) {
+        }
+
+        @Override
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        @Override
+        public Responseable sendRequest(Requestable request) {
+            if (sendFailure != null) {
+                throw sendFailure;
+            }
+            response = new RpcFutureResponse(request, 0, providerUrl);
+            return response;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.luixtech.rpc.core.client.invocationhandler.impl;
+
+import com.luixtech.rpc.core.client.faulttolerance.AbstractFaultTolerance;
+import com.luixtech.rpc.core.client.invocationhandler.ConsumerMethodDescriptor;
+import com.luixtech.rpc.core.client.invoker.impl.DefaultServiceInvoker;
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.stub.ConsumerStub;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.server.response.impl.RpcFutureResponse;
+import com.luixtech.rpc.core.server.response.impl.RpcResponse;
+import com.luixtech.rpc.core.url.Url;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsumerInvocationHandlerTests {
+    private static final String                    INTERFACE_NAME = "TestService";
+    private final        DefaultServiceInvoker     invoker        = new DefaultServiceInvoker();
+    private final        TestFaultTolerance        faultTolerance = new TestFaultTolerance();
+    private final        ConsumerStub<TestService> stub           = new ConsumerStub<>();
+
+    @AfterEach
+    public void destroy() {
+        if (invoker.isActive()) {
+            invoker.destroy();
+        }
+    }
+
+    @Test
+    public void completeResultOffIoThread() throws Exception {
+        ConsumerInvocationHandler<TestService> handler = createHandler(2, 16);
+        CompletableFuture<Object> future = hello(handler);
+        AtomicReference<String> callbackThread = new AtomicReference<>();
+        CompletableFuture<Object> continuation = future.whenComplete((r, t) -> callbackThread.set(Thread.currentThread().getName()));
+
+        Thread ioThread = new Thread(() -> faultTolerance.responses.get(0).onSuccess(RpcResponse.of("hello")), "io");
+        ioThread.start();
+        ioThread.join();
+
+        assertEquals("hello", continuation.get(5, TimeUnit.SECONDS));
+        assertTrue(callbackThread.get().startsWith(INTERFACE_NAME + "-callback-"), callbackThread.get());
+    }
+
+    @Test
+    public void propagateException() {
+        ConsumerInvocationHandler<TestService> handler = createHandler(2, 16);
+        CompletableFuture<Object> future = hello(handler);
+        RpcFutureResponse response = faultTolerance.responses.get(0);
+        response.onFailure(RpcResponse.error(response.getRequest(), new IllegalStateException("Failed to say hello")));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException, e.getCause().toString());
+        assertEquals("Failed to say hello", e.getCause().getMessage());
+    }
+
+    @Test
+    public void failWhenCallbackQueueIsFull() throws Exception {
+        ConsumerInvocationHandler<TestService> handler = createHandler(1, 1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Block the only callback thread by the continuation of the first call
+        CompletableFuture<Object> first = hello(handler).whenComplete((r, t) -> {
+            blocked.countDown();
+            awaitQuietly(release);
+        });
+        faultTolerance.responses.get(0).onSuccess(RpcResponse.of("first"));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Object> queued = hello(handler);
+        faultTolerance.responses.get(1).onSuccess(RpcResponse.of("queued"));
+        CompletableFuture<Object> rejected = hello(handler);
+        faultTolerance.responses.get(2).onSuccess(RpcResponse.of("rejected"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof RejectedExecutionException, e.getCause().toString());
+        release.countDown();
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shutdownCallbackExecutorOnDestroy() {
+        ConsumerInvocationHandler<TestService> handler = createHandler(2, 16);
+        invoker.destroy();
+        assertTrue(invoker.getCallbackExecutor().isShutdown());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> hello(handler).get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof RpcFrameworkException, e.getCause().toString());
+    }
+
+    private ConsumerInvocationHandler<TestService> createHandler(int callbackThreads, int callbackQueueSize) {
+        Url consumerUrl = Url.consumerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 0, INTERFACE_NAME);
+        consumerUrl.addOption(ConsumerConstants.CALLBACK_THREADS, callbackThreads);
+        consumerUrl.addOption(ConsumerConstants.CALLBACK_QUEUE_SIZE, callbackQueueSize);
+        invoker.init(INTERFACE_NAME, ConsumerConstants.FAULT_TOLERANCE_VAL_FAILFAST, ConsumerConstants.LOAD_BALANCER_VAL_RANDOM, consumerUrl);
+        invoker.getFaultTolerance().destroy();
+        invoker.setFaultTolerance(faultTolerance);
+
+        stub.setInterfaceClass(TestService.class);
+        stub.setInterfaceName(INTERFACE_NAME);
+        stub.setProtocol(ProtocolConstants.PROTOCOL_VAL_LUIX);
+        stub.setInvokerInstance(invoker);
+        return new ConsumerInvocationHandler<>(stub);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Object> hello(ConsumerInvocationHandler<TestService> handler) {
+        try {
+            ConsumerMethodDescriptor descriptor = ConsumerMethodDescriptor.of(stub,
+                    TestService.class.getMethod("hello", String.class));
+            return (CompletableFuture<Object>) handler.invoke(descriptor, new Object[]{"world"});
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Consumer interface with an asynchronous method
+     */
+    public interface TestService {
+        CompletableFuture<String> hello(String name);
+    }
+
+    /**
+     * Fault tolerance which returns the future responses completed by the test
+     */
+    private static class TestFaultTolerance extends AbstractFaultTolerance {
+        private final List<RpcFutureResponse> responses = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Responseable invoke(Requestable request) {
+            RpcFutureResponse response = new RpcFutureResponse(request, 0, consumerUrl);
+            responses.add(response);
+            return response;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
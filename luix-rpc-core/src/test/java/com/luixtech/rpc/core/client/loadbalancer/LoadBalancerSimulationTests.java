@@ -0,0 +1,176 @@
+package com.luixtech.rpc.core.client.loadbalancer;
+
+import com.luixtech.rpc.core.client.loadbalancer.impl.LeastActiveLoadBalancer;
+import com.luixtech.rpc.core.client.loadbalancer.impl.PeakEwmaLoadBalancer;
+import com.luixtech.rpc.core.client.loadbalancer.impl.RandomLoadBalancer;
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.sender.CircuitBreaker;
+import com.luixtech.rpc.core.client.sender.PeakEwmaLatency;
+import com.luixtech.rpc.core.client.sender.Sendable;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.url.Url;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simulates the providers with one degraded provider and compares the tail latency of the load balancers.
+ * The requests are completed in the order of a virtual clock, so the result does not depend on the scheduling
+ * of threads or the speed of the machine.
+ */
+public class LoadBalancerSimulationTests {
+    private static final int        PROVIDER_COUNT = 5;
+    private static final long       FAST_LATENCY   = 1;
+    private static final long       SLOW_LATENCY   = 30;
+    private static final int        CLIENTS        = 8;
+    private static final int        REQUESTS       = 16_000;
+    private static final long       DECAY_NANOS    = TimeUnit.SECONDS.toNanos(10);
+    /**
+     * Virtual clock in nanoseconds
+     */
+    private final        AtomicLong clock          = new AtomicLong();
+
+    @Test
+    public void compareTailLatency() {
+        long[] random = simulate(new RandomLoadBalancer());
+        long[] leastActive = simulate(new LeastActiveLoadBalancer());
+        long[] peakEwma = simulate(new PeakEwmaLoadBalancer());
+
+        // One fifth of the requests are sent to the degraded provider randomly
+        assertEquals(SLOW_LATENCY, percentile(random, 0.95));
+        // Least active still sends a request to the degraded provider whenever it becomes idle
+        assertEquals(FAST_LATENCY, percentile(leastActive, 0.95));
+        assertEquals(FAST_LATENCY, percentile(peakEwma, 0.99));
+    }
+
+    private long[] simulate(AbstractLoadBalancer loadBalancer) {
+        clock.set(0);
+        List<Sendable> senders = new ArrayList<>(PROVIDER_COUNT);
+        for (int i = 0; i < PROVIDER_COUNT; i++) {
+            senders.add(new SimulatedSender(Url.of("luix", "127.0.0.1", 26010 + i, "SimulatedService"),
+                    i == 0 ? SLOW_LATENCY : FAST_LATENCY));
+        }
+        loadBalancer.refresh(senders);
+
+        // Each client sends the next request once the previous one completed
+        PriorityQueue<Completion> completions = new PriorityQueue<>();
+        long[] latencies = new long[REQUESTS];
+        int sent = 0;
+        for (; sent < CLIENTS; sent++) {
+            completions.add(send(loadBalancer, sent));
+        }
+        for (int completed = 0; completed < REQUESTS; completed++) {
+            Completion completion = completions.poll();
+            clock.set(completion.time);
+            completion.sender.complete();
+            latencies[completed] = completion.sender.latency;
+            if (sent < REQUESTS) {
+                completions.add(send(loadBalancer, sent++));
+            }
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private Completion send(AbstractLoadBalancer loadBalancer, int sequence) {
+        SimulatedSender sender = (SimulatedSender) loadBalancer.selectActiveSender(null);
+        sender.sendRequest(null);
+        return new Completion(clock.get() + TimeUnit.MILLISECONDS.toNanos(sender.latency), sequence, sender);
+    }
+
+    private static long percentile(long[] sortedLatencies, double percentile) {
+        return sortedLatencies[(int) (sortedLatencies.length * percentile)];
+    }
+
+    /**
+     * Completion of a simulated request, the requests completed at the same time are ordered by sequence
+     */
+    private static class Completion implements Comparable<Completion> {
+        private static final Comparator<Completion> ORDER = Comparator.<Completion>comparingLong(c -> c.time)
+                .thenComparingInt(c -> c.sequence);
+        private final        long                   time;
+        private final        int                    sequence;
+        private final        SimulatedSender        sender;
+
+        private Completion(long time, int sequence, SimulatedSender sender) {
+            this.time = time;
+            this.sequence = sequence;
+            this.sender = sender;
+        }
+
+        @Override
+        public int compareTo(Completion other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * Sender with the fixed latency in milliseconds
+     */
+    private class SimulatedSender implements Sendable {
+        private final Url             providerUrl;
+        private final long            latency;
+        private final PeakEwmaLatency peakEwmaLatency = new PeakEwmaLatency(DECAY_NANOS, clock::get);
+        private final CircuitBreaker  circuitBreaker;
+        private       int             processingCount;
+
+        private SimulatedSender(Url providerUrl, long latency) {
+            this.providerUrl = providerUrl;
+            this.latency = latency;
+            this.circuitBreaker = new CircuitBreaker(providerUrl, providerUrl);
+        }
+
+        private void complete() {
+            processingCount--;
+            peakEwmaLatency.observe(TimeUnit.MILLISECONDS.toNanos(latency));
+        }
+
+        @Override
+        public Url getProviderUrl() {
+            return providerUrl;
+        }
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+
+        @Override
+        public int getProcessingCount() {
+            return processingCount;
+        }
+
+        @Override
+        public double getPeakEwmaLatency() {
+            return peakEwmaLatency.get();
+        }
+
+        @Override
+        public void seedPeakEwmaLatency(double latencyNanos) {
+            peakEwmaLatency.seed(latencyNanos);
+        }
+
+        @Override
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        @Override
+        public Responseable sendRequest(Requestable request) {
+            processingCount++;
+            return null;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.luixtech.rpc.core.client.loadbalancer.impl;
+
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.client.sender.CircuitBreaker;
+import com.luixtech.rpc.core.client.sender.Sendable;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.url.Url;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashLoadBalancerTests {
+    private static final int KEY_COUNT = 300;
+
+    @Test
+    public void routeSameKeyToSameSender() {
+        ConsistentHashLoadBalancer loadBalancer = createLoadBalancer(createConsumerUrl());
+        loadBalancer.refresh(createSenders(26010, 26011, 26012));
+        for (int i = 0; i < KEY_COUNT; i++) {
+            Sendable sender = loadBalancer.selectActiveSender(createRequest("key-" + i));
+            assertSame(sender, loadBalancer.selectActiveSender(createRequest("key-" + i)));
+        }
+    }
+
+    @Test
+    public void remapKeysOfRemovedSenderOnly() {
+        ConsistentHashLoadBalancer loadBalancer = createLoadBalancer(createConsumerUrl());
+        List<Sendable> senders = createSenders(26010, 26011, 26012);
+        loadBalancer.refresh(senders);
+        Map<String, Sendable> before = selectAll(loadBalancer);
+
+        Sendable removed = senders.get(1);
+        loadBalancer.refresh(Arrays.asList(senders.get(0), senders.get(2)));
+        Map<String, Sendable> after = selectAll(loadBalancer);
+        int remapped = 0;
+        for (String key : before.keySet()) {
+            if (before.get(key) == removed) {
+                assertNotSame(removed, after.get(key));
+                remapped++;
+            } else {
+                assertSame(before.get(key), after.get(key), "Key [" + key + "] was remapped");
+            }
+        }
+        assertTrue(remapped > 0);
+    }
+
+    @Test
+    public void remapKeysToAddedSenderOnly() {
+        ConsistentHashLoadBalancer loadBalancer = createLoadBalancer(createConsumerUrl());
+        List<Sendable> senders = createSenders(26010, 26011, 26012);
+        loadBalancer.refresh(senders);
+        Map<String, Sendable> before = selectAll(loadBalancer);
+
+        List<Sendable> newSenders = new ArrayList<>(senders);
+        Sendable added = createSenders(26013).get(0);
+        newSenders.add(added);
+        loadBalancer.refresh(newSenders);
+        Map<String, Sendable> after = selectAll(loadBalancer);
+        int remapped = 0;
+        for (String key : before.keySet()) {
+            if (before.get(key) != after.get(key)) {
+                assertSame(added, after.get(key), "Key [" + key + "] was remapped to an existing sender");
+                remapped++;
+            }
+        }
+        assertTrue(remapped > 0);
+    }
+
+    @Test
+    public void spillOverBusySender() {
+        ConsistentHashLoadBalancer loadBalancer = createLoadBalancer(createConsumerUrl());
+        List<Sendable> senders = createSenders(26010, 26011);
+        loadBalancer.refresh(senders);
+        Requestable request = createRequest("hot-key");
+        TestSender owner = (TestSender) loadBalancer.selectActiveSender(request);
+        TestSender other = (TestSender) (senders.get(0) == owner ? senders.get(1) : senders.get(0));
+
+        // Capacity: ceil(125 * (5 + 1) / (100 * 2)) = 4
+        owner.processingCount = 5;
+        assertSame(other, loadBalancer.selectActiveSender(request));
+
+        // Capacity: ceil(125 * (5 + 3 + 1) / (100 * 2)) = 6
+        other.processingCount = 3;
+        assertSame(owner, loadBalancer.selectActiveSender(request));
+    }
+
+    @Test
+    public void spillOverWithConfiguredLoadFactor() {
+        List<Sendable> senders = createSenders(26010, 26011, 26012);
+        Requestable request = createRequest("hot-key");
+        ConsistentHashLoadBalancer defaultLoadBalancer = createLoadBalancer(createConsumerUrl());
+        defaultLoadBalancer.refresh(senders);
+        TestSender owner = (TestSender) defaultLoadBalancer.selectActiveSender(request);
+
+        Url consumerUrl = createConsumerUrl();
+        consumerUrl.addOption(ConsumerConstants.HASH_LOAD_FACTOR, 200);
+        ConsistentHashLoadBalancer loadBalancer = createLoadBalancer(consumerUrl);
+        loadBalancer.refresh(senders);
+
+        // Capacity: ceil(125 * (1 + 1) / (100 * 3)) = 1 and ceil(200 * (1 + 1) / (100 * 3)) = 2
+        owner.processingCount = 1;
+        assertNotSame(owner, defaultLoadBalancer.selectActiveSender(request));
+        assertSame(owner, loadBalancer.selectActiveSender(request));
+
+        // Capacity: ceil(200 * (2 + 1) / (100 * 3)) = 2
+        owner.processingCount = 2;
+        assertNotSame(owner, loadBalancer.selectActiveSender(request));
+    }
+
+    @Test
+    public void skipInactiveSender() {
+        ConsistentHashLoadBalancer loadBalancer = createLoadBalancer(createConsumerUrl());
+        List<Sendable> senders = createSenders(26010, 26011);
+        loadBalancer.refresh(senders);
+        Requestable request = createRequest("key");
+        TestSender owner = (TestSender) loadBalancer.selectActiveSender(request);
+
+        owner.active = false;
+        assertNotSame(owner, loadBalancer.selectActiveSender(request));
+        assertEquals(1, loadBalancer.selectAllActiveSenders(request).size());
+    }
+
+    @Test
+    public void buildKeyFromConfiguredArguments() {
+        Url consumerUrl = createConsumerUrl();
+        consumerUrl.addOption(ConsumerConstants.HASH_ARGUMENTS, " 1, 2");
+        ConsistentHashLoadBalancer loadBalancer = createLoadBalancer(consumerUrl);
+        loadBalancer.refresh(createSenders(26010, 26011, 26012));
+
+        // The first argument is excluded from the hash key
+        Sendable sender = loadBalancer.selectActiveSender(createRequest("a", "b", "c"));
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertSame(sender, loadBalancer.selectActiveSender(createRequest("a-" + i, "b", "c")));
+        }
+        Set<Sendable> selected = new HashSet<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            selected.add(loadBalancer.selectActiveSender(createRequest("a", "b", "c-" + i)));
+        }
+        assertEquals(3, selected.size());
+    }
+
+    @Test
+    public void buildKeyFromFirstArgumentByDefault() {
+        ConsistentHashLoadBalancer loadBalancer = createLoadBalancer(createConsumerUrl());
+        loadBalancer.refresh(createSenders(26010, 26011, 26012));
+
+        Sendable sender = loadBalancer.selectActiveSender(createRequest("a", "b"));
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertSame(sender, loadBalancer.selectActiveSender(createRequest("a", "b-" + i)));
+        }
+        // Out of range indexes are ignored
+        Url consumerUrl = createConsumerUrl();
+        consumerUrl.addOption(ConsumerConstants.HASH_ARGUMENTS, "0,5");
+        loadBalancer.setConsumerUrl(consumerUrl);
+        assertSame(sender, loadBalancer.selectActiveSender(createRequest("a", "b")));
+    }
+
+    private static Map<String, Sendable> selectAll(ConsistentHashLoadBalancer loadBalancer) {
+        Map<String, Sendable> selected = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            String key = "key-" + i;
+            selected.put(key, loadBalancer.selectActiveSender(createRequest(key)));
+        }
+        return selected;
+    }
+
+    private static ConsistentHashLoadBalancer createLoadBalancer(Url consumerUrl) {
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer();
+        loadBalancer.setConsumerUrl(consumerUrl);
+        return loadBalancer;
+    }
+
+    private static List<Sendable> createSenders(int... ports) {
+        List<Sendable> senders = new ArrayList<>();
+        for (int port : ports) {
+            senders.add(new TestSender(Url.providerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", port, "TestService")));
+        }
+        return senders;
+    }
+
+    private static Requestable createRequest(Object... args) {
+        RpcRequest request = new RpcRequest(1L, ProtocolConstants.PROTOCOL_VAL_LUIX, "TestService", "test", null, false);
+        request.setMethodArguments(args);
+        return request;
+    }
+
+    private static Url createConsumerUrl() {
+        return Url.consumerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 0, "TestService");
+    }
+
+    /**
+     * Sender with the adjustable in-flight requests and state
+     */
+    private static class TestSender implements Sendable {
+        private final Url            providerUrl;
+        private final CircuitBreaker circuitBreaker;
+        private       int            processingCount;
+        private       boolean        active = true;
+
+        private TestSender(Url providerUrl) {
+            this.providerUrl = providerUrl;
+            this.circuitBreaker = new CircuitBreaker(providerUrl, createConsumerUrl());
+        }
+
+        @Override
+        public Url getProviderUrl() {
+            return providerUrl;
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public int getProcessingCount() {
+            return processingCount;
+        }
+
+        @Override
+        public double getPeakEwmaLatency() {
+            return 0;
+        }
+
+        @Override
+        public void seedPeakEwmaLatency(double latencyNanos) {
+        }
+
+        @Override
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        @Override
+        public Responseable sendRequest(Requestable request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.luixtech.rpc.core.client.proxy.impl;
+
+import com.luixtech.rpc.core.client.faulttolerance.AbstractFaultTolerance;
+import com.luixtech.rpc.core.client.invoker.impl.DefaultServiceInvoker;
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.stub.ConsumerStub;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.server.response.impl.RpcResponse;
+import com.luixtech.rpc.core.url.Url;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteBuddyProxyTests {
+    private static final String                INTERFACE_NAME = GreetingService.class.getName();
+    private final        DefaultServiceInvoker invoker        = new DefaultServiceInvoker();
+    private final        TestFaultTolerance    faultTolerance = new TestFaultTolerance();
+    private              GreetingService       proxy;
+
+    @BeforeEach
+    public void createProxy() {
+        Url consumerUrl = Url.consumerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 0, INTERFACE_NAME);
+        invoker.init(INTERFACE_NAME, ConsumerConstants.FAULT_TOLERANCE_VAL_FAILFAST, ConsumerConstants.LOAD_BALANCER_VAL_RANDOM, consumerUrl);
+        invoker.getFaultTolerance().destroy();
+        invoker.setFaultTolerance(faultTolerance);
+
+        ConsumerStub<GreetingService> stub = new ConsumerStub<>();
+        stub.setInterfaceClass(GreetingService.class);
+        stub.setInterfaceName(INTERFACE_NAME);
+        stub.setProtocol(ProtocolConstants.PROTOCOL_VAL_LUIX);
+        stub.setInvokerInstance(invoker);
+        proxy = new ByteBuddyProxy().getProxy(stub);
+    }
+
+    @AfterEach
+    public void destroy() {
+        invoker.destroy();
+    }
+
+    @Test
+    public void dispatchOverloadedMethods() {
+        assertEquals("hello(void)", proxy.hello());
+        assertEquals("hello(java.lang.String)[Louis]", proxy.hello("Louis"));
+        assertEquals("hello(java.lang.Long)[1]", proxy.hello(1L));
+        assertEquals("hello(java.lang.String,int)[Louis, 2]", proxy.hello("Louis", 2));
+        assertEquals(4, faultTolerance.requests.size());
+        faultTolerance.requests.forEach(request -> assertEquals(INTERFACE_NAME, request.getInterfaceName()));
+    }
+
+    @Test
+    public void notSendObjectMethods() {
+        assertEquals(ByteBuddyProxy.class.getSimpleName(), proxy.toString());
+        assertEquals(proxy, proxy);
+        assertNotEquals(proxy, new Object());
+        assertEquals(System.identityHashCode(proxy), proxy.hashCode());
+        assertTrue(faultTolerance.requests.isEmpty());
+    }
+
+    @Test
+    public void sendDefaultMethods() {
+        // The default method is a remote call as the JDK proxy does, the provider decides its implementation
+        assertEquals("greet(java.lang.String)[Louis]", proxy.greet("Louis"));
+        assertEquals(1, faultTolerance.requests.size());
+        // The static method is not proxied
+        assertEquals("static", GreetingService.staticHello());
+        assertEquals(1, faultTolerance.requests.size());
+    }
+
+    /**
+     * Consumer interface with overloaded, default and static methods
+     */
+    public interface GreetingService {
+        String hello();
+
+        String hello(String name);
+
+        String hello(Long id);
+
+        String hello(String name, int times);
+
+        default String greet(String name) {
+            return "Hi " + name;
+        }
+
+        static String staticHello() {
+            return "static";
+        }
+    }
+
+    /**
+     * Fault tolerance which records the requests and responds the method signatures and arguments
+     */
+    private static class TestFaultTolerance extends AbstractFaultTolerance {
+        private final List<Requestable> requests = new ArrayList<>();
+
+        @Override
+        public Responseable invoke(Requestable request) {
+            requests.add(request);
+            String result = request.getMethodName() + "(" + request.getMethodParameters() + ")";
+            if (request.getMethodArguments() != null && request.getMethodArguments().length > 0) {
+                result += Arrays.toString(request.getMethodArguments());
+            }
+            return RpcResponse.of(result);
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
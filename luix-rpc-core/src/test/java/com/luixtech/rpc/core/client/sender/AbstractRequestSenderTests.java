@@ -0,0 +1,79 @@
+package com.luixtech.rpc.core.client.sender;
+
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.exception.impl.RpcCancelledException;
+import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.server.response.impl.RpcFutureResponse;
+import com.luixtech.rpc.core.server.response.impl.RpcResponse;
+import com.luixtech.rpc.core.url.Url;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AbstractRequestSenderTests {
+
+    @Test
+    public void skipRecordingCancelledCall() {
+        FutureSender sender = new FutureSender();
+        RpcFutureResponse response = (RpcFutureResponse) sender.sendRequest(createRequest());
+        assertEquals(1, sender.getProcessingCount());
+
+        response.cancel(new RpcCancelledException("Cancelled by hedged request"));
+        assertEquals(0, sender.getProcessingCount());
+        assertEquals(0.0D, sender.getPeakEwmaLatency());
+        assertEquals(CircuitBreaker.State.CLOSED, sender.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void recordFailedCall() {
+        FutureSender sender = new FutureSender();
+        RpcFutureResponse response = (RpcFutureResponse) sender.sendRequest(createRequest());
+
+        response.onFailure(RpcResponse.error(response.getRequest(), new RpcFrameworkException("Failed")));
+        assertEquals(0, sender.getProcessingCount());
+        assertTrue(sender.getPeakEwmaLatency() > 0);
+        assertEquals(CircuitBreaker.State.OPEN, sender.getCircuitBreaker().getState());
+    }
+
+    private static RpcRequest createRequest() {
+        return new RpcRequest(1L, ProtocolConstants.PROTOCOL_VAL_LUIX, "TestService", "test", null, true);
+    }
+
+    /**
+     * Sender which returns the future response without sending the request
+     */
+    private static class FutureSender extends AbstractRequestSender {
+
+        FutureSender() {
+            super("TestService", Url.providerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 26010, "TestService"),
+                    createConsumerUrl());
+            init();
+        }
+
+        private static Url createConsumerUrl() {
+            Url url = Url.consumerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 0, "TestService");
+            // Open the circuit on the first failure
+            url.addOption(ConsumerConstants.CIRCUIT_MIN_CALLS, 1);
+            return url;
+        }
+
+        @Override
+        protected boolean doInit() {
+            return true;
+        }
+
+        @Override
+        protected Responseable doSend(Requestable request) {
+            return new RpcFutureResponse(request, 1000, providerUrl);
+        }
+
+        @Override
+        protected void afterSend(Requestable request, Responseable response, long start) {
+            ((RpcFutureResponse) response).addListener(future -> onComplete(start, future.getException()));
+        }
+    }
+}
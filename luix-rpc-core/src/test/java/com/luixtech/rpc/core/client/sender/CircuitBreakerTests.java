@@ -0,0 +1,218 @@
+package com.luixtech.rpc.core.client.sender;
+
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.constant.ConsumerConstants;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.url.Url;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTests {
+    private static final long       FAST_CALL   = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long       SLOW_CALL   = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final int        OPEN_TIME   = 1000;
+    private final        AtomicLong clock       = new AtomicLong(10_000);
+    private final        Url        providerUrl = Url.providerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 26010, "TestService");
+
+    @Test
+    public void openOnFailureRate() {
+        CircuitBreaker breaker = createBreaker(createConsumerUrl());
+        breaker.record(FAST_CALL, false);
+        breaker.record(FAST_CALL, false);
+        breaker.record(FAST_CALL, true);
+        // Not enough calls yet
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.record(FAST_CALL, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isCallPermitted());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void openOnSlowCallRate() {
+        CircuitBreaker breaker = createBreaker(createConsumerUrl());
+        breaker.record(FAST_CALL, false);
+        breaker.record(SLOW_CALL, false);
+        breaker.record(SLOW_CALL, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.record(SLOW_CALL, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void closeAfterSuccessfulProbes() {
+        CircuitBreaker breaker = createOpenBreaker();
+        clock.addAndGet(OPEN_TIME - 1);
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.incrementAndGet();
+        assertTrue(breaker.isCallPermitted());
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        // Only the configured probe calls are permitted
+        assertFalse(breaker.tryAcquirePermission());
+        assertFalse(breaker.isCallPermitted());
+
+        breaker.record(FAST_CALL, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.record(FAST_CALL, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+
+        // The window was reset, so the failures before opening are not counted again
+        breaker.record(FAST_CALL, true);
+        breaker.record(FAST_CALL, false);
+        breaker.record(FAST_CALL, false);
+        breaker.record(FAST_CALL, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void reopenAfterFailedProbe() {
+        CircuitBreaker breaker = createOpenBreaker();
+        clock.addAndGet(OPEN_TIME);
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.record(FAST_CALL, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        // The open duration starts again
+        assertFalse(breaker.tryAcquirePermission());
+        clock.addAndGet(OPEN_TIME);
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void releaseProbePermission() {
+        CircuitBreaker breaker = createOpenBreaker();
+        clock.addAndGet(OPEN_TIME);
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+
+        // The probe call was cancelled without outcome
+        breaker.releasePermission();
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void limitEjectedProviders() {
+        Url consumerUrl = createConsumerUrl();
+        consumerUrl.addOption(ConsumerConstants.MAX_EJECTION_PERCENT, 50);
+        List<Sendable> cluster = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            cluster.add(new BreakerSender(createBreaker(consumerUrl)));
+        }
+        for (Sendable sender : cluster) {
+            sender.getCircuitBreaker().setCluster(cluster);
+            for (int i = 0; i < 4; i++) {
+                sender.getCircuitBreaker().record(FAST_CALL, true);
+            }
+        }
+        // At most half of the providers are ejected even if all of them are failing
+        long ejected = cluster.stream().filter(sender -> sender.getCircuitBreaker().getState() == CircuitBreaker.State.OPEN).count();
+        assertEquals(2, ejected);
+    }
+
+    @Test
+    public void ejectAtLeastOneProvider() {
+        Url consumerUrl = createConsumerUrl();
+        consumerUrl.addOption(ConsumerConstants.MAX_EJECTION_PERCENT, 10);
+        List<Sendable> cluster = new ArrayList<>();
+        cluster.add(new BreakerSender(createBreaker(consumerUrl)));
+        cluster.add(new BreakerSender(createBreaker(consumerUrl)));
+        for (Sendable sender : cluster) {
+            sender.getCircuitBreaker().setCluster(cluster);
+            for (int i = 0; i < 4; i++) {
+                sender.getCircuitBreaker().record(FAST_CALL, true);
+            }
+        }
+        assertEquals(CircuitBreaker.State.OPEN, cluster.get(0).getCircuitBreaker().getState());
+        assertEquals(CircuitBreaker.State.CLOSED, cluster.get(1).getCircuitBreaker().getState());
+    }
+
+    private CircuitBreaker createOpenBreaker() {
+        CircuitBreaker breaker = createBreaker(createConsumerUrl());
+        for (int i = 0; i < 4; i++) {
+            breaker.record(FAST_CALL, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private CircuitBreaker createBreaker(Url consumerUrl) {
+        return new CircuitBreaker(providerUrl, consumerUrl, clock::get);
+    }
+
+    private static Url createConsumerUrl() {
+        Url url = Url.consumerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 0, "TestService");
+        url.addOption(ConsumerConstants.CIRCUIT_WINDOW_SIZE, 10);
+        url.addOption(ConsumerConstants.CIRCUIT_MIN_CALLS, 4);
+        url.addOption(ConsumerConstants.CIRCUIT_FAILURE_RATE, 50);
+        url.addOption(ConsumerConstants.CIRCUIT_SLOW_CALL_RATE, 75);
+        url.addOption(ConsumerConstants.CIRCUIT_SLOW_CALL_DURATION, 100);
+        url.addOption(ConsumerConstants.CIRCUIT_OPEN_DURATION, OPEN_TIME);
+        url.addOption(ConsumerConstants.CIRCUIT_HALF_OPEN_CALLS, 2);
+        return url;
+    }
+
+    /**
+     * Sender which provides the circuit breaker only
+     */
+    private static class BreakerSender implements Sendable {
+        private final CircuitBreaker circuitBreaker;
+
+        private BreakerSender(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        @Override
+        public Url getProviderUrl() {
+            return null;
+        }
+
+        @Override
+        public boolean isActive() {
+            return circuitBreaker.isCallPermitted();
+        }
+
+        @Override
+        public int getProcessingCount() {
+            return 0;
+        }
+
+        @Override
+        public double getPeakEwmaLatency() {
+            return 0;
+        }
+
+        @Override
+        public void seedPeakEwmaLatency(double latencyNanos) {
+        }
+
+        @Override
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        @Override
+        public Responseable sendRequest(Requestable request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.luixtech.rpc.core.exchange.client;
+
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.exchange.Channel;
+import com.luixtech.rpc.core.exchange.constants.ChannelState;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.url.Url;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AbstractPooledClientTests {
+    private static final long WAIT_TIME         = TimeUnit.SECONDS.toMillis(5);
+    private static final int  PENDING_THRESHOLD = 2;
+
+    @Test
+    public void connectBulkChannelsOnFirstBulkRequest() throws InterruptedException {
+        Url url = createProviderUrl(1, 1);
+        url.addOption(ProtocolConstants.BULK_CLIENT_CONN, 2);
+        TestPooledClient client = new TestPooledClient(url);
+        client.open();
+        assertEquals(1, client.builtChannels.size());
+        TestChannel regular = client.builtChannels.get(0);
+        assertTrue(regular.isActive());
+
+        Requestable request = createRequest("upload");
+        assertSame(regular, client.getChannel(request));
+        client.markBulkMethod(request);
+        // The request is sent by the regular channel until a bulk channel is connected
+        assertSame(regular, client.getChannel(request));
+        assertEquals(3, client.builtChannels.size());
+        waitFor(() -> client.builtChannels.stream().allMatch(TestChannel::isActive));
+
+        Channel bulk = client.getChannel(request);
+        assertNotSame(regular, bulk);
+        assertTrue(client.builtChannels.contains(bulk));
+        // The other requests are not sent by the bulk channels
+        assertSame(regular, client.getChannel(createRequest("query")));
+        assertEquals(3, client.builtChannels.size());
+
+        client.close();
+        assertTrue(client.builtChannels.stream().noneMatch(TestChannel::isActive));
+    }
+
+    @Test
+    public void notCreateBulkChannelsIfDisabled() {
+        Url url = createProviderUrl(1, 1);
+        url.addOption(ProtocolConstants.BULK_CLIENT_CONN, 0);
+        TestPooledClient client = new TestPooledClient(url);
+        client.open();
+
+        Requestable request = createRequest("upload");
+        client.markBulkMethod(request);
+        assertSame(client.builtChannels.get(0), client.getChannel(request));
+        assertEquals(1, client.builtChannels.size());
+        client.close();
+    }
+
+    @Test
+    public void growWhenLeastLoadedChannelIsBusy() throws InterruptedException {
+        Url url = createProviderUrl(1, 3);
+        TestPooledClient client = new TestPooledClient(url);
+        client.open();
+        TestChannel first = client.builtChannels.get(0);
+        first.pendingCount = 1;
+        assertSame(first, client.getChannel());
+        assertEquals(1, client.builtChannels.size());
+
+        first.pendingCount = PENDING_THRESHOLD;
+        TestChannel second = growConnectionPool(client);
+        assertTrue(second.isActive());
+
+        second.pendingCount = PENDING_THRESHOLD;
+        TestChannel third = growConnectionPool(client);
+        assertNotSame(second, third);
+
+        // Not grow above the max count
+        third.pendingCount = PENDING_THRESHOLD;
+        assertNotNull(client.getChannel());
+        assertEquals(3, client.builtChannels.size());
+        client.close();
+    }
+
+    @Test
+    public void shrinkIdleChannelsAfterPendingRequestsCompleted() throws InterruptedException {
+        Url url = createProviderUrl(1, 2);
+        url.addOption(ProtocolConstants.CONN_IDLE_TIME, 0);
+        TestPooledClient client = new TestPooledClient(url);
+        client.open();
+        TestChannel first = client.builtChannels.get(0);
+        first.pendingCount = PENDING_THRESHOLD;
+        TestChannel second = growConnectionPool(client);
+
+        second.pendingCount = 1;
+        client.shrinkConnectionPool();
+        // The removed channel is not selected any more, but it is closed after its pending request completed
+        assertSame(first, client.getChannel());
+        assertTrue(second.isActive());
+        client.shrinkConnectionPool();
+        assertTrue(second.isActive());
+        second.pendingCount = 0;
+        client.shrinkConnectionPool();
+        assertFalse(second.isActive());
+
+        // Not shrink below the min count
+        client.shrinkConnectionPool();
+        assertTrue(first.isActive());
+        assertSame(first, client.getChannel());
+        client.close();
+    }
+
+    @Test
+    public void notShrinkBeforeIdleTime() throws InterruptedException {
+        Url url = createProviderUrl(1, 2);
+        url.addOption(ProtocolConstants.CONN_IDLE_TIME, 60_000);
+        TestPooledClient client = new TestPooledClient(url);
+        client.open();
+        TestChannel first = client.builtChannels.get(0);
+        first.pendingCount = PENDING_THRESHOLD;
+        TestChannel second = growConnectionPool(client);
+
+        client.shrinkConnectionPool();
+        client.shrinkConnectionPool();
+        assertSame(second, client.getChannel());
+        assertTrue(second.isActive());
+        client.close();
+        assertFalse(second.isActive());
+    }
+
+    /**
+     * Trigger the growth of the pool whose channels are all busy, and wait until the new channel is selected
+     *
+     * @param client pooled client
+     * @return new channel
+     */
+    private static TestChannel growConnectionPool(TestPooledClient client) throws InterruptedException {
+        int size = client.builtChannels.size();
+        assertEquals(PENDING_THRESHOLD, client.getChannel().getPendingCount(), "All the channels must be busy");
+        waitFor(() -> client.builtChannels.size() > size);
+        TestChannel created = client.builtChannels.get(size);
+        waitFor(() -> client.getChannel() == created);
+        return created;
+    }
+
+    private static Url createProviderUrl(int minConn, int maxConn) {
+        Url url = Url.providerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 26200, "TestService");
+        url.addOption(ProtocolConstants.MIN_CLIENT_CONN, minConn);
+        url.addOption(ProtocolConstants.MAX_CLIENT_CONN, maxConn);
+        url.addOption(ProtocolConstants.CONN_PENDING_THRESHOLD, PENDING_THRESHOLD);
+        url.addOption(ProtocolConstants.ASYNC_CREATE_CONN, Boolean.FALSE.toString());
+        return url;
+    }
+
+    private static Requestable createRequest(String methodName) {
+        return new RpcRequest(1L, ProtocolConstants.PROTOCOL_VAL_LUIX, "TestService", methodName, null, false);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_TIME;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the condition");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Pooled client which records the channels built by its factory
+     */
+    private static class TestPooledClient extends AbstractPooledClient {
+        private final List<TestChannel> builtChannels = new CopyOnWriteArrayList<>();
+
+        private TestPooledClient(Url providerUrl) {
+            super(providerUrl);
+        }
+
+        @Override
+        protected SharedObjectFactory<Channel> createChannelFactory() {
+            return new SharedObjectFactory<Channel>() {
+                @Override
+                public Channel buildObject() {
+                    TestChannel channel = new TestChannel(providerUrl);
+                    builtChannels.add(channel);
+                    return channel;
+                }
+
+                @Override
+                public boolean rebuildObject(Channel channel, boolean async) {
+                    return channel.open();
+                }
+            };
+        }
+
+        @Override
+        public Responseable request(Requestable request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void checkHealth(Requestable request) {
+        }
+
+        @Override
+        public synchronized boolean open() {
+            createConnectionPool();
+            state = ChannelState.ACTIVE;
+            return true;
+        }
+
+        @Override
+        public void close() {
+            close(0);
+        }
+
+        @Override
+        public synchronized void close(int timeout) {
+            closeAllChannels();
+            state = ChannelState.CLOSED;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return state.isClosed();
+        }
+
+        @Override
+        public boolean isActive() {
+            return state.isActive();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    /**
+     * Channel without connection whose pending requests are set by the test
+     */
+    private static class TestChannel implements Channel {
+        private final    Url     providerUrl;
+        private volatile boolean active;
+        private volatile int     pendingCount;
+
+        private TestChannel(Url providerUrl) {
+            this.providerUrl = providerUrl;
+        }
+
+        @Override
+        public Responseable request(Requestable request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean open() {
+            active = true;
+            return true;
+        }
+
+        @Override
+        public void close() {
+            active = false;
+        }
+
+        @Override
+        public void close(int timeout) {
+            close();
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public ChannelState getState() {
+            return active ? ChannelState.ACTIVE : ChannelState.CLOSED;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return !active;
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public boolean isWritable() {
+            return active;
+        }
+
+        @Override
+        public int getPendingCount() {
+            return pendingCount;
+        }
+
+        @Override
+        public Url getProviderUrl() {
+            return providerUrl;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.luixtech.rpc.core.exchange.endpoint;
+
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.exchange.client.AbstractClient;
+import com.luixtech.rpc.core.exchange.client.Client;
+import com.luixtech.rpc.core.exchange.server.Server;
+import com.luixtech.rpc.core.server.handler.InvocationHandleable;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.url.Url;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AbstractNetworkTransmissionFactoryTests {
+    private final TestTransmissionFactory factory = new TestTransmissionFactory();
+
+    @Test
+    public void shareClientUntilLastInterfaceReleased() {
+        Url greetingUrl = createProviderUrl(26100, "GreetingService", true);
+        Url orderUrl = createProviderUrl(26100, "OrderService", true);
+        Client client = factory.createClient(greetingUrl);
+        assertSame(client, factory.createClient(orderUrl));
+        assertEquals(1, factory.createdClients.size());
+        assertSame(orderUrl, client.getProviderUrl(createRequest("OrderService")));
+        assertSame(greetingUrl, client.getProviderUrl(createRequest("GreetingService")));
+
+        factory.destroyClient(client, greetingUrl);
+        assertFalse(client.isClosed());
+        factory.destroyClient(client, orderUrl);
+        assertTrue(client.isClosed());
+
+        // The released client is not reused
+        Client newClient = factory.createClient(greetingUrl);
+        assertNotSame(client, newClient);
+        factory.destroyClient(newClient, greetingUrl);
+        assertTrue(newClient.isClosed());
+    }
+
+    @Test
+    public void countReferencesOfSameInterface() {
+        Url greetingUrl = createProviderUrl(26101, "GreetingService", true);
+        Client client = factory.createClient(greetingUrl);
+        assertSame(client, factory.createClient(greetingUrl));
+
+        factory.destroyClient(client, greetingUrl);
+        assertFalse(client.isClosed());
+        factory.destroyClient(client, greetingUrl);
+        assertTrue(client.isClosed());
+    }
+
+    @Test
+    public void notShareClientWithDifferentOptions() {
+        Url greetingUrl = createProviderUrl(26102, "GreetingService", true);
+        Url orderUrl = createProviderUrl(26102, "OrderService", true);
+        orderUrl.addOption(ProtocolConstants.MAX_CONTENT_LENGTH, 1024);
+        Client greetingClient = factory.createClient(greetingUrl);
+        Client orderClient = factory.createClient(orderUrl);
+        assertNotSame(greetingClient, orderClient);
+
+        factory.destroyClient(greetingClient, greetingUrl);
+        assertTrue(greetingClient.isClosed());
+        assertFalse(orderClient.isClosed());
+        factory.destroyClient(orderClient, orderUrl);
+        assertTrue(orderClient.isClosed());
+    }
+
+    @Test
+    public void notShareClientByDefault() {
+        Url greetingUrl = createProviderUrl(26103, "GreetingService", false);
+        Url orderUrl = createProviderUrl(26103, "OrderService", false);
+        Client greetingClient = factory.createClient(greetingUrl);
+        Client orderClient = factory.createClient(orderUrl);
+        assertNotSame(greetingClient, orderClient);
+        assertEquals(2, factory.createdClients.size());
+
+        factory.destroyClient(greetingClient, greetingUrl);
+        assertTrue(greetingClient.isClosed());
+        assertFalse(orderClient.isClosed());
+    }
+
+    private static Url createProviderUrl(int port, String interfaceName, boolean sharedClient) {
+        Url url = Url.providerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", port, interfaceName);
+        if (sharedClient) {
+            url.addOption(ProtocolConstants.SHARED_CLIENT, Boolean.TRUE.toString());
+        }
+        return url;
+    }
+
+    private static Requestable createRequest(String interfaceName) {
+        return new RpcRequest(1L, ProtocolConstants.PROTOCOL_VAL_LUIX, interfaceName, "test", null, false);
+    }
+
+    /**
+     * Factory which creates the clients without connections
+     */
+    private static class TestTransmissionFactory extends AbstractNetworkTransmissionFactory {
+        private final List<TestClient> createdClients = new ArrayList<>();
+
+        @Override
+        protected Client doCreateClient(Url providerUrl) {
+            TestClient client = new TestClient(providerUrl);
+            createdClients.add(client);
+            return client;
+        }
+
+        @Override
+        protected Server doCreateServer(Url url, InvocationHandleable handler) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Client which records whether it was closed only
+     */
+    private static class TestClient extends AbstractClient {
+        private boolean closed;
+
+        private TestClient(Url providerUrl) {
+            super(providerUrl);
+        }
+
+        @Override
+        public Responseable request(Requestable request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void checkHealth(Requestable request) {
+        }
+
+        @Override
+        public boolean open() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public void close(int timeout) {
+            close();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public boolean isActive() {
+            return !closed;
+        }
+
+        @Override
+        public boolean isWritable() {
+            return !closed;
+        }
+
+        @Override
+        public int getPendingCount() {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
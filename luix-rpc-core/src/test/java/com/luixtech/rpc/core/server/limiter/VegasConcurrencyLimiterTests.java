@@ -0,0 +1,139 @@
+package com.luixtech.rpc.core.server.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Overloads a simulated provider which can process a few requests in parallel,
+ * and compares the goodput, i.e. the requests completed within timeout, with and without the concurrency limit.
+ * The simulation runs on a virtual clock in milliseconds, so the result does not depend on the scheduling of threads.
+ */
+public class VegasConcurrencyLimiterTests {
+    private static final int  CAPACITY     = 4;
+    private static final long SERVICE_TIME = 2;
+    private static final long TIMEOUT      = 20;
+    private static final long RETRY_DELAY  = 1;
+    private static final int  CLIENTS      = 64;
+    private static final long DURATION     = 2000;
+
+    @Test
+    public void keepGoodputUnderOverload() {
+        long unlimited = simulate(null);
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(20, 200);
+        long limited = simulate(limiter);
+        long peak = CAPACITY * 1000 / SERVICE_TIME;
+
+        // The requests queue up and time out without the limit except the first ones
+        assertTrue(limited > unlimited * 10, "Goodput " + limited + "/s is NOT 10 times of " + unlimited + "/s");
+        assertTrue(limited > peak / 2, "Goodput " + limited + "/s is less than half of the peak " + peak + "/s");
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    public void keepLimitWithoutQueueing() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(20, 200);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(SERVICE_TIME), false);
+        }
+        // One in-flight request does not need a larger limit
+        assertEquals(20, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    public void rejectAboveLimit() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(2, 200);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInflight());
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(SERVICE_TIME), false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    /**
+     * Simulate the closed loop clients of the provider
+     *
+     * @param limiter concurrency limiter or null if unlimited
+     * @return requests completed within timeout per second
+     */
+    private static long simulate(VegasConcurrencyLimiter limiter) {
+        PriorityQueue<Event> events = new PriorityQueue<>();
+        Queue<Long> waiting = new ArrayDeque<>();
+        int sequence = 0;
+        int busy = 0;
+        long completed = 0;
+        for (int i = 0; i < CLIENTS; i++) {
+            events.add(new Event(0, sequence++, false, 0));
+        }
+        while (!events.isEmpty()) {
+            Event event = events.poll();
+            long now = event.time;
+            if (event.completion) {
+                long latency = now - event.start;
+                boolean timeout = latency > TIMEOUT;
+                if (limiter != null) {
+                    limiter.release(TimeUnit.MILLISECONDS.toNanos(latency), timeout);
+                }
+                if (!timeout) {
+                    completed++;
+                }
+                busy--;
+                if (now < DURATION) {
+                    // The client sends the next request at once
+                    events.add(new Event(now, sequence++, false, 0));
+                }
+            } else if (limiter != null && !limiter.tryAcquire()) {
+                // Rejected fast, and the consumer retries later
+                if (now + RETRY_DELAY < DURATION) {
+                    events.add(new Event(now + RETRY_DELAY, sequence++, false, 0));
+                }
+                continue;
+            } else {
+                waiting.add(now);
+            }
+            // The provider processes the waiting requests in FIFO order
+            while (busy < CAPACITY && !waiting.isEmpty()) {
+                busy++;
+                events.add(new Event(now + SERVICE_TIME, sequence++, true, waiting.poll()));
+            }
+        }
+        return completed * 1000 / DURATION;
+    }
+
+    /**
+     * Arrival or completion of a simulated request, the events at the same time are ordered by sequence
+     */
+    private static class Event implements Comparable<Event> {
+        private static final Comparator<Event> ORDER = Comparator.<Event>comparingLong(e -> e.time)
+                .thenComparingInt(e -> e.sequence);
+        private final        long              time;
+        private final        int               sequence;
+        private final        boolean           completion;
+        /**
+         * Arrival time of the completed request
+         */
+        private final        long              start;
+
+        private Event(long time, int sequence, boolean completion, long start) {
+            this.time = time;
+            this.sequence = sequence;
+            this.completion = completion;
+            this.start = start;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
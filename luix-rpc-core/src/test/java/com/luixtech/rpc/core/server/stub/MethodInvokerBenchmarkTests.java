@@ -0,0 +1,70 @@
+package com.luixtech.rpc.core.server.stub;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective invocation of provider method with the compiled {@link MethodInvoker}.
+ * It is excluded from the unit tests, run the main method to benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodInvokerBenchmarkTests {
+    private final CalculatorService instance = new CalculatorServiceImpl();
+    private final Object[]          args     = new Object[]{1, 2L, "a"};
+    private       Method            method;
+    private       MethodInvoker     invoker;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        method = CalculatorService.class.getMethod("calculate", int.class, Long.class, String.class);
+        invoker = new MethodInvoker(0, method, false);
+    }
+
+    @Benchmark
+    public void reflection(Blackhole blackhole) throws Exception {
+        blackhole.consume(method.invoke(instance, args));
+    }
+
+    @Benchmark
+    public void methodInvoker(Blackhole blackhole) throws Throwable {
+        blackhole.consume(invoker.invoke(instance, args));
+    }
+
+    @Test
+    @Disabled("Benchmark runs for several seconds, run the main method instead")
+    public void runBenchmark() throws RunnerException {
+        main(new String[0]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MethodInvokerBenchmarkTests.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    public interface CalculatorService {
+        long calculate(int a, Long b, String c);
+    }
+
+    public static class CalculatorServiceImpl implements CalculatorService {
+        @Override
+        public long calculate(int a, Long b, String c) {
+            return a + b + c.length();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.luixtech.rpc.core.server.stub;
+
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.exception.impl.RpcBizException;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.url.Url;
+import com.luixtech.rpc.core.utils.MethodParameterUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodInvokerTests {
+    private final CalculatorService instance = new CalculatorServiceImpl();
+
+    @Test
+    public void invokeMethod() throws Throwable {
+        MethodInvoker invoker = createInvoker("calculate", int.class, Long.class, String.class);
+        assertEquals(1 + 2L + 3, invoker.invoke(instance, new Object[]{1, 2L, "abc"}));
+        assertEquals(0, invoker.getIndex());
+        assertFalse(invoker.isBuildIn());
+    }
+
+    @Test
+    public void invokeVoidMethod() throws Throwable {
+        MethodInvoker invoker = createInvoker("clear");
+        assertNull(invoker.invoke(instance, new Object[0]));
+        assertNull(invoker.invoke(instance, null));
+    }
+
+    @Test
+    public void invokeMethodOfNonPublicInterface() throws Throwable {
+        MethodInvoker invoker = new MethodInvoker(0, HiddenService.class.getMethod("hide"), false);
+        assertEquals("hidden", invoker.invoke((HiddenService) () -> "hidden", new Object[0]));
+    }
+
+    @Test
+    public void throwUnwrappedException() throws NoSuchMethodException {
+        MethodInvoker invoker = createInvoker("fail", String.class);
+        IOException ioException = assertThrows(IOException.class, () -> invoker.invoke(instance, new Object[]{"io"}));
+        assertEquals("io", ioException.getMessage());
+        assertThrows(IllegalStateException.class, () -> invoker.invoke(instance, new Object[]{"state"}));
+        assertThrows(AssertionError.class, () -> invoker.invoke(instance, new Object[]{"error"}));
+    }
+
+    @Test
+    public void wrapExceptionOfProviderMethod() throws NoSuchMethodException {
+        ProviderStub<CalculatorService> stub = createStub();
+        Method method = CalculatorService.class.getMethod("fail", String.class);
+
+        // The cause is the exception thrown by the method instead of the exception of invocation
+        Responseable declared = stub.invokeMethod(createRequest(method, "io"));
+        assertTrue(declared.getException() instanceof RpcBizException);
+        assertTrue(declared.getException().getCause() instanceof IOException);
+        assertEquals("io", declared.getException().getCause().getMessage());
+
+        Responseable undeclared = stub.invokeMethod(createRequest(method, "state"));
+        assertTrue(undeclared.getException() instanceof RpcBizException);
+        assertTrue(undeclared.getException().getCause() instanceof IllegalStateException);
+
+        Responseable error = stub.invokeMethod(createRequest(method, "error"));
+        assertTrue(error.getException() instanceof RpcBizException);
+        assertTrue(error.getException().getCause() instanceof AssertionError);
+    }
+
+    @Test
+    public void returnResultOfProviderMethod() throws NoSuchMethodException {
+        ProviderStub<CalculatorService> stub = createStub();
+        Method method = CalculatorService.class.getMethod("calculate", int.class, Long.class, String.class);
+        Responseable response = stub.invokeMethod(createRequest(method, 1, 2L, "abc"));
+        assertNull(response.getException());
+        assertEquals(6L, response.getResult());
+    }
+
+    private MethodInvoker createInvoker(String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return new MethodInvoker(0, CalculatorService.class.getMethod(methodName, parameterTypes), false);
+    }
+
+    private ProviderStub<CalculatorService> createStub() {
+        ProviderStub<CalculatorService> stub = new ProviderStub<>();
+        stub.setInterfaceClass(CalculatorService.class);
+        stub.setInterfaceName(CalculatorService.class.getName());
+        stub.setForm("methodInvoker");
+        stub.setInstance(instance);
+        stub.setUrl(Url.providerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 26010, CalculatorService.class.getName()));
+        stub.init();
+        stub.getActivated().set(true);
+        return stub;
+    }
+
+    private static RpcRequest createRequest(Method method, Object... args) {
+        RpcRequest request = new RpcRequest(1L, ProtocolConstants.PROTOCOL_VAL_LUIX, CalculatorService.class.getName(),
+                method.getName(), MethodParameterUtils.getMethodParameters(method), false);
+        request.setMethodArguments(args);
+        return request;
+    }
+
+    public interface CalculatorService {
+        long calculate(int a, Long b, String c);
+
+        void clear();
+
+        void fail(String type) throws IOException;
+    }
+
+    interface HiddenService {
+        String hide();
+    }
+
+    /**
+     * Service which throws the exception of the specified type
+     */
+    public static class CalculatorServiceImpl implements CalculatorService {
+        @Override
+        public long calculate(int a, Long b, String c) {
+            return a + b + c.length();
+        }
+
+        @Override
+        public void clear() {
+        }
+
+        @Override
+        public void fail(String type) throws IOException {
+            if ("io".equals(type)) {
+                throw new IOException(type);
+            }
+            if ("state".equals(type)) {
+                throw new IllegalStateException(type);
+            }
+            throw new AssertionError(type);
+        }
+    }
+}
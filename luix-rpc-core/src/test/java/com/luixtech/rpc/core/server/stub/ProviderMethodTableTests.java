@@ -0,0 +1,76 @@
+package com.luixtech.rpc.core.server.stub;
+
+import com.luixtech.rpc.core.utils.MethodParameterUtils;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProviderMethodTableTests {
+    private final ProviderMethodTable table = ProviderMethodTable.getInstance();
+
+    @Test
+    public void keepMethodIdAfterReExport() throws NoSuchMethodException {
+        Method method = GreetingService.class.getMethod("greet", String.class);
+        ProviderStub<GreetingService> stub = createStub("reExport");
+        int id = table.register(stub, new MethodInvoker(0, method, false));
+        String key = buildMethodKey(stub, method);
+        assertEquals(id, table.getMethodIds().get(key));
+
+        table.remove(stub.getInterfaceName(), stub.getForm(), stub.getVersion());
+        assertNull(table.get(id));
+        assertFalse(table.getMethodIds().containsKey(key));
+
+        // The consumers which hold the old ID can still call the re-exported method
+        ProviderStub<GreetingService> reExported = createStub("reExport");
+        assertEquals(id, table.register(reExported, new MethodInvoker(0, method, false)));
+        assertSame(reExported, table.get(id).getProviderStub());
+        assertEquals(id, table.getMethodIds().get(key));
+    }
+
+    @Test
+    public void removeOnlyMethodsOfProvider() throws NoSuchMethodException {
+        Method method = GreetingService.class.getMethod("greet", String.class);
+        ProviderStub<GreetingService> removed = createStub("removed");
+        ProviderStub<GreetingService> kept = createStub("kept");
+        int removedId = table.register(removed, new MethodInvoker(0, method, false));
+        int keptId = table.register(kept, new MethodInvoker(0, method, false));
+        assertNotEquals(removedId, keptId);
+
+        table.remove(removed.getInterfaceName(), removed.getForm(), removed.getVersion());
+        assertNull(table.get(removedId));
+        assertSame(kept, table.get(keptId).getProviderStub());
+        Map<String, Integer> methodIds = table.getMethodIds();
+        assertFalse(methodIds.containsKey(buildMethodKey(removed, method)));
+        assertEquals(keptId, methodIds.get(buildMethodKey(kept, method)));
+    }
+
+    @Test
+    public void registerSameMethodOnce() throws NoSuchMethodException {
+        Method method = GreetingService.class.getMethod("greet", String.class);
+        ProviderStub<GreetingService> stub = createStub("once");
+        int id = table.register(stub, new MethodInvoker(0, method, false));
+        assertEquals(id, table.register(stub, new MethodInvoker(0, method, false)));
+        assertNull(table.get(0));
+        assertNull(table.get(Integer.MAX_VALUE));
+    }
+
+    private static ProviderStub<GreetingService> createStub(String form) {
+        ProviderStub<GreetingService> stub = new ProviderStub<>();
+        stub.setInterfaceClass(GreetingService.class);
+        stub.setInterfaceName(GreetingService.class.getName());
+        stub.setForm(form);
+        return stub;
+    }
+
+    private static String buildMethodKey(ProviderStub<?> stub, Method method) {
+        return ProviderMethodTable.buildMethodKey(stub.getInterfaceName(), stub.getForm(), stub.getVersion(),
+                method.getName(), MethodParameterUtils.getMethodParameters(method));
+    }
+
+    public interface GreetingService {
+        String greet(String name);
+    }
+}
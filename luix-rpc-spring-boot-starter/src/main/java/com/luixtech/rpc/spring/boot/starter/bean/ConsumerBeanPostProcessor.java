@@ -266,6 +266,25 @@ public class ConsumerBeanPostProcessor implements BeanPostProcessor, Environment
 
         AnnotationBeanDefinitionUtils.addPropertyValue(builder, LIMIT_RATE, luixRpcProperties.getConsumer().isLimitRate());
         AnnotationBeanDefinitionUtils.addPropertyValue(builder, MAX_PAYLOAD, luixRpcProperties.getConsumer().getMaxPayload());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, HEDGE_DELAY, luixRpcProperties.getConsumer().getHedgeDelay());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, HEDGE_PERCENTILE, luixRpcProperties.getConsumer().getHedgePercentile());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, HEDGE_BUDGET, luixRpcProperties.getConsumer().getHedgeBudget());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, BROADCAST_POLICY, luixRpcProperties.getConsumer().getBroadcastPolicy());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, BROADCAST_COUNT, luixRpcProperties.getConsumer().getBroadcastCount());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, BROADCAST_MERGER, luixRpcProperties.getConsumer().getBroadcastMerger());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, HASH_ARGUMENTS, luixRpcProperties.getConsumer().getHashArguments());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, VIRTUAL_NODES, luixRpcProperties.getConsumer().getVirtualNodes());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, HASH_LOAD_FACTOR, luixRpcProperties.getConsumer().getHashLoadFactor());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, CIRCUIT_WINDOW_SIZE, luixRpcProperties.getConsumer().getCircuitWindowSize());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, CIRCUIT_MIN_CALLS, luixRpcProperties.getConsumer().getCircuitMinCalls());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, CIRCUIT_FAILURE_RATE, luixRpcProperties.getConsumer().getCircuitFailureRate());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, CIRCUIT_SLOW_CALL_RATE, luixRpcProperties.getConsumer().getCircuitSlowCallRate());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, CIRCUIT_SLOW_CALL_DURATION, luixRpcProperties.getConsumer().getCircuitSlowCallDuration());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, CIRCUIT_OPEN_DURATION, luixRpcProperties.getConsumer().getCircuitOpenDuration());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, CIRCUIT_HALF_OPEN_CALLS, luixRpcProperties.getConsumer().getCircuitHalfOpenCalls());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, MAX_EJECTION_PERCENT, luixRpcProperties.getConsumer().getMaxEjectionPercent());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, CALLBACK_THREADS, luixRpcProperties.getConsumer().getCallbackThreads());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, CALLBACK_QUEUE_SIZE, luixRpcProperties.getConsumer().getCallbackQueueSize());
         AnnotationBeanDefinitionUtils.addPropertyValue(builder, PROVIDER_ADDRESSES, annotation.providerAddresses(), env);
 
         return builder.getBeanDefinition();
@@ -39,6 +39,8 @@ import java.util.stream.Collectors;
 import static com.luixtech.rpc.core.constant.ProtocolConstants.PROTOCOL;
 import static com.luixtech.rpc.core.constant.ProtocolConstants.SERIALIZER;
 import static com.luixtech.rpc.core.constant.ProviderConstants.HEALTH_CHECKER;
+import static com.luixtech.rpc.core.constant.ProviderConstants.WARMUP;
+import static com.luixtech.rpc.core.constant.ProviderConstants.WEIGHT;
 import static com.luixtech.rpc.core.constant.ServiceConstants.*;
 import static com.luixtech.rpc.core.server.stub.ProviderStub.buildProviderStubBeanName;
 import static com.luixtech.rpc.spring.boot.starter.config.LuixRpcProperties.readProtocolConfig;
@@ -338,6 +340,8 @@ public class ProviderBeanDefinitionRegistryPostProcessor implements BeanDefiniti
         AnnotationBeanDefinitionUtils.addPropertyValue(builder, RETRY_COUNT, retryCount);
 
         AnnotationBeanDefinitionUtils.addPropertyValue(builder, MAX_PAYLOAD, providerConfig.getMaxPayload());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, WEIGHT, providerConfig.getWeight());
+        AnnotationBeanDefinitionUtils.addPropertyValue(builder, WARMUP, providerConfig.getWarmup());
 
         // Obtain the instance by instance name then assign it to the property
         AnnotationBeanDefinitionUtils.addPropertyReference(builder, "instance", providerInstanceName, env);
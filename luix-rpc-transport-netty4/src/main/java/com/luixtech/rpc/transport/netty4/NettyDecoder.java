@@ -8,6 +8,7 @@ import com.luixtech.rpc.core.exchange.Channel;
 import com.luixtech.rpc.core.protocol.constants.ProtocolVersion;
 import com.luixtech.rpc.core.server.response.Responseable;
 import com.luixtech.rpc.core.utils.RpcFrameworkUtils;
+import com.luixtech.rpc.transport.netty4.codec.ByteBufCodec;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
@@ -48,21 +49,25 @@ public class NettyDecoder extends ByteToMessageDecoder {
                 decodeV1(ctx, in, out);
                 break;
             case 1:
-                decodeV2(ctx, in, out);
+                decodeV2(ctx, in, out, ProtocolVersion.VERSION_2);
+                break;
+            case 2:
+                decodeV2(ctx, in, out, ProtocolVersion.VERSION_3);
                 break;
             default:
-                decodeV2(ctx, in, out);
+                decodeV2(ctx, in, out, ProtocolVersion.VERSION_2);
         }
     }
 
-    private void decodeV2(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+    private void decodeV2(ChannelHandlerContext ctx, ByteBuf in, List<Object> out, ProtocolVersion version) throws Exception {
         long startTime = System.currentTimeMillis();
         in.resetReaderIndex();
         if (in.readableBytes() < 21) {
             return;
         }
         in.skipBytes(2);
-        boolean isRequest = isV2Request(in.readByte());
+        byte messageType = in.readByte();
+        boolean isRequest = isV2Request(messageType);
         in.skipBytes(2);
         long requestId = in.readLong();
         int size = 13;
@@ -81,7 +86,7 @@ public class NettyDecoder extends ByteToMessageDecoder {
             return;
         }
         int bodySize = in.readInt();
-        checkMaxContext(bodySize, ctx, isRequest, requestId, ProtocolVersion.VERSION_2);
+        checkMaxContext(bodySize, ctx, isRequest, requestId, version);
         size += 4;
         if (bodySize > 0) {
             size += bodySize;
@@ -90,16 +95,36 @@ public class NettyDecoder extends ByteToMessageDecoder {
                 return;
             }
         }
-        byte[] data = new byte[size];
         in.resetReaderIndex();
+        if (isV2Cancel(messageType)) {
+            // Cancel frame carries nothing but the request ID
+            in.skipBytes(size);
+            NettyMessage message = new NettyMessage(true, requestId, (byte[]) null, version);
+            message.setCancel(true);
+            message.setStartTime(startTime);
+            out.add(message);
+            return;
+        }
+        if (codec instanceof ByteBufCodec) {
+            // Pass the retained frame to codec without copying, it will be released after decoding
+            NettyMessage message = new NettyMessage(isRequest, requestId, in.readRetainedSlice(size), version);
+            message.setStartTime(startTime);
+            out.add(message);
+            return;
+        }
+        byte[] data = new byte[size];
         in.readBytes(data);
-        decode(data, out, isRequest, requestId, ProtocolVersion.VERSION_2).setStartTime(startTime);
+        decode(data, out, isRequest, requestId, version).setStartTime(startTime);
     }
 
     private boolean isV2Request(byte b) {
         return (b & 0x01) == 0x00;
     }
 
+    private boolean isV2Cancel(byte b) {
+        return (b & 0x20) == 0x20;
+    }
+
     private void decodeV1(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
         long startTime = System.currentTimeMillis();
         in.resetReaderIndex();
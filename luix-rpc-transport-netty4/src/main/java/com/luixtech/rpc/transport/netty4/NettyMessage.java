@@ -2,11 +2,21 @@ package com.luixtech.rpc.transport.netty4;
 
 
 import com.luixtech.rpc.core.protocol.constants.ProtocolVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
 
 public class NettyMessage {
     private boolean         isRequest;
+    /**
+     * Indicate whether it is a frame which cancels the request with the same ID
+     */
+    private boolean         cancel;
     private long            requestId;
     private byte[]          data;
+    /**
+     * Retained frame which is decoded by {@link com.luixtech.rpc.transport.netty4.codec.ByteBufCodec}
+     */
+    private ByteBuf         frame;
     private long            startTime;
     private ProtocolVersion version;
 
@@ -17,6 +27,13 @@ public class NettyMessage {
         this.version = version;
     }
 
+    public NettyMessage(boolean isRequest, long requestId, ByteBuf frame, ProtocolVersion version) {
+        this.isRequest = isRequest;
+        this.requestId = requestId;
+        this.frame = frame;
+        this.version = version;
+    }
+
     public boolean isRequest() {
         return isRequest;
     }
@@ -25,6 +42,14 @@ public class NettyMessage {
         isRequest = request;
     }
 
+    public boolean isCancel() {
+        return cancel;
+    }
+
+    public void setCancel(boolean cancel) {
+        this.cancel = cancel;
+    }
+
     public long getRequestId() {
         return requestId;
     }
@@ -56,4 +81,30 @@ public class NettyMessage {
     public void setVersion(ProtocolVersion version) {
         this.version = version;
     }
+
+    public ByteBuf getFrame() {
+        return frame;
+    }
+
+    /**
+     * Get the encoded size of the message, it must be called before the frame is released
+     *
+     * @return size in bytes
+     */
+    public int getSize() {
+        if (frame != null) {
+            return frame.readableBytes();
+        }
+        return data != null ? data.length : 0;
+    }
+
+    /**
+     * Release the retained frame if exists
+     */
+    public void release() {
+        if (frame != null) {
+            ReferenceCountUtil.safeRelease(frame);
+            frame = null;
+        }
+    }
 }
@@ -2,31 +2,45 @@ package com.luixtech.rpc.transport.netty4;
 
 import com.luixtech.rpc.core.client.request.Requestable;
 import com.luixtech.rpc.core.codec.Codec;
-import com.luixtech.rpc.core.codec.CodecUtils;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
 import com.luixtech.rpc.core.constant.RpcConstants;
 import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.exception.impl.RpcOverloadedException;
 import com.luixtech.rpc.core.exchange.Channel;
 import com.luixtech.rpc.core.server.handler.InvocationHandleable;
 import com.luixtech.rpc.core.server.response.Responseable;
 import com.luixtech.rpc.core.server.response.impl.RpcResponse;
 import com.luixtech.rpc.core.url.Url;
+import com.luixtech.rpc.core.utils.RpcCancellationHolder;
+import com.luixtech.rpc.core.utils.RpcDeadlineHolder;
 import com.luixtech.rpc.core.utils.RpcFrameworkUtils;
 import com.luixtech.rpc.core.utils.RpcRequestIdHolder;
+import com.luixtech.rpc.transport.netty4.client.NettyChannel;
+import com.luixtech.rpc.transport.netty4.codec.ByteBufCodec;
+import com.luixtech.rpc.transport.netty4.codec.NettyCodecUtils;
+import com.luixtech.rpc.transport.netty4.server.InflightMemoryBudget;
 import com.luixtech.rpc.transport.netty4.server.NettyServer;
 import com.luixtech.utilities.network.AddressUtils;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.ReferenceCountUtil;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.luixtech.rpc.core.constant.ProtocolConstants.CODEC;
 import static com.luixtech.rpc.core.constant.ProtocolConstants.CODEC_VAL_DEFAULT;
+import static com.luixtech.rpc.core.constant.ProtocolConstants.INTERRUPT_ON_CANCEL;
+import static com.luixtech.rpc.core.constant.ProtocolConstants.INTERRUPT_ON_CANCEL_VAL_DEFAULT;
 
 /**
  * @todo: NettyChannelHandler
@@ -34,11 +48,20 @@ import static com.luixtech.rpc.core.constant.ProtocolConstants.CODEC_VAL_DEFAULT
 @Slf4j
 public class NettyServerClientHandler extends ChannelDuplexHandler {
 
-    public static final String               HANDLER = "handler";
-    private             ThreadPoolExecutor   threadPoolExecutor;
-    private             InvocationHandleable handler;
-    private             Channel              channel;
-    private             Codec                codec;
+    public static final String                          HANDLER = "handler";
+    private             ThreadPoolExecutor              threadPoolExecutor;
+    private             InvocationHandleable            handler;
+    private             Channel                         channel;
+    private             Codec                           codec;
+    /**
+     * Request ID to the queued or running task of the connection, it is used to cancel the request
+     */
+    private final       ConcurrentMap<Long, ServerTask> tasks   = new ConcurrentHashMap<>();
+    private             boolean                         interruptOnCancel;
+    /**
+     * Memory budget shared by the connections of the server, it is null on client side or if unlimited
+     */
+    private             InflightMemoryBudget            memoryBudget;
 
     public NettyServerClientHandler(Channel channel, InvocationHandleable handler) {
         this.channel = channel;
@@ -51,6 +74,10 @@ public class NettyServerClientHandler extends ChannelDuplexHandler {
         this.handler = handler;
         this.threadPoolExecutor = threadPoolExecutor;
         codec = Codec.getInstance(channel.getProviderUrl().getOption(CODEC, CODEC_VAL_DEFAULT));
+        interruptOnCancel = channel.getProviderUrl().getBooleanOption(INTERRUPT_ON_CANCEL, INTERRUPT_ON_CANCEL_VAL_DEFAULT);
+        if (channel instanceof NettyServer) {
+            memoryBudget = ((NettyServer) channel).getMemoryBudget();
+        }
     }
 
     private String getRemoteIp(ChannelHandlerContext ctx) {
@@ -69,17 +96,26 @@ public class NettyServerClientHandler extends ChannelDuplexHandler {
     @Override
     public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
         if (msg instanceof NettyMessage) {
+            if (((NettyMessage) msg).isCancel()) {
+                cancelTask(((NettyMessage) msg).getRequestId());
+                return;
+            }
             if (threadPoolExecutor != null) {
+                // Step2: receive and decode request on server side
+                ServerTask task = new ServerTask(ctx, (NettyMessage) msg);
+                if (((NettyMessage) msg).isRequest()) {
+                    if (!admitRequest(ctx, task)) {
+                        return;
+                    }
+                    tasks.put(task.requestId, task);
+                }
                 try {
-                    threadPoolExecutor.execute(new Runnable() {
-                        @Override
-                        public void run() {
-                            // Step2: receive and decode request on server side
-                            processRequestOrResponseMsg(ctx, ((NettyMessage) msg));
-                        }
-                    });
+                    threadPoolExecutor.execute(task);
                 } catch (RejectedExecutionException rejectException) {
+                    tasks.remove(task.requestId, task);
+                    task.releaseMemory();
                     if (((NettyMessage) msg).isRequest()) {
+                        ((NettyMessage) msg).release();
                         rejectMessage(ctx, (NettyMessage) msg);
                     } else {
                         log.warn("Current processing thread pool is full, active: {}, poolSize: {}, corePoolSize: {}, " +
@@ -87,12 +123,12 @@ public class NettyServerClientHandler extends ChannelDuplexHandler {
                                 threadPoolExecutor.getActiveCount(), threadPoolExecutor.getPoolSize(),
                                 threadPoolExecutor.getCorePoolSize(), threadPoolExecutor.getMaximumPoolSize(),
                                 threadPoolExecutor.getTaskCount(), ((NettyMessage) msg).getRequestId());
-                        processRequestOrResponseMsg(ctx, (NettyMessage) msg);
+                        processRequestOrResponseMsg(ctx, (NettyMessage) msg, null);
                     }
                 }
             } else {
                 // Step4: receive and decode response on client side
-                processRequestOrResponseMsg(ctx, (NettyMessage) msg);
+                processRequestOrResponseMsg(ctx, (NettyMessage) msg, null);
             }
         } else {
             throw new RpcFrameworkException("Received unsupported message type [" + msg.getClass() + "]");
@@ -101,8 +137,11 @@ public class NettyServerClientHandler extends ChannelDuplexHandler {
 
     private void rejectMessage(ChannelHandlerContext ctx, NettyMessage msg) {
         if (msg.isRequest()) {
-            returnResponse(ctx, RpcFrameworkUtils.buildErrorResponse((Requestable) msg,
-                    new RpcFrameworkException("Reject the request for no active thread on server [" + ctx.channel().localAddress() + "]")));
+            RpcResponse response = RpcFrameworkUtils.buildErrorResponse(msg.getRequestId(), msg.getVersion().getVersion(),
+                    new RpcFrameworkException("Reject the request for no active thread on server [" + ctx.channel().localAddress() + "]"));
+            // The request has not been decoded, and the error response has no body to be deserialized
+            response.setSerializerId(ProtocolConstants.SERIALIZER_ID_DEFAULT);
+            returnResponse(ctx, response);
             log.error("Rejected message for current processing thread pool is full, active: {}, poolSize: {}, " +
                             "corePoolSize: {}, maxPoolSize: {}, taskCount: {}, requestId: {}",
                     threadPoolExecutor.getActiveCount(), threadPoolExecutor.getPoolSize(), threadPoolExecutor.getCorePoolSize(),
@@ -113,12 +152,75 @@ public class NettyServerClientHandler extends ChannelDuplexHandler {
         }
     }
 
-    private void processRequestOrResponseMsg(ChannelHandlerContext ctx, NettyMessage msg) {
+    /**
+     * Acquire the memory of the request from the budget, the request is rejected if the budget is exhausted
+     * and the connection stops reading until the inflight memory is released
+     *
+     * @param ctx  channel handler context
+     * @param task task of the request
+     * @return {@code true} if admitted and {@code false} otherwise
+     */
+    private boolean admitRequest(ChannelHandlerContext ctx, ServerTask task) {
+        if (memoryBudget == null) {
+            return true;
+        }
+        long bytes = task.msg.getSize();
+        if (memoryBudget.tryAcquire(bytes)) {
+            task.admittedBytes = bytes;
+            return true;
+        }
+        memoryBudget.suspend(ctx.channel());
+        task.msg.release();
+        RpcOverloadedException exception = new RpcOverloadedException("Rejected request for inflight memory ["
+                + memoryBudget.getUsed() + "] exceeding budget [" + memoryBudget.getLimit() + "] on server [" + ctx.channel().localAddress() + "]");
+        // Rejection is expected under overload, so do not pay for the stack trace
+        exception.setStackTrace(new StackTraceElement[0]);
+        RpcResponse response = RpcFrameworkUtils.buildErrorResponse(task.requestId, task.msg.getVersion().getVersion(), exception);
+        // The request has not been decoded, and the error response has no body to be deserialized
+        response.setSerializerId(ProtocolConstants.SERIALIZER_ID_DEFAULT);
+        returnResponse(ctx, response);
+        return false;
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        boolean writable = ctx.channel().isWritable();
+        if (channel instanceof NettyServer) {
+            // Stop reading the requests of the connection whose responses are not draining, so that
+            // the slow consumer can not make the outbound buffer grow without bound
+            ctx.channel().config().setAutoRead(writable && (memoryBudget == null || !memoryBudget.isSuspended(ctx.channel())));
+            if (!writable) {
+                log.warn("Suspended reading from [{}] for the outbound buffer exceeding high water mark", ctx.channel().remoteAddress());
+            }
+        } else {
+            NettyChannel nettyChannel = ctx.channel().attr(NettyChannel.CHANNEL_KEY).get();
+            if (nettyChannel != null && writable) {
+                nettyChannel.signalWritable();
+            }
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    private void cancelTask(long requestId) {
+        ServerTask task = tasks.remove(requestId);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    private void processRequestOrResponseMsg(ChannelHandlerContext ctx, NettyMessage msg, AtomicBoolean cancelled) {
         long startTime = System.currentTimeMillis();
         String remoteIp = getRemoteIp(ctx);
+        if (!msg.isRequest()) {
+            recordResponseSize(ctx, msg);
+        }
         Object decodedObj;
         try {
-            decodedObj = codec.decode(channel, remoteIp, msg.getData());
+            if (msg.getFrame() != null) {
+                decodedObj = ((ByteBufCodec) codec).decode(channel, remoteIp, msg.getFrame());
+            } else {
+                decodedObj = codec.decode(channel, remoteIp, msg.getData());
+            }
         } catch (Exception e) {
             log.error("Failed to decode message with message ID [" + msg.getRequestId() + "] and remote IP [" + remoteIp + "]", e);
             Responseable response = RpcFrameworkUtils.buildErrorResponse(msg.getRequestId(), msg.getVersion().getVersion(), e);
@@ -127,42 +229,62 @@ public class NettyServerClientHandler extends ChannelDuplexHandler {
                 returnResponse(ctx, response);
             } else {
                 // Process response
-                processResponse(response);
+                processResponse(ctx, response);
             }
             return;
+        } finally {
+            msg.release();
         }
 
         if (decodedObj instanceof Requestable) {
+            Requestable request = (Requestable) decodedObj;
+            if (request.getDeadline() > 0) {
+                // The remaining time was counted from decoding, count it from receiving instead to include the time in queue
+                request.setDeadline(request.getDeadline() - (startTime - msg.getStartTime()));
+            }
             // Process request
-            RpcFrameworkUtils.logEvent((Requestable) decodedObj, RpcConstants.TRACE_SRECEIVE, msg.getStartTime());
-            RpcFrameworkUtils.logEvent((Requestable) decodedObj, RpcConstants.TRACE_SEXECUTOR_START, startTime);
-            RpcFrameworkUtils.logEvent((Requestable) decodedObj, RpcConstants.TRACE_SDECODE);
-            processRequest(ctx, (Requestable) decodedObj);
+            RpcFrameworkUtils.logEvent(request, RpcConstants.TRACE_SRECEIVE, msg.getStartTime());
+            RpcFrameworkUtils.logEvent(request, RpcConstants.TRACE_SEXECUTOR_START, startTime);
+            RpcFrameworkUtils.logEvent(request, RpcConstants.TRACE_SDECODE);
+            processRequest(ctx, request, cancelled);
         } else if (decodedObj instanceof Responseable) {
             // Process response
             RpcFrameworkUtils.logEvent((Responseable) decodedObj, RpcConstants.TRACE_CRECEIVE, msg.getStartTime());
             RpcFrameworkUtils.logEvent((Responseable) decodedObj, RpcConstants.TRACE_CDECODE);
-            processResponse(decodedObj);
+            processResponse(ctx, decodedObj);
         }
     }
 
-    private void processRequest(final ChannelHandlerContext ctx, final Requestable request) {
+    private void processRequest(final ChannelHandlerContext ctx, final Requestable request, AtomicBoolean cancelled) {
         // Used by access log output
         request.addOption(Url.PARAM_HOST, AddressUtils.getHostName(ctx.channel().remoteAddress()));
         final long processStartTime = System.currentTimeMillis();
         try {
             // Store request id on server side
             RpcRequestIdHolder.setRequestId(request.getRequestId());
+            // Store deadline to be inherited by the nested requests
+            RpcDeadlineHolder.setDeadline(request.getDeadline());
+            // Store cancellation flag to be checked by provider
+            RpcCancellationHolder.setCancelled(cancelled);
             Object result;
-            try {
-                result = handler.handle(channel, request);
-            } catch (Exception e) {
-                log.error("Failed to process request " + request, e);
-                result = RpcFrameworkUtils.buildErrorResponse(request, new RpcFrameworkException("Failed to process request", e));
+            if (RpcFrameworkUtils.isDeadlineExceeded(request)) {
+                // The consumer has given up waiting, so drop the request which expired in queue
+                result = RpcFrameworkUtils.buildDeadlineExceededResponse(request);
+            } else {
+                try {
+                    result = handler.handle(channel, request);
+                } catch (Exception e) {
+                    log.error("Failed to process request " + request, e);
+                    result = RpcFrameworkUtils.buildErrorResponse(request, new RpcFrameworkException("Failed to process request", e));
+                }
             }
             if (result instanceof Responseable) {
                 RpcFrameworkUtils.logEvent((Responseable) result, RpcConstants.TRACE_PROCESS);
             }
+            if (cancelled != null && cancelled.get()) {
+                // The consumer has discarded the request, so the response is useless
+                return;
+            }
             final RpcResponse response;
             if (result instanceof RpcResponse) {
                 response = (RpcResponse) result;
@@ -186,21 +308,114 @@ public class NettyServerClientHandler extends ChannelDuplexHandler {
             }
         } finally {
             RpcRequestIdHolder.destroy();
+            RpcDeadlineHolder.destroy();
+            RpcCancellationHolder.destroy();
         }
     }
 
     private ChannelFuture returnResponse(ChannelHandlerContext ctx, Responseable response) {
         // Encode the response
-        byte[] msg = CodecUtils.encodeObjectToBytes(channel, codec, response);
-        response.addOption(RpcConstants.CONTENT_LENGTH, String.valueOf(msg.length));
+        Object msg = NettyCodecUtils.encode(channel, codec, response, ctx.alloc());
+        int length = NettyCodecUtils.getLength(msg);
+        response.addOption(RpcConstants.CONTENT_LENGTH, String.valueOf(length));
         if (ctx.channel().isActive()) {
-            return ctx.channel().writeAndFlush(msg);
+            if (memoryBudget == null) {
+                return ctx.channel().writeAndFlush(msg);
+            }
+            // The encoded response is held by the outbound buffer until it is written
+            memoryBudget.acquire(length);
+            return ctx.channel().writeAndFlush(msg).addListener(future -> memoryBudget.release(length));
         }
+        ReferenceCountUtil.release(msg);
         return null;
     }
 
-    private void processResponse(Object msg) {
-        handler.handle(channel, msg);
+    private void recordResponseSize(ChannelHandlerContext ctx, NettyMessage msg) {
+        NettyChannel nettyChannel = ctx.channel().attr(NettyChannel.CHANNEL_KEY).get();
+        if (nettyChannel != null) {
+            // Send the subsequent requests of the method with large response by the bulk channels
+            nettyChannel.recordResponseSize(msg.getRequestId(), msg.getSize());
+        }
+    }
+
+    private void processResponse(ChannelHandlerContext ctx, Object msg) {
+        // Pass the client connection which sent the request if it was bound to the netty channel
+        NettyChannel nettyChannel = ctx.channel().attr(NettyChannel.CHANNEL_KEY).get();
+        handler.handle(nettyChannel != null ? nettyChannel : channel, msg);
+    }
+
+    /**
+     * Task which processes a message on the thread pool, and can be cancelled by the consumer.
+     * The cancelled task is skipped once it is dequeued, and the running one is flagged and optionally interrupted.
+     */
+    private class ServerTask implements Runnable {
+        private static final int                   QUEUED    = 0;
+        private static final int                   RUNNING   = 1;
+        private static final int                   DONE      = 2;
+        private static final int                   CANCELLED = 3;
+        private final        ChannelHandlerContext ctx;
+        private final        NettyMessage          msg;
+        private final        long                  requestId;
+        private final        AtomicInteger         state     = new AtomicInteger(QUEUED);
+        private final        AtomicBoolean         cancelled = new AtomicBoolean();
+        private volatile     Thread                thread;
+        /**
+         * Bytes of the request acquired from the memory budget
+         */
+        private              long                  admittedBytes;
+
+        private ServerTask(ChannelHandlerContext ctx, NettyMessage msg) {
+            this.ctx = ctx;
+            this.msg = msg;
+            this.requestId = msg.getRequestId();
+        }
+
+        @Override
+        public void run() {
+            // Set the thread before changing state, so that it is never null for a running task
+            thread = Thread.currentThread();
+            if (!state.compareAndSet(QUEUED, RUNNING)) {
+                // Cancelled before being executed
+                return;
+            }
+            try {
+                processRequestOrResponseMsg(ctx, msg, msg.isRequest() ? cancelled : null);
+            } finally {
+                releaseMemory();
+                tasks.remove(requestId, this);
+                synchronized (this) {
+                    state.set(DONE);
+                }
+                if (interruptOnCancel && cancelled.get()) {
+                    // Clear the interruption, so that it does not affect the next task of the thread
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private void releaseMemory() {
+            if (admittedBytes > 0) {
+                memoryBudget.release(admittedBytes);
+                admittedBytes = 0;
+            }
+        }
+
+        private void cancel() {
+            cancelled.set(true);
+            if (state.compareAndSet(QUEUED, CANCELLED)) {
+                // Release the frame without waiting for the task to be dequeued
+                msg.release();
+                releaseMemory();
+                return;
+            }
+            if (interruptOnCancel) {
+                synchronized (this) {
+                    if (state.get() == RUNNING) {
+                        thread.interrupt();
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -214,6 +429,11 @@ public class NettyServerClientHandler extends ChannelDuplexHandler {
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         log.info("Detected inactive channel with remoteAddress [{}] and localAddress [{}]",
                 ctx.channel().remoteAddress(), ctx.channel().localAddress());
+        // The responses can not be returned any more
+        tasks.keySet().forEach(this::cancelTask);
+        if (memoryBudget != null) {
+            memoryBudget.remove(ctx.channel());
+        }
         ctx.fireChannelInactive();
     }
 
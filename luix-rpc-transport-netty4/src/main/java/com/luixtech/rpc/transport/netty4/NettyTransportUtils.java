@@ -0,0 +1,150 @@
+package com.luixtech.rpc.transport.netty4;
+
+import com.luixtech.rpc.core.url.Url;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.luixtech.rpc.core.constant.ProtocolConstants.*;
+
+/**
+ * Transport selector which uses native epoll transport on Linux if the native library can be loaded,
+ * otherwise falls back to NIO transport.
+ */
+@Slf4j
+public abstract class NettyTransportUtils {
+    public static final  String  FLUSH_CONSOLIDATION          = "flushConsolidation";
+    /**
+     * Max flushes which can be consolidated into one when a read is in progress
+     */
+    private static final int     EXPLICIT_FLUSH_AFTER_FLUSHES = 256;
+    private static final boolean EPOLL_AVAILABLE              = Epoll.isAvailable();
+
+    static {
+        if (EPOLL_AVAILABLE) {
+            log.info("Native epoll transport is available");
+        } else {
+            log.info("Native epoll transport is unavailable for [{}], use NIO transport instead",
+                    Epoll.unavailabilityCause().getMessage());
+        }
+    }
+
+    /**
+     * Decide whether to use native epoll transport
+     *
+     * @param url provider url
+     * @return {@code true} if epoll is enabled and available and {@code false} otherwise
+     */
+    public static boolean useEpoll(Url url) {
+        return EPOLL_AVAILABLE && url.getBooleanOption(NATIVE_TRANSPORT, NATIVE_TRANSPORT_VAL_DEFAULT);
+    }
+
+    /**
+     * Create event loop group
+     *
+     * @param epoll    use epoll or not
+     * @param nThreads thread count, 0 means default thread count
+     * @param name     thread name prefix
+     * @return event loop group
+     */
+    public static EventLoopGroup createEventLoopGroup(boolean epoll, int nThreads, String name) {
+        DefaultThreadFactory threadFactory = new DefaultThreadFactory(name);
+        return epoll ? new EpollEventLoopGroup(nThreads, threadFactory) : new NioEventLoopGroup(nThreads, threadFactory);
+    }
+
+    public static Class<? extends ServerChannel> getServerChannelClass(boolean epoll) {
+        return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public static Class<? extends SocketChannel> getSocketChannelClass(boolean epoll) {
+        return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    /**
+     * Create the handler which coalesces the flushes of the channel, the writes from the non event loop threads
+     * are also consolidated and flushed once per event loop iteration
+     *
+     * @return flush consolidation handler
+     */
+    public static FlushConsolidationHandler createFlushConsolidationHandler() {
+        return new FlushConsolidationHandler(EXPLICIT_FLUSH_AFTER_FLUSHES, true);
+    }
+
+    /**
+     * Create the water marks of the outbound buffer, the channel becomes unwritable once the buffer exceeds
+     * the high water mark, and becomes writable again after the buffer drops below the low water mark
+     *
+     * @param url provider url
+     * @return write buffer water mark
+     */
+    public static WriteBufferWaterMark createWriteBufferWaterMark(Url url) {
+        int high = Math.max(url.getIntOption(WRITE_HIGH_WATER_MARK, WRITE_HIGH_WATER_MARK_VAL_DEFAULT), 1);
+        int low = Math.min(Math.max(url.getIntOption(WRITE_LOW_WATER_MARK, WRITE_LOW_WATER_MARK_VAL_DEFAULT), 0), high);
+        return new WriteBufferWaterMark(low, high);
+    }
+
+    /**
+     * Get the number of server channels bound to the same port
+     *
+     * @param url provider url
+     * @return acceptor count which is always 1 for NIO transport
+     */
+    public static int getAcceptorCount(Url url) {
+        return useEpoll(url) ? Math.max(url.getIntOption(ACCEPTOR_COUNT, ACCEPTOR_COUNT_VAL_DEFAULT), 1) : 1;
+    }
+
+    /**
+     * Apply epoll-only options to server bootstrap
+     *
+     * @param serverBootstrap server bootstrap
+     * @param url             provider url
+     */
+    public static void configureEpollOptions(ServerBootstrap serverBootstrap, Url url) {
+        if (!useEpoll(url)) {
+            return;
+        }
+        if (getAcceptorCount(url) > 1) {
+            // Let the kernel balance the incoming connections among the server channels bound to the same port
+            serverBootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+        serverBootstrap.option(EpollChannelOption.EPOLL_MODE, getEpollMode(url));
+        serverBootstrap.childOption(EpollChannelOption.EPOLL_MODE, getEpollMode(url));
+        serverBootstrap.childOption(EpollChannelOption.TCP_QUICKACK, url.getBooleanOption(TCP_QUICK_ACK, TCP_QUICK_ACK_VAL_DEFAULT));
+        int busyPollMicros = url.getIntOption(BUSY_POLL_MICROS, BUSY_POLL_MICROS_VAL_DEFAULT);
+        if (busyPollMicros > 0) {
+            serverBootstrap.childOption(EpollChannelOption.SO_BUSY_POLL, busyPollMicros);
+        }
+    }
+
+    /**
+     * Apply epoll-only options to client bootstrap
+     *
+     * @param bootstrap client bootstrap
+     * @param url       provider url
+     */
+    public static void configureEpollOptions(Bootstrap bootstrap, Url url) {
+        if (!useEpoll(url)) {
+            return;
+        }
+        bootstrap.option(EpollChannelOption.EPOLL_MODE, getEpollMode(url));
+        bootstrap.option(EpollChannelOption.TCP_QUICKACK, url.getBooleanOption(TCP_QUICK_ACK, TCP_QUICK_ACK_VAL_DEFAULT));
+        int busyPollMicros = url.getIntOption(BUSY_POLL_MICROS, BUSY_POLL_MICROS_VAL_DEFAULT);
+        if (busyPollMicros > 0) {
+            bootstrap.option(EpollChannelOption.SO_BUSY_POLL, busyPollMicros);
+        }
+    }
+
+    private static EpollMode getEpollMode(Url url) {
+        return url.getBooleanOption(EDGE_TRIGGERED, EDGE_TRIGGERED_VAL_DEFAULT) ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+    }
+}
@@ -1,100 +1,416 @@
 package com.luixtech.rpc.transport.netty4.client;
 
 import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcMethodIdRequest;
 import com.luixtech.rpc.core.codec.Codec;
-import com.luixtech.rpc.core.codec.CodecUtils;
+import com.luixtech.rpc.core.codec.impl.CodecHeader;
 import com.luixtech.rpc.core.constant.RpcConstants;
 import com.luixtech.rpc.core.exception.ExceptionUtils;
+import com.luixtech.rpc.core.exception.impl.RpcCancelledException;
+import com.luixtech.rpc.core.exception.impl.RpcDeadlineExceededException;
 import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.exception.impl.RpcUnknownMethodIdException;
 import com.luixtech.rpc.core.exchange.Channel;
 import com.luixtech.rpc.core.exchange.constants.ChannelState;
 import com.luixtech.rpc.core.server.response.FutureResponse;
 import com.luixtech.rpc.core.server.response.Responseable;
 import com.luixtech.rpc.core.server.response.impl.RpcFutureResponse;
+import com.luixtech.rpc.core.server.stub.ProviderMethodTable;
 import com.luixtech.rpc.core.url.Url;
 import com.luixtech.rpc.core.utils.RpcFrameworkUtils;
+import com.luixtech.rpc.serializer.DeserializableResult;
+import com.luixtech.rpc.transport.netty4.codec.ByteBufCodec;
+import com.luixtech.rpc.transport.netty4.codec.CodecV3;
+import com.luixtech.rpc.transport.netty4.codec.NettyCodecUtils;
+import com.luixtech.uidgenerator.core.id.IdGenerator;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.util.AttributeKey;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static com.luixtech.rpc.core.constant.ProtocolConstants.BULK_THRESHOLD;
+import static com.luixtech.rpc.core.constant.ProtocolConstants.BULK_THRESHOLD_VAL_DEFAULT;
 import static com.luixtech.rpc.core.constant.ProtocolConstants.CODEC;
 import static com.luixtech.rpc.core.constant.ProtocolConstants.CODEC_VAL_DEFAULT;
+import static com.luixtech.rpc.core.constant.ProtocolConstants.CONN_MAX_PENDING;
+import static com.luixtech.rpc.core.constant.ProtocolConstants.CONN_MAX_PENDING_VAL_DEFAULT;
+import static com.luixtech.rpc.core.constant.ProtocolConstants.MIN_CLIENT_CONN;
+import static com.luixtech.rpc.core.constant.ProtocolConstants.MIN_CLIENT_CONN_VAL_DEFAULT;
+import static com.luixtech.rpc.core.constant.ProtocolConstants.WRITABLE_WAIT_TIME;
+import static com.luixtech.rpc.core.constant.ProtocolConstants.WRITABLE_WAIT_TIME_VAL_DEFAULT;
 import static com.luixtech.rpc.core.constant.RegistryConstants.CONNECT_TIMEOUT;
 import static com.luixtech.rpc.core.constant.RegistryConstants.CONNECT_TIMEOUT_VAL_DEFAULT;
+import static com.luixtech.rpc.core.constant.ServiceConstants.FORM;
 import static com.luixtech.rpc.core.constant.ServiceConstants.REQUEST_TIMEOUT;
 import static com.luixtech.rpc.core.constant.ServiceConstants.REQUEST_TIMEOUT_VAL_DEFAULT;
+import static com.luixtech.rpc.core.constant.ServiceConstants.VERSION;
 
 @Slf4j
 public class NettyChannel implements Channel {
-    private volatile ChannelState             state = ChannelState.CREATED;
-    private final    NettyClient              nettyClient;
-    private          io.netty.channel.Channel channel;
-    private final    InetSocketAddress        remoteAddress;
-    private          InetSocketAddress        localAddress;
-    private final    ReentrantLock            lock  = new ReentrantLock();
-    private final    Codec                    codec;
+    /**
+     * Attribute used to find the client connection of a netty channel
+     */
+    public static final  AttributeKey<NettyChannel>          CHANNEL_KEY           = AttributeKey.valueOf("luixNettyChannel");
+    /**
+     * Tick duration of the timeout timer in milliseconds
+     */
+    private static final int                                 TIMEOUT_TICK_DURATION = 10;
+    /**
+     * Size of cancel frame which consists of header, empty meta and empty body
+     */
+    private static final int                                 CANCEL_FRAME_SIZE     = CodecHeader.HEADER_SIZE + 8;
+    /**
+     * Timer shared by all connections, it arms one timeout for each pending request
+     */
+    private static final HashedWheelTimer                    TIMEOUT_TIMER         = new HashedWheelTimer(
+            new DefaultThreadFactory("luix-rpc-request-timeout", true), TIMEOUT_TICK_DURATION, TimeUnit.MILLISECONDS);
+    private volatile     ChannelState                        state                 = ChannelState.CREATED;
+    private final        NettyClient                         nettyClient;
+    private              io.netty.channel.Channel            channel;
+    private final        InetSocketAddress                   remoteAddress;
+    private              InetSocketAddress                   localAddress;
+    private final        ReentrantLock                       lock                  = new ReentrantLock();
+    private final        Codec                               codec;
+    /**
+     * Method key to method ID map negotiated with provider
+     */
+    private volatile     Map<String, Integer>                methodIds             = Collections.emptyMap();
+    /**
+     * Indicate whether the method IDs are being negotiated
+     */
+    private final        AtomicBoolean                       negotiating           = new AtomicBoolean();
+    /**
+     * Sequence number of the connection which is used as request ID
+     */
+    private final        AtomicLong                          requestSequence       = new AtomicLong(0);
+    /**
+     * Pending responses of the requests sent by the connection
+     */
+    private final        PendingResponseMap<PendingResponse> pendingResponses;
+    /**
+     * Encoded request or response size in bytes which marks the method as bulk
+     */
+    private final        int                                 bulkThreshold;
+    /**
+     * Max time in milliseconds for which a synchronous request waits for the unwritable connection
+     */
+    private final        int                                 writableWaitTime;
+    /**
+     * Monitor used to wait for the connection to become writable
+     */
+    private final        Object                              writableMonitor       = new Object();
+    /**
+     * Timer which arms the timeouts of the pending requests
+     */
+    private final        Timer                               timeoutTimer;
 
     public NettyChannel(NettyClient nettyClient) {
+        this(nettyClient, TIMEOUT_TIMER);
+    }
+
+    NettyChannel(NettyClient nettyClient, Timer timeoutTimer) {
         this.nettyClient = nettyClient;
+        this.timeoutTimer = timeoutTimer;
         this.remoteAddress = new InetSocketAddress(nettyClient.getProviderUrl().getHost(), nettyClient.getProviderUrl().getPort());
         codec = Codec.getInstance(nettyClient.getProviderUrl().getOption(CODEC, CODEC_VAL_DEFAULT));
+        int maxPending = nettyClient.getProviderUrl().getIntOption(CONN_MAX_PENDING, CONN_MAX_PENDING_VAL_DEFAULT);
+        if (maxPending <= 0) {
+            // Share the max pending requests of the client among its connections
+            int connections = nettyClient.getProviderUrl().getIntOption(MIN_CLIENT_CONN, MIN_CLIENT_CONN_VAL_DEFAULT);
+            maxPending = RpcConstants.NETTY_CLIENT_MAX_REQUEST / Math.max(connections, 1);
+        }
+        pendingResponses = new PendingResponseMap<>(maxPending);
+        writableWaitTime = nettyClient.getProviderUrl().getIntOption(WRITABLE_WAIT_TIME, WRITABLE_WAIT_TIME_VAL_DEFAULT);
+        bulkThreshold = nettyClient.getProviderUrl().getIntOption(BULK_THRESHOLD, BULK_THRESHOLD_VAL_DEFAULT);
     }
 
     @Override
     public Responseable request(Requestable request) {
+        if (RpcFrameworkUtils.isDeadlineExceeded(request)) {
+            // Do not send the request which would be dropped by provider anyway
+            throw new RpcDeadlineExceededException("Failed to send request " + request + " for exceeding deadline");
+        }
         int timeout = getTimeout(request);
+        awaitWritable(request, timeout);
 
+        // Request ID only needs to be unique within the connection
+        request.setRequestId(requestSequence.incrementAndGet());
         // All requests are handled asynchronously
-        FutureResponse response = new RpcFutureResponse(request, timeout, this.nettyClient.getProviderUrl());
-        this.nettyClient.registerResponse(request.getRequestId(), response);
-        byte[] msg = CodecUtils.encodeObjectToBytes(this, codec, request);
-        // Step1: encode and send request on client side
-        ChannelFuture writeFuture = this.channel.writeAndFlush(msg);
-        boolean result = writeFuture.awaitUninterruptibly(timeout, TimeUnit.MILLISECONDS);
-
-        if (result && writeFuture.isSuccess()) {
-            RpcFrameworkUtils.logEvent(request, RpcConstants.TRACE_CSEND, System.currentTimeMillis());
+        FutureResponse response = new RpcFutureResponse(request, timeout, nettyClient.getProviderUrl(request));
+        registerResponse(request, response);
+        Object msg;
+        try {
+            msg = NettyCodecUtils.encode(this, codec, request, this.channel.alloc());
+        } catch (RuntimeException e) {
+            removeResponse(request.getRequestId());
+            throw e;
+        }
+        if (NettyCodecUtils.getLength(msg) >= bulkThreshold) {
+            nettyClient.markBulkMethod(request);
+        }
+        response.addListener(future -> {
+            if (future.isSuccess() ||
+                    (future.isDone() && ExceptionUtils.isBizException(future.getException()))) {
+                // 成功的调用
+                // Step5: get response on client side
+                nettyClient.resetInvocationError();
+            } else if (!(future.getException() instanceof RpcCancelledException)) {
+                // 失败的调用, except the request discarded by the consumer
+                // Step5: get response on client side
+                nettyClient.incrErrorCount();
+            }
+            if (future.getException() instanceof RpcUnknownMethodIdException) {
+                // The provider has removed the method of the negotiated ID
+                renegotiateMethodIds();
+            }
+            if (future.isCancelled()) {
+                // Timed out or cancelled by caller, let the provider stop processing the request
+                removeResponse(request.getRequestId());
+                cancelRequest(request.getRequestId());
+            }
+        });
+        // Step1: encode and send request on client side, the caller does not wait for the write completion
+        // and the write failure will be reported through the response future
+        this.channel.writeAndFlush(msg).addListener((ChannelFutureListener) writeFuture -> {
+            if (writeFuture.isSuccess()) {
+                RpcFrameworkUtils.logEvent(request, RpcConstants.TRACE_CSEND, System.currentTimeMillis());
+                return;
+            }
+            FutureResponse futureResponse = removeResponse(request.getRequestId());
+            if (futureResponse != null) {
+                RpcFrameworkException exception = new RpcFrameworkException("NettyChannel send request to server Error: url="
+                        + nettyClient.getProviderUrl().getUri() + " local=" + localAddress + " " + request, writeFuture.cause());
+                futureResponse.onFailure(RpcFrameworkUtils.buildErrorResponse(request, exception));
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Wait for the connection to become writable if its outbound buffer exceeds the high water mark.
+     * The asynchronous requests and the requests sent by event loop fail immediately, and the synchronous requests
+     * wait briefly, so that the caller is notified of the overload instead of buffering the requests without bound.
+     *
+     * @param request RPC request
+     * @param timeout request timeout in milliseconds
+     */
+    private void awaitWritable(Requestable request, int timeout) {
+        if (channel.isWritable()) {
+            return;
+        }
+        long waitTime = request.isAsync() || channel.eventLoop().inEventLoop() ? 0 : writableWaitTime;
+        if (timeout > 0) {
+            waitTime = Math.min(waitTime, timeout);
+        }
+        if (waitTime > 0) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTime);
+            synchronized (writableMonitor) {
+                try {
+                    long remaining;
+                    while (!channel.isWritable() && isActive() && (remaining = deadline - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(writableMonitor, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (!channel.isWritable()) {
+            throw new RpcFrameworkException("Discarded the request " + request + " and url [" + nettyClient.getProviderUrl().getUri()
+                    + "] for the outbound buffer of connection exceeding high water mark!");
+        }
+    }
+
+    /**
+     * Wake up the requests waiting for the connection to become writable
+     */
+    public void signalWritable() {
+        synchronized (writableMonitor) {
+            writableMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Send the frame which cancels the request on provider side
+     *
+     * @param requestId request ID
+     */
+    private void cancelRequest(long requestId) {
+        if (!(codec instanceof ByteBufCodec) || !isActive()) {
+            return;
+        }
+        ByteBuf buf = channel.alloc().ioBuffer(CANCEL_FRAME_SIZE);
+        ((ByteBufCodec) codec).encodeCancel(requestId, buf);
+        channel.writeAndFlush(buf, channel.voidPromise());
+    }
+
+    /**
+     * Register response associated with request ID and limit the concurrent requests
+     *
+     * @param request        RPC request
+     * @param futureResponse response future
+     */
+    void registerResponse(Requestable request, FutureResponse futureResponse) {
+        long requestId = request.getRequestId();
+        PendingResponse pendingResponse = new PendingResponse(request, futureResponse);
+        if (!pendingResponses.put(requestId, pendingResponse)) {
+            throw new RpcFrameworkException("Discarded the request [" + requestId + "] " +
+                    "and url [" + nettyClient.getProviderUrl().getUri() + "] for exceeding max request limit!");
+        }
+        // Arm a timeout which fires at the deadline of the request
+        long delay = futureResponse.getCreatedTime() + futureResponse.getTimeout() - System.currentTimeMillis();
+        pendingResponse.timeout = timeoutTimer.newTimeout(t -> recycleTimeoutResponse(requestId, pendingResponse),
+                Math.max(delay, 0), TimeUnit.MILLISECONDS);
+        if (!pendingResponses.containsKey(requestId)) {
+            // The response has arrived before the timeout was armed
+            pendingResponse.cancelTimeout();
+        }
+    }
+
+    private void recycleTimeoutResponse(long requestId, PendingResponse pendingResponse) {
+        try {
+            // If timeout, remove response and then cancel
+            if (pendingResponses.remove(requestId, pendingResponse)) {
+                pendingResponse.futureResponse.cancel();
+            }
+        } catch (Exception e) {
+            log.error("Failed to recycle the request callback for uri [" + nettyClient.getProviderUrl().getUri() + "]", e);
+        }
+    }
+
+    /**
+     * Remove the pending response of request ID
+     *
+     * @param requestId request ID
+     * @return response future or null if absent
+     */
+    public FutureResponse removeResponse(long requestId) {
+        PendingResponse pendingResponse = pendingResponses.remove(requestId);
+        if (pendingResponse == null) {
+            return null;
+        }
+        pendingResponse.cancelTimeout();
+        return pendingResponse.futureResponse;
+    }
+
+    /**
+     * Record the size of the received response before it is decoded, the method of the request is marked as bulk
+     * if the size reaches the threshold
+     *
+     * @param requestId request ID
+     * @param size      encoded response size in bytes
+     */
+    public void recordResponseSize(long requestId, int size) {
+        if (size < bulkThreshold) {
+            return;
+        }
+        PendingResponse pendingResponse = pendingResponses.get(requestId);
+        if (pendingResponse != null) {
+            nettyClient.markBulkMethod(pendingResponse.request);
+        }
+    }
+
+    /**
+     * Get method IDs assigned by provider without waiting for the response, the consumer uses interface name
+     * and method name to send request until the IDs arrive, or all the time if the provider does not support it
+     */
+    private void negotiateMethodIds() {
+        negotiating.set(true);
+        try {
+            // The response of channel is always a future response
+            FutureResponse response = (FutureResponse) request(new RpcMethodIdRequest(IdGenerator.generateTimestampId()));
             response.addListener(future -> {
-                if (future.isSuccess() ||
-                        (future.isDone() && ExceptionUtils.isBizException(future.getException()))) {
-                    // 成功的调用
-                    // Step5: get response on client side
-                    nettyClient.resetInvocationError();
-                } else {
-                    // 失败的调用
-                    // Step5: get response on client side
-                    nettyClient.incrErrorCount();
+                try {
+                    applyMethodIds(response);
+                } finally {
+                    negotiating.set(false);
                 }
             });
-            return response;
+        } catch (Exception e) {
+            negotiating.set(false);
+            log.warn("Failed to negotiate method IDs with provider [{}], fall back to method name", remoteAddress, e);
         }
+    }
 
-        writeFuture.cancel(true);
-        response = this.nettyClient.removeResponse(request.getRequestId());
-        if (response != null) {
-            response.cancel();
+    /**
+     * Discard the method IDs and negotiate them again, the requests are sent by method name until the new IDs arrive
+     */
+    private void renegotiateMethodIds() {
+        methodIds = Collections.emptyMap();
+        if (isActive() && negotiating.compareAndSet(false, true)) {
+            log.info("Negotiating method IDs with provider [{}] again for the unknown method ID", remoteAddress);
+            negotiateMethodIds();
         }
-        // 失败的调用
-        nettyClient.incrErrorCount();
+    }
 
-        if (writeFuture.cause() != null) {
-            throw new RpcFrameworkException("NettyChannel send request to server Error: url="
-                    + nettyClient.getProviderUrl().getUri() + " local=" + localAddress + " "
-                    + request, writeFuture.cause());
-        } else {
-            throw new RpcFrameworkException("NettyChannel send request to server Timeout: url="
-                    + nettyClient.getProviderUrl().getUri() + " local=" + localAddress + " "
-                    + request);
+    @SuppressWarnings("unchecked")
+    private void applyMethodIds(FutureResponse response) {
+        if (response.getException() != null) {
+            log.warn("Failed to negotiate method IDs with provider [{}], fall back to method name",
+                    remoteAddress, response.getException());
+            return;
         }
+        try {
+            Object result = response.getResult();
+            if (result instanceof DeserializableResult) {
+                result = ((DeserializableResult) result).deserialize();
+            }
+            if (result instanceof Map) {
+                methodIds = (Map<String, Integer>) result;
+                log.info("Negotiated {} method IDs with provider [{}]", methodIds.size(), remoteAddress);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to negotiate method IDs with provider [{}], fall back to method name", remoteAddress, e);
+        }
+    }
+
+    /**
+     * Get the method ID of the request
+     *
+     * @param request RPC request
+     * @return method ID or 0 if not negotiated
+     */
+    public int getMethodId(Requestable request) {
+        if (methodIds.isEmpty()) {
+            return 0;
+        }
+        Integer id = methodIds.get(ProviderMethodTable.buildMethodKey(request.getInterfaceName(),
+                request.getOption(FORM), request.getOption(VERSION), request.getMethodName(), request.getMethodParameters()));
+        return id != null ? id : 0;
     }
 
-    private int getTimeout(Requestable request) {
+    /**
+     * Get the timeout of the request, it can not exceed the remaining time before the deadline of the request
+     *
+     * @param request RPC request
+     * @return timeout in milliseconds
+     */
+    public int getTimeout(Requestable request) {
+        int timeout = getConfiguredTimeout(request);
+        if (request.getDeadline() > 0) {
+            long remaining = Math.max(request.getDeadline() - System.currentTimeMillis(), 1);
+            timeout = (int) (timeout > 0 ? Math.min(timeout, remaining) : remaining);
+        }
+        return timeout;
+    }
+
+    private int getConfiguredTimeout(Requestable request) {
         int timeout;
         // Get method level parameter value
-        timeout = nettyClient.getProviderUrl().getMethodLevelOption(
+        timeout = nettyClient.getProviderUrl(request).getMethodLevelOption(
                 request.getMethodName(),
                 request.getMethodParameters(),
                 REQUEST_TIMEOUT, REQUEST_TIMEOUT_VAL_DEFAULT);
@@ -126,11 +442,10 @@ public class NettyChannel implements Channel {
             boolean success = channelFuture.isSuccess();
 
             if (result && success) {
-                channel = channelFuture.channel();
-                if (channel.localAddress() != null && channel.localAddress() instanceof InetSocketAddress) {
-                    localAddress = (InetSocketAddress) channel.localAddress();
+                bind(channelFuture.channel());
+                if (codec instanceof CodecV3) {
+                    negotiateMethodIds();
                 }
-                state = ChannelState.ACTIVE;
                 return true;
             }
             boolean connected = false;
@@ -159,6 +474,20 @@ public class NettyChannel implements Channel {
         }
     }
 
+    /**
+     * Bind the connected netty channel to the connection
+     *
+     * @param channel connected netty channel
+     */
+    void bind(io.netty.channel.Channel channel) {
+        this.channel = channel;
+        channel.attr(CHANNEL_KEY).set(this);
+        if (channel.localAddress() != null && channel.localAddress() instanceof InetSocketAddress) {
+            localAddress = (InetSocketAddress) channel.localAddress();
+        }
+        state = ChannelState.ACTIVE;
+    }
+
     @Override
     public synchronized void close() {
         close(0);
@@ -171,6 +500,14 @@ public class NettyChannel implements Channel {
             if (channel != null) {
                 channel.close();
             }
+            // Clear request -> response map, and fail the pending responses so that their callers never hang
+            for (PendingResponse pendingResponse : pendingResponses.clear()) {
+                pendingResponse.cancelTimeout();
+                pendingResponse.futureResponse.onFailure(RpcFrameworkUtils.buildErrorResponse(pendingResponse.request,
+                        new RpcFrameworkException("NettyChannel closed: url=" + nettyClient.getProviderUrl().getUri()
+                                + " local=" + localAddress)));
+            }
+            signalWritable();
         } catch (Exception e) {
             log.error("NettyChannel close Error: " + nettyClient.getProviderUrl().getUri() + " local=" + localAddress, e);
         }
@@ -201,11 +538,32 @@ public class NettyChannel implements Channel {
         return state.isActive() && channel != null && channel.isActive();
     }
 
+    @Override
+    public boolean isWritable() {
+        io.netty.channel.Channel ch = channel;
+        return ch != null && ch.isWritable();
+    }
+
+    @Override
+    public int getPendingCount() {
+        return pendingResponses.size();
+    }
+
     @Override
     public Url getProviderUrl() {
         return nettyClient.getProviderUrl();
     }
 
+    /**
+     * Get the provider url of the interface which sends the request, the client may be shared by multiple interfaces
+     *
+     * @param request RPC request
+     * @return provider url
+     */
+    public Url getProviderUrl(Requestable request) {
+        return nettyClient.getProviderUrl(request);
+    }
+
     public void reconnect() {
         state = ChannelState.INITIALIZED;
     }
@@ -217,4 +575,22 @@ public class NettyChannel implements Channel {
     public ReentrantLock getLock() {
         return lock;
     }
+
+    private static class PendingResponse {
+        private final    Requestable    request;
+        private final    FutureResponse futureResponse;
+        private volatile Timeout        timeout;
+
+        private PendingResponse(Requestable request, FutureResponse futureResponse) {
+            this.request = request;
+            this.futureResponse = futureResponse;
+        }
+
+        private void cancelTimeout() {
+            Timeout t = timeout;
+            if (t != null) {
+                t.cancel();
+            }
+        }
+    }
 }
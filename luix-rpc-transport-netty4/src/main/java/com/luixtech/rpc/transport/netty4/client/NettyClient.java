@@ -11,71 +11,41 @@ import com.luixtech.rpc.core.exchange.constants.ChannelState;
 import com.luixtech.rpc.core.server.response.FutureResponse;
 import com.luixtech.rpc.core.server.response.Responseable;
 import com.luixtech.rpc.core.server.response.impl.RpcResponse;
-import com.luixtech.rpc.core.thread.ScheduledThreadPool;
 import com.luixtech.rpc.core.url.Url;
 import com.luixtech.rpc.core.utils.RpcFrameworkUtils;
 import com.luixtech.rpc.transport.netty4.NettyDecoder;
 import com.luixtech.rpc.transport.netty4.NettyEncoder;
 import com.luixtech.rpc.transport.netty4.NettyServerClientHandler;
+import com.luixtech.rpc.transport.netty4.NettyTransportUtils;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.luixtech.rpc.core.constant.ProtocolConstants.*;
 import static com.luixtech.rpc.core.constant.RegistryConstants.CONNECT_TIMEOUT;
 import static com.luixtech.rpc.core.constant.RegistryConstants.CONNECT_TIMEOUT_VAL_DEFAULT;
-import static com.luixtech.rpc.core.thread.ScheduledThreadPool.DESTROY_NETTY_TIMEOUT_INTERVAL;
-import static com.luixtech.rpc.core.thread.ScheduledThreadPool.DESTROY_NETTY_TIMEOUT_TASK_THREAD_POOL;
 
 /**
  * toto: implements StatisticCallback
  */
 @Slf4j
 public class NettyClient extends AbstractPooledClient {
-    private static final NioEventLoopGroup         NIO_EVENT_LOOP_GROUP  = new NioEventLoopGroup();
-    /**
-     * Async response used to handle async request
-     */
-    private final        Map<Long, FutureResponse> requestId2ResponseMap = new ConcurrentHashMap<>();
     /**
      * Invocation error count
      */
-    private final        AtomicLong                errorCount            = new AtomicLong(0);
-    private final        ScheduledFuture<?>        timeoutFuture;
-    private final        int                       maxClientFailedConn;
-    private              Bootstrap                 bootstrap;
+    private final AtomicLong errorCount = new AtomicLong(0);
+    private final int        maxClientFailedConn;
+    private       Bootstrap  bootstrap;
 
     public NettyClient(Url providerUrl) {
         super(providerUrl);
         maxClientFailedConn = providerUrl.getIntOption(MAX_CLIENT_FAILED_CONN, MAX_CLIENT_FAILED_CONN_VAL_DEFAULT);
-        timeoutFuture = ScheduledThreadPool.schedulePeriodicalTask(DESTROY_NETTY_TIMEOUT_TASK_THREAD_POOL,
-                DESTROY_NETTY_TIMEOUT_INTERVAL, this::recycleTimeoutTask);
-    }
-
-    private void recycleTimeoutTask() {
-        long currentTime = System.currentTimeMillis();
-        for (Map.Entry<Long, FutureResponse> request2ResponseEntry : requestId2ResponseMap.entrySet()) {
-            try {
-                FutureResponse futureResponse = request2ResponseEntry.getValue();
-                if (futureResponse.getCreatedTime() + futureResponse.getTimeout() < currentTime) {
-                    // If timeout, remove response and then cancel
-                    removeResponse(request2ResponseEntry.getKey());
-                    futureResponse.cancel();
-                }
-            } catch (Exception e) {
-                log.error("Failed to recycle the request callback for uri [" + providerUrl.getUri() + "]", e);
-            }
-        }
     }
 
     @Override
@@ -96,7 +66,7 @@ public class NettyClient extends AbstractPooledClient {
     private Responseable doRequest(Requestable request) {
         Responseable response;
         try {
-            Channel channel = getChannel();
+            Channel channel = getChannel(request);
             RpcFrameworkUtils.logEvent(request, RpcConstants.TRACE_CONNECTION);
 
             if (channel == null) {
@@ -131,23 +101,28 @@ public class NettyClient extends AbstractPooledClient {
 
     @Override
     public synchronized boolean open() {
-        if (isActive()) {
+        if (isActive() || state.isInactive()) {
+            // The client may be opened by another interface sharing it, and the inactive one is recovered by health check
             return true;
         }
 
         int timeout = getProviderUrl().getIntOption(CONNECT_TIMEOUT, CONNECT_TIMEOUT_VAL_DEFAULT);
         int maxContentLength = providerUrl.getIntOption(MAX_CONTENT_LENGTH, MAX_CONTENT_LENGTH_VAL_DEFAULT);
 
+        boolean epoll = NettyTransportUtils.useEpoll(providerUrl);
         bootstrap = new Bootstrap();
         bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeout);
         bootstrap.option(ChannelOption.TCP_NODELAY, true);
         bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
-        bootstrap.group(NIO_EVENT_LOOP_GROUP)
-                .channel(NioSocketChannel.class)
+        bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK, NettyTransportUtils.createWriteBufferWaterMark(providerUrl));
+        NettyTransportUtils.configureEpollOptions(bootstrap, providerUrl);
+        bootstrap.group(epoll ? EpollEventLoopGroupHolder.INSTANCE : NioEventLoopGroupHolder.INSTANCE)
+                .channel(NettyTransportUtils.getSocketChannelClass(epoll))
                 .handler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel ch) {
                         ChannelPipeline pipeline = ch.pipeline();
+                        pipeline.addLast(NettyTransportUtils.FLUSH_CONSOLIDATION, NettyTransportUtils.createFlushConsolidationHandler());
                         pipeline.addLast(NettyEncoder.ENCODER, new NettyEncoder());
                         pipeline.addLast(NettyDecoder.DECODER, new NettyDecoder(codec, NettyClient.this, maxContentLength));
                         pipeline.addLast(NettyServerClientHandler.HANDLER, createServerClientHandler());
@@ -163,7 +138,9 @@ public class NettyClient extends AbstractPooledClient {
     private NettyServerClientHandler createServerClientHandler() {
         return new NettyServerClientHandler(NettyClient.this, (channel, message) -> {
             Responseable response = (Responseable) message;
-            FutureResponse futureResponse = NettyClient.this.removeResponse(response.getRequestId());
+            // Response is routed to the connection which sent the request
+            FutureResponse futureResponse = channel instanceof NettyChannel
+                    ? ((NettyChannel) channel).removeResponse(response.getRequestId()) : null;
             if (futureResponse == null) {
                 log.warn("No response found with request ID: [{}]", response.getRequestId());
                 return null;
@@ -201,11 +178,7 @@ public class NettyClient extends AbstractPooledClient {
     }
 
     public void cleanup() {
-        // Cancel recycle timeout tasks
-        timeoutFuture.cancel(true);
-        // Clear request -> response map
-        requestId2ResponseMap.clear();
-        // Close all channels
+        // Close all channels and clear their pending responses
         closeAllChannels();
         // 解除统计回调的注册
 //        StatsUtil.unRegistryStatisticCallback(this);
@@ -235,10 +208,6 @@ public class NettyClient extends AbstractPooledClient {
         return bootstrap;
     }
 
-    public FutureResponse removeResponse(long requestId) {
-        return requestId2ResponseMap.remove(requestId);
-    }
-
     /**
      * Increments consecutive failure invocation count
      */
@@ -285,20 +254,6 @@ public class NettyClient extends AbstractPooledClient {
     }
 
 
-    /**
-     * Register response associated with request ID and limit the concurrent requests
-     *
-     * @param requestId      request ID
-     * @param futureResponse response future
-     */
-    public void registerResponse(long requestId, FutureResponse futureResponse) {
-        if (this.requestId2ResponseMap.size() >= RpcConstants.NETTY_CLIENT_MAX_REQUEST) {
-            throw new RpcFrameworkException("Discarded the request [" + requestId + "] " +
-                    "and url [" + providerUrl.getUri() + "] for exceeding max request limit!");
-        }
-        this.requestId2ResponseMap.put(requestId, futureResponse);
-    }
-
     @Override
     public void checkHealth(Requestable request) {
         try {
@@ -313,4 +268,15 @@ public class NettyClient extends AbstractPooledClient {
     public String toString() {
         return NettyClient.class.getSimpleName().concat(":").concat(getProviderUrl().getPath());
     }
+
+    /**
+     * Event loop groups shared by all clients, they are created on first use
+     */
+    private static class NioEventLoopGroupHolder {
+        private static final EventLoopGroup INSTANCE = NettyTransportUtils.createEventLoopGroup(false, 0, "luix-rpc-client-nio");
+    }
+
+    private static class EpollEventLoopGroupHolder {
+        private static final EventLoopGroup INSTANCE = NettyTransportUtils.createEventLoopGroup(true, 0, "luix-rpc-client-epoll");
+    }
 }
@@ -0,0 +1,135 @@
+package com.luixtech.rpc.transport.netty4.client;
+
+import io.netty.util.collection.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Map of request ID to pending response of one connection.
+ * The primitive long keys are stored in open-addressing maps without boxing, and the map is split into
+ * lock striped shards selected by the low bits of the request ID. Since the request IDs are the sequence
+ * numbers of the connection, the consecutive requests are spread over all the shards evenly.
+ *
+ * @param <V> pending response type
+ */
+class PendingResponseMap<V> {
+    private static final int                     SHARD_COUNT = 16;
+    private static final int                     SHARD_MASK  = SHARD_COUNT - 1;
+    private final        Shard<V>[]              shards;
+    /**
+     * Max pending responses of each shard
+     */
+    private final        int                     shardCapacity;
+    /**
+     * Count of pending responses of all the shards
+     */
+    private final        AtomicInteger           size        = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    PendingResponseMap(int capacity) {
+        shardCapacity = Math.max(1, (capacity + SHARD_MASK) / SHARD_COUNT);
+        shards = new Shard[SHARD_COUNT];
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard<>();
+        }
+    }
+
+    /**
+     * Put the pending response if the shard of request ID is not full
+     *
+     * @param requestId request ID
+     * @param value     pending response
+     * @return {@code true} if it was put and {@code false} if the shard was full
+     */
+    boolean put(long requestId, V value) {
+        Shard<V> shard = shard(requestId);
+        synchronized (shard) {
+            if (shard.map.size() >= shardCapacity) {
+                return false;
+            }
+            shard.map.put(requestId, value);
+            size.incrementAndGet();
+            return true;
+        }
+    }
+
+    V get(long requestId) {
+        Shard<V> shard = shard(requestId);
+        synchronized (shard) {
+            return shard.map.get(requestId);
+        }
+    }
+
+    boolean containsKey(long requestId) {
+        Shard<V> shard = shard(requestId);
+        synchronized (shard) {
+            return shard.map.containsKey(requestId);
+        }
+    }
+
+    V remove(long requestId) {
+        Shard<V> shard = shard(requestId);
+        synchronized (shard) {
+            V removed = shard.map.remove(requestId);
+            if (removed != null) {
+                size.decrementAndGet();
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * Remove the pending response only if it is currently mapped to the request ID
+     *
+     * @param requestId request ID
+     * @param value     pending response
+     * @return {@code true} if it was removed
+     */
+    boolean remove(long requestId, V value) {
+        Shard<V> shard = shard(requestId);
+        synchronized (shard) {
+            if (shard.map.get(requestId) != value) {
+                return false;
+            }
+            shard.map.remove(requestId);
+            size.decrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * Remove all the pending responses
+     *
+     * @return removed pending responses
+     */
+    List<V> clear() {
+        List<V> removed = new ArrayList<>();
+        for (Shard<V> shard : shards) {
+            synchronized (shard) {
+                removed.addAll(shard.map.values());
+                size.addAndGet(-shard.map.size());
+                shard.map.clear();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Get the count of pending responses without locking the shards
+     *
+     * @return pending response count
+     */
+    int size() {
+        return size.get();
+    }
+
+    private Shard<V> shard(long requestId) {
+        return shards[(int) requestId & SHARD_MASK];
+    }
+
+    private static class Shard<V> {
+        private final LongObjectHashMap<V> map = new LongObjectHashMap<>();
+    }
+}
@@ -0,0 +1,59 @@
+package com.luixtech.rpc.transport.netty4.codec;
+
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.codec.Codec;
+import com.luixtech.rpc.core.exchange.Channel;
+import com.luixtech.rpc.core.exchange.Exchangable;
+import io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+
+/**
+ * Codec which encodes to and decodes from netty {@link ByteBuf} directly,
+ * so the message does not need to be copied through the intermediate byte arrays.
+ */
+public interface ByteBufCodec extends Codec {
+
+    /**
+     * Encode the input object to the output buffer
+     *
+     * @param channel     channel
+     * @param inputObject input object
+     * @param out         output buffer, the encoded frame is appended from its writer index
+     * @throws IOException if IOException thrown
+     */
+    void encode(Channel channel, Exchangable inputObject, ByteBuf out) throws IOException;
+
+    /**
+     * Encode the request whose body is shared with the copies sent to other connections,
+     * the frame except the body is appended to the output buffer
+     *
+     * @param channel channel
+     * @param request RPC request with shared body
+     * @param out     output buffer, the encoded frame is appended from its writer index
+     * @return retained body which must be written right after the output buffer,
+     * or null if the body has been appended to the output buffer
+     * @throws IOException if IOException thrown
+     */
+    ByteBuf encodeShared(Channel channel, RpcRequest request, ByteBuf out) throws IOException;
+
+    /**
+     * Encode the frame which cancels the request sent by the same connection
+     *
+     * @param requestId request ID
+     * @param out       output buffer, the encoded frame is appended from its writer index
+     */
+    void encodeCancel(long requestId, ByteBuf out);
+
+    /**
+     * Decode a complete frame to origin object
+     *
+     * @param channel  channel
+     * @param remoteIp remote IP
+     * @param in       input buffer which contains a complete frame
+     * @return output object
+     * @throws IOException            if IOException thrown
+     * @throws ClassNotFoundException if ClassNotFoundException thrown
+     */
+    Object decode(Channel channel, String remoteIp, ByteBuf in) throws IOException, ClassNotFoundException;
+}
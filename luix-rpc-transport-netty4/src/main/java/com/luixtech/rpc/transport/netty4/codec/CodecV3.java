@@ -0,0 +1,526 @@
+package com.luixtech.rpc.transport.netty4.codec;
+
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.codec.AbstractCodec;
+import com.luixtech.rpc.core.codec.SharedBody;
+import com.luixtech.rpc.core.codec.impl.CodecHeader;
+import com.luixtech.rpc.core.codec.impl.GrowableByteBuffer;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.constant.ServiceConstants;
+import com.luixtech.rpc.core.exception.ExceptionUtils;
+import com.luixtech.rpc.core.exception.impl.RpcConfigException;
+import com.luixtech.rpc.core.exception.impl.RpcDeadlineExceededException;
+import com.luixtech.rpc.core.exception.impl.RpcOverloadedException;
+import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.exception.impl.RpcInvocationException;
+import com.luixtech.rpc.core.exception.impl.RpcUnknownMethodIdException;
+import com.luixtech.rpc.core.exchange.Channel;
+import com.luixtech.rpc.core.exchange.Exchangable;
+import com.luixtech.rpc.core.protocol.constants.ProtocolVersion;
+import com.luixtech.rpc.core.server.response.impl.RpcResponse;
+import com.luixtech.rpc.core.server.stub.ProviderMethodTable;
+import com.luixtech.rpc.core.server.stub.ProviderStub;
+import com.luixtech.rpc.core.url.Url;
+import com.luixtech.rpc.core.utils.MethodParameterUtils;
+import com.luixtech.rpc.core.utils.SerializerHolder;
+import com.luixtech.rpc.serializer.DeserializableArgs;
+import com.luixtech.rpc.serializer.DeserializableResult;
+import com.luixtech.rpc.serializer.Serializer;
+import com.luixtech.rpc.transport.netty4.client.NettyChannel;
+import com.luixtech.utilities.serviceloader.annotation.SpiName;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.MapUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.luixtech.rpc.core.constant.ServiceConstants.COMPRESS_THRESHOLD;
+import static com.luixtech.rpc.core.constant.ServiceConstants.COMPRESS_THRESHOLD_VAL_DEFAULT;
+import static org.apache.commons.lang3.StringUtils.defaultIfEmpty;
+
+/**
+ * The frame layout is the same as {@link com.luixtech.rpc.core.codec.impl.CodecV2},
+ * but header, meta and body are written to and read from netty {@link ByteBuf} directly.
+ * <p>
+ * Frame: header(13 bytes) + meta size(4 bytes) + meta + body size(4 bytes) + body
+ * <p>
+ * Cancel frame is a request frame with the cancel flag of header and empty meta and body.
+ * <p>
+ * Meta is a sequence of binary entries: key code(1 byte, see {@link MetaKeys}) + value.
+ * The key string of {@link MetaKeys#CUSTOM} entry is written as varint length + UTF-8 bytes before the value.
+ * String value is written as varint length + UTF-8 bytes, elapsed time is written as zigzag varint.
+ * The remaining time of request is written as varint, and the receiver converts it to the deadline of its own clock.
+ */
+@Slf4j
+@SpiName(ProtocolConstants.CODEC_VAL_V3)
+public class CodecV3 extends AbstractCodec implements ByteBufCodec {
+    /**
+     * Protocol version written to the header
+     */
+    public static final  int    VERSION             = 2;
+    private static final int    INITIAL_CAPACITY    = 256;
+
+    @Override
+    public byte[] encode(Channel channel, Exchangable input) throws IOException {
+        ByteBuf buf = Unpooled.buffer(INITIAL_CAPACITY);
+        try {
+            encode(channel, input, buf);
+            return ByteBufUtil.getBytes(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Override
+    public void encode(Channel channel, Exchangable input, ByteBuf out) throws IOException {
+        encode(channel, input, out, false);
+    }
+
+    @Override
+    public ByteBuf encodeShared(Channel channel, RpcRequest request, ByteBuf out) throws IOException {
+        return encode(channel, request, out, true);
+    }
+
+    private ByteBuf encode(Channel channel, Exchangable input, ByteBuf out, boolean shared) throws IOException {
+        try {
+            CodecHeader header = new CodecHeader();
+            header.setVersion(VERSION);
+            int headerIndex = out.writerIndex();
+            // Reserve the space of header and meta size, they are filled after the meta has been written
+            out.writeZero(CodecHeader.HEADER_SIZE + 4);
+            int metaIndex = out.writerIndex();
+
+            // Body represents arguments bytes for request or results bytes for response
+            byte[] body;
+            int compressorId;
+            int threshold;
+            if (input instanceof RpcRequest) {
+                // Encode request
+                RpcRequest request = (RpcRequest) input;
+                // The client connection may be shared by multiple interfaces
+                Url providerUrl = channel instanceof NettyChannel ? ((NettyChannel) channel).getProviderUrl(request) : channel.getProviderUrl();
+                String providerSerializer = providerUrl.getOption(ProtocolConstants.SERIALIZER, ProtocolConstants.SERIALIZER_VAL_DEFAULT);
+                // Consumer configuration over provider side
+                String serializerName = defaultIfEmpty(request.getOption(ProtocolConstants.SERIALIZER), providerSerializer);
+                Serializer serializer = getSerializer(serializerName);
+                encodeRequest(channel, request, header, out, serializer);
+                compressorId = getCompressorId(providerUrl, request);
+                threshold = providerUrl.getMethodLevelOption(request.getMethodName(),
+                        request.getMethodParameters(), COMPRESS_THRESHOLD, COMPRESS_THRESHOLD_VAL_DEFAULT);
+                if (shared && request.getSharedBody() != null) {
+                    String key = serializerName + ":" + compressorId + ":" + threshold;
+                    int id = compressorId;
+                    int size = threshold;
+                    SharedByteBuf sharedBody = request.getSharedBody().acquire(key,
+                            () -> createSharedBody(request, serializer, id, size));
+                    if (sharedBody != null) {
+                        // The body has been serialized and compressed for another connection
+                        out.setInt(metaIndex - 4, out.writerIndex() - metaIndex);
+                        header.setCompressorId(sharedBody.compressorId);
+                        header.setCompressed(sharedBody.compressed);
+                        out.writeInt(sharedBody.buf.readableBytes());
+                        writeHeader(out, headerIndex, header);
+                        return sharedBody.buf.duplicate();
+                    }
+                }
+                body = serializeArguments(request, serializer);
+            } else {
+                // Encode response
+                body = encodeResponse((RpcResponse) input, header, out);
+                compressorId = ((RpcResponse) input).getCompressorId();
+                threshold = channel.getProviderUrl().getIntOption(COMPRESS_THRESHOLD, COMPRESS_THRESHOLD_VAL_DEFAULT);
+            }
+
+            out.setInt(metaIndex - 4, out.writerIndex() - metaIndex);
+
+            // Body
+            body = compress(body, header, compressorId, threshold);
+            if (body != null && body.length > 0) {
+                out.writeInt(body.length);
+                out.writeBytes(body);
+            } else {
+                out.writeInt(0);
+            }
+
+            // Header
+            writeHeader(out, headerIndex, header);
+            return null;
+        } catch (Exception e) {
+            if (ExceptionUtils.isRpcException(e)) {
+                throw (RuntimeException) e;
+            } else {
+                throw new RpcFrameworkException("Failed to encode input object: " + input, e);
+            }
+        }
+    }
+
+    @Override
+    public void encodeCancel(long requestId, ByteBuf out) {
+        CodecHeader header = new CodecHeader();
+        header.setVersion(VERSION);
+        header.setCancel(true);
+        header.setRequestId(requestId);
+        int headerIndex = out.writerIndex();
+        out.writeZero(CodecHeader.HEADER_SIZE);
+        writeHeader(out, headerIndex, header);
+        // Empty meta and body
+        out.writeInt(0);
+        out.writeInt(0);
+    }
+
+    private void writeHeader(ByteBuf out, int index, CodecHeader header) {
+        out.setShort(index, CodecHeader.MAGIC);
+        out.setByte(index + 2, header.getMessageTypeByte());
+        out.setByte(index + 3, header.getVersionStatusByte());
+        out.setByte(index + 4, header.getSerializerByte());
+        out.setLong(index + 5, header.getRequestId());
+    }
+
+    private Serializer getSerializer(String serializerName) {
+        Serializer serializer = Serializer.getInstance(serializerName);
+        if (serializer == null) {
+            throw new RpcConfigException("Serializer [" + serializerName + "] does NOT exist, " +
+                    "please check whether the correct dependency is in your class path!");
+        }
+        return serializer;
+    }
+
+    private void encodeRequest(Channel channel, RpcRequest request, CodecHeader header, ByteBuf out, Serializer serializer) {
+        // Set header
+        header.setSerializerId(serializer.getSerializerId());
+        header.setRequestId(request.getRequestId());
+
+        // Set meta (including options)
+        int methodId = channel instanceof NettyChannel ? ((NettyChannel) channel).getMethodId(request) : 0;
+        if (methodId > 0) {
+            out.writeByte(MetaKeys.METHOD_ID);
+            putVarInt(out, methodId);
+            putMap(out, request.getOptions(), true);
+        } else {
+            putEntry(out, MetaKeys.INTERFACE, request.getInterfaceName());
+            putEntry(out, MetaKeys.METHOD, request.getMethodName());
+            if (request.getMethodParameters() != null) {
+                putEntry(out, MetaKeys.METHOD_PARAMETER, request.getMethodParameters());
+            }
+            putMap(out, request.getOptions(), false);
+        }
+        int remainingTime = channel instanceof NettyChannel ? ((NettyChannel) channel).getTimeout(request) : 0;
+        if (remainingTime > 0) {
+            out.writeByte(MetaKeys.REMAINING_TIME);
+            putVarInt(out, remainingTime);
+        }
+    }
+
+    private byte[] serializeArguments(RpcRequest request, Serializer serializer) throws IOException {
+        if (request.getMethodArguments() == null) {
+            return null;
+        }
+        // Serialize argument arrays to bytes
+        return serializer.serializeArray(request.getMethodArguments());
+    }
+
+    private SharedByteBuf createSharedBody(RpcRequest request, Serializer serializer, int compressorId, int threshold) {
+        try {
+            // Only the compression fields of the header are used
+            CodecHeader header = new CodecHeader();
+            byte[] body = compress(serializeArguments(request, serializer), header, compressorId, threshold);
+            ByteBuf buf = Unpooled.EMPTY_BUFFER;
+            if (body != null && body.length > 0) {
+                // Copy to a direct buffer once, so that it is not copied again when it is written to each socket
+                buf = ByteBufAllocator.DEFAULT.directBuffer(body.length).writeBytes(body);
+            }
+            return new SharedByteBuf(buf, header.getCompressorId(), header.isCompressed());
+        } catch (IOException e) {
+            throw new RpcFrameworkException("Failed to encode the shared body of " + request, e);
+        }
+    }
+
+    private byte[] encodeResponse(RpcResponse response, CodecHeader header, ByteBuf out) throws IOException {
+        Serializer serializer = SerializerHolder.getSerializerById(response.getSerializerId());
+
+        // Set header
+        header.setSerializerId(serializer.getSerializerId());
+        header.setRequestId(response.getRequestId());
+        header.setRequest(false);
+
+        // Set meta
+        // The actual return type is different from declared one.
+        // The result must not be read from the response with exception, which throws the exception.
+        if (response.getException() == null && response.getResult() != null) {
+            putEntry(out, MetaKeys.RETURN_TYPE, response.getResult().getClass().getName());
+        }
+
+        out.writeByte(MetaKeys.ELAPSED_TIME);
+        putVarInt(out, GrowableByteBuffer.encodeZigZag64(response.getElapsedTime()));
+
+        if (response.getException() != null) {
+            putEntry(out, MetaKeys.ERROR, org.apache.commons.lang3.exception.ExceptionUtils.getMessage(response.getException()));
+            header.setStatus(getErrorStatus(response.getException()));
+        }
+        putMap(out, response.getOptions(), false);
+
+        byte[] resultsBytes = null;
+        if (response.getException() == null && response.getResult() != null) {
+            // Serialize results to bytes
+            resultsBytes = serializer.serialize(response.getResult());
+        }
+        return resultsBytes;
+    }
+
+    @Override
+    public Object decode(Channel channel, String remoteIp, byte[] data) throws IOException, ClassNotFoundException {
+        return decode(channel, remoteIp, Unpooled.wrappedBuffer(data));
+    }
+
+    @Override
+    public Object decode(Channel channel, String remoteIp, ByteBuf in) throws IOException, ClassNotFoundException {
+        CodecHeader header = CodecHeader.buildHeader(in.nioBuffer(in.readerIndex(), CodecHeader.HEADER_SIZE));
+        in.skipBytes(CodecHeader.HEADER_SIZE);
+        int metaSize = in.readInt();
+        Meta meta = decodeMeta(in, metaSize);
+        int bodySize = in.readInt();
+        Object obj = null;
+        if (bodySize > 0) {
+            // Serializer accepts byte array only, so it is the unique copy of body
+            byte[] body = new byte[bodySize];
+            in.readBytes(body);
+            body = decompress(body, header, channel);
+            Serializer serializer = SerializerHolder.getSerializerById(header.getSerializerId());
+            if (header.isRequest()) {
+                // If method has arguments
+                obj = new DeserializableArgs(serializer, body);
+            } else {
+                // If method has result type
+                Class<?> clz = MethodParameterUtils.forName(meta.returnType);
+                obj = new DeserializableResult(serializer, body, clz);
+            }
+        }
+        if (header.isRequest()) {
+            // Decode request
+            return decodeRequest(header, meta, obj);
+        } else {
+            // Decode response
+            return decodeResponse(header, meta, obj);
+        }
+    }
+
+    private Object decodeRequest(CodecHeader header, Meta meta, Object obj) {
+        RpcRequest request = new RpcRequest();
+        request.setRequestId(header.getRequestId());
+        request.setOptions(meta.options);
+        if (meta.methodId > 0) {
+            ProviderMethodTable.Entry entry = ProviderMethodTable.getInstance().get(meta.methodId);
+            if (entry == null) {
+                // The service has been removed or re-exported with another interface, the consumer has to negotiate again
+                throw new RpcUnknownMethodIdException("Found unknown method ID [" + meta.methodId + "]");
+            }
+            ProviderStub<?> providerStub = entry.getProviderStub();
+            request.setMethodId(meta.methodId);
+            request.setInterfaceName(providerStub.getInterfaceName());
+            request.setMethodName(entry.getMethod().getName());
+            request.setMethodParameters(entry.getMethodParameters());
+            request.addOption(ServiceConstants.FORM, providerStub.getForm());
+            request.addOption(ServiceConstants.VERSION, providerStub.getVersion());
+        } else {
+            request.setInterfaceName(meta.interfaceName);
+            request.setMethodName(meta.methodName);
+            request.setMethodParameters(meta.methodParameters);
+        }
+        request.setProtocolVersion(ProtocolVersion.VERSION_3.getVersion());
+        request.setSerializerId(header.getSerializerId());
+        request.setCompressorId(header.getCompressorId());
+        if (meta.remainingTime > 0) {
+            request.setDeadline(System.currentTimeMillis() + meta.remainingTime);
+        }
+        if (obj != null) {
+            request.setMethodArguments(new Object[]{obj});
+        }
+        return request;
+    }
+
+    private int getErrorStatus(Exception exception) {
+        if (exception instanceof RpcDeadlineExceededException) {
+            return CodecHeader.MessageStatus.DEADLINE_EXCEEDED.getStatus();
+        }
+        if (exception instanceof RpcOverloadedException) {
+            return CodecHeader.MessageStatus.OVERLOADED.getStatus();
+        }
+        if (exception instanceof RpcUnknownMethodIdException) {
+            return CodecHeader.MessageStatus.UNKNOWN_METHOD_ID.getStatus();
+        }
+        return CodecHeader.MessageStatus.EXCEPTION.getStatus();
+    }
+
+    private Object decodeResponse(CodecHeader header, Meta meta, Object result) {
+        RpcResponse response = new RpcResponse();
+        response.setRequestId(header.getRequestId());
+        response.setElapsedTime(meta.elapsedTime);
+        response.setOptions(meta.options);
+        if (CodecHeader.MessageStatus.NORMAL.getStatus() == header.getStatus()) {
+            response.setResult(result);
+        } else if (CodecHeader.MessageStatus.DEADLINE_EXCEEDED.getStatus() == header.getStatus()) {
+            // The provider dropped the request which was expired, it is not an error of the provider
+            response.setException(new RpcDeadlineExceededException(meta.error));
+        } else if (CodecHeader.MessageStatus.OVERLOADED.getStatus() == header.getStatus()) {
+            // The provider rejected the request without executing it, so it can be sent to another provider
+            response.setException(new RpcOverloadedException(meta.error));
+        } else if (CodecHeader.MessageStatus.UNKNOWN_METHOD_ID.getStatus() == header.getStatus()) {
+            // The request was not executed, and it is sent by method name after the method IDs are negotiated again
+            response.setException(new RpcUnknownMethodIdException(meta.error));
+        } else {
+            String errorMsg = meta.error;
+            log.error(errorMsg);
+            Exception e = new RpcInvocationException(errorMsg);
+            response.setException(e);
+        }
+        return response;
+    }
+
+    private void putEntry(ByteBuf out, byte code, String value) {
+        out.writeByte(code);
+        putString(out, value);
+    }
+
+    private void putString(ByteBuf out, String content) {
+        if (content == null) {
+            // Zero means null, and the length of non-null string is increased by one
+            out.writeByte(0);
+            return;
+        }
+        putVarInt(out, ByteBufUtil.utf8Bytes(content) + 1);
+        ByteBufUtil.writeUtf8(out, content);
+    }
+
+    private void putMap(ByteBuf out, Map<String, String> map, boolean skipStubKeys) {
+        if (MapUtils.isNotEmpty(map)) {
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                if (skipStubKeys && (ServiceConstants.FORM.equals(entry.getKey()) || ServiceConstants.VERSION.equals(entry.getKey()))) {
+                    // Form and version are identified by method ID
+                    continue;
+                }
+                byte code = MetaKeys.getCode(entry.getKey());
+                out.writeByte(code);
+                if (code == MetaKeys.CUSTOM) {
+                    putString(out, entry.getKey());
+                }
+                putString(out, entry.getValue());
+            }
+        }
+    }
+
+    private void putVarInt(ByteBuf out, long value) {
+        while ((value & ~0x7fL) != 0) {
+            out.writeByte((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((byte) value);
+    }
+
+    private long getVarInt(ByteBuf in) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new RpcInvocationException("Integer overflow");
+    }
+
+    private String getString(ByteBuf in) {
+        int length = (int) getVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        return in.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+
+    private Meta decodeMeta(ByteBuf in, int metaSize) {
+        Meta meta = new Meta();
+        int end = in.readerIndex() + metaSize;
+        while (in.readerIndex() < end) {
+            byte code = in.readByte();
+            switch (code) {
+                case MetaKeys.INTERFACE:
+                    meta.interfaceName = getString(in);
+                    break;
+                case MetaKeys.METHOD:
+                    meta.methodName = getString(in);
+                    break;
+                case MetaKeys.METHOD_PARAMETER:
+                    meta.methodParameters = getString(in);
+                    break;
+                case MetaKeys.RETURN_TYPE:
+                    meta.returnType = getString(in);
+                    break;
+                case MetaKeys.ELAPSED_TIME:
+                    meta.elapsedTime = GrowableByteBuffer.decodeZigZag64(getVarInt(in));
+                    break;
+                case MetaKeys.ERROR:
+                    meta.error = getString(in);
+                    break;
+                case MetaKeys.METHOD_ID:
+                    meta.methodId = (int) getVarInt(in);
+                    break;
+                case MetaKeys.REMAINING_TIME:
+                    meta.remainingTime = getVarInt(in);
+                    break;
+                case MetaKeys.CUSTOM:
+                    String key = getString(in);
+                    meta.options.put(key, getString(in));
+                    break;
+                default:
+                    String optionKey = MetaKeys.getOptionKey(code);
+                    if (optionKey == null) {
+                        throw new RpcFrameworkException("Found invalid meta key code [" + code + "]");
+                    }
+                    meta.options.put(optionKey, getString(in));
+            }
+        }
+        return meta;
+    }
+
+    /**
+     * Serialized and compressed method arguments shared by the copies of a request
+     */
+    private static class SharedByteBuf implements SharedBody.Releasable {
+        private final ByteBuf buf;
+        private final int     compressorId;
+        private final boolean compressed;
+
+        private SharedByteBuf(ByteBuf buf, int compressorId, boolean compressed) {
+            this.buf = buf;
+            this.compressorId = compressorId;
+            this.compressed = compressed;
+        }
+
+        @Override
+        public void retain() {
+            buf.retain();
+        }
+
+        @Override
+        public void release() {
+            buf.release();
+        }
+    }
+
+    private static class Meta {
+        private String              interfaceName;
+        private String              methodName;
+        private String              methodParameters;
+        private String              returnType;
+        private long                elapsedTime;
+        private String              error;
+        private int                 methodId;
+        private long                remainingTime;
+        private Map<String, String> options = new HashMap<>();
+    }
+}
@@ -0,0 +1,79 @@
+package com.luixtech.rpc.transport.netty4.codec;
+
+import com.luixtech.rpc.core.constant.ApplicationConstants;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.constant.ServiceConstants;
+import com.luixtech.rpc.core.url.Url;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Static dictionary which maps the well-known meta keys to one-byte codes used by {@link CodecV3}.
+ * Both sides of a connection must share the same dictionary, so the existing codes must never be changed,
+ * new keys can only be appended.
+ */
+public abstract class MetaKeys {
+    /**
+     * Code of the free-form key which is followed by the length-prefixed key string
+     */
+    public static final  byte                CUSTOM           = 0;
+    public static final  byte                INTERFACE        = 1;
+    public static final  byte                METHOD           = 2;
+    public static final  byte                METHOD_PARAMETER = 3;
+    public static final  byte                RETURN_TYPE      = 4;
+    public static final  byte                ELAPSED_TIME     = 5;
+    public static final  byte                ERROR            = 6;
+    /**
+     * Method ID negotiated by handshake, it replaces interface name, method name, method parameters, form and version
+     */
+    public static final  byte                METHOD_ID        = 7;
+    /**
+     * Remaining time of the request in milliseconds, it is relative so that the clocks of both sides need not be synchronized
+     */
+    public static final  byte                REMAINING_TIME   = 8;
+    /**
+     * Codes of the well-known option keys start from here
+     */
+    private static final int                 OPTION_OFFSET    = 16;
+    private static final String[]            OPTION_KEYS      = new String[]{
+            ProtocolConstants.SERIALIZER,
+            ServiceConstants.FORM,
+            ServiceConstants.VERSION,
+            ServiceConstants.REQUEST_TIMEOUT,
+            ServiceConstants.RETRY_COUNT,
+            ServiceConstants.MAX_PAYLOAD,
+            ApplicationConstants.APP,
+            Url.PARAM_HOST,
+            ProtocolConstants.CODEC
+    };
+    private static final Map<String, Byte>   KEY_TO_CODE      = new HashMap<>(OPTION_KEYS.length * 2);
+
+    static {
+        for (int i = 0; i < OPTION_KEYS.length; i++) {
+            KEY_TO_CODE.put(OPTION_KEYS[i], (byte) (OPTION_OFFSET + i));
+        }
+    }
+
+    /**
+     * Get the code of option key
+     *
+     * @param key option key
+     * @return code or {@link #CUSTOM} if the key is not a well-known one
+     */
+    public static byte getCode(String key) {
+        Byte code = KEY_TO_CODE.get(key);
+        return code != null ? code : CUSTOM;
+    }
+
+    /**
+     * Get the option key of code
+     *
+     * @param code code
+     * @return option key or null if the code is not an option code
+     */
+    public static String getOptionKey(int code) {
+        int index = code - OPTION_OFFSET;
+        return index >= 0 && index < OPTION_KEYS.length ? OPTION_KEYS[index] : null;
+    }
+}
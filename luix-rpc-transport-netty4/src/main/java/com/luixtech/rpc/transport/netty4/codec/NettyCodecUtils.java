@@ -0,0 +1,90 @@
+package com.luixtech.rpc.transport.netty4.codec;
+
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.codec.Codec;
+import com.luixtech.rpc.core.codec.CodecUtils;
+import com.luixtech.rpc.core.constant.RpcConstants;
+import com.luixtech.rpc.core.exception.ExceptionUtils;
+import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.exchange.Channel;
+import com.luixtech.rpc.core.exchange.Exchangable;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.utils.RpcFrameworkUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public abstract class NettyCodecUtils {
+    /**
+     * Encode the message to the object which can be written to netty channel directly.
+     * If the codec supports {@link ByteBuf}, the message will be encoded to a buffer allocated by the allocator,
+     * otherwise it will be encoded to byte array.
+     * The body shared by the copies of a request is not copied, it is composed with the encoded header and meta.
+     *
+     * @param channel   channel
+     * @param codec     codec
+     * @param msg       message
+     * @param allocator netty buffer allocator
+     * @return {@link ByteBuf} or byte array
+     */
+    public static Object encode(Channel channel, Codec codec, Exchangable msg, ByteBufAllocator allocator) {
+        if (!(codec instanceof ByteBufCodec)) {
+            return CodecUtils.encodeObjectToBytes(channel, codec, msg);
+        }
+        ByteBuf buf = allocator.ioBuffer();
+        try {
+            ByteBuf sharedBody = encodeMessage(channel, (ByteBufCodec) codec, msg, buf);
+            if (sharedBody == null) {
+                return buf;
+            }
+            return allocator.compositeBuffer(2).addComponents(true, buf, sharedBody);
+        } catch (Exception e) {
+            buf.release();
+            if (ExceptionUtils.isRpcException(e)) {
+                throw (RuntimeException) e;
+            }
+            throw new RpcFrameworkException("Failed to encode object " + msg.toString(), e);
+        }
+    }
+
+    private static ByteBuf encodeMessage(Channel channel, ByteBufCodec codec, Exchangable msg, ByteBuf buf) throws Exception {
+        ByteBuf sharedBody = null;
+        if (msg instanceof Responseable) {
+            int writerIndex = buf.writerIndex();
+            try {
+                codec.encode(channel, msg, buf);
+            } catch (Exception e) {
+                log.error("NettyEncoder encode error, identity=" + channel.getProviderUrl().getIdentity(), e);
+                buf.writerIndex(writerIndex);
+                Responseable oriResponse = (Responseable) msg;
+                Responseable response = RpcFrameworkUtils.buildErrorResponse(oriResponse.getRequestId(), oriResponse.getProtocolVersion(), e);
+                codec.encode(channel, response, buf);
+            }
+        } else if (msg instanceof RpcRequest && ((RpcRequest) msg).getSharedBody() != null) {
+            sharedBody = codec.encodeShared(channel, (RpcRequest) msg, buf);
+        } else {
+            codec.encode(channel, msg, buf);
+        }
+        if (msg instanceof Requestable) {
+            RpcFrameworkUtils.logEvent((Requestable) msg, RpcConstants.TRACE_CENCODE);
+        } else if (msg instanceof Responseable) {
+            RpcFrameworkUtils.logEvent((Responseable) msg, RpcConstants.TRACE_SENCODE);
+        }
+        return sharedBody;
+    }
+
+    /**
+     * Get the length of encoded message
+     *
+     * @param encoded {@link ByteBuf} or byte array
+     * @return length
+     */
+    public static int getLength(Object encoded) {
+        if (encoded instanceof ByteBuf) {
+            return ((ByteBuf) encoded).readableBytes();
+        }
+        return ((byte[]) encoded).length;
+    }
+}
@@ -0,0 +1,126 @@
+package com.luixtech.rpc.transport.netty4.server;
+
+import io.netty.channel.Channel;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory budget of a server which tracks the bytes held by the requests which have been received but not finished,
+ * and the responses which have been encoded but not written.
+ * The request which exceeds the budget is rejected, and the connection which sent it stops reading,
+ * so the bursts of large requests can not exhaust the heap before the thread limits are reached.
+ * The suspended connections resume reading once the used bytes drop below the resume threshold.
+ */
+@Slf4j
+@ThreadSafe
+public class InflightMemoryBudget {
+    private final long         limit;
+    /**
+     * Used bytes below which the suspended connections resume reading
+     */
+    private final long         resumeThreshold;
+    private final AtomicLong   used      = new AtomicLong();
+    private final Set<Channel> suspended = ConcurrentHashMap.newKeySet();
+
+    public InflightMemoryBudget(long limit) {
+        this.limit = Math.max(limit, 1);
+        this.resumeThreshold = this.limit * 3 / 4;
+    }
+
+    /**
+     * Acquire the bytes of a received request if they do not exceed the budget,
+     * a request is always admitted when nothing is in flight, so that it never starves
+     *
+     * @param bytes request size in bytes
+     * @return {@code true} if acquired and {@code false} otherwise
+     */
+    public boolean tryAcquire(long bytes) {
+        while (true) {
+            long current = used.get();
+            if (current > 0 && current + bytes > limit) {
+                return false;
+            }
+            if (used.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Acquire the bytes of an encoded response regardless of the budget, because the request has been processed
+     *
+     * @param bytes response size in bytes
+     */
+    public void acquire(long bytes) {
+        used.addAndGet(bytes);
+    }
+
+    /**
+     * Release the acquired bytes and resume the suspended connections if the used bytes drop below the threshold
+     *
+     * @param bytes acquired bytes
+     */
+    public void release(long bytes) {
+        if (used.addAndGet(-bytes) <= resumeThreshold && !suspended.isEmpty()) {
+            resumeAll();
+        }
+    }
+
+    /**
+     * Stop reading from the connection until the used bytes drop below the resume threshold
+     *
+     * @param channel netty channel
+     */
+    public void suspend(Channel channel) {
+        if (!suspended.add(channel)) {
+            return;
+        }
+        channel.config().setAutoRead(false);
+        log.warn("Suspended reading from [{}] for the inflight memory [{}] exceeding budget [{}]",
+                channel.remoteAddress(), used.get(), limit);
+        if (used.get() <= resumeThreshold) {
+            // The bytes were released before the connection was added
+            resumeAll();
+        }
+    }
+
+    /**
+     * Check whether the connection stops reading for the budget
+     *
+     * @param channel netty channel
+     * @return {@code true} if suspended and {@code false} otherwise
+     */
+    public boolean isSuspended(Channel channel) {
+        return suspended.contains(channel);
+    }
+
+    /**
+     * Forget the closed connection
+     *
+     * @param channel netty channel
+     */
+    public void remove(Channel channel) {
+        suspended.remove(channel);
+    }
+
+    private void resumeAll() {
+        for (Channel channel : suspended) {
+            if (suspended.remove(channel)) {
+                // The unwritable connection resumes reading after its responses are drained
+                channel.config().setAutoRead(channel.isWritable());
+            }
+        }
+    }
+
+    public long getUsed() {
+        return used.get();
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+}
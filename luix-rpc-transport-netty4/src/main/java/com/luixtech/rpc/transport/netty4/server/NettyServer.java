@@ -12,16 +12,17 @@ import com.luixtech.rpc.core.url.Url;
 import com.luixtech.rpc.transport.netty4.NettyDecoder;
 import com.luixtech.rpc.transport.netty4.NettyEncoder;
 import com.luixtech.rpc.transport.netty4.NettyServerClientHandler;
+import com.luixtech.rpc.transport.netty4.NettyTransportUtils;
 import com.luixtech.utilities.thread.pool.NetworkThreadPoolExecutor;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.luixtech.rpc.core.constant.ProtocolConstants.*;
@@ -31,10 +32,11 @@ public class NettyServer extends AbstractServer implements StatisticCallback {
     protected     NettyServerChannelManager channelManager;
     private       EventLoopGroup            bossGroup;
     private       EventLoopGroup            workerGroup;
-    private       Channel                   serverChannel;
+    private final List<Channel>             serverChannels = new ArrayList<>();
     private       NetworkThreadPoolExecutor networkThreadPoolExecutor;
     private final InvocationHandleable      handler;
-    private final AtomicInteger             rejectCounter = new AtomicInteger(0);
+    private final AtomicInteger             rejectCounter  = new AtomicInteger(0);
+    private       InflightMemoryBudget      memoryBudget;
 
     public AtomicInteger getRejectCounter() {
         return rejectCounter;
@@ -47,7 +49,7 @@ public class NettyServer extends AbstractServer implements StatisticCallback {
 
     @Override
     public boolean isBound() {
-        return serverChannel != null && serverChannel.isActive();
+        return !serverChannels.isEmpty() && serverChannels.stream().allMatch(Channel::isActive);
     }
 
     @Override
@@ -61,24 +63,28 @@ public class NettyServer extends AbstractServer implements StatisticCallback {
             log.warn("Netty server channel already be opened for url [{}]", providerUrl);
             return state.isActive();
         }
+        boolean epoll = NettyTransportUtils.useEpoll(providerUrl);
+        int acceptorCount = NettyTransportUtils.getAcceptorCount(providerUrl);
         if (bossGroup == null) {
-            bossGroup = new NioEventLoopGroup(1);
-            workerGroup = new NioEventLoopGroup();
+            bossGroup = NettyTransportUtils.createEventLoopGroup(epoll, acceptorCount, "luix-rpc-server-boss");
+            workerGroup = NettyTransportUtils.createEventLoopGroup(epoll, 0, "luix-rpc-server-worker");
         }
 
         log.info("Opening netty server channel for url [{}]" + providerUrl);
         createThreadPool();
+        createMemoryBudget();
 
         int maxServerConn = providerUrl.getIntOption(MAX_SERVER_CONN, MAX_SERVER_CONN_VAL_DEFAULT);
         int maxContentLength = providerUrl.getIntOption(MAX_CONTENT_LENGTH, MAX_CONTENT_LENGTH_VAL_DEFAULT);
         channelManager = new NettyServerChannelManager(maxServerConn);
         ServerBootstrap serverBootstrap = new ServerBootstrap();
         serverBootstrap.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(NettyTransportUtils.getServerChannelClass(epoll))
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel ch) {
                         ChannelPipeline pipeline = ch.pipeline();
+                        pipeline.addLast(NettyTransportUtils.FLUSH_CONSOLIDATION, NettyTransportUtils.createFlushConsolidationHandler());
                         pipeline.addLast(NettyEncoder.ENCODER, new NettyEncoder());
                         pipeline.addLast(NettyDecoder.DECODER, new NettyDecoder(codec, NettyServer.this, maxContentLength));
                         pipeline.addLast(NettyServerClientHandler.HANDLER, createServerClientHandler());
@@ -87,13 +93,19 @@ public class NettyServer extends AbstractServer implements StatisticCallback {
                 });
         serverBootstrap.childOption(ChannelOption.TCP_NODELAY, true);
         serverBootstrap.childOption(ChannelOption.SO_KEEPALIVE, true);
-        ChannelFuture channelFuture = serverBootstrap.bind(new InetSocketAddress(providerUrl.getPort()));
-        channelFuture.syncUninterruptibly();
-        serverChannel = channelFuture.channel();
+        serverBootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, NettyTransportUtils.createWriteBufferWaterMark(providerUrl));
+        NettyTransportUtils.configureEpollOptions(serverBootstrap, providerUrl);
+        // Bind multiple server channels to the same port with SO_REUSEPORT to shard the accepting
+        for (int i = 0; i < acceptorCount; i++) {
+            ChannelFuture channelFuture = serverBootstrap.bind(new InetSocketAddress(providerUrl.getPort()));
+            channelFuture.syncUninterruptibly();
+            serverChannels.add(channelFuture.channel());
+        }
         state = ChannelState.ACTIVE;
 //        StatsUtils.registryStatisticCallback(this);
         log.info("Opened netty server channel for url [{}]" + providerUrl);
-        log.info("Started netty server with port [{}]", providerUrl.getPort());
+        log.info("Started {} netty server with port [{}] and {} acceptor(s)", epoll ? "epoll" : "nio",
+                providerUrl.getPort(), acceptorCount);
         return state.isActive();
     }
 
@@ -119,6 +131,26 @@ public class NettyServer extends AbstractServer implements StatisticCallback {
         networkThreadPoolExecutor.prestartAllCoreThreads();
     }
 
+    private void createMemoryBudget() {
+        int percent = Math.min(providerUrl.getIntOption(INFLIGHT_MEMORY_PERCENT, INFLIGHT_MEMORY_PERCENT_VAL_DEFAULT), 100);
+        if (percent <= 0) {
+            memoryBudget = null;
+            return;
+        }
+        // Shared by all connections of the server
+        memoryBudget = new InflightMemoryBudget(Runtime.getRuntime().maxMemory() / 100 * percent);
+        log.info("Limited the inflight memory of netty server to [{}] bytes", memoryBudget.getLimit());
+    }
+
+    /**
+     * Get the memory budget shared by the connections of the server
+     *
+     * @return memory budget or null if unlimited
+     */
+    public InflightMemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
+
     private NettyServerClientHandler createServerClientHandler() {
         return new NettyServerClientHandler(NettyServer.this, NettyServer.this.handler, networkThreadPoolExecutor);
     }
@@ -155,10 +187,9 @@ public class NettyServer extends AbstractServer implements StatisticCallback {
     }
 
     public void cleanup() {
-        // close listen socket
-        if (serverChannel != null) {
-            serverChannel.close();
-        }
+        // close listen sockets
+        serverChannels.forEach(Channel::close);
+        serverChannels.clear();
         if (bossGroup != null) {
             bossGroup.shutdownGracefully();
             bossGroup = null;
@@ -189,6 +220,20 @@ public class NettyServer extends AbstractServer implements StatisticCallback {
         return state.isActive();
     }
 
+    @Override
+    public boolean isWritable() {
+        // Writability is tracked by each connection, the server itself only stops accepting requests
+        // once the inflight memory budget is exhausted
+        InflightMemoryBudget budget = memoryBudget;
+        return budget == null || budget.getUsed() < budget.getLimit();
+    }
+
+    @Override
+    public int getPendingCount() {
+        NetworkThreadPoolExecutor executor = networkThreadPoolExecutor;
+        return executor == null ? 0 : executor.getActiveCount() + executor.getQueue().size();
+    }
+
     @Override
     public Url getProviderUrl() {
         return providerUrl;
@@ -0,0 +1,403 @@
+package com.luixtech.rpc.transport.netty4;
+
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.codec.Codec;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.constant.ServiceConstants;
+import com.luixtech.rpc.core.exception.impl.RpcDeadlineExceededException;
+import com.luixtech.rpc.core.exception.impl.RpcOverloadedException;
+import com.luixtech.rpc.core.exchange.Channel;
+import com.luixtech.rpc.core.protocol.constants.ProtocolVersion;
+import com.luixtech.rpc.core.server.handler.InvocationHandleable;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.url.Url;
+import com.luixtech.rpc.core.utils.CompressorHolder;
+import com.luixtech.rpc.core.utils.RpcCancellationHolder;
+import com.luixtech.rpc.core.utils.RpcDeadlineHolder;
+import com.luixtech.rpc.core.utils.SerializerHolder;
+import com.luixtech.rpc.transport.netty4.client.NettyChannel;
+import com.luixtech.rpc.transport.netty4.client.NettyClient;
+import com.luixtech.rpc.transport.netty4.codec.ByteBufCodec;
+import com.luixtech.rpc.transport.netty4.server.InflightMemoryBudget;
+import com.luixtech.rpc.transport.netty4.server.NettyServer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NettyServerClientHandlerTests {
+    private static final int                   REQUEST_TIMEOUT   = 1000;
+    private static final long                  WAIT_TIME         = TimeUnit.SECONDS.toMillis(5);
+    private final        Url                   providerUrl       = createProviderUrl();
+    private final        NettyChannel          clientChannel     = new NettyChannel(new NettyClient(providerUrl));
+    private final        Codec                 codec             = Codec.getInstance(ProtocolConstants.CODEC_VAL_V3);
+    private final        ManualExecutor        executor          = new ManualExecutor();
+    private final        TestInvocationHandler invocationHandler = new TestInvocationHandler();
+
+    @BeforeAll
+    public static void setUp() {
+        // They are initialized by protocol config in application
+        SerializerHolder.init();
+        CompressorHolder.init();
+    }
+
+    @Test
+    public void processRequestWithinDeadline() throws Exception {
+        List<Long> deadlines = new ArrayList<>();
+        invocationHandler.behavior = request -> {
+            deadlines.add(RpcDeadlineHolder.getDeadline());
+            return "ok";
+        };
+        EmbeddedChannel channel = createChannel(new NettyServer(providerUrl, invocationHandler));
+        long start = System.currentTimeMillis();
+        channel.writeInbound(createRequestMessage(1L));
+        executor.runAll();
+
+        assertEquals(1, invocationHandler.requests.size());
+        long deadline = deadlines.get(0);
+        assertTrue(deadline > start && deadline <= System.currentTimeMillis() + REQUEST_TIMEOUT, "Deadline " + deadline);
+        Responseable response = readResponse(channel);
+        assertEquals(1L, response.getRequestId());
+        assertNull(response.getException());
+    }
+
+    @Test
+    public void dropRequestExpiredInQueue() throws Exception {
+        EmbeddedChannel channel = createChannel(new NettyServer(providerUrl, invocationHandler));
+        NettyMessage msg = createRequestMessage(1L);
+        // The request has waited in the queue of thread pool longer than its timeout
+        msg.setStartTime(System.currentTimeMillis() - REQUEST_TIMEOUT * 2);
+        channel.writeInbound(msg);
+        executor.runAll();
+
+        assertTrue(invocationHandler.requests.isEmpty());
+        Responseable response = readResponse(channel);
+        assertEquals(1L, response.getRequestId());
+        assertTrue(response.getException() instanceof RpcDeadlineExceededException, String.valueOf(response.getException()));
+    }
+
+    @Test
+    public void skipCancelledQueuedTask() throws Exception {
+        EmbeddedChannel channel = createChannel(new NettyServer(providerUrl, invocationHandler));
+        NettyMessage msg = createRequestMessage(1L);
+        ByteBuf frame = msg.getFrame();
+        channel.writeInbound(msg);
+        channel.writeInbound(createCancelMessage(1L));
+        // The frame is released without waiting for the task to be dequeued
+        assertEquals(0, frame.refCnt());
+
+        executor.runAll();
+        assertTrue(invocationHandler.requests.isEmpty());
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    public void flagCancelledRunningTask() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        invocationHandler.behavior = request -> {
+            running.countDown();
+            awaitUninterruptibly(release);
+            cancelled.set(RpcCancellationHolder.isCancelled());
+            interrupted.set(Thread.currentThread().isInterrupted());
+            return "ok";
+        };
+        EmbeddedChannel channel = createChannel(new NettyServer(providerUrl, invocationHandler));
+        channel.writeInbound(createRequestMessage(1L));
+        Thread worker = new Thread(executor::runAll);
+        worker.start();
+        assertTrue(running.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+
+        channel.writeInbound(createCancelMessage(1L));
+        release.countDown();
+        worker.join(WAIT_TIME);
+
+        assertTrue(cancelled.get());
+        // The running task is not interrupted by default
+        assertFalse(interrupted.get());
+        // The response is dropped for the consumer has discarded the request
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    public void interruptCancelledRunningTask() throws Exception {
+        providerUrl.addOption(ProtocolConstants.INTERRUPT_ON_CANCEL, Boolean.TRUE.toString());
+        CountDownLatch running = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AtomicBoolean interruptedAfterTask = new AtomicBoolean(true);
+        invocationHandler.behavior = request -> {
+            running.countDown();
+            long deadline = System.currentTimeMillis() + WAIT_TIME;
+            // Keep the interruption flag, so that the task has to clear it
+            while (!Thread.currentThread().isInterrupted() && System.currentTimeMillis() < deadline) {
+                Thread.onSpinWait();
+            }
+            interrupted.set(Thread.currentThread().isInterrupted());
+            return "ok";
+        };
+        EmbeddedChannel channel = createChannel(new NettyServer(providerUrl, invocationHandler));
+        channel.writeInbound(createRequestMessage(1L));
+        Thread worker = new Thread(() -> {
+            executor.runAll();
+            interruptedAfterTask.set(Thread.currentThread().isInterrupted());
+        });
+        worker.start();
+        assertTrue(running.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+
+        channel.writeInbound(createCancelMessage(1L));
+        worker.join(WAIT_TIME);
+
+        assertTrue(interrupted.get());
+        // The interruption does not leak to the next task of the thread
+        assertFalse(interruptedAfterTask.get());
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    public void ignoreCancelOfCompletedTask() throws Exception {
+        EmbeddedChannel channel = createChannel(new NettyServer(providerUrl, invocationHandler));
+        channel.writeInbound(createRequestMessage(1L));
+        executor.runAll();
+        assertEquals(1L, readResponse(channel).getRequestId());
+
+        channel.writeInbound(createCancelMessage(1L));
+        // Cancel the unknown request as well
+        channel.writeInbound(createCancelMessage(2L));
+        assertNull(channel.readOutbound());
+        assertEquals(1, invocationHandler.requests.size());
+    }
+
+    @Test
+    public void cancelTasksOnChannelInactive() throws Exception {
+        EmbeddedChannel channel = createChannel(new NettyServer(providerUrl, invocationHandler));
+        NettyMessage first = createRequestMessage(1L);
+        NettyMessage second = createRequestMessage(2L);
+        ByteBuf firstFrame = first.getFrame();
+        ByteBuf secondFrame = second.getFrame();
+        channel.writeInbound(first, second);
+        channel.close();
+        assertEquals(0, firstFrame.refCnt());
+        assertEquals(0, secondFrame.refCnt());
+
+        executor.runAll();
+        assertTrue(invocationHandler.requests.isEmpty());
+    }
+
+    @Test
+    public void suspendReadingWhileUnwritable() {
+        EmbeddedChannel channel = createChannel(new NettyServer(providerUrl, invocationHandler));
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+        assertTrue(channel.config().isAutoRead());
+
+        // The responses are not draining
+        channel.write(Unpooled.wrappedBuffer(new byte[32]));
+        assertFalse(channel.isWritable());
+        assertFalse(channel.config().isAutoRead());
+
+        channel.flush();
+        channel.runPendingTasks();
+        assertTrue(channel.isWritable());
+        assertTrue(channel.config().isAutoRead());
+        ((ByteBuf) channel.readOutbound()).release();
+    }
+
+    @Test
+    public void rejectRequestExceedingMemoryBudget() throws Exception {
+        NettyMessage first = createRequestMessage(1L);
+        NettyMessage second = createRequestMessage(2L);
+        ByteBuf secondFrame = second.getFrame();
+        InflightMemoryBudget budget = new InflightMemoryBudget(first.getSize());
+        EmbeddedChannel channel = createChannel(new TestServer(providerUrl, invocationHandler, budget));
+        channel.writeInbound(first);
+        assertEquals(first.getSize(), budget.getUsed());
+        channel.writeInbound(second);
+
+        assertEquals(0, secondFrame.refCnt());
+        assertTrue(budget.isSuspended(channel));
+        assertFalse(channel.config().isAutoRead());
+        Responseable rejected = readResponse(channel);
+        assertEquals(2L, rejected.getRequestId());
+        assertTrue(rejected.getException() instanceof RpcOverloadedException, String.valueOf(rejected.getException()));
+
+        // The connection resumes reading once the admitted request is processed
+        executor.runAll();
+        assertEquals(1, invocationHandler.requests.size());
+        assertEquals(1L, readResponse(channel).getRequestId());
+        assertEquals(0, budget.getUsed());
+        assertFalse(budget.isSuspended(channel));
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    public void releaseMemoryOfCancelledQueuedTask() throws Exception {
+        InflightMemoryBudget budget = new InflightMemoryBudget(Integer.MAX_VALUE);
+        EmbeddedChannel channel = createChannel(new TestServer(providerUrl, invocationHandler, budget));
+        NettyMessage msg = createRequestMessage(1L);
+        channel.writeInbound(msg);
+        assertTrue(budget.getUsed() > 0);
+
+        channel.writeInbound(createCancelMessage(1L));
+        assertEquals(0, budget.getUsed());
+        executor.runAll();
+        assertEquals(0, budget.getUsed());
+    }
+
+    @Test
+    public void releaseMemoryOnExecutorRejection() throws Exception {
+        InflightMemoryBudget budget = new InflightMemoryBudget(Integer.MAX_VALUE);
+        TestServer server = new TestServer(providerUrl, invocationHandler, budget);
+        EmbeddedChannel channel = createChannel(server);
+        executor.rejecting = true;
+        NettyMessage msg = createRequestMessage(1L);
+        ByteBuf frame = msg.getFrame();
+        channel.writeInbound(msg);
+
+        assertEquals(0, frame.refCnt());
+        assertEquals(0, budget.getUsed());
+        assertEquals(1, server.getRejectCounter().get());
+        Responseable response = readResponse(channel);
+        assertEquals(1L, response.getRequestId());
+        assertTrue(response.getException().getMessage().contains("Reject the request"), String.valueOf(response.getException()));
+    }
+
+    @Test
+    public void keepReadingSuspendedByBudgetWhenWritable() {
+        InflightMemoryBudget budget = new InflightMemoryBudget(100);
+        EmbeddedChannel channel = createChannel(new TestServer(providerUrl, invocationHandler, budget));
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+        budget.acquire(100);
+        budget.suspend(channel);
+        channel.write(Unpooled.wrappedBuffer(new byte[32]));
+
+        channel.flush();
+        channel.runPendingTasks();
+        assertTrue(channel.isWritable());
+        assertFalse(channel.config().isAutoRead());
+        ((ByteBuf) channel.readOutbound()).release();
+
+        // The closed connection is forgotten by the budget
+        channel.close();
+        assertFalse(budget.isSuspended(channel));
+    }
+
+    private EmbeddedChannel createChannel(NettyServer server) {
+        return new EmbeddedChannel(new NettyServerClientHandler(server, invocationHandler, executor));
+    }
+
+    private NettyMessage createRequestMessage(long requestId) throws IOException {
+        RpcRequest request = new RpcRequest(requestId, ProtocolConstants.PROTOCOL_VAL_LUIX, "TestService", "hello", String.class.getName(), false);
+        request.setMethodArguments(new Object[]{"world"});
+        byte[] frame = codec.encode(clientChannel, request);
+        NettyMessage msg = new NettyMessage(true, requestId, Unpooled.wrappedBuffer(frame), ProtocolVersion.VERSION_3);
+        msg.setStartTime(System.currentTimeMillis());
+        return msg;
+    }
+
+    private static NettyMessage createCancelMessage(long requestId) {
+        NettyMessage msg = new NettyMessage(true, requestId, (byte[]) null, ProtocolVersion.VERSION_3);
+        msg.setCancel(true);
+        return msg;
+    }
+
+    private Responseable readResponse(EmbeddedChannel channel) throws Exception {
+        ByteBuf frame = channel.readOutbound();
+        assertNotNull(frame, "No response was returned");
+        try {
+            return (Responseable) ((ByteBufCodec) codec).decode(clientChannel, "127.0.0.1", frame);
+        } finally {
+            frame.release();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(WAIT_TIME, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Url createProviderUrl() {
+        Url url = Url.providerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 26040, "TestService");
+        url.addOption(ProtocolConstants.CODEC, ProtocolConstants.CODEC_VAL_V3);
+        url.addOption(ServiceConstants.REQUEST_TIMEOUT, REQUEST_TIMEOUT);
+        return url;
+    }
+
+    /**
+     * Thread pool whose tasks are run by the test
+     */
+    private static class ManualExecutor extends ThreadPoolExecutor {
+        private final List<Runnable> tasks = new ArrayList<>();
+        private       boolean        rejecting;
+
+        private ManualExecutor() {
+            super(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (rejecting) {
+                throw new RejectedExecutionException("Rejected by test");
+            }
+            tasks.add(command);
+        }
+
+        private void runAll() {
+            List<Runnable> queued = new ArrayList<>(tasks);
+            tasks.clear();
+            queued.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Server whose memory budget is provided by the test
+     */
+    private static class TestServer extends NettyServer {
+        private final InflightMemoryBudget memoryBudget;
+
+        private TestServer(Url providerUrl, InvocationHandleable handler, InflightMemoryBudget memoryBudget) {
+            super(providerUrl, handler);
+            this.memoryBudget = memoryBudget;
+        }
+
+        @Override
+        public InflightMemoryBudget getMemoryBudget() {
+            return memoryBudget;
+        }
+    }
+
+    /**
+     * Invocation handler which records the requests and processes them by the behavior of the test
+     */
+    private static class TestInvocationHandler implements InvocationHandleable {
+        private final    List<Requestable>             requests = new CopyOnWriteArrayList<>();
+        private volatile Function<Requestable, Object> behavior = request -> "ok";
+
+        @Override
+        public Object handle(Channel channel, Object message) {
+            Requestable request = (Requestable) message;
+            requests.add(request);
+            return behavior.apply(request);
+        }
+    }
+}
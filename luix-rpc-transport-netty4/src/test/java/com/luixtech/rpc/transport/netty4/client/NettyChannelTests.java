@@ -0,0 +1,293 @@
+package com.luixtech.rpc.transport.netty4.client;
+
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.constant.ServiceConstants;
+import com.luixtech.rpc.core.exception.impl.RpcFrameworkException;
+import com.luixtech.rpc.core.server.response.Responseable;
+import com.luixtech.rpc.core.server.response.impl.RpcFutureResponse;
+import com.luixtech.rpc.core.url.Url;
+import com.luixtech.rpc.core.utils.CompressorHolder;
+import com.luixtech.rpc.core.utils.SerializerHolder;
+import com.luixtech.rpc.transport.netty4.NettyServerClientHandler;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NettyChannelTests {
+    private static final int                   REQUEST_TIMEOUT = 1000;
+    private static final long                  WAIT_TIME       = TimeUnit.SECONDS.toMillis(5);
+    private final        Url                   providerUrl     = Url.providerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 26010, "TestService");
+    private final        ManualTimer           timer           = new ManualTimer();
+    private final        DefaultEventLoopGroup group           = new DefaultEventLoopGroup(1);
+
+    @BeforeAll
+    public static void setUp() {
+        // They are initialized by protocol config in application
+        SerializerHolder.init();
+        CompressorHolder.init();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void removeResponseOnTimeout() throws Exception {
+        NettyChannel channel = new NettyChannel(new NettyClient(providerUrl), timer);
+        RpcFutureResponse response = createResponse(1L);
+        channel.registerResponse(response.getRequest(), response);
+        assertEquals(1, channel.getPendingCount());
+        assertEquals(1, timer.timeouts.size());
+        ManualTimeout timeout = timer.timeouts.get(0);
+        assertTrue(timeout.delay > 0 && timeout.delay <= REQUEST_TIMEOUT);
+
+        timeout.expire();
+        assertEquals(0, channel.getPendingCount());
+        assertTrue(response.isCancelled());
+        assertNull(channel.removeResponse(1L));
+    }
+
+    @Test
+    public void cancelTimeoutOnResponse() throws Exception {
+        NettyChannel channel = new NettyChannel(new NettyClient(providerUrl), timer);
+        RpcFutureResponse response = createResponse(1L);
+        channel.registerResponse(response.getRequest(), response);
+
+        assertSame(response, channel.removeResponse(1L));
+        ManualTimeout timeout = timer.timeouts.get(0);
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, channel.getPendingCount());
+    }
+
+    @Test
+    public void cancelTimeoutOnResponseBeforeArmed() throws Exception {
+        NettyChannel channel = new NettyChannel(new NettyClient(providerUrl), timer);
+        RpcFutureResponse response = createResponse(1L);
+        // The response arrives after the request was registered but before its timeout was armed
+        timer.beforeArming = () -> assertSame(response, channel.removeResponse(1L));
+        channel.registerResponse(response.getRequest(), response);
+
+        ManualTimeout timeout = timer.timeouts.get(0);
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, channel.getPendingCount());
+        assertFalse(response.isCancelled());
+    }
+
+    @Test
+    public void ignoreTimeoutOfRemovedResponse() throws Exception {
+        NettyChannel channel = new NettyChannel(new NettyClient(providerUrl), timer);
+        RpcFutureResponse response = createResponse(1L);
+        channel.registerResponse(response.getRequest(), response);
+        channel.removeResponse(1L);
+
+        // The timeout fired while the response was being removed
+        timer.timeouts.get(0).expire();
+        assertFalse(response.isCancelled());
+    }
+
+    @Test
+    public void failAsyncRequestOnUnwritableChannel() throws Exception {
+        providerUrl.addOption(ProtocolConstants.WRITABLE_WAIT_TIME, (int) WAIT_TIME);
+        NettyClient client = new NettyClient(providerUrl);
+        NettyChannel channel = new NettyChannel(client, timer);
+        io.netty.channel.Channel nettyChannel = connect(client, channel, "failAsyncRequestOnUnwritableChannel");
+        fillOutboundBuffer(nettyChannel);
+
+        long start = System.currentTimeMillis();
+        RpcFrameworkException e = assertThrows(RpcFrameworkException.class, () -> channel.request(createRequest(true)));
+        // The asynchronous request does not wait for the channel to become writable
+        assertTrue(System.currentTimeMillis() - start < WAIT_TIME);
+        assertTrue(e.getMessage().contains("high water mark"), e.getMessage());
+        assertEquals(0, channel.getPendingCount());
+        channel.close();
+    }
+
+    @Test
+    public void discardSyncRequestAfterWritableWaitTime() throws Exception {
+        int writableWaitTime = 50;
+        providerUrl.addOption(ProtocolConstants.WRITABLE_WAIT_TIME, writableWaitTime);
+        NettyClient client = new NettyClient(providerUrl);
+        NettyChannel channel = new NettyChannel(client, timer);
+        io.netty.channel.Channel nettyChannel = connect(client, channel, "discardSyncRequestAfterWritableWaitTime");
+        fillOutboundBuffer(nettyChannel);
+
+        long start = System.currentTimeMillis();
+        assertThrows(RpcFrameworkException.class, () -> channel.request(createRequest(false)));
+        assertTrue(System.currentTimeMillis() - start >= writableWaitTime);
+        assertEquals(0, channel.getPendingCount());
+        channel.close();
+    }
+
+    @Test
+    public void sendSyncRequestOnceWritable() throws Exception {
+        providerUrl.addOption(ProtocolConstants.WRITABLE_WAIT_TIME, (int) WAIT_TIME);
+        providerUrl.addOption(ServiceConstants.REQUEST_TIMEOUT, (int) WAIT_TIME);
+        NettyClient client = new NettyClient(providerUrl);
+        NettyChannel channel = new NettyChannel(client, timer);
+        io.netty.channel.Channel nettyChannel = connect(client, channel, "sendSyncRequestOnceWritable");
+        fillOutboundBuffer(nettyChannel);
+
+        AtomicReference<Object> result = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                result.set(channel.request(createRequest(false)));
+            } catch (RuntimeException e) {
+                result.set(e);
+            }
+        });
+        caller.start();
+        long deadline = System.currentTimeMillis() + WAIT_TIME;
+        while (caller.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the caller to block");
+            Thread.sleep(10);
+        }
+
+        // Drain the outbound buffer, and the writability change wakes up the caller
+        long start = System.currentTimeMillis();
+        nettyChannel.flush();
+        caller.join(WAIT_TIME);
+        assertTrue(System.currentTimeMillis() - start < WAIT_TIME);
+        assertTrue(result.get() instanceof Responseable, String.valueOf(result.get()));
+        assertEquals(1, channel.getPendingCount());
+        channel.close();
+    }
+
+    private RpcFutureResponse createResponse(long requestId) {
+        RpcRequest request = new RpcRequest(requestId, ProtocolConstants.PROTOCOL_VAL_LUIX, "TestService", "test", null, false);
+        return new RpcFutureResponse(request, REQUEST_TIMEOUT, providerUrl);
+    }
+
+    private RpcRequest createRequest(boolean async) {
+        RpcRequest request = new RpcRequest(0L, ProtocolConstants.PROTOCOL_VAL_LUIX, "TestService", "test", null, async);
+        request.setMethodArguments(new Object[0]);
+        return request;
+    }
+
+    /**
+     * Connect the channel to a local server whose outbound buffer has a small high water mark
+     *
+     * @param client  netty client
+     * @param channel client connection
+     * @param address local address of server
+     * @return connected netty channel
+     */
+    private io.netty.channel.Channel connect(NettyClient client, NettyChannel channel, String address) throws InterruptedException {
+        LocalAddress localAddress = new LocalAddress(address);
+        new ServerBootstrap().group(group).channel(LocalServerChannel.class)
+                .childHandler(new ChannelInboundHandlerAdapter()).bind(localAddress).sync();
+        io.netty.channel.Channel nettyChannel = new Bootstrap().group(group).channel(LocalChannel.class)
+                .option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(8, 16))
+                .handler(new NettyServerClientHandler(client, (c, message) -> null))
+                .connect(localAddress).sync().channel();
+        channel.bind(nettyChannel);
+        return nettyChannel;
+    }
+
+    /**
+     * Write without flushing to make the outbound buffer exceed the high water mark
+     *
+     * @param nettyChannel netty channel
+     */
+    private static void fillOutboundBuffer(io.netty.channel.Channel nettyChannel) throws InterruptedException {
+        nettyChannel.eventLoop().submit(() -> nettyChannel.write(Unpooled.wrappedBuffer(new byte[32]))).sync();
+        assertFalse(nettyChannel.isWritable());
+    }
+
+    /**
+     * Timer whose timeouts expire only when the test expires them
+     */
+    private static class ManualTimer implements Timer {
+        private final List<ManualTimeout> timeouts = new ArrayList<>();
+        private       Runnable            beforeArming;
+
+        @Override
+        public Timeout newTimeout(TimerTask task, long delay, TimeUnit unit) {
+            if (beforeArming != null) {
+                beforeArming.run();
+            }
+            ManualTimeout timeout = new ManualTimeout(this, task, unit.toMillis(delay));
+            timeouts.add(timeout);
+            return timeout;
+        }
+
+        @Override
+        public Set<Timeout> stop() {
+            return Collections.emptySet();
+        }
+    }
+
+    /**
+     * Timeout of {@link ManualTimer}
+     */
+    private static class ManualTimeout implements Timeout {
+        private final Timer     timer;
+        private final TimerTask task;
+        private final long      delay;
+        private       boolean   expired;
+        private       boolean   cancelled;
+
+        private ManualTimeout(Timer timer, TimerTask task, long delay) {
+            this.timer = timer;
+            this.task = task;
+            this.delay = delay;
+        }
+
+        private void expire() throws Exception {
+            expired = true;
+            task.run(this);
+        }
+
+        @Override
+        public Timer timer() {
+            return timer;
+        }
+
+        @Override
+        public TimerTask task() {
+            return task;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return expired;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (expired || cancelled) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+    }
+}
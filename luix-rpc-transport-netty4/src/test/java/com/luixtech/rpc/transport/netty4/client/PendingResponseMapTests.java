@@ -0,0 +1,112 @@
+package com.luixtech.rpc.transport.netty4.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PendingResponseMapTests {
+    private static final int SHARD_COUNT = 16;
+
+    @Test
+    public void rejectPutWhenShardIsFull() {
+        // Capacity of each shard: (20 + 15) / 16 = 2
+        PendingResponseMap<String> map = new PendingResponseMap<>(20);
+        assertTrue(map.put(1, "a"));
+        assertTrue(map.put(1 + SHARD_COUNT, "b"));
+        assertFalse(map.put(1 + SHARD_COUNT * 2, "c"));
+        assertNull(map.get(1 + SHARD_COUNT * 2));
+        assertEquals(2, map.size());
+
+        // The other shards are not affected
+        assertTrue(map.put(2, "d"));
+        assertEquals(3, map.size());
+
+        map.remove(1);
+        assertTrue(map.put(1 + SHARD_COUNT * 2, "c"));
+        assertEquals("c", map.get(1 + SHARD_COUNT * 2));
+    }
+
+    @Test
+    public void keepAtLeastOnePerShard() {
+        PendingResponseMap<String> map = new PendingResponseMap<>(0);
+        assertTrue(map.put(1, "a"));
+        assertFalse(map.put(1 + SHARD_COUNT, "b"));
+        assertTrue(map.put(2, "c"));
+    }
+
+    @Test
+    public void removeOnlyCurrentValue() {
+        PendingResponseMap<String> map = new PendingResponseMap<>(32);
+        String current = "current";
+        map.put(1, current);
+
+        assertFalse(map.remove(1, new String("current")));
+        assertFalse(map.remove(2, current));
+        assertTrue(map.containsKey(1));
+        assertEquals(1, map.size());
+
+        assertTrue(map.remove(1, current));
+        assertFalse(map.containsKey(1));
+        assertFalse(map.remove(1, current));
+        assertNull(map.remove(1));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void clearAllShards() {
+        PendingResponseMap<Long> map = new PendingResponseMap<>(1024);
+        for (long i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        assertEquals(100, map.size());
+
+        List<Long> removed = map.clear();
+        assertEquals(100, removed.size());
+        assertEquals(0, map.size());
+        assertNull(map.get(50));
+        assertTrue(map.clear().isEmpty());
+        assertTrue(map.put(50, 50L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void putAndRemoveConcurrently() throws Exception {
+        int threads = 8;
+        int requestsPerThread = 10_000;
+        PendingResponseMap<Long> map = new PendingResponseMap<>(threads * SHARD_COUNT);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?>[] futures = new Future<?>[threads];
+        for (int t = 0; t < threads; t++) {
+            long offset = (long) t * requestsPerThread;
+            futures[t] = executor.submit(() -> {
+                start.await();
+                for (long id = offset; id < offset + requestsPerThread; id++) {
+                    Long value = id;
+                    assertTrue(map.put(id, value));
+                    // Remove half of them by value and the others by ID only
+                    if (id % 2 == 0) {
+                        assertTrue(map.remove(id, value));
+                    } else {
+                        assertSame(value, map.remove(id));
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        assertEquals(0, map.size());
+        assertTrue(map.clear().isEmpty());
+    }
+}
@@ -0,0 +1,239 @@
+package com.luixtech.rpc.transport.netty4.codec;
+
+import com.luixtech.rpc.core.client.request.Requestable;
+import com.luixtech.rpc.core.client.request.impl.RpcRequest;
+import com.luixtech.rpc.core.codec.compressor.Compressor;
+import com.luixtech.rpc.core.codec.impl.CodecHeader;
+import com.luixtech.rpc.core.constant.ProtocolConstants;
+import com.luixtech.rpc.core.constant.ServiceConstants;
+import com.luixtech.rpc.core.exception.impl.RpcDeadlineExceededException;
+import com.luixtech.rpc.core.exception.impl.RpcInvocationException;
+import com.luixtech.rpc.core.exception.impl.RpcOverloadedException;
+import com.luixtech.rpc.core.exception.impl.RpcUnknownMethodIdException;
+import com.luixtech.rpc.core.server.response.impl.RpcResponse;
+import com.luixtech.rpc.core.server.stub.MethodInvoker;
+import com.luixtech.rpc.core.server.stub.ProviderMethodTable;
+import com.luixtech.rpc.core.server.stub.ProviderStub;
+import com.luixtech.rpc.core.url.Url;
+import com.luixtech.rpc.core.utils.CompressorHolder;
+import com.luixtech.rpc.core.utils.SerializerHolder;
+import com.luixtech.rpc.serializer.DeserializableArgs;
+import com.luixtech.rpc.serializer.DeserializableResult;
+import com.luixtech.rpc.serializer.Serializer;
+import com.luixtech.rpc.transport.netty4.client.NettyChannel;
+import com.luixtech.rpc.transport.netty4.client.NettyClient;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodecV3Tests {
+    private static final String  LARGE_TEXT = StringUtils.repeat("luix-rpc", 1024);
+    private final        CodecV3 codec      = new CodecV3();
+
+    @BeforeAll
+    public static void setUp() {
+        // They are initialized by protocol config in application
+        SerializerHolder.init();
+        CompressorHolder.init();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {ServiceConstants.COMPRESSOR_VAL_NONE, Compressor.COMPRESSOR_NAME_GZIP, Compressor.COMPRESSOR_NAME_DEFLATE,
+            Compressor.COMPRESSOR_NAME_LZ4, Compressor.COMPRESSOR_NAME_SNAPPY, Compressor.COMPRESSOR_NAME_ZSTD})
+    public void encodeAndDecodeRequestByMethodName(String compressor) throws Exception {
+        NettyChannel channel = createChannel(compressor, 0);
+        RpcRequest request = createRequest(GreetingService.class.getName(), "greet", String.class.getName(), LARGE_TEXT);
+        request.addOption(ServiceConstants.FORM, "name");
+        request.addOption(ProtocolConstants.SERIALIZER, Serializer.SERIALIZER_NAME_HESSIAN2);
+        request.addOption("customKey", "customValue");
+
+        byte[] frame = codec.encode(channel, request);
+        CodecHeader header = CodecHeader.buildHeader(frame);
+        assertEquals(!ServiceConstants.COMPRESSOR_VAL_NONE.equals(compressor), header.isCompressed());
+
+        RpcRequest decoded = (RpcRequest) codec.decode(channel, "127.0.0.1", frame);
+        assertEquals(request.getRequestId(), decoded.getRequestId());
+        assertEquals(0, decoded.getMethodId());
+        assertEquals(GreetingService.class.getName(), decoded.getInterfaceName());
+        assertEquals("greet", decoded.getMethodName());
+        assertEquals(String.class.getName(), decoded.getMethodParameters());
+        assertEquals("name", decoded.getOption(ServiceConstants.FORM));
+        assertEquals(Serializer.SERIALIZER_NAME_HESSIAN2, decoded.getOption(ProtocolConstants.SERIALIZER));
+        assertEquals("customValue", decoded.getOption("customKey"));
+        assertEquals(header.getCompressorId(), decoded.getCompressorId());
+        // The remaining time of default request timeout is converted to the deadline
+        assertTrue(decoded.getDeadline() > 0);
+        assertArrayEquals(new Object[]{LARGE_TEXT}, deserializeArgs(decoded, String.class));
+    }
+
+    @Test
+    public void encodeAndDecodeRequestByMethodId() throws Exception {
+        Method method = GreetingService.class.getMethod("greet", String.class);
+        ProviderStub<GreetingService> stub = new ProviderStub<>();
+        stub.setInterfaceClass(GreetingService.class);
+        stub.setInterfaceName(GreetingService.class.getName());
+        stub.setForm("methodId");
+        int methodId = ProviderMethodTable.getInstance().register(stub, new MethodInvoker(0, method, false));
+
+        RpcRequest request = createRequest(GreetingService.class.getName(), "greet", String.class.getName(), "world");
+        request.addOption(ServiceConstants.FORM, "methodId");
+        byte[] frameByName = codec.encode(createChannel(ServiceConstants.COMPRESSOR_VAL_NONE, 0), request);
+        NettyChannel channel = createChannel(ServiceConstants.COMPRESSOR_VAL_NONE, methodId);
+        byte[] frame = codec.encode(channel, request);
+        assertTrue(frame.length < frameByName.length);
+
+        RpcRequest decoded = (RpcRequest) codec.decode(channel, "127.0.0.1", frame);
+        assertEquals(methodId, decoded.getMethodId());
+        assertEquals(GreetingService.class.getName(), decoded.getInterfaceName());
+        assertEquals("greet", decoded.getMethodName());
+        assertEquals(String.class.getName(), decoded.getMethodParameters());
+        // Form is identified by method ID instead of being sent
+        assertEquals("methodId", decoded.getOption(ServiceConstants.FORM));
+        assertArrayEquals(new Object[]{"world"}, deserializeArgs(decoded, String.class));
+
+        ProviderMethodTable.getInstance().remove(stub.getInterfaceName(), stub.getForm(), stub.getVersion());
+        assertThrows(RpcUnknownMethodIdException.class, () -> codec.decode(channel, "127.0.0.1", frame));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {ServiceConstants.COMPRESSOR_VAL_NONE, Compressor.COMPRESSOR_NAME_GZIP, Compressor.COMPRESSOR_NAME_DEFLATE,
+            Compressor.COMPRESSOR_NAME_LZ4, Compressor.COMPRESSOR_NAME_SNAPPY, Compressor.COMPRESSOR_NAME_ZSTD})
+    public void encodeAndDecodeResponse(String compressor) throws Exception {
+        NettyChannel channel = createChannel(compressor, 0);
+        RpcResponse response = new RpcResponse();
+        response.setRequestId(2L);
+        response.setResult(LARGE_TEXT);
+        response.setElapsedTime(-5L);
+        response.setCompressorId(getCompressorId(compressor));
+        response.addOption(ServiceConstants.VERSION, "1.0.0");
+
+        byte[] frame = codec.encode(channel, response);
+        CodecHeader header = CodecHeader.buildHeader(frame);
+        assertFalse(header.isRequest());
+        assertEquals(CodecHeader.MessageStatus.NORMAL.getStatus(), header.getStatus());
+        assertEquals(response.getCompressorId() > 0, header.isCompressed());
+
+        RpcResponse decoded = (RpcResponse) codec.decode(channel, "127.0.0.1", frame);
+        assertEquals(2L, decoded.getRequestId());
+        assertEquals(-5L, decoded.getElapsedTime());
+        assertEquals("1.0.0", decoded.getOption(ServiceConstants.VERSION));
+        assertNull(decoded.getException());
+        assertEquals(LARGE_TEXT, ((DeserializableResult) decoded.getResult()).deserialize());
+    }
+
+    @Test
+    public void encodeAndDecodeErrorResponse() throws Exception {
+        NettyChannel channel = createChannel(ServiceConstants.COMPRESSOR_VAL_NONE, 0);
+        assertErrorResponse(channel, new RpcDeadlineExceededException("expired"),
+                CodecHeader.MessageStatus.DEADLINE_EXCEEDED, RpcDeadlineExceededException.class);
+        assertErrorResponse(channel, new RpcOverloadedException("overloaded"),
+                CodecHeader.MessageStatus.OVERLOADED, RpcOverloadedException.class);
+        assertErrorResponse(channel, new RpcUnknownMethodIdException("unknown"),
+                CodecHeader.MessageStatus.UNKNOWN_METHOD_ID, RpcUnknownMethodIdException.class);
+        assertErrorResponse(channel, new IllegalStateException("failed"),
+                CodecHeader.MessageStatus.EXCEPTION, RpcInvocationException.class);
+    }
+
+    @Test
+    public void encodeCancel() throws Exception {
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            codec.encodeCancel(3L, buf);
+            assertEquals(CodecHeader.HEADER_SIZE + 8, buf.readableBytes());
+            CodecHeader header = CodecHeader.buildHeader(buf.nioBuffer(0, CodecHeader.HEADER_SIZE));
+            assertTrue(header.isCancel());
+            assertTrue(header.isRequest());
+            assertEquals(CodecV3.VERSION, header.getVersion());
+            assertEquals(3L, header.getRequestId());
+            // Empty meta and body
+            assertEquals(0, buf.getInt(CodecHeader.HEADER_SIZE));
+            assertEquals(0, buf.getInt(CodecHeader.HEADER_SIZE + 4));
+        } finally {
+            buf.release();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {Compressor.COMPRESSOR_NAME_GZIP, Compressor.COMPRESSOR_NAME_DEFLATE,
+            Compressor.COMPRESSOR_NAME_LZ4, Compressor.COMPRESSOR_NAME_SNAPPY, Compressor.COMPRESSOR_NAME_ZSTD})
+    public void rejectDecompressedBodyOverMaxContentLength(String compressor) throws Exception {
+        RpcResponse response = new RpcResponse();
+        response.setRequestId(4L);
+        response.setResult(LARGE_TEXT);
+        response.setCompressorId(getCompressorId(compressor));
+        byte[] frame = codec.encode(createChannel(compressor, 0), response);
+        // The compressed frame is small enough, but the body exceeds the limit after decompression
+        int maxContentLength = LARGE_TEXT.length() / 2;
+        assertTrue(frame.length < maxContentLength);
+
+        Url providerUrl = createProviderUrl(compressor);
+        providerUrl.addOption(ProtocolConstants.MAX_CONTENT_LENGTH, maxContentLength);
+        NettyChannel channel = new NettyChannel(new NettyClient(providerUrl));
+        assertThrows(IOException.class, () -> codec.decode(channel, "127.0.0.1", frame));
+    }
+
+    private void assertErrorResponse(NettyChannel channel, Exception exception, CodecHeader.MessageStatus status,
+                                     Class<? extends Exception> decodedType) throws Exception {
+        RpcResponse response = new RpcResponse();
+        response.setRequestId(5L);
+        response.setException(exception);
+        byte[] frame = codec.encode(channel, response);
+        assertEquals(status.getStatus(), CodecHeader.buildHeader(frame).getStatus());
+
+        RpcResponse decoded = (RpcResponse) codec.decode(channel, "127.0.0.1", frame);
+        assertEquals(5L, decoded.getRequestId());
+        assertEquals(decodedType, decoded.getException().getClass());
+        assertTrue(decoded.getException().getMessage().contains(exception.getMessage()));
+    }
+
+    private static RpcRequest createRequest(String interfaceName, String methodName, String methodParameters, Object argument) {
+        RpcRequest request = new RpcRequest(1L, ProtocolConstants.PROTOCOL_VAL_LUIX, interfaceName, methodName, methodParameters, false);
+        request.setMethodArguments(new Object[]{argument});
+        return request;
+    }
+
+    private static Object[] deserializeArgs(RpcRequest request, Class<?>... paramTypes) throws IOException {
+        return ((DeserializableArgs) request.getMethodArguments()[0]).deserialize(paramTypes);
+    }
+
+    private static int getCompressorId(String compressor) {
+        return ServiceConstants.COMPRESSOR_VAL_NONE.equals(compressor) ? 0 : Compressor.getInstance(compressor).getCompressorId();
+    }
+
+    private static Url createProviderUrl(String compressor) {
+        Url providerUrl = Url.providerUrl(ProtocolConstants.PROTOCOL_VAL_LUIX, "127.0.0.1", 26010, GreetingService.class.getName());
+        providerUrl.addOption(ProtocolConstants.CODEC, ProtocolConstants.CODEC_VAL_V3);
+        providerUrl.addOption(ServiceConstants.COMPRESSOR, compressor);
+        providerUrl.addOption(ServiceConstants.COMPRESS_THRESHOLD, 1024);
+        return providerUrl;
+    }
+
+    /**
+     * Create the channel which is not connected
+     *
+     * @param compressor compressor name
+     * @param methodId   negotiated method ID of all the requests, 0 means no method ID
+     * @return channel
+     */
+    private static NettyChannel createChannel(String compressor, int methodId) {
+        return new NettyChannel(new NettyClient(createProviderUrl(compressor))) {
+            @Override
+            public int getMethodId(Requestable request) {
+                return methodId;
+            }
+        };
+    }
+
+    public interface GreetingService {
+        String greet(String name);
+    }
+}
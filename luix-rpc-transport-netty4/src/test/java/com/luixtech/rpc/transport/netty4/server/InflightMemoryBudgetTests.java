@@ -0,0 +1,98 @@
+package com.luixtech.rpc.transport.netty4.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InflightMemoryBudgetTests {
+    private final InflightMemoryBudget budget = new InflightMemoryBudget(100);
+
+    @Test
+    public void admitWithinLimit() {
+        assertTrue(budget.tryAcquire(60));
+        assertFalse(budget.tryAcquire(50));
+        assertEquals(60, budget.getUsed());
+        assertTrue(budget.tryAcquire(40));
+        assertEquals(100, budget.getUsed());
+        assertFalse(budget.tryAcquire(1));
+
+        budget.release(100);
+        assertEquals(0, budget.getUsed());
+    }
+
+    @Test
+    public void alwaysAdmitWhenNothingInflight() {
+        // The request larger than the budget does not starve
+        assertTrue(budget.tryAcquire(200));
+        assertFalse(budget.tryAcquire(1));
+        budget.release(200);
+        assertTrue(budget.tryAcquire(1));
+    }
+
+    @Test
+    public void acquireResponseRegardlessOfLimit() {
+        assertTrue(budget.tryAcquire(100));
+        budget.acquire(50);
+        assertEquals(150, budget.getUsed());
+        budget.release(150);
+        assertEquals(0, budget.getUsed());
+    }
+
+    @Test
+    public void resumeBelowThreshold() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        budget.acquire(100);
+        budget.suspend(channel);
+        assertTrue(budget.isSuspended(channel));
+        assertFalse(channel.config().isAutoRead());
+
+        budget.release(20);
+        assertTrue(budget.isSuspended(channel));
+        assertFalse(channel.config().isAutoRead());
+
+        budget.release(10);
+        assertFalse(budget.isSuspended(channel));
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    public void resumeImmediatelyIfReleasedBeforeSuspending() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        budget.suspend(channel);
+        assertFalse(budget.isSuspended(channel));
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    public void notResumeReadingOfUnwritableChannel() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+        channel.write(Unpooled.wrappedBuffer(new byte[32]));
+        assertFalse(channel.isWritable());
+        budget.acquire(100);
+        budget.suspend(channel);
+
+        budget.release(100);
+        assertFalse(budget.isSuspended(channel));
+        // The connection resumes reading after its responses are drained
+        assertFalse(channel.config().isAutoRead());
+        channel.flush();
+        ((ByteBuf) channel.readOutbound()).release();
+    }
+
+    @Test
+    public void forgetRemovedChannel() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        budget.acquire(100);
+        budget.suspend(channel);
+        budget.remove(channel);
+        assertFalse(budget.isSuspended(channel));
+
+        budget.release(100);
+        assertFalse(channel.config().isAutoRead());
+    }
+}